@@ -20,6 +20,9 @@ export interface ApiInfoResponse {
   retryCount: number
   cacheEnabled: boolean
   cacheTtl: number
+  cacheStaleWhileRevalidate: number
+  cacheStaleIfError: number
+  cacheVaryHeaders: string
   rateLimitEnabled: boolean
   rateLimitQps: number
   mockEnabled: boolean
@@ -113,6 +116,9 @@ export interface CreateApiRequest {
   retryCount?: number
   cacheEnabled?: boolean
   cacheTtl?: number
+  cacheStaleWhileRevalidate?: number
+  cacheStaleIfError?: number
+  cacheVaryHeaders?: string
   rateLimitEnabled?: boolean
   rateLimitQps?: number
   mockEnabled?: boolean
@@ -159,6 +165,9 @@ export interface UpdateApiRequest {
   retryCount?: number
   cacheEnabled?: boolean
   cacheTtl?: number
+  cacheStaleWhileRevalidate?: number
+  cacheStaleIfError?: number
+  cacheVaryHeaders?: string
   rateLimitEnabled?: boolean
   rateLimitQps?: number
   mockEnabled?: boolean
@@ -5,7 +5,7 @@ export interface RatelimitPolicy {
   name: string
   description?: string
   type: 'qps' | 'concurrency'
-  dimension: 'global' | 'ip' | 'path' | 'ip_path' | 'user'
+  dimension: 'global' | 'ip' | 'path' | 'ip_path' | 'user' | 'app' | 'tenant'
   limitValue: number
   timeWindow: number
   status?: string
@@ -52,6 +52,24 @@ public interface ApiPlatformDubboService {
      */
     ApiRouteDTO matchRouteByPath(String requestPath, String method);
 
+    /**
+     * 获取当前路由版本号
+     * <p>
+     * 每次路由变更版本号单调递增，网关据此判断是否遗漏了变更通知
+     * </p>
+     *
+     * @return 路由版本号，尚无变更时为0
+     */
+    long getRouteVersion();
+
+    /**
+     * 获取指定版本之后的路由变更
+     *
+     * @param version 网关本地路由版本号，传0获取全量快照
+     * @return 增量变更或全量快照
+     */
+    RouteChangesDTO getRouteChangesSince(long version);
+
     /**
      * 批量更新API调用次数
      * <p>
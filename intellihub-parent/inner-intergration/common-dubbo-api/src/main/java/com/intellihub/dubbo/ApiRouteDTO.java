@@ -3,6 +3,7 @@ package com.intellihub.dubbo;
 import lombok.Data;
 
 import java.io.Serializable;
+import java.util.List;
 
 /**
  * API路由DTO
@@ -26,10 +27,19 @@ public class ApiRouteDTO implements Serializable {
     private String mockResponse;
     private Boolean rateLimitEnabled;
     private Integer rateLimitQps;
+
+    // 生效的限流规则（已合并路由绑定的限流策略和API自身限流配置）
+    private List<RouteRateLimitDTO> rateLimits;
     
     // 缓存配置
     private Boolean cacheEnabled;
     private Integer cacheTtl;
+    // 过期后返回旧响应并异步刷新的时间（秒）
+    private Integer cacheStaleWhileRevalidate;
+    // 过期后后端出错时返回旧响应的时间（秒）
+    private Integer cacheStaleIfError;
+    // 参与缓存Key计算的请求头（小写、已排序）
+    private List<String> cacheVaryHeaders;
 
     // 后端配置
     private String backendType;
@@ -37,10 +47,14 @@ public class ApiRouteDTO implements Serializable {
     private String backendHost;
     private String backendPath;
     private String backendMethod;
+    // 后端连接超时（毫秒）
+    private Integer backendConnectTimeout;
 
     // Dubbo配置
     private String dubboInterface;
     private String dubboMethod;
     private String dubboVersion;
     private String dubboGroup;
+    // Dubbo方法参数声明（按方法参数顺序），为空时按请求中的参数推断
+    private List<RouteParamDTO> dubboParams;
 }
@@ -0,0 +1,44 @@
+package com.intellihub.dubbo;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 路由增量变更DTO
+ * <p>
+ * 网关按本地路由版本号拉取自该版本之后的变更：
+ * 1. fullSnapshot=false：routes 为新增/更新的路由，removedApiIds 为需移除的API
+ * 2. fullSnapshot=true：变更日志无法覆盖请求的版本（首次加载、日志已截断、包含全量刷新），routes 为全部已发布路由
+ * </p>
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+@Data
+public class RouteChangesDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 应用本次变更后的路由版本号
+     */
+    private long version;
+
+    /**
+     * 是否为全量快照
+     */
+    private boolean fullSnapshot;
+
+    /**
+     * 新增/更新的路由（全量快照时为全部路由）
+     */
+    private List<ApiRouteDTO> routes = new ArrayList<>();
+
+    /**
+     * 需要移除的API ID
+     */
+    private List<String> removedApiIds = new ArrayList<>();
+}
@@ -0,0 +1,45 @@
+package com.intellihub.dubbo;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 路由参数声明DTO
+ * <p>
+ * Dubbo后端API声明的请求参数，按方法参数顺序排列，网关据此预先编译参数绑定计划
+ * </p>
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+@Data
+public class RouteParamDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 参数名称，位置为body时可用点号表示嵌套字段，如 user.name
+     */
+    private String name;
+
+    /**
+     * 参数类型：string/integer/long/number/boolean/array/object，或参数类的全限定名
+     */
+    private String type;
+
+    /**
+     * 参数位置：path/query/body
+     */
+    private String location;
+
+    /**
+     * 是否必填
+     */
+    private Boolean required;
+
+    /**
+     * 默认值
+     */
+    private String defaultValue;
+}
@@ -0,0 +1,75 @@
+package com.intellihub.dubbo;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 路由生效的限流规则DTO
+ * <p>
+ * 由API平台在加载路由时根据路由绑定的限流策略和API自身的限流配置预先计算，网关直接读取
+ * </p>
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+@Data
+public class RouteRateLimitDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 维度：全局（策略内所有路由共享）
+     */
+    public static final String DIMENSION_GLOBAL = "global";
+
+    /**
+     * 维度：客户端IP（策略内所有路由共享）
+     */
+    public static final String DIMENSION_IP = "ip";
+
+    /**
+     * 维度：单个API
+     */
+    public static final String DIMENSION_PATH = "path";
+
+    /**
+     * 维度：客户端IP + 单个API
+     */
+    public static final String DIMENSION_IP_PATH = "ip_path";
+
+    /**
+     * 维度：调用用户（开放API中即调用应用）
+     */
+    public static final String DIMENSION_USER = "user";
+
+    /**
+     * 维度：调用应用
+     */
+    public static final String DIMENSION_APP = "app";
+
+    /**
+     * 维度：调用方租户
+     */
+    public static final String DIMENSION_TENANT = "tenant";
+
+    /**
+     * 来源策略ID，API自身的限流配置为null
+     */
+    private String policyId;
+
+    /**
+     * 限流维度
+     */
+    private String dimension;
+
+    /**
+     * 时间窗口内允许的请求数
+     */
+    private Integer limit;
+
+    /**
+     * 时间窗口（秒）
+     */
+    private Integer window;
+}
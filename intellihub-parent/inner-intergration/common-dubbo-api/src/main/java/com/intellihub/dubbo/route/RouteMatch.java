@@ -0,0 +1,36 @@
+package com.intellihub.dubbo.route;
+
+import com.intellihub.dubbo.ApiRouteDTO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * 路由匹配结果
+ * <p>
+ * 包含匹配到的路由配置，以及匹配过程中提取的路径参数（如 /open/user/{id} 中的 id）
+ * </p>
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+@Getter
+@AllArgsConstructor
+public class RouteMatch {
+
+    /**
+     * 匹配到的路由配置
+     */
+    private final ApiRouteDTO route;
+
+    /**
+     * 路径参数（参数名 -> 参数值），无路径参数时为空Map
+     */
+    private final Map<String, String> pathVariables;
+
+    public static RouteMatch of(ApiRouteDTO route) {
+        return new RouteMatch(route, Collections.<String, String>emptyMap());
+    }
+}
@@ -0,0 +1,519 @@
+package com.intellihub.dubbo.route;
+
+import com.intellihub.dubbo.ApiRouteDTO;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 路由前缀树（按请求方法分树）
+ * <p>
+ * 将路由路径按 "/" 切分为段后预编译为前缀树，匹配耗时只与请求路径的段数有关，与路由总数无关：
+ * 1. 普通段：按字面量精确匹配
+ * 2. {var} / * 段：匹配任意单段，{var} 会作为路径参数提取
+ * 3. 末尾的 ** 段：匹配剩余的零个或多个段
+ * 匹配优先级：字面量 &gt; 单段通配 &gt; 末尾 **，不命中时回溯。
+ * 末尾斜杠与 AntPathMatcher 一致：/a 与 /a/ 是两个不同的模板，分别只匹配不带和带末尾斜杠的请求；
+ * 末尾的 ** 不区分末尾斜杠；末尾的 * 还会匹配以斜杠结尾的上一级路径（/a/* 匹配 /a/）。
+ * 其余 AntPathMatcher 语法（如 {id:\d+}、user-*.json、中间位置的 **）无法编译为树节点，
+ * 退化为逐条 AntPathMatcher 匹配。
+ * </p>
+ * <p>
+ * 线程安全：读操作无锁；写操作（put/remove）串行执行，节点字段对读线程可见。
+ * </p>
+ * <p>
+ * 增量更新：{@link #copy()} 得到与原树共享全部节点的副本，之后任一棵树上的 put/remove
+ * 只复制从根到被修改节点路径上的节点（路径复制），另一棵树不受影响，无需重新编译全部路由。
+ * </p>
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+public class RouteTrie {
+
+    private static final String METHOD_ALL = "ALL";
+    private static final String SEGMENT_TAIL = "**";
+    private static final String SEGMENT_ANY = "*";
+
+    /**
+     * 请求方法 -> 根节点
+     */
+    private final Map<String, Node> roots = new ConcurrentHashMap<>();
+
+    /**
+     * API ID -> 已编译路由
+     */
+    private final Map<String, CompiledRoute> routesByApiId = new ConcurrentHashMap<>();
+
+    /**
+     * path:METHOD -> 已编译路由
+     */
+    private final Map<String, CompiledRoute> routesByKey = new ConcurrentHashMap<>();
+
+    /**
+     * 无法编译为树节点的路由，逐条使用AntPathMatcher匹配
+     */
+    private final List<CompiledRoute> fallbackRoutes = new CopyOnWriteArrayList<>();
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    /**
+     * 本树独占、可原地修改的节点；null 表示全部节点由本树独占（未与其他树共享）
+     */
+    private Set<Node> exclusiveNodes;
+
+    /**
+     * 批量构建前缀树
+     *
+     * @param routes 路由列表
+     * @return 新的前缀树
+     */
+    public static RouteTrie of(Collection<ApiRouteDTO> routes) {
+        RouteTrie trie = new RouteTrie();
+        for (ApiRouteDTO route : routes) {
+            trie.put(route);
+        }
+        return trie;
+    }
+
+    /**
+     * 复制前缀树：副本与原树共享全部节点，之后两棵树各自修改时只复制被修改的节点路径
+     *
+     * @return 新的前缀树
+     */
+    public synchronized RouteTrie copy() {
+        RouteTrie copy = new RouteTrie();
+        copy.roots.putAll(roots);
+        copy.routesByApiId.putAll(routesByApiId);
+        copy.routesByKey.putAll(routesByKey);
+        copy.fallbackRoutes.addAll(fallbackRoutes);
+        copy.exclusiveNodes = Collections.newSetFromMap(new IdentityHashMap<>());
+        exclusiveNodes = Collections.newSetFromMap(new IdentityHashMap<>());
+        return copy;
+    }
+
+    /**
+     * 添加或替换路由（同一API ID的旧路由会被先移除，以支持路径变更）
+     *
+     * @param route 路由配置
+     */
+    public synchronized void put(ApiRouteDTO route) {
+        if (route == null || route.getPath() == null || route.getMethod() == null) {
+            return;
+        }
+        if (route.getApiId() != null) {
+            remove(route.getApiId());
+        }
+
+        CompiledRoute compiled = compile(route);
+        CompiledRoute replaced = routesByKey.put(compiled.key, compiled);
+        if (replaced != null) {
+            if (replaced.route.getApiId() != null) {
+                routesByApiId.remove(replaced.route.getApiId(), replaced);
+            }
+            detach(replaced);
+        }
+        if (route.getApiId() != null) {
+            routesByApiId.put(route.getApiId(), compiled);
+        }
+
+        if (compiled.fallback) {
+            fallbackRoutes.add(compiled);
+            return;
+        }
+
+        Node node = writablePath(compiled);
+        if (compiled.tail) {
+            node.tail = compiled;
+        } else if (compiled.trailingSlash) {
+            node.slashTerminal = compiled;
+        } else {
+            node.terminal = compiled;
+        }
+    }
+
+    /**
+     * 根据API ID移除路由
+     *
+     * @param apiId API ID
+     * @return 被移除的路由，不存在时返回null
+     */
+    public synchronized ApiRouteDTO remove(String apiId) {
+        if (apiId == null) {
+            return null;
+        }
+        CompiledRoute compiled = routesByApiId.remove(apiId);
+        if (compiled == null) {
+            return null;
+        }
+        routesByKey.remove(compiled.key, compiled);
+        detach(compiled);
+        return compiled.route;
+    }
+
+    /**
+     * 根据路径模板和方法移除路由
+     *
+     * @param path   路径模板
+     * @param method 请求方法
+     * @return 被移除的路由，不存在时返回null
+     */
+    public synchronized ApiRouteDTO remove(String path, String method) {
+        CompiledRoute compiled = routesByKey.remove(buildKey(path, method));
+        if (compiled == null) {
+            return null;
+        }
+        if (compiled.route.getApiId() != null) {
+            routesByApiId.remove(compiled.route.getApiId(), compiled);
+        }
+        detach(compiled);
+        return compiled.route;
+    }
+
+    /**
+     * 匹配请求路径
+     *
+     * @param requestPath 实际请求路径
+     * @param method      请求方法
+     * @return 匹配结果，未匹配返回null
+     */
+    public RouteMatch match(String requestPath, String method) {
+        if (requestPath == null || method == null) {
+            return null;
+        }
+        String[] segments = split(requestPath);
+        boolean trailingSlash = requestPath.endsWith("/");
+        String methodKey = method.toUpperCase();
+
+        CompiledRoute compiled = find(roots.get(methodKey), segments, 0, trailingSlash);
+        if (compiled == null && !METHOD_ALL.equals(methodKey)) {
+            compiled = find(roots.get(METHOD_ALL), segments, 0, trailingSlash);
+        }
+        if (compiled != null) {
+            return new RouteMatch(compiled.route, extractVariables(compiled, segments));
+        }
+
+        for (CompiledRoute candidate : fallbackRoutes) {
+            if ((candidate.method.equals(methodKey) || METHOD_ALL.equals(candidate.method))
+                    && pathMatcher.match(candidate.route.getPath(), requestPath)) {
+                Map<String, String> variables = pathMatcher.extractUriTemplateVariables(candidate.route.getPath(), requestPath);
+                return new RouteMatch(candidate.route, variables);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 根据路径模板和方法精确获取路由
+     */
+    public ApiRouteDTO get(String path, String method) {
+        CompiledRoute compiled = routesByKey.get(buildKey(path, method));
+        return compiled != null ? compiled.route : null;
+    }
+
+    /**
+     * 根据API ID获取路由
+     */
+    public ApiRouteDTO getByApiId(String apiId) {
+        CompiledRoute compiled = apiId != null ? routesByApiId.get(apiId) : null;
+        return compiled != null ? compiled.route : null;
+    }
+
+    /**
+     * 是否存在指定路径模板和方法的路由
+     */
+    public boolean contains(String path, String method) {
+        return routesByKey.containsKey(buildKey(path, method));
+    }
+
+    /**
+     * 路由数量
+     */
+    public int size() {
+        return routesByKey.size();
+    }
+
+    /**
+     * 所有路由
+     */
+    public List<ApiRouteDTO> routes() {
+        List<ApiRouteDTO> routes = new ArrayList<>(routesByKey.size());
+        for (CompiledRoute compiled : routesByKey.values()) {
+            routes.add(compiled.route);
+        }
+        return routes;
+    }
+
+    // ==================== 内部实现 ====================
+
+    private CompiledRoute find(Node node, String[] segments, int index, boolean trailingSlash) {
+        if (node == null) {
+            return null;
+        }
+        if (index == segments.length) {
+            CompiledRoute terminal = trailingSlash ? node.slashTerminal : node.terminal;
+            if (terminal != null) {
+                return terminal;
+            }
+            if (trailingSlash) {
+                // 与 AntPathMatcher 一致：只剩一个 * 段时匹配以斜杠结尾的路径
+                CompiledRoute any = findTrailingAny(node.variable);
+                if (any != null) {
+                    return any;
+                }
+            }
+            // ** 可以匹配零个段
+            return node.tail;
+        }
+
+        Node literal = node.literals.get(segments[index]);
+        if (literal != null) {
+            CompiledRoute found = find(literal, segments, index + 1, trailingSlash);
+            if (found != null) {
+                return found;
+            }
+        }
+        Node variable = node.variable;
+        if (variable != null) {
+            CompiledRoute found = find(variable, segments, index + 1, trailingSlash);
+            if (found != null) {
+                return found;
+            }
+        }
+        return node.tail;
+    }
+
+    /**
+     * 单段通配节点上以匿名 * 结尾的路由（{var} 不匹配空段）
+     */
+    private static CompiledRoute findTrailingAny(Node variable) {
+        if (variable == null) {
+            return null;
+        }
+        CompiledRoute terminal = variable.terminal;
+        if (terminal != null && terminal.endsWithAny()) {
+            return terminal;
+        }
+        terminal = variable.slashTerminal;
+        return terminal != null && terminal.endsWithAny() ? terminal : null;
+    }
+
+    private Map<String, String> extractVariables(CompiledRoute compiled, String[] segments) {
+        if (!compiled.hasVariables) {
+            return Collections.emptyMap();
+        }
+        Map<String, String> variables = new LinkedHashMap<>(4);
+        String[] names = compiled.variableNames;
+        for (int i = 0; i < names.length && i < segments.length; i++) {
+            if (names[i] != null) {
+                variables.put(names[i], segments[i]);
+            }
+        }
+        return variables;
+    }
+
+    /**
+     * 将路由从所在的树节点或降级列表中摘除
+     */
+    private void detach(CompiledRoute compiled) {
+        if (compiled.fallback) {
+            fallbackRoutes.remove(compiled);
+            return;
+        }
+        Node node = roots.get(compiled.method);
+        String[] segments = compiled.segments;
+        int last = compiled.tail ? segments.length - 1 : segments.length;
+        for (int i = 0; i < last && node != null; i++) {
+            if (compiled.variableNames[i] != null || SEGMENT_ANY.equals(segments[i])) {
+                node = node.variable;
+            } else {
+                node = node.literals.get(segments[i]);
+            }
+        }
+        if (node == null || (node.tail != compiled && node.slashTerminal != compiled && node.terminal != compiled)) {
+            return;
+        }
+        // 确认路由挂在树上后再取可修改的路径，避免复制无关节点
+        node = writablePath(compiled);
+        if (compiled.tail) {
+            node.tail = null;
+        } else if (compiled.trailingSlash) {
+            node.slashTerminal = null;
+        } else {
+            node.terminal = null;
+        }
+    }
+
+    /**
+     * 获取路由所在的树节点，沿途不存在的节点新建，与其他树共享的节点先复制再替换到父节点上
+     */
+    private Node writablePath(CompiledRoute compiled) {
+        Node node = roots.get(compiled.method);
+        if (node == null || !isExclusive(node)) {
+            node = newNode(node);
+            roots.put(compiled.method, node);
+        }
+        String[] segments = compiled.segments;
+        int last = compiled.tail ? segments.length - 1 : segments.length;
+        for (int i = 0; i < last; i++) {
+            if (compiled.variableNames[i] != null || SEGMENT_ANY.equals(segments[i])) {
+                Node child = node.variable;
+                if (child == null || !isExclusive(child)) {
+                    child = newNode(child);
+                    node.variable = child;
+                }
+                node = child;
+            } else {
+                Node child = node.literals.get(segments[i]);
+                if (child == null || !isExclusive(child)) {
+                    child = newNode(child);
+                    node.literals.put(segments[i], child);
+                }
+                node = child;
+            }
+        }
+        return node;
+    }
+
+    private boolean isExclusive(Node node) {
+        return exclusiveNodes == null || exclusiveNodes.contains(node);
+    }
+
+    /**
+     * 新建节点，source 不为空时复制其内容
+     */
+    private Node newNode(Node source) {
+        Node node = new Node();
+        if (source != null) {
+            node.literals.putAll(source.literals);
+            node.variable = source.variable;
+            node.terminal = source.terminal;
+            node.slashTerminal = source.slashTerminal;
+            node.tail = source.tail;
+        }
+        if (exclusiveNodes != null) {
+            exclusiveNodes.add(node);
+        }
+        return node;
+    }
+
+    private CompiledRoute compile(ApiRouteDTO route) {
+        String path = route.getPath();
+        String[] segments = split(path);
+        String[] variableNames = new String[segments.length];
+        boolean fallback = false;
+        boolean tail = false;
+        boolean hasVariables = false;
+
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i];
+            if (SEGMENT_TAIL.equals(segment)) {
+                if (i == segments.length - 1) {
+                    tail = true;
+                } else {
+                    fallback = true;
+                }
+            } else if (SEGMENT_ANY.equals(segment)) {
+                // 匿名单段通配，无需提取
+            } else if (isSimpleVariable(segment)) {
+                variableNames[i] = segment.substring(1, segment.length() - 1);
+                hasVariables = true;
+            } else if (segment.indexOf('{') >= 0 || segment.indexOf('*') >= 0 || segment.indexOf('?') >= 0) {
+                fallback = true;
+            }
+        }
+
+        boolean trailingSlash = path.endsWith("/");
+        return new CompiledRoute(route, buildKey(path, route.getMethod()), route.getMethod().toUpperCase(),
+                segments, variableNames, hasVariables, tail, fallback, trailingSlash);
+    }
+
+    private static boolean isSimpleVariable(String segment) {
+        return segment.length() > 2
+                && segment.charAt(0) == '{'
+                && segment.charAt(segment.length() - 1) == '}'
+                && segment.indexOf('{', 1) < 0
+                && segment.indexOf(':') < 0;
+    }
+
+    /**
+     * 按 "/" 切分路径，忽略空段（与AntPathMatcher的分词行为一致）
+     */
+    private static String[] split(String path) {
+        List<String> segments = new ArrayList<>(8);
+        int start = 0;
+        int length = path.length();
+        for (int i = 0; i <= length; i++) {
+            if (i == length || path.charAt(i) == '/') {
+                if (i > start) {
+                    segments.add(path.substring(start, i));
+                }
+                start = i + 1;
+            }
+        }
+        return segments.toArray(new String[0]);
+    }
+
+    private static String buildKey(String path, String method) {
+        return path + ":" + method.toUpperCase();
+    }
+
+    /**
+     * 树节点
+     */
+    private static final class Node {
+        private final Map<String, Node> literals = new ConcurrentHashMap<>();
+        private volatile Node variable;
+        /**
+         * 不以斜杠结尾的模板（/a）
+         */
+        private volatile CompiledRoute terminal;
+        /**
+         * 以斜杠结尾的模板（/a/）
+         */
+        private volatile CompiledRoute slashTerminal;
+        private volatile CompiledRoute tail;
+    }
+
+    /**
+     * 预编译的路由
+     */
+    private static final class CompiledRoute {
+        private final ApiRouteDTO route;
+        private final String key;
+        private final String method;
+        private final String[] segments;
+        private final String[] variableNames;
+        private final boolean hasVariables;
+        private final boolean tail;
+        private final boolean fallback;
+        private final boolean trailingSlash;
+
+        private CompiledRoute(ApiRouteDTO route, String key, String method, String[] segments,
+                              String[] variableNames, boolean hasVariables, boolean tail,
+                              boolean fallback, boolean trailingSlash) {
+            this.route = route;
+            this.key = key;
+            this.method = method;
+            this.segments = segments;
+            this.variableNames = variableNames;
+            this.hasVariables = hasVariables;
+            this.tail = tail;
+            this.fallback = fallback;
+            this.trailingSlash = trailingSlash;
+        }
+
+        private boolean endsWithAny() {
+            return segments.length > 0 && SEGMENT_ANY.equals(segments[segments.length - 1]);
+        }
+    }
+}
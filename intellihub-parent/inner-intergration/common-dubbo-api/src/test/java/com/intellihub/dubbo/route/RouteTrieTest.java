@@ -0,0 +1,227 @@
+package com.intellihub.dubbo.route;
+
+import com.intellihub.dubbo.ApiRouteDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * RouteTrie 测试
+ *
+ * @author intellihub
+ */
+public class RouteTrieTest {
+
+    @Test
+    public void testLiteral() {
+        RouteTrie trie = RouteTrie.of(Arrays.asList(
+                route("1", "/open/user", "GET"),
+                route("2", "/open/user/list", "GET")));
+
+        assertEquals("1", matchedApiId(trie, "/open/user", "GET"));
+        assertEquals("2", matchedApiId(trie, "/open/user/list", "GET"));
+        assertNull(trie.match("/open/user/list/1", "GET"));
+        assertNull(trie.match("/open", "GET"));
+        assertNull(trie.match("/open/user", "POST"));
+    }
+
+    @Test
+    public void testVariable() {
+        RouteTrie trie = RouteTrie.of(Collections.singletonList(route("1", "/open/user/{id}/order/{orderId}", "GET")));
+
+        RouteMatch match = trie.match("/open/user/42/order/7", "GET");
+        assertNotNull(match);
+        assertEquals("1", match.getRoute().getApiId());
+        assertEquals("42", match.getPathVariables().get("id"));
+        assertEquals("7", match.getPathVariables().get("orderId"));
+        assertNull(trie.match("/open/user/42/order", "GET"));
+    }
+
+    @Test
+    public void testSingleWildcard() {
+        RouteTrie trie = RouteTrie.of(Collections.singletonList(route("1", "/open/*/info", "GET")));
+
+        RouteMatch match = trie.match("/open/user/info", "GET");
+        assertNotNull(match);
+        assertTrue(match.getPathVariables().isEmpty());
+        assertNull(trie.match("/open/user/detail/info", "GET"));
+    }
+
+    @Test
+    public void testTailWildcard() {
+        RouteTrie trie = RouteTrie.of(Collections.singletonList(route("1", "/open/file/**", "GET")));
+
+        assertEquals("1", matchedApiId(trie, "/open/file", "GET"));
+        assertEquals("1", matchedApiId(trie, "/open/file/", "GET"));
+        assertEquals("1", matchedApiId(trie, "/open/file/a/b/c", "GET"));
+        assertEquals("1", matchedApiId(trie, "/open/file/a/b/c/", "GET"));
+        assertNull(trie.match("/open/files", "GET"));
+    }
+
+    /**
+     * 字面量优先于单段通配，单段通配优先于末尾 **，更具体的分支不命中时回溯
+     */
+    @Test
+    public void testPriority() {
+        RouteTrie trie = RouteTrie.of(Arrays.asList(
+                route("tail", "/open/user/**", "GET"),
+                route("var", "/open/user/{id}", "GET"),
+                route("literal", "/open/user/me", "GET"),
+                route("deep", "/open/user/me/profile", "GET")));
+
+        assertEquals("literal", matchedApiId(trie, "/open/user/me", "GET"));
+        assertEquals("var", matchedApiId(trie, "/open/user/42", "GET"));
+        assertEquals("deep", matchedApiId(trie, "/open/user/me/profile", "GET"));
+        // 字面量分支 me 下没有 settings，回溯到 **
+        assertEquals("tail", matchedApiId(trie, "/open/user/me/settings", "GET"));
+        assertEquals("tail", matchedApiId(trie, "/open/user/42/orders", "GET"));
+    }
+
+    @Test
+    public void testMethodAll() {
+        RouteTrie trie = RouteTrie.of(Arrays.asList(
+                route("get", "/open/user", "GET"),
+                route("all", "/open/user", "ALL")));
+
+        assertEquals("get", matchedApiId(trie, "/open/user", "GET"));
+        assertEquals("all", matchedApiId(trie, "/open/user", "post"));
+    }
+
+    /**
+     * 无法编译为树节点的模板退化为 AntPathMatcher 匹配
+     */
+    @Test
+    public void testFallback() {
+        RouteTrie trie = RouteTrie.of(Arrays.asList(
+                route("regex", "/open/user/{id:\\d+}", "GET"),
+                route("suffix", "/open/file/*.json", "GET"),
+                route("middle", "/open/**/detail", "GET")));
+
+        RouteMatch match = trie.match("/open/user/42", "GET");
+        assertNotNull(match);
+        assertEquals("regex", match.getRoute().getApiId());
+        assertEquals("42", match.getPathVariables().get("id"));
+        assertNull(trie.match("/open/user/abc", "GET"));
+        assertEquals("suffix", matchedApiId(trie, "/open/file/a.json", "GET"));
+        assertEquals("middle", matchedApiId(trie, "/open/a/b/detail", "GET"));
+    }
+
+    @Test
+    public void testTrailingSlash() {
+        RouteTrie trie = RouteTrie.of(Arrays.asList(
+                route("plain", "/open/user", "GET"),
+                route("slash", "/open/user/", "GET"),
+                route("only-plain", "/open/order", "GET"),
+                route("only-slash", "/open/item/", "GET")));
+
+        // /a 与 /a/ 是两个路由，互不覆盖
+        assertEquals(4, trie.size());
+        assertEquals("plain", matchedApiId(trie, "/open/user", "GET"));
+        assertEquals("slash", matchedApiId(trie, "/open/user/", "GET"));
+        assertNull(trie.match("/open/order/", "GET"));
+        assertNull(trie.match("/open/item", "GET"));
+        assertEquals("only-slash", matchedApiId(trie, "/open/item/", "GET"));
+
+        trie.remove("slash");
+        assertEquals("plain", matchedApiId(trie, "/open/user", "GET"));
+        assertNull(trie.match("/open/user/", "GET"));
+    }
+
+    @Test
+    public void testRemoveAndReplace() {
+        RouteTrie trie = RouteTrie.of(Collections.singletonList(route("1", "/open/user/{id}", "GET")));
+
+        trie.put(route("1", "/open/member/{id}", "GET"));
+        assertNull(trie.match("/open/user/1", "GET"));
+        assertEquals("1", matchedApiId(trie, "/open/member/1", "GET"));
+        assertEquals(1, trie.size());
+
+        trie.remove("1");
+        assertNull(trie.match("/open/member/1", "GET"));
+        assertEquals(0, trie.size());
+    }
+
+    /**
+     * 副本与原树共享节点，任一方的修改不影响另一方
+     */
+    @Test
+    public void testCopyIsolation() {
+        RouteTrie original = RouteTrie.of(Arrays.asList(
+                route("user", "/open/user/{id}", "GET"),
+                route("order", "/open/order/{id}", "GET"),
+                route("file", "/open/file/**", "GET"),
+                route("regex", "/open/item/{id:\\d+}", "GET")));
+
+        RouteTrie copy = original.copy();
+        copy.remove("user");
+        copy.put(route("order", "/open/order/{id}/detail", "GET"));
+        copy.put(route("member", "/open/user/{id}/member", "GET"));
+        copy.remove("regex");
+
+        assertEquals("user", matchedApiId(original, "/open/user/1", "GET"));
+        assertEquals("order", matchedApiId(original, "/open/order/1", "GET"));
+        assertNull(original.match("/open/order/1/detail", "GET"));
+        assertNull(original.match("/open/user/1/member", "GET"));
+        assertEquals("regex", matchedApiId(original, "/open/item/1", "GET"));
+        assertEquals(4, original.size());
+
+        assertNull(copy.match("/open/user/1", "GET"));
+        assertNull(copy.match("/open/order/1", "GET"));
+        assertEquals("order", matchedApiId(copy, "/open/order/1/detail", "GET"));
+        assertEquals("member", matchedApiId(copy, "/open/user/1/member", "GET"));
+        assertEquals("file", matchedApiId(copy, "/open/file/a/b", "GET"));
+        assertNull(copy.match("/open/item/1", "GET"));
+        assertEquals(3, copy.size());
+
+        // 原树之后的修改同样不影响副本
+        original.remove("file");
+        original.put(route("user", "/open/user/me", "GET"));
+        assertNull(original.match("/open/file/a", "GET"));
+        assertEquals("file", matchedApiId(copy, "/open/file/a", "GET"));
+        assertEquals("member", matchedApiId(copy, "/open/user/1/member", "GET"));
+        assertNull(copy.match("/open/user/me", "GET"));
+    }
+
+    /**
+     * 单条路由时，是否匹配与 AntPathMatcher 一致
+     */
+    @Test
+    public void testConsistentWithAntPathMatcher() {
+        String[] patterns = {
+                "/", "/a", "/a/", "/a/b", "/a/{id}", "/a/{id}/", "/a/*", "/a/*/", "/a/*/c",
+                "/a/**", "/**", "/a/{id}/**", "/a/{id:\\d+}", "/a/**/c"
+        };
+        String[] paths = {
+                "/", "/a", "/a/", "/a/b", "/a/b/", "/a/1", "/a/1/", "/a/b/c", "/a/b/c/", "/a//b", "/b"
+        };
+        AntPathMatcher matcher = new AntPathMatcher();
+        for (String pattern : patterns) {
+            RouteTrie trie = RouteTrie.of(Collections.singletonList(route("1", pattern, "GET")));
+            for (String path : paths) {
+                boolean expected = matcher.match(pattern, path);
+                boolean actual = trie.match(path, "GET") != null;
+                assertEquals(expected, actual, "pattern=" + pattern + ", path=" + path);
+            }
+        }
+    }
+
+    private static String matchedApiId(RouteTrie trie, String path, String method) {
+        RouteMatch match = trie.match(path, method);
+        return match != null ? match.getRoute().getApiId() : null;
+    }
+
+    private static ApiRouteDTO route(String apiId, String path, String method) {
+        ApiRouteDTO route = new ApiRouteDTO();
+        route.setApiId(apiId);
+        route.setPath(path);
+        route.setMethod(method);
+        return route;
+    }
+}
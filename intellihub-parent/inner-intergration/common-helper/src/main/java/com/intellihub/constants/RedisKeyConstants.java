@@ -45,6 +45,11 @@ public class RedisKeyConstants {
      */
     public static final String GATEWAY_RATE_LIMIT_PREFIX = "intellihub:gateway:ratelimit:";
 
+    /**
+     * 应用配额计数前缀（app-center按日重置）
+     */
+    public static final String APP_QUOTA_PREFIX = "app:quota:";
+
     /**
      * 订阅关系缓存前缀
      */
@@ -60,6 +65,17 @@ public class RedisKeyConstants {
      */
     public static final String NONCE_PREFIX = "intellihub:nonce:";
 
+    /**
+     * Nonce布隆过滤器前缀（位图，按请求时间戳分桶）
+     * 完整Key格式: intellihub:nonce:bloom:{时间桶序号}
+     */
+    public static final String NONCE_BLOOM_PREFIX = "intellihub:nonce:bloom:";
+
+    /**
+     * 已注销的Token（ZSet，member为Token摘要，score为Token过期时间毫秒数）
+     */
+    public static final String TOKEN_REVOKED_KEY = "intellihub:token:revoked";
+
     // ==================== 统计相关 ====================
 
     /**
@@ -145,6 +161,16 @@ public class RedisKeyConstants {
         return ALERT_QPS_PREFIX + tenantId + ":" + minute;
     }
 
+    /**
+     * API路由版本号（每次路由变更自增）
+     */
+    public static final String API_ROUTE_VERSION_KEY = "intellihub:api:route:version";
+
+    /**
+     * API路由变更日志（ZSet，score为版本号）
+     */
+    public static final String API_ROUTE_CHANGELOG_KEY = "intellihub:api:route:changelog";
+
     // ==================== 消息频道 ====================
 
     /**
@@ -157,6 +183,17 @@ public class RedisKeyConstants {
      */
     public static final String CHANNEL_APP_STATUS_CHANGE = "intellihub:channel:app:status:change";
 
+    /**
+     * 应用订阅关系变更消息频道
+     */
+    public static final String CHANNEL_APP_SUBSCRIPTION_CHANGE = "intellihub:channel:app:subscription:change";
+
+    /**
+     * Token注销消息频道
+     * 消息格式: {Token摘要}:{Token过期时间毫秒数}
+     */
+    public static final String CHANNEL_TOKEN_REVOKED = "intellihub:channel:token:revoked";
+
     // ==================== TTL (秒) ====================
 
     /**
@@ -217,6 +254,13 @@ public class RedisKeyConstants {
         return GATEWAY_APPKEY_INFO_PREFIX + appKey;
     }
 
+    /**
+     * 构建应用配额计数Key
+     */
+    public static String buildAppQuotaKey(String appId) {
+        return APP_QUOTA_PREFIX + appId;
+    }
+
     /**
      * 构建订阅路径Key
      */
@@ -245,6 +289,13 @@ public class RedisKeyConstants {
         return NONCE_PREFIX + appKey + ":" + nonce;
     }
 
+    /**
+     * 构建Nonce布隆过滤器Key
+     */
+    public static String buildNonceBloomKey(long bucket) {
+        return NONCE_BLOOM_PREFIX + bucket;
+    }
+
     /**
      * 构建限流Key
      */
@@ -61,6 +61,11 @@ public class ApiRouteChangeEvent implements Serializable {
      */
     private long timestamp;
 
+    /**
+     * 路由版本号（发布时分配，0表示未分配版本的旧消息）
+     */
+    private long version;
+
     public ApiRouteChangeEvent() {
         this.timestamp = System.currentTimeMillis();
     }
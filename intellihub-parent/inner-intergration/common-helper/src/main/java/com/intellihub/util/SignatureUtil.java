@@ -4,6 +4,7 @@ import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
 import java.security.InvalidKeyException;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.Base64;
 import java.util.Map;
@@ -53,7 +54,7 @@ public class SignatureUtil {
      */
     public static boolean verifySignature(Map<String, String> params, String signature, String appSecret) {
         String expectedSignature = generateSignature(params, appSecret);
-        return expectedSignature.equals(signature);
+        return constantTimeEquals(expectedSignature, signature);
     }
 
     /**
@@ -91,23 +92,18 @@ public class SignatureUtil {
      */
     public static boolean verifySignature(String signature, String method, String path, 
             String timestamp, String nonce, String appSecret) {
-        String signData = method.toUpperCase() + path + timestamp + nonce;
-        String expectedSignature = hmacSha256(signData, appSecret);
-        
-        // 添加调试日志
-        System.out.println("========== 签名验证调试 ==========");
-        System.out.println("Method: " + method);
-        System.out.println("Path: " + path);
-        System.out.println("Timestamp: " + timestamp);
-        System.out.println("Nonce: " + nonce);
-        System.out.println("AppSecret: " + appSecret);
-        System.out.println("SignData: " + signData);
-        System.out.println("客户端签名: " + signature);
-        System.out.println("服务端签名: " + expectedSignature);
-        System.out.println("签名匹配: " + expectedSignature.equals(signature));
-        System.out.println("==================================");
-        
-        return expectedSignature.equals(signature);
+        String expectedSignature = generateSignature(method, path, timestamp, nonce, appSecret);
+        return constantTimeEquals(expectedSignature, signature);
+    }
+
+    /**
+     * 比较签名，耗时与签名内容无关
+     */
+    private static boolean constantTimeEquals(String expected, String actual) {
+        if (actual == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(expected.getBytes(StandardCharsets.UTF_8), actual.getBytes(StandardCharsets.UTF_8));
     }
 
     /**
@@ -0,0 +1,43 @@
+package com.intellihub.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * Token摘要工具类
+ * <p>
+ * 注销Token的广播与网关本地缓存都以摘要标识Token，不传递、不保存原始Token。
+ * 摘要为 Base64Url(SHA-256(token))，不含填充，固定43个字符
+ * </p>
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+public class TokenHashUtil {
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    private TokenHashUtil() {
+    }
+
+    /**
+     * 计算Token摘要
+     *
+     * @param token Token（不含Bearer前缀）
+     * @return 摘要
+     */
+    public static String hash(String token) {
+        MessageDigest digest = SHA256.get();
+        digest.reset();
+        byte[] hash = digest.digest(token.getBytes(StandardCharsets.UTF_8));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+    }
+}
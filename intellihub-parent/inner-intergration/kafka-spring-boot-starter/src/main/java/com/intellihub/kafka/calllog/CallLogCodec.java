@@ -0,0 +1,433 @@
+package com.intellihub.kafka.calllog;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * 调用日志编解码
+ * <p>
+ * 二进制格式（版本1），字段顺序固定：
+ * <pre>
+ * byte    版本号 = 1
+ * byte    标志位：bit0 有状态码，bit1 有成功标记，bit2 成功，bit3 有延迟
+ * varlong 请求时间（毫秒时间戳）
+ * varint  状态码（有状态码时）
+ * varint  延迟，ZigZag编码（有延迟时）
+ * string  tenantId, apiId, apiPath, apiMethod, appId, appKey, clientIp, errorMessage, userAgent
+ * </pre>
+ * string 为 varint(UTF-8字节数 + 1) + UTF-8字节，长度0表示null。
+ * </p>
+ * 解码同时兼容旧版JSON格式（首个非空白字节为 '{'），新旧网关可以混合部署。
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+public final class CallLogCodec {
+
+    /**
+     * 当前二进制格式版本
+     */
+    public static final byte VERSION_1 = 1;
+
+    private static final int FLAG_STATUS_CODE = 1;
+    private static final int FLAG_SUCCESS_PRESENT = 1 << 1;
+    private static final int FLAG_SUCCESS = 1 << 2;
+    private static final int FLAG_LATENCY = 1 << 3;
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private CallLogCodec() {
+    }
+
+    /**
+     * 编码为二进制格式，一次计算长度、一次写入，只分配结果数组
+     *
+     * @param record 调用日志
+     * @return 编码结果
+     */
+    public static byte[] encode(CallLogRecord record) {
+        int flags = 0;
+        int size = 2 + varLongSize(record.getRequestTime());
+        if (record.getStatusCode() != null) {
+            flags |= FLAG_STATUS_CODE;
+            size += varIntSize(record.getStatusCode());
+        }
+        if (record.getSuccess() != null) {
+            flags |= FLAG_SUCCESS_PRESENT;
+            if (record.getSuccess()) {
+                flags |= FLAG_SUCCESS;
+            }
+        }
+        if (record.getLatency() != null) {
+            flags |= FLAG_LATENCY;
+            size += varIntSize(zigZag(record.getLatency()));
+        }
+        size += stringSize(record.getTenantId()) + stringSize(record.getApiId()) + stringSize(record.getApiPath())
+                + stringSize(record.getApiMethod()) + stringSize(record.getAppId()) + stringSize(record.getAppKey())
+                + stringSize(record.getClientIp()) + stringSize(record.getErrorMessage())
+                + stringSize(record.getUserAgent());
+
+        Writer writer = new Writer(new byte[size]);
+        writer.buffer[writer.position++] = VERSION_1;
+        writer.buffer[writer.position++] = (byte) flags;
+        writer.writeVarLong(record.getRequestTime());
+        if (record.getStatusCode() != null) {
+            writer.writeVarInt(record.getStatusCode());
+        }
+        if (record.getLatency() != null) {
+            writer.writeVarInt(zigZag(record.getLatency()));
+        }
+        writer.writeString(record.getTenantId());
+        writer.writeString(record.getApiId());
+        writer.writeString(record.getApiPath());
+        writer.writeString(record.getApiMethod());
+        writer.writeString(record.getAppId());
+        writer.writeString(record.getAppKey());
+        writer.writeString(record.getClientIp());
+        writer.writeString(record.getErrorMessage());
+        writer.writeString(record.getUserAgent());
+        return writer.buffer;
+    }
+
+    /**
+     * 编码为旧版JSON格式（字段与旧版网关一致），用于治理服务升级完成前的过渡
+     *
+     * @param record 调用日志
+     * @return UTF-8编码的JSON
+     */
+    public static byte[] encodeJson(CallLogRecord record) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(320);
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeStringField("tenantId", record.getTenantId());
+            generator.writeStringField("apiId", record.getApiId());
+            generator.writeStringField("apiPath", record.getApiPath());
+            generator.writeStringField("apiMethod", record.getApiMethod());
+            generator.writeStringField("appId", record.getAppId());
+            generator.writeStringField("appKey", record.getAppKey());
+            generator.writeStringField("clientIp", record.getClientIp());
+            generator.writeFieldName("statusCode");
+            writeNullableInt(generator, record.getStatusCode());
+            generator.writeFieldName("success");
+            if (record.getSuccess() != null) {
+                generator.writeBoolean(record.getSuccess());
+            } else {
+                generator.writeNull();
+            }
+            generator.writeFieldName("latency");
+            writeNullableInt(generator, record.getLatency());
+            generator.writeStringField("errorMessage", record.getErrorMessage());
+            generator.writeStringField("userAgent", record.getUserAgent());
+            generator.writeStringField("requestTime", LocalDateTime.ofInstant(
+                    Instant.ofEpochMilli(record.getRequestTime()), ZoneId.systemDefault()).toString());
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new IllegalStateException("调用日志JSON编码失败", e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 解码，自动识别二进制格式和旧版JSON格式
+     *
+     * @param data 消息体
+     * @return 调用日志，data为空时返回null
+     * @throws IllegalArgumentException 版本不支持或数据损坏
+     */
+    public static CallLogRecord decode(byte[] data) {
+        if (data == null || data.length == 0) {
+            return null;
+        }
+        byte first = data[0];
+        if (first == VERSION_1) {
+            return decodeBinary(data);
+        }
+        if (first == '{' || first == ' ' || first == '\t' || first == '\r' || first == '\n') {
+            return decodeJson(data);
+        }
+        throw new IllegalArgumentException("不支持的调用日志格式版本: " + first);
+    }
+
+    private static CallLogRecord decodeBinary(byte[] data) {
+        Reader reader = new Reader(data);
+        try {
+            reader.position = 1;
+            int flags = data[reader.position++];
+            CallLogRecord record = new CallLogRecord();
+            record.setRequestTime(reader.readVarLong());
+            if ((flags & FLAG_STATUS_CODE) != 0) {
+                record.setStatusCode(reader.readVarInt());
+            }
+            if ((flags & FLAG_SUCCESS_PRESENT) != 0) {
+                record.setSuccess((flags & FLAG_SUCCESS) != 0);
+            }
+            if ((flags & FLAG_LATENCY) != 0) {
+                int zigZag = reader.readVarInt();
+                record.setLatency((zigZag >>> 1) ^ -(zigZag & 1));
+            }
+            record.setTenantId(reader.readString());
+            record.setApiId(reader.readString());
+            record.setApiPath(reader.readString());
+            record.setApiMethod(reader.readString());
+            record.setAppId(reader.readString());
+            record.setAppKey(reader.readString());
+            record.setClientIp(reader.readString());
+            record.setErrorMessage(reader.readString());
+            record.setUserAgent(reader.readString());
+            return record;
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("调用日志数据不完整: length=" + data.length, e);
+        }
+    }
+
+    private static CallLogRecord decodeJson(byte[] data) {
+        CallLogRecord record = new CallLogRecord();
+        try (JsonParser parser = JSON_FACTORY.createParser(data)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("调用日志JSON格式错误");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken token = parser.nextToken();
+                if (token == JsonToken.VALUE_NULL) {
+                    continue;
+                }
+                switch (field) {
+                    case "tenantId":
+                        record.setTenantId(parser.getValueAsString());
+                        break;
+                    case "apiId":
+                        record.setApiId(parser.getValueAsString());
+                        break;
+                    case "apiPath":
+                        record.setApiPath(parser.getValueAsString());
+                        break;
+                    case "apiMethod":
+                        record.setApiMethod(parser.getValueAsString());
+                        break;
+                    case "appId":
+                        record.setAppId(parser.getValueAsString());
+                        break;
+                    case "appKey":
+                        record.setAppKey(parser.getValueAsString());
+                        break;
+                    case "clientIp":
+                        record.setClientIp(parser.getValueAsString());
+                        break;
+                    case "statusCode":
+                        record.setStatusCode(parser.getValueAsInt());
+                        break;
+                    case "success":
+                        record.setSuccess(parser.getValueAsBoolean());
+                        break;
+                    case "latency":
+                        record.setLatency(parser.getValueAsInt());
+                        break;
+                    case "errorMessage":
+                        record.setErrorMessage(parser.getValueAsString());
+                        break;
+                    case "userAgent":
+                        record.setUserAgent(parser.getValueAsString());
+                        break;
+                    case "requestTime":
+                        record.setRequestTime(parseLegacyTime(parser.getValueAsString()));
+                        break;
+                    default:
+                        parser.skipChildren();
+                        break;
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("调用日志JSON解析失败", e);
+        }
+        if (record.getRequestTime() == 0) {
+            record.setRequestTime(System.currentTimeMillis());
+        }
+        return record;
+    }
+
+    /**
+     * 旧版请求时间为网关本地时间的 LocalDateTime 字符串
+     */
+    private static long parseLegacyTime(String text) {
+        if (text == null) {
+            return 0;
+        }
+        try {
+            return LocalDateTime.parse(text).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+
+    private static void writeNullableInt(JsonGenerator generator, Integer value) throws IOException {
+        if (value != null) {
+            generator.writeNumber(value);
+        } else {
+            generator.writeNull();
+        }
+    }
+
+    private static int zigZag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int varIntSize(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    private static int varLongSize(long value) {
+        int size = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    private static int stringSize(String value) {
+        if (value == null) {
+            return 1;
+        }
+        int length = utf8Length(value);
+        return varIntSize(length + 1) + length;
+    }
+
+    private static int utf8Length(String value) {
+        int length = value.length();
+        int bytes = length;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= 0x80) {
+                if (c < 0x800) {
+                    bytes++;
+                } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    // 代理对：2个char编码为4字节
+                    bytes += 2;
+                    i++;
+                } else if (!Character.isSurrogate(c)) {
+                    bytes += 2;
+                }
+            }
+        }
+        return bytes;
+    }
+
+    private static final class Writer {
+
+        private final byte[] buffer;
+        private int position;
+
+        private Writer(byte[] buffer) {
+            this.buffer = buffer;
+        }
+
+        private void writeVarInt(int value) {
+            while ((value & ~0x7F) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        private void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        private void writeString(String value) {
+            if (value == null) {
+                buffer[position++] = 0;
+                return;
+            }
+            writeVarInt(utf8Length(value) + 1);
+            int length = value.length();
+            for (int i = 0; i < length; i++) {
+                char c = value.charAt(i);
+                if (c < 0x80) {
+                    buffer[position++] = (byte) c;
+                } else if (c < 0x800) {
+                    buffer[position++] = (byte) (0xC0 | (c >> 6));
+                    buffer[position++] = (byte) (0x80 | (c & 0x3F));
+                } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                    buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+                    buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                    buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                    buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+                } else if (Character.isSurrogate(c)) {
+                    // 孤立代理与 String.getBytes(UTF_8) 一致替换为 '?'
+                    buffer[position++] = '?';
+                } else {
+                    buffer[position++] = (byte) (0xE0 | (c >> 12));
+                    buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                    buffer[position++] = (byte) (0x80 | (c & 0x3F));
+                }
+            }
+        }
+    }
+
+    private static final class Reader {
+
+        private final byte[] data;
+        private int position;
+
+        private Reader(byte[] data) {
+            this.data = data;
+        }
+
+        private int readVarInt() {
+            int result = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                byte b = data[position++];
+                result |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new IllegalArgumentException("调用日志varint格式错误");
+        }
+
+        private long readVarLong() {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = data[position++];
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new IllegalArgumentException("调用日志varint格式错误");
+        }
+
+        private String readString() {
+            int length = readVarInt() - 1;
+            if (length < 0) {
+                return null;
+            }
+            if (length > data.length - position) {
+                throw new IllegalArgumentException("调用日志字符串长度越界: " + length);
+            }
+            String value = new String(data, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+    }
+}
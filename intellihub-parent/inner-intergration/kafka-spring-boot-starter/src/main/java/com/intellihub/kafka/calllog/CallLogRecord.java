@@ -0,0 +1,39 @@
+package com.intellihub.kafka.calllog;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 调用日志记录
+ * <p>
+ * 网关上报、治理服务消费的 {@link com.intellihub.kafka.constant.KafkaTopics#CALL_LOG} 消息体，
+ * 编码格式见 {@link CallLogCodec}
+ * </p>
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CallLogRecord {
+
+    private String tenantId;
+    private String apiId;
+    private String apiPath;
+    private String apiMethod;
+    private String appId;
+    private String appKey;
+    private String clientIp;
+    private Integer statusCode;
+    private Boolean success;
+    private Integer latency;
+    private String errorMessage;
+    private String userAgent;
+
+    /**
+     * 请求时间（毫秒时间戳）
+     */
+    private long requestTime;
+}
@@ -0,0 +1,20 @@
+package com.intellihub.kafka.calllog;
+
+import org.apache.kafka.common.serialization.Deserializer;
+
+/**
+ * 调用日志Kafka反序列化器
+ * <p>
+ * 同时识别二进制格式和旧版JSON格式，见 {@link CallLogCodec#decode(byte[])}
+ * </p>
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+public class CallLogRecordDeserializer implements Deserializer<CallLogRecord> {
+
+    @Override
+    public CallLogRecord deserialize(String topic, byte[] data) {
+        return CallLogCodec.decode(data);
+    }
+}
@@ -0,0 +1,48 @@
+package com.intellihub.kafka.calllog;
+
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.util.Map;
+
+/**
+ * 调用日志Kafka序列化器
+ * <p>
+ * 默认输出 {@link CallLogCodec} 二进制格式；配置 {@value #JSON_ENCODING_CONFIG}=true 或构造参数为true时输出旧版JSON，
+ * 用于治理服务升级完成前的过渡
+ * </p>
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+public class CallLogRecordSerializer implements Serializer<CallLogRecord> {
+
+    /**
+     * 是否输出旧版JSON格式
+     */
+    public static final String JSON_ENCODING_CONFIG = "intellihub.call-log.json-encoding";
+
+    private boolean jsonEncoding;
+
+    public CallLogRecordSerializer() {
+    }
+
+    public CallLogRecordSerializer(boolean jsonEncoding) {
+        this.jsonEncoding = jsonEncoding;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        Object value = configs.get(JSON_ENCODING_CONFIG);
+        if (value != null) {
+            this.jsonEncoding = Boolean.parseBoolean(value.toString());
+        }
+    }
+
+    @Override
+    public byte[] serialize(String topic, CallLogRecord data) {
+        if (data == null) {
+            return null;
+        }
+        return jsonEncoding ? CallLogCodec.encodeJson(data) : CallLogCodec.encode(data);
+    }
+}
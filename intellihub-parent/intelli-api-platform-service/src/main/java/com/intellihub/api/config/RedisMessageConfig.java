@@ -0,0 +1,51 @@
+package com.intellihub.api.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.intellihub.api.service.ApiRouteIndex;
+import com.intellihub.event.ApiRouteChangeEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Redis消息监听配置
+ * <p>
+ * 订阅API路由变更频道，使多个平台节点的路由索引保持一致
+ * </p>
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+@Slf4j
+@Configuration
+@RequiredArgsConstructor
+public class RedisMessageConfig {
+
+    private final ApiRouteIndex apiRouteIndex;
+    private final ObjectMapper objectMapper;
+
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+
+        container.addMessageListener((message, pattern) -> {
+            String body = new String(message.getBody(), StandardCharsets.UTF_8);
+            try {
+                ApiRouteChangeEvent event = objectMapper.readValue(body, ApiRouteChangeEvent.class);
+                apiRouteIndex.apply(event);
+            } catch (Exception e) {
+                log.error("处理路由变更通知失败: {}", body, e);
+            }
+        }, ChannelTopic.of(ApiRouteChangeEvent.CHANNEL));
+
+        log.info("Redis消息监听容器已启动，订阅频道: {}", ApiRouteChangeEvent.CHANNEL);
+        return container;
+    }
+}
@@ -25,7 +25,7 @@ public class RatelimitPolicyCreateRequest {
     private String type;
 
     @NotBlank(message = "限流维度不能为空")
-    @Pattern(regexp = "global|ip|path|ip_path|user", message = "限流维度必须为global/ip/path/ip_path/user之一")
+    @Pattern(regexp = "global|ip|path|ip_path|user|app|tenant", message = "限流维度必须为global/ip/path/ip_path/user/app/tenant之一")
     private String dimension;
 
     @Min(value = 1, message = "限流阈值必须大于0")
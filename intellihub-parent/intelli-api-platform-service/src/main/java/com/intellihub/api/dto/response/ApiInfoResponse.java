@@ -33,6 +33,9 @@ public class ApiInfoResponse {
     private Integer retryCount;
     private Boolean cacheEnabled;
     private Integer cacheTtl;
+    private Integer cacheStaleWhileRevalidate;
+    private Integer cacheStaleIfError;
+    private String cacheVaryHeaders;
     private Boolean rateLimitEnabled;
     private Integer rateLimitQps;
     private Boolean mockEnabled;
@@ -104,6 +104,21 @@ public class ApiInfo {
      */
     private Integer cacheTtl;
 
+    /**
+     * 缓存过期后仍可返回旧响应并异步刷新的时间(秒)
+     */
+    private Integer cacheStaleWhileRevalidate;
+
+    /**
+     * 缓存过期后后端出错时仍可返回旧响应的时间(秒)
+     */
+    private Integer cacheStaleIfError;
+
+    /**
+     * 参与缓存Key计算的请求头，逗号分隔
+     */
+    private String cacheVaryHeaders;
+
     /**
      * 是否启用限流
      */
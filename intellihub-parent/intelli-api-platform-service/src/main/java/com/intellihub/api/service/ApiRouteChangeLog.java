@@ -0,0 +1,143 @@
+package com.intellihub.api.service;
+
+import com.intellihub.constants.RedisKeyConstants;
+import com.intellihub.event.ApiRouteChangeEvent;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * API路由变更日志
+ * <p>
+ * 基于Redis维护全局单调递增的路由版本号，并按版本号记录最近的路由变更，供网关增量同步：
+ * 1. 分配版本号与写入日志在同一Lua脚本中完成，多个平台节点并发发布也不会出现版本空洞
+ * 2. 日志只保留最近 {@link #MAX_ENTRIES} 条，更早的版本需要全量快照
+ * </p>
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ApiRouteChangeLog {
+
+    /**
+     * 变更日志保留条数
+     */
+    private static final int MAX_ENTRIES = 10000;
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * KEYS[1]=版本号 KEYS[2]=变更日志；ARGV[1]=事件类型 ARGV[2]=API ID ARGV[3]=保留条数
+     */
+    private static final DefaultRedisScript<Long> APPEND_SCRIPT = new DefaultRedisScript<>(
+            "local version = redis.call('INCR', KEYS[1])\n" +
+            "redis.call('ZADD', KEYS[2], version, version .. '|' .. ARGV[1] .. '|' .. ARGV[2])\n" +
+            "redis.call('ZREMRANGEBYRANK', KEYS[2], 0, -tonumber(ARGV[3]) - 1)\n" +
+            "return version",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    /**
+     * 记录一次路由变更并分配版本号
+     *
+     * @param event 路由变更事件
+     * @return 分配的版本号
+     */
+    public long append(ApiRouteChangeEvent event) {
+        Long version = redisTemplate.execute(APPEND_SCRIPT,
+                Arrays.asList(RedisKeyConstants.API_ROUTE_VERSION_KEY, RedisKeyConstants.API_ROUTE_CHANGELOG_KEY),
+                event.getEventType().name(),
+                event.getApiId() != null ? event.getApiId() : "",
+                String.valueOf(MAX_ENTRIES));
+        return version != null ? version : 0L;
+    }
+
+    /**
+     * 当前路由版本号
+     */
+    public long currentVersion() {
+        String value = redisTemplate.opsForValue().get(RedisKeyConstants.API_ROUTE_VERSION_KEY);
+        if (value == null) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            log.warn("路由版本号格式错误: {}", value);
+            return 0L;
+        }
+    }
+
+    /**
+     * 读取指定版本之后的变更（按版本号升序）
+     *
+     * @param version 起始版本（不含）
+     * @return 变更列表；日志已截断、无法覆盖 version+1 时返回null
+     */
+    public List<Entry> since(long version) {
+        Set<ZSetOperations.TypedTuple<String>> tuples = redisTemplate.opsForZSet()
+                .rangeByScoreWithScores(RedisKeyConstants.API_ROUTE_CHANGELOG_KEY, version + 1, Double.POSITIVE_INFINITY);
+        if (tuples == null || tuples.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Entry> entries = new ArrayList<>(tuples.size());
+        for (ZSetOperations.TypedTuple<String> tuple : tuples) {
+            Entry entry = parse(tuple.getValue());
+            if (entry != null) {
+                entries.add(entry);
+            }
+        }
+        if (entries.isEmpty() || entries.get(0).getVersion() != version + 1) {
+            return null;
+        }
+        return entries;
+    }
+
+    private Entry parse(String member) {
+        if (member == null) {
+            return null;
+        }
+        int first = member.indexOf(SEPARATOR);
+        int second = first < 0 ? -1 : member.indexOf(SEPARATOR, first + 1);
+        if (second < 0) {
+            log.warn("无法解析的路由变更日志: {}", member);
+            return null;
+        }
+        try {
+            long version = Long.parseLong(member.substring(0, first));
+            ApiRouteChangeEvent.EventType type = ApiRouteChangeEvent.EventType.valueOf(member.substring(first + 1, second));
+            String apiId = member.substring(second + 1);
+            return new Entry(version, type, apiId.isEmpty() ? null : apiId);
+        } catch (IllegalArgumentException e) {
+            log.warn("无法解析的路由变更日志: {}", member);
+            return null;
+        }
+    }
+
+    /**
+     * 变更日志条目
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Entry {
+        private final long version;
+        private final ApiRouteChangeEvent.EventType eventType;
+        private final String apiId;
+    }
+}
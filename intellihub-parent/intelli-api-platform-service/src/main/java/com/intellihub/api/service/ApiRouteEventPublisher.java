@@ -6,12 +6,17 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
 
 /**
  * API路由事件发布器
  * <p>
  * 在API发布、下线、更新时发布事件，通知网关刷新路由配置
- * 使用Redis发布订阅机制
+ * 使用Redis发布订阅机制；本节点的路由索引同步更新，处于事务中时延迟到事务提交后执行
  * </p>
  *
  * @author intellihub
@@ -22,8 +27,15 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class ApiRouteEventPublisher {
 
+    /**
+     * 批量更新超过该数量时改为全量刷新
+     */
+    private static final int MAX_BATCH_UPDATE_EVENTS = 200;
+
     private final StringRedisTemplate redisTemplate;
     private final ObjectMapper objectMapper;
+    private final ApiRouteIndex apiRouteIndex;
+    private final ApiRouteChangeLog apiRouteChangeLog;
 
     /**
      * 发布API发布事件
@@ -67,6 +79,25 @@ public class ApiRouteEventPublisher {
         log.info("发布API更新事件 - apiId: {}, path: {}", apiId, path);
     }
 
+    /**
+     * 发布一批路由的更新事件（如限流策略变更），数量过多时改为全量刷新
+     *
+     * @param apiIds API ID列表
+     */
+    public void publishRoutesUpdated(Collection<String> apiIds) {
+        if (apiIds == null || apiIds.isEmpty()) {
+            return;
+        }
+        if (apiIds.size() > MAX_BATCH_UPDATE_EVENTS) {
+            publishRefreshAll();
+            return;
+        }
+        for (String apiId : new LinkedHashSet<>(apiIds)) {
+            publishEvent(ApiRouteChangeEvent.update(apiId, null, null, null));
+        }
+        log.info("发布路由批量更新事件 - count: {}", apiIds.size());
+    }
+
     /**
      * 发布全量刷新事件
      */
@@ -90,6 +121,31 @@ public class ApiRouteEventPublisher {
      * 发布事件到Redis
      */
     private void publishEvent(ApiRouteChangeEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // 事务未提交前其他连接读不到变更，提交后再刷新索引和通知网关
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    doPublishEvent(event);
+                }
+            });
+            return;
+        }
+        doPublishEvent(event);
+    }
+
+    private void doPublishEvent(ApiRouteChangeEvent event) {
+        try {
+            // 分配路由版本号，网关据此增量同步并发现遗漏的通知
+            event.setVersion(apiRouteChangeLog.append(event));
+        } catch (Exception e) {
+            log.error("路由变更日志写入失败，事件不带版本号发送 - event: {}", event, e);
+        }
+        try {
+            apiRouteIndex.apply(event);
+        } catch (Exception e) {
+            log.error("本地路由索引更新失败 - event: {}", event, e);
+        }
         try {
             String message = objectMapper.writeValueAsString(event);
             redisTemplate.convertAndSend(ApiRouteChangeEvent.CHANNEL, message);
@@ -0,0 +1,420 @@
+package com.intellihub.api.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.intellihub.api.entity.ApiBackend;
+import com.intellihub.api.entity.ApiInfo;
+import com.intellihub.api.entity.ApiRequestParam;
+import com.intellihub.api.entity.RatelimitPolicy;
+import com.intellihub.api.mapper.ApiBackendMapper;
+import com.intellihub.api.mapper.ApiInfoMapper;
+import com.intellihub.api.mapper.ApiRequestParamMapper;
+import com.intellihub.context.UserContextHolder;
+import com.intellihub.dubbo.ApiRouteDTO;
+import com.intellihub.dubbo.RouteChangesDTO;
+import com.intellihub.dubbo.RouteParamDTO;
+import com.intellihub.dubbo.route.RouteMatch;
+import com.intellihub.dubbo.route.RouteTrie;
+import com.intellihub.event.ApiRouteChangeEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * 已发布API路由索引
+ * <p>
+ * 将已发布API及其后端配置一次性加载到内存前缀树中，路由匹配不再逐次查库和全表扫描：
+ * 1. 全量构建：一次查询已发布API + 按批 IN 查询后端配置、限流策略和Dubbo参数声明，避免 N+1 查询
+ * 2. 增量维护：API发布、更新、下线时只重新加载单个API
+ * 3. 多节点同步：通过路由变更频道（{@link ApiRouteChangeEvent#CHANNEL}）接收其他节点的变更
+ * 4. 版本跟踪：记录已应用的路由版本号，重复事件直接跳过，发现版本空洞时全量重建
+ * </p>
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ApiRouteIndex {
+
+    private static final String STATUS_PUBLISHED = "published";
+    private static final String BACKEND_DUBBO = "dubbo";
+    private static final String LOCATION_HEADER = "header";
+
+    /**
+     * 批量查询后端配置时 IN 条件的最大元素数
+     */
+    private static final int BACKEND_BATCH_SIZE = 1000;
+
+    private final ApiInfoMapper apiInfoMapper;
+    private final ApiBackendMapper apiBackendMapper;
+    private final ApiRequestParamMapper apiRequestParamMapper;
+    private final ApiRouteChangeLog apiRouteChangeLog;
+    private final RouteRateLimitResolver rateLimitResolver;
+
+    private final Object lock = new Object();
+
+    private volatile RouteTrie routeTrie;
+
+    /**
+     * 索引已应用到的路由版本号
+     */
+    private volatile long version;
+
+    @PostConstruct
+    public void init() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            // 启动时数据库不可用不阻塞启动，首次访问时重试
+            log.error("初始化API路由索引失败，将在首次访问时重试", e);
+        }
+    }
+
+    /**
+     * 全量重建路由索引
+     */
+    public void rebuild() {
+        synchronized (lock) {
+            // 先读版本号再加载：加载期间发生的变更会以更高版本再次应用
+            long currentVersion = apiRouteChangeLog.currentVersion();
+            List<ApiRouteDTO> routes = loadAllPublishedRoutes();
+            routeTrie = RouteTrie.of(routes);
+            version = currentVersion;
+            log.info("API路由索引构建完成，共 {} 条, version: {}", routes.size(), currentVersion);
+        }
+    }
+
+    /**
+     * 重新加载单个API的路由（未发布或已删除时从索引中移除）
+     *
+     * @param apiId API ID
+     */
+    public void refreshApi(String apiId) {
+        if (apiId == null) {
+            return;
+        }
+        ApiRouteDTO route = loadRoute(apiId);
+        synchronized (lock) {
+            RouteTrie trie = trie();
+            if (route != null) {
+                trie.put(route);
+            } else {
+                trie.remove(apiId);
+            }
+        }
+        log.debug("API路由索引已刷新 - apiId: {}, published: {}", apiId, route != null);
+    }
+
+    /**
+     * 从索引中移除API路由
+     *
+     * @param apiId API ID
+     */
+    public void removeApi(String apiId) {
+        synchronized (lock) {
+            trie().remove(apiId);
+        }
+    }
+
+    /**
+     * 根据路由变更事件更新索引
+     *
+     * @param event 路由变更事件
+     */
+    public void apply(ApiRouteChangeEvent event) {
+        if (event == null || event.getEventType() == null) {
+            return;
+        }
+        synchronized (lock) {
+            long eventVersion = event.getVersion();
+            if (eventVersion > 0 && eventVersion <= version) {
+                // 本节点发布时已同步应用，订阅回调再次收到同一事件
+                return;
+            }
+            if (eventVersion > version + 1 && version > 0) {
+                log.warn("API路由索引版本不连续，全量重建 - local: {}, event: {}", version, eventVersion);
+                rebuild();
+                return;
+            }
+            applyChange(event);
+            if (eventVersion > version) {
+                version = eventVersion;
+            }
+        }
+    }
+
+    private void applyChange(ApiRouteChangeEvent event) {
+        switch (event.getEventType()) {
+            case REFRESH_ALL:
+                rebuild();
+                break;
+            case PUBLISH:
+            case UPDATE:
+                refreshApi(event.getApiId());
+                break;
+            case OFFLINE:
+            case DELETE:
+                removeApi(event.getApiId());
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * 匹配请求路径（支持 {id}、* 等通配符）
+     *
+     * @param requestPath 实际请求路径
+     * @param method      请求方法
+     * @return 匹配的路由，未匹配返回null
+     */
+    public ApiRouteDTO match(String requestPath, String method) {
+        RouteMatch match = trie().match(requestPath, method);
+        return match != null ? match.getRoute() : null;
+    }
+
+    /**
+     * 根据路径模板和方法精确获取路由
+     */
+    public ApiRouteDTO get(String path, String method) {
+        return trie().get(path, method);
+    }
+
+    /**
+     * 所有已发布路由（快照）
+     */
+    public List<ApiRouteDTO> routes() {
+        return trie().routes();
+    }
+
+    /**
+     * 已应用的路由版本号
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * 获取版本号与路由一致的全量快照
+     *
+     * @param minVersion 要求的最低版本，索引落后时先全量重建
+     * @return 全量快照
+     */
+    public RouteChangesDTO snapshot(long minVersion) {
+        synchronized (lock) {
+            if (routeTrie == null || version < minVersion) {
+                rebuild();
+            }
+            RouteChangesDTO snapshot = new RouteChangesDTO();
+            snapshot.setFullSnapshot(true);
+            snapshot.setVersion(version);
+            snapshot.setRoutes(routeTrie.routes());
+            return snapshot;
+        }
+    }
+
+    /**
+     * 从数据库加载单个已发布API的路由配置
+     *
+     * @param apiId API ID
+     * @return 路由配置，API不存在或未发布时返回null
+     */
+    public ApiRouteDTO loadRoute(String apiId) {
+        UserContextHolder.setIgnoreTenant(true);
+        try {
+            ApiInfo apiInfo = apiInfoMapper.selectById(apiId);
+            if (apiInfo == null || !STATUS_PUBLISHED.equals(apiInfo.getStatus())) {
+                return null;
+            }
+            ApiBackend backend = apiBackendMapper.selectOne(new LambdaQueryWrapper<ApiBackend>()
+                    .eq(ApiBackend::getApiId, apiId)
+                    .last("LIMIT 1"));
+            List<ApiRequestParam> params = isDubbo(backend)
+                    ? loadDubboParams(Collections.singletonList(apiId)).get(apiId) : null;
+            return buildRouteDTO(apiInfo, backend, rateLimitResolver.loadPolicies(apiId), params);
+        } finally {
+            UserContextHolder.setIgnoreTenant(false);
+        }
+    }
+
+    private RouteTrie trie() {
+        RouteTrie trie = routeTrie;
+        if (trie == null) {
+            synchronized (lock) {
+                if (routeTrie == null) {
+                    rebuild();
+                }
+                trie = routeTrie;
+            }
+        }
+        return trie;
+    }
+
+    private List<ApiRouteDTO> loadAllPublishedRoutes() {
+        // Dubbo调用和事件回调都没有HTTP上下文，已发布API对所有租户可见
+        UserContextHolder.setIgnoreTenant(true);
+        try {
+            List<ApiInfo> apiInfoList = apiInfoMapper.selectList(new LambdaQueryWrapper<ApiInfo>()
+                    .eq(ApiInfo::getStatus, STATUS_PUBLISHED)
+                    .isNull(ApiInfo::getDeletedAt));
+
+            List<String> allApiIds = new ArrayList<>(apiInfoList.size());
+            for (ApiInfo apiInfo : apiInfoList) {
+                allApiIds.add(apiInfo.getId());
+            }
+
+            Map<String, ApiBackend> backendMap = new HashMap<>(apiInfoList.size() * 2);
+            for (int from = 0; from < allApiIds.size(); from += BACKEND_BATCH_SIZE) {
+                List<ApiBackend> backends = apiBackendMapper.selectList(new LambdaQueryWrapper<ApiBackend>()
+                        .in(ApiBackend::getApiId, allApiIds.subList(from, Math.min(from + BACKEND_BATCH_SIZE, allApiIds.size()))));
+                for (ApiBackend backend : backends) {
+                    backendMap.putIfAbsent(backend.getApiId(), backend);
+                }
+            }
+            Map<String, List<RatelimitPolicy>> policyMap = rateLimitResolver.loadPolicies(allApiIds);
+
+            List<String> dubboApiIds = new ArrayList<>();
+            for (ApiBackend backend : backendMap.values()) {
+                if (isDubbo(backend)) {
+                    dubboApiIds.add(backend.getApiId());
+                }
+            }
+            Map<String, List<ApiRequestParam>> paramMap = loadDubboParams(dubboApiIds);
+
+            List<ApiRouteDTO> routes = new ArrayList<>(apiInfoList.size());
+            for (ApiInfo apiInfo : apiInfoList) {
+                routes.add(buildRouteDTO(apiInfo, backendMap.get(apiInfo.getId()),
+                        policyMap.get(apiInfo.getId()), paramMap.get(apiInfo.getId())));
+            }
+            return routes;
+        } finally {
+            UserContextHolder.setIgnoreTenant(false);
+        }
+    }
+
+    private boolean isDubbo(ApiBackend backend) {
+        return backend != null && BACKEND_DUBBO.equalsIgnoreCase(backend.getType());
+    }
+
+    /**
+     * 批量加载Dubbo后端API的请求参数声明，按API分组并按排序号排列
+     */
+    private Map<String, List<ApiRequestParam>> loadDubboParams(List<String> apiIds) {
+        Map<String, List<ApiRequestParam>> paramMap = new HashMap<>(apiIds.size() * 2);
+        for (int from = 0; from < apiIds.size(); from += BACKEND_BATCH_SIZE) {
+            List<ApiRequestParam> params = apiRequestParamMapper.selectList(new LambdaQueryWrapper<ApiRequestParam>()
+                    .in(ApiRequestParam::getApiId, apiIds.subList(from, Math.min(from + BACKEND_BATCH_SIZE, apiIds.size()))));
+            for (ApiRequestParam param : params) {
+                paramMap.computeIfAbsent(param.getApiId(), k -> new ArrayList<>()).add(param);
+            }
+        }
+        Comparator<ApiRequestParam> bySort = Comparator.comparing(ApiRequestParam::getSort,
+                Comparator.nullsLast(Comparator.naturalOrder()));
+        paramMap.values().forEach(params -> params.sort(bySort));
+        return paramMap;
+    }
+
+    /**
+     * 构建路由DTO
+     */
+    private ApiRouteDTO buildRouteDTO(ApiInfo apiInfo, ApiBackend backend, List<RatelimitPolicy> policies,
+                                      List<ApiRequestParam> params) {
+        ApiRouteDTO dto = new ApiRouteDTO();
+        dto.setApiId(apiInfo.getId());
+        dto.setTenantId(apiInfo.getTenantId());
+        dto.setApiName(apiInfo.getName());
+        dto.setPath(apiInfo.getPath());
+        dto.setMethod(apiInfo.getMethod());
+        dto.setAuthType(apiInfo.getAuthType());
+        dto.setTimeout(apiInfo.getTimeout());
+        dto.setMockEnabled(apiInfo.getMockEnabled());
+        dto.setMockResponse(apiInfo.getMockResponse());
+        dto.setRateLimitEnabled(apiInfo.getRateLimitEnabled());
+        dto.setRateLimitQps(apiInfo.getRateLimitQps());
+        dto.setRateLimits(rateLimitResolver.resolve(apiInfo, policies));
+        dto.setCacheEnabled(apiInfo.getCacheEnabled());
+        dto.setCacheTtl(apiInfo.getCacheTtl());
+        dto.setCacheStaleWhileRevalidate(apiInfo.getCacheStaleWhileRevalidate());
+        dto.setCacheStaleIfError(apiInfo.getCacheStaleIfError());
+        dto.setCacheVaryHeaders(parseVaryHeaders(apiInfo.getCacheVaryHeaders()));
+
+        // 设置后端配置
+        if (backend != null) {
+            dto.setBackendType(backend.getType());
+            dto.setBackendProtocol(backend.getProtocol());
+            dto.setBackendHost(backend.getHost());
+            dto.setBackendPath(backend.getPath());
+            dto.setBackendMethod(backend.getMethod());
+            dto.setBackendConnectTimeout(backend.getConnectTimeout());
+
+            // Dubbo配置
+            if (isDubbo(backend)) {
+                dto.setDubboInterface(backend.getInterfaceName());
+                dto.setDubboMethod(backend.getMethodName());
+                dto.setDubboVersion(backend.getDubboVersion());
+                dto.setDubboGroup(backend.getDubboGroup());
+                dto.setDubboParams(buildDubboParams(params));
+            }
+
+            // 覆盖超时配置
+            if (backend.getTimeout() != null) {
+                dto.setTimeout(backend.getTimeout());
+            }
+        } else {
+            log.warn("API {} 没有后端配置", apiInfo.getId());
+        }
+
+        return dto;
+    }
+
+    /**
+     * 转换Dubbo方法参数声明：请求头参数只用于文档和鉴权，不作为方法参数
+     */
+    private List<RouteParamDTO> buildDubboParams(List<ApiRequestParam> params) {
+        if (params == null || params.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<RouteParamDTO> result = new ArrayList<>(params.size());
+        for (ApiRequestParam param : params) {
+            if (param.getName() == null || LOCATION_HEADER.equalsIgnoreCase(param.getLocation())) {
+                continue;
+            }
+            RouteParamDTO dto = new RouteParamDTO();
+            dto.setName(param.getName());
+            dto.setType(param.getType());
+            dto.setLocation(param.getLocation());
+            dto.setRequired(param.getRequired());
+            dto.setDefaultValue(param.getDefaultValue());
+            result.add(dto);
+        }
+        return result;
+    }
+
+    /**
+     * 解析缓存Vary请求头：去空格、转小写、去重排序，网关直接按顺序拼接缓存Key
+     */
+    private List<String> parseVaryHeaders(String varyHeaders) {
+        if (varyHeaders == null || varyHeaders.trim().isEmpty()) {
+            return Collections.emptyList();
+        }
+        TreeSet<String> headers = new TreeSet<>();
+        for (String header : varyHeaders.split(",")) {
+            String name = header.trim().toLowerCase(Locale.ROOT);
+            if (!name.isEmpty()) {
+                headers.add(name);
+            }
+        }
+        return new ArrayList<>(headers);
+    }
+}
@@ -0,0 +1,167 @@
+package com.intellihub.api.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.intellihub.api.entity.ApiInfo;
+import com.intellihub.api.entity.RatelimitPolicy;
+import com.intellihub.api.entity.RouteRatelimit;
+import com.intellihub.api.mapper.RatelimitPolicyMapper;
+import com.intellihub.api.mapper.RouteRatelimitMapper;
+import com.intellihub.dubbo.RouteRateLimitDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 路由生效限流规则解析
+ * <p>
+ * 加载路由时把路由绑定的限流策略（gateway_route_ratelimit）与API自身的限流配置合并为生效规则，
+ * 网关直接读取 {@link com.intellihub.dubbo.ApiRouteDTO#getRateLimits()}，请求时不再做路径匹配：
+ * 1. 只保留启用状态、类型为qps的策略（并发数限流由网关以外的组件负责）
+ * 2. 同一维度、同一时间窗口的多条策略只保留阈值最小的一条
+ * 3. API开启限流且配置了QPS时，追加一条单API维度、1秒窗口的规则
+ * </p>
+ * 调用方负责设置忽略租户（路由加载对所有租户生效）。
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RouteRateLimitResolver {
+
+    private static final String STATUS_ACTIVE = "active";
+    private static final String TYPE_QPS = "qps";
+
+    /**
+     * 批量查询时 IN 条件的最大元素数
+     */
+    private static final int BATCH_SIZE = 1000;
+
+    private final RouteRatelimitMapper routeRatelimitMapper;
+    private final RatelimitPolicyMapper ratelimitPolicyMapper;
+
+    /**
+     * 批量加载路由绑定的限流策略
+     *
+     * @param apiIds API ID列表
+     * @return API ID -> 绑定的有效策略
+     */
+    public Map<String, List<RatelimitPolicy>> loadPolicies(List<String> apiIds) {
+        if (apiIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        List<RouteRatelimit> relations = new ArrayList<>();
+        for (int from = 0; from < apiIds.size(); from += BATCH_SIZE) {
+            relations.addAll(routeRatelimitMapper.selectList(new LambdaQueryWrapper<RouteRatelimit>()
+                    .in(RouteRatelimit::getRouteId, apiIds.subList(from, Math.min(from + BATCH_SIZE, apiIds.size())))));
+        }
+        if (relations.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        Set<String> policyIds = new HashSet<>();
+        for (RouteRatelimit relation : relations) {
+            policyIds.add(relation.getPolicyId());
+        }
+        Map<String, RatelimitPolicy> policyMap = new HashMap<>(policyIds.size() * 2);
+        List<String> policyIdList = new ArrayList<>(policyIds);
+        for (int from = 0; from < policyIdList.size(); from += BATCH_SIZE) {
+            List<RatelimitPolicy> policies = ratelimitPolicyMapper.selectList(new LambdaQueryWrapper<RatelimitPolicy>()
+                    .in(RatelimitPolicy::getId, policyIdList.subList(from, Math.min(from + BATCH_SIZE, policyIdList.size())))
+                    .eq(RatelimitPolicy::getStatus, STATUS_ACTIVE)
+                    .isNull(RatelimitPolicy::getDeletedAt));
+            for (RatelimitPolicy policy : policies) {
+                policyMap.put(policy.getId(), policy);
+            }
+        }
+
+        Map<String, List<RatelimitPolicy>> result = new HashMap<>();
+        for (RouteRatelimit relation : relations) {
+            RatelimitPolicy policy = policyMap.get(relation.getPolicyId());
+            if (policy != null) {
+                result.computeIfAbsent(relation.getRouteId(), k -> new ArrayList<>()).add(policy);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 加载单个路由绑定的限流策略
+     */
+    public List<RatelimitPolicy> loadPolicies(String apiId) {
+        List<RatelimitPolicy> policies = loadPolicies(Collections.singletonList(apiId)).get(apiId);
+        return policies != null ? policies : Collections.emptyList();
+    }
+
+    /**
+     * 查询绑定了指定策略的路由
+     *
+     * @param policyId 策略ID
+     * @return API ID列表
+     */
+    public List<String> findRouteIds(String policyId) {
+        List<RouteRatelimit> relations = routeRatelimitMapper.selectList(new LambdaQueryWrapper<RouteRatelimit>()
+                .eq(RouteRatelimit::getPolicyId, policyId));
+        List<String> routeIds = new ArrayList<>(relations.size());
+        for (RouteRatelimit relation : relations) {
+            routeIds.add(relation.getRouteId());
+        }
+        return routeIds;
+    }
+
+    /**
+     * 计算生效的限流规则
+     *
+     * @param apiInfo  API信息
+     * @param policies 路由绑定的策略
+     * @return 生效规则，无限流时返回空列表
+     */
+    public List<RouteRateLimitDTO> resolve(ApiInfo apiInfo, Collection<RatelimitPolicy> policies) {
+        Map<String, RouteRateLimitDTO> effective = new LinkedHashMap<>();
+        if (policies != null) {
+            for (RatelimitPolicy policy : policies) {
+                if (!TYPE_QPS.equalsIgnoreCase(policy.getType())) {
+                    log.debug("忽略非QPS限流策略 - policyId: {}, type: {}", policy.getId(), policy.getType());
+                    continue;
+                }
+                if (policy.getLimitValue() == null || policy.getLimitValue() <= 0 || policy.getDimension() == null) {
+                    continue;
+                }
+                int window = policy.getTimeWindow() != null && policy.getTimeWindow() > 0 ? policy.getTimeWindow() : 1;
+                merge(effective, policy.getId(), policy.getDimension(), policy.getLimitValue(), window);
+            }
+        }
+
+        if (Boolean.TRUE.equals(apiInfo.getRateLimitEnabled())
+                && apiInfo.getRateLimitQps() != null && apiInfo.getRateLimitQps() > 0) {
+            merge(effective, null, RouteRateLimitDTO.DIMENSION_PATH, apiInfo.getRateLimitQps(), 1);
+        }
+        return effective.isEmpty() ? Collections.emptyList() : new ArrayList<>(effective.values());
+    }
+
+    private void merge(Map<String, RouteRateLimitDTO> effective, String policyId, String dimension, int limit, int window) {
+        String key = dimension + ":" + window;
+        RouteRateLimitDTO existing = effective.get(key);
+        if (existing != null && existing.getLimit() <= limit) {
+            return;
+        }
+        RouteRateLimitDTO rule = new RouteRateLimitDTO();
+        rule.setPolicyId(policyId);
+        rule.setDimension(dimension);
+        rule.setLimit(limit);
+        rule.setWindow(window);
+        effective.put(key, rule);
+    }
+}
@@ -1,24 +1,24 @@
 package com.intellihub.api.service.dubbo;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
-import com.intellihub.api.entity.ApiBackend;
 import com.intellihub.api.entity.ApiInfo;
-import com.intellihub.api.mapper.ApiBackendMapper;
 import com.intellihub.api.mapper.ApiInfoMapper;
-import com.intellihub.context.UserContextHolder;
+import com.intellihub.api.service.ApiRouteChangeLog;
+import com.intellihub.api.service.ApiRouteIndex;
 import com.intellihub.dubbo.ApiCallCountDTO;
 import com.intellihub.dubbo.ApiInfoDTO;
 import com.intellihub.dubbo.ApiPlatformDubboService;
 import com.intellihub.dubbo.ApiRouteDTO;
+import com.intellihub.dubbo.RouteChangesDTO;
+import com.intellihub.event.ApiRouteChangeEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.dubbo.config.annotation.DubboService;
-import org.springframework.util.AntPathMatcher;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -36,189 +36,97 @@ import java.util.stream.Collectors;
 public class ApiPlatformDubboServiceImpl implements ApiPlatformDubboService {
 
     private final ApiInfoMapper apiInfoMapper;
-    private final ApiBackendMapper apiBackendMapper;
-    private final AntPathMatcher pathMatcher = new AntPathMatcher();
-
-    private static final String STATUS_PUBLISHED = "published";
+    private final ApiRouteIndex apiRouteIndex;
+    private final ApiRouteChangeLog apiRouteChangeLog;
 
     @Override
     public ApiRouteDTO getRouteByPath(String path, String method) {
         log.debug("查询API路由配置 - path: {}, method: {}", path, method);
-
-        // ⚠️ 临时豁免租户隔离（Dubbo调用时没有HTTP上下文）
-        com.intellihub.context.UserContextHolder.setIgnoreTenant(true);
-        
-        try {
-            // 查询已发布的API
-            LambdaQueryWrapper<ApiInfo> queryWrapper = new LambdaQueryWrapper<>();
-            queryWrapper.eq(ApiInfo::getPath, path)
-                    .eq(ApiInfo::getMethod, method.toUpperCase())
-                    .eq(ApiInfo::getStatus, STATUS_PUBLISHED)
-                    .isNull(ApiInfo::getDeletedAt);
-
-            ApiInfo apiInfo = apiInfoMapper.selectOne(queryWrapper);
-            if (apiInfo == null) {
-                log.debug("未找到API路由配置 - path: {}, method: {}", path, method);
-                return null;
-            }
-
-            return buildRouteDTO(apiInfo);
-        } finally {
-            com.intellihub.context.UserContextHolder.setIgnoreTenant(false);
-        }
+        return apiRouteIndex.get(path, method);
     }
 
     @Override
     public List<ApiRouteDTO> getAllPublishedRoutes() {
-        log.debug("获取所有已发布的API路由配置");
-
-        // ⚠️ 临时豁免租户隔离（Dubbo调用时没有HTTP上下文）
-        com.intellihub.context.UserContextHolder.setIgnoreTenant(true);
-        
-        try {
-            LambdaQueryWrapper<ApiInfo> queryWrapper = new LambdaQueryWrapper<>();
-            queryWrapper.eq(ApiInfo::getStatus, STATUS_PUBLISHED)
-                    .isNull(ApiInfo::getDeletedAt);
-
-            List<ApiInfo> apiInfoList = apiInfoMapper.selectList(queryWrapper);
-            List<ApiRouteDTO> routes = new ArrayList<>();
-
-            for (ApiInfo apiInfo : apiInfoList) {
-                ApiRouteDTO route = buildRouteDTO(apiInfo);
-                if (route != null) {
-                    routes.add(route);
-                }
-            }
-
-            log.info("加载已发布API路由配置，共 {} 条", routes.size());
-            return routes;
-        } finally {
-            com.intellihub.context.UserContextHolder.setIgnoreTenant(false);
-        }
+        List<ApiRouteDTO> routes = apiRouteIndex.routes();
+        log.info("加载已发布API路由配置，共 {} 条", routes.size());
+        return routes;
     }
 
     @Override
     public ApiRouteDTO getRouteByApiId(String apiId) {
         log.debug("根据API ID查询路由配置 - apiId: {}", apiId);
-
-        ApiInfo apiInfo = apiInfoMapper.selectById(apiId);
-        if (apiInfo == null || !STATUS_PUBLISHED.equals(apiInfo.getStatus())) {
-            return null;
-        }
-
-        return buildRouteDTO(apiInfo);
+        // 网关收到变更事件后按ID回查，直接读库保证拿到最新配置
+        return apiRouteIndex.loadRoute(apiId);
     }
 
     @Override
     public boolean isApiPublished(String path, String method) {
-        LambdaQueryWrapper<ApiInfo> queryWrapper = new LambdaQueryWrapper<>();
-        queryWrapper.eq(ApiInfo::getPath, path)
-                .eq(ApiInfo::getMethod, method.toUpperCase())
-                .eq(ApiInfo::getStatus, STATUS_PUBLISHED)
-                .isNull(ApiInfo::getDeletedAt);
-
-        return apiInfoMapper.selectCount(queryWrapper) > 0;
+        return apiRouteIndex.get(path, method) != null;
     }
 
     @Override
     public ApiRouteDTO matchRouteByPath(String requestPath, String method) {
-        log.info("[路由匹配] 开始匹配 - requestPath: {}, method: {}", requestPath, method);
-
-        // 1. 先尝试精确匹配
-        ApiRouteDTO exactMatch = getRouteByPath(requestPath, method);
-        if (exactMatch != null) {
-            log.info("[路由匹配] 精确匹配成功 - requestPath: {}", requestPath);
-            return exactMatch;
-        }
-
-        // 2. 获取所有已发布的API，进行通配符匹配
-        // ⚠️ 关键修复：临时豁免租户隔离
-        // 原因：Dubbo调用时没有HTTP上下文，租户ID为null会被改写为"UNKNOWN"，导致查询不到数据
-        // 已发布的API应该对所有租户可见（通过订阅关系控制权限）
-        UserContextHolder.setIgnoreTenant(true);
-        
-        try {
-            LambdaQueryWrapper<ApiInfo> queryWrapper = new LambdaQueryWrapper<>();
-            queryWrapper.eq(ApiInfo::getStatus, STATUS_PUBLISHED)
-                    .isNull(ApiInfo::getDeletedAt);
-
-            // 方法匹配
-            queryWrapper.and(w -> w.eq(ApiInfo::getMethod, method.toUpperCase())
-                    .or().eq(ApiInfo::getMethod, "ALL"));
-
-            List<ApiInfo> apiInfoList = apiInfoMapper.selectList(queryWrapper);
-            log.info("[路由匹配] 查询到 {} 个已发布的API", apiInfoList.size());
-
-            for (ApiInfo apiInfo : apiInfoList) {
-                log.debug("[路由匹配] 尝试匹配 - requestPath: {}, apiPath: {}, apiId: {}, apiName: {}", 
-                        requestPath, apiInfo.getPath(), apiInfo.getId(), apiInfo.getName());
-                
-                // 使用AntPathMatcher匹配路径（支持 {id}、* 等通配符）
-                if (pathMatcher.match(apiInfo.getPath(), requestPath)) {
-                    log.info("[路由匹配] ✅ 通配符匹配成功! requestPath: {}, pattern: {}, apiId: {}, apiName: {}", 
-                            requestPath, apiInfo.getPath(), apiInfo.getId(), apiInfo.getName());
-                    return buildRouteDTO(apiInfo);
-                } else {
-                    log.debug("[路由匹配] 匹配失败 - requestPath: {}, pattern: {}", requestPath, apiInfo.getPath());
-                }
-            }
-
-            log.warn("[路由匹配] ❌ 未找到匹配的API路由 - requestPath: {}, method: {}, 候选API数量: {}", 
-                    requestPath, method, apiInfoList.size());
+        // 内存前缀树匹配：精确路径优先，其次 {id}、* 等通配符
+        ApiRouteDTO route = apiRouteIndex.match(requestPath, method);
+        if (route == null) {
+            log.warn("[路由匹配] 未找到匹配的API路由 - requestPath: {}, method: {}", requestPath, method);
             return null;
-        } finally {
-            // 恢复租户隔离状态
-            UserContextHolder.setIgnoreTenant(false);
         }
+        log.debug("[路由匹配] 匹配成功 - requestPath: {}, pattern: {}, apiId: {}",
+                requestPath, route.getPath(), route.getApiId());
+        return route;
     }
 
-    /**
-     * 构建路由DTO
-     */
-    private ApiRouteDTO buildRouteDTO(ApiInfo apiInfo) {
-        // 获取后端配置
-        LambdaQueryWrapper<ApiBackend> backendQuery = new LambdaQueryWrapper<>();
-        backendQuery.eq(ApiBackend::getApiId, apiInfo.getId());
-        ApiBackend backend = apiBackendMapper.selectOne(backendQuery);
+    @Override
+    public long getRouteVersion() {
+        return apiRouteChangeLog.currentVersion();
+    }
 
-        ApiRouteDTO dto = new ApiRouteDTO();
-        dto.setApiId(apiInfo.getId());
-        dto.setTenantId(apiInfo.getTenantId());
-        dto.setApiName(apiInfo.getName());
-        dto.setPath(apiInfo.getPath());
-        dto.setMethod(apiInfo.getMethod());
-        dto.setAuthType(apiInfo.getAuthType());
-        dto.setTimeout(apiInfo.getTimeout());
-        dto.setMockEnabled(apiInfo.getMockEnabled());
-        dto.setMockResponse(apiInfo.getMockResponse());
-        dto.setRateLimitEnabled(apiInfo.getRateLimitEnabled());
-        dto.setRateLimitQps(apiInfo.getRateLimitQps());
+    @Override
+    public RouteChangesDTO getRouteChangesSince(long version) {
+        long currentVersion = apiRouteChangeLog.currentVersion();
+        if (version > 0 && version == currentVersion) {
+            RouteChangesDTO unchanged = new RouteChangesDTO();
+            unchanged.setVersion(currentVersion);
+            return unchanged;
+        }
 
-        // 设置后端配置
-        if (backend != null) {
-            dto.setBackendType(backend.getType());
-            dto.setBackendProtocol(backend.getProtocol());
-            dto.setBackendHost(backend.getHost());
-            dto.setBackendPath(backend.getPath());
-            dto.setBackendMethod(backend.getMethod());
+        // 首次加载、版本号回退（Redis数据丢失）、日志已截断时返回全量快照
+        List<ApiRouteChangeLog.Entry> entries = version > 0 && version < currentVersion
+                ? apiRouteChangeLog.since(version) : null;
+        if (entries == null || entries.stream().anyMatch(e -> e.getEventType() == ApiRouteChangeEvent.EventType.REFRESH_ALL)) {
+            RouteChangesDTO snapshot = apiRouteIndex.snapshot(currentVersion);
+            log.info("[路由同步] 返回全量快照 - since: {}, version: {}, routes: {}",
+                    version, snapshot.getVersion(), snapshot.getRoutes().size());
+            return snapshot;
+        }
 
-            // Dubbo配置
-            if ("dubbo".equalsIgnoreCase(backend.getType())) {
-                dto.setDubboInterface(backend.getInterfaceName());
-                dto.setDubboMethod(backend.getMethodName());
-                dto.setDubboVersion(backend.getDubboVersion());
-                dto.setDubboGroup(backend.getDubboGroup());
+        // 同一API的多次变更只取最后一次
+        Map<String, ApiRouteChangeEvent.EventType> lastChange = new LinkedHashMap<>();
+        long latestVersion = version;
+        for (ApiRouteChangeLog.Entry entry : entries) {
+            if (entry.getApiId() != null) {
+                lastChange.remove(entry.getApiId());
+                lastChange.put(entry.getApiId(), entry.getEventType());
             }
+            latestVersion = Math.max(latestVersion, entry.getVersion());
+        }
 
-            // 覆盖超时配置
-            if (backend.getTimeout() != null) {
-                dto.setTimeout(backend.getTimeout());
+        RouteChangesDTO changes = new RouteChangesDTO();
+        changes.setVersion(latestVersion);
+        for (Map.Entry<String, ApiRouteChangeEvent.EventType> change : lastChange.entrySet()) {
+            ApiRouteDTO route = change.getValue() == ApiRouteChangeEvent.EventType.PUBLISH
+                    || change.getValue() == ApiRouteChangeEvent.EventType.UPDATE
+                    ? apiRouteIndex.loadRoute(change.getKey()) : null;
+            if (route != null) {
+                changes.getRoutes().add(route);
+            } else {
+                changes.getRemovedApiIds().add(change.getKey());
             }
-        } else {
-            log.warn("API {} 没有后端配置", apiInfo.getId());
         }
-
-        return dto;
+        log.debug("[路由同步] 返回增量变更 - since: {}, version: {}, upserts: {}, removed: {}",
+                version, latestVersion, changes.getRoutes().size(), changes.getRemovedApiIds().size());
+        return changes;
     }
 
     /**
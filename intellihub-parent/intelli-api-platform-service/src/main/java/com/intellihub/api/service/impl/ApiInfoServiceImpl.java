@@ -231,6 +231,9 @@ public class ApiInfoServiceImpl implements ApiInfoService {
                 .retryCount(request.getRetryCount())
                 .cacheEnabled(request.getCacheEnabled())
                 .cacheTtl(request.getCacheTtl())
+                .cacheStaleWhileRevalidate(request.getCacheStaleWhileRevalidate())
+                .cacheStaleIfError(request.getCacheStaleIfError())
+                .cacheVaryHeaders(request.getCacheVaryHeaders())
                 .rateLimitEnabled(request.getRateLimitEnabled())
                 .rateLimitQps(request.getRateLimitQps())
                 .mockEnabled(request.getMockEnabled())
@@ -316,6 +319,11 @@ public class ApiInfoServiceImpl implements ApiInfoService {
             }
         }
 
+        // 已发布API的路由配置变更，通知网关刷新（Redis）
+        if ("published".equals(apiInfo.getStatus())) {
+            routeEventPublisher.publishApiUpdated(id, apiInfo.getPath(), apiInfo.getMethod(), apiInfo.getTenantId());
+        }
+
         // 清除API响应缓存
         clearApiCache(id);
 
@@ -424,6 +432,9 @@ public class ApiInfoServiceImpl implements ApiInfoService {
         request.setRetryCount(source.getRetryCount());
         request.setCacheEnabled(source.getCacheEnabled());
         request.setCacheTtl(source.getCacheTtl());
+        request.setCacheStaleWhileRevalidate(source.getCacheStaleWhileRevalidate());
+        request.setCacheStaleIfError(source.getCacheStaleIfError());
+        request.setCacheVaryHeaders(source.getCacheVaryHeaders());
         request.setRateLimitEnabled(source.getRateLimitEnabled());
         request.setRateLimitQps(source.getRateLimitQps());
         request.setMockEnabled(source.getMockEnabled());
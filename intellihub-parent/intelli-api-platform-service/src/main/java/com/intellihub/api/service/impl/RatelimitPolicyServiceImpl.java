@@ -12,6 +12,7 @@ import com.intellihub.api.mapper.RatelimitPolicyMapper;
 import com.intellihub.api.mapper.RouteRatelimitMapper;
 import com.intellihub.api.service.ApiRouteEventPublisher;
 import com.intellihub.api.service.RatelimitPolicyService;
+import com.intellihub.api.service.RouteRateLimitResolver;
 import com.intellihub.context.UserContextHolder;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -20,7 +21,10 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -37,6 +41,7 @@ public class RatelimitPolicyServiceImpl implements RatelimitPolicyService {
     private final RatelimitPolicyMapper policyMapper;
     private final RouteRatelimitMapper routeRatelimitMapper;
     private final ApiRouteEventPublisher eventPublisher;
+    private final RouteRateLimitResolver rateLimitResolver;
 
     @Override
     public Page<RatelimitPolicyResponse> listPolicies(int page, int size, String keyword, String status) {
@@ -107,8 +112,8 @@ public class RatelimitPolicyServiceImpl implements RatelimitPolicyService {
         
         policyMapper.updateById(policy);
         
-        // 发布路由刷新事件
-        eventPublisher.publishRouteRefresh();
+        // 重新计算绑定了该策略的路由的限流规则
+        eventPublisher.publishRoutesUpdated(rateLimitResolver.findRouteIds(id));
         
         log.info("更新限流策略成功 - policyId: {}", id);
     }
@@ -126,10 +131,11 @@ public class RatelimitPolicyServiceImpl implements RatelimitPolicyService {
         policyMapper.updateById(policy);
         
         // 删除关联关系
+        List<String> affectedRouteIds = rateLimitResolver.findRouteIds(id);
         routeRatelimitMapper.deleteByPolicyId(id);
         
-        // 发布路由刷新事件
-        eventPublisher.publishRouteRefresh();
+        // 重新计算受影响路由的限流规则
+        eventPublisher.publishRoutesUpdated(affectedRouteIds);
         
         log.info("删除限流策略成功 - policyId: {}", id);
     }
@@ -143,6 +149,7 @@ public class RatelimitPolicyServiceImpl implements RatelimitPolicyService {
         }
         
         // 删除旧的关联关系
+        Set<String> affectedRouteIds = new LinkedHashSet<>(rateLimitResolver.findRouteIds(policyId));
         routeRatelimitMapper.deleteByPolicyId(policyId);
         
         // 创建新的关联关系
@@ -154,9 +161,10 @@ public class RatelimitPolicyServiceImpl implements RatelimitPolicyService {
             relation.setCreatedAt(LocalDateTime.now());
             routeRatelimitMapper.insert(relation);
         }
+        affectedRouteIds.addAll(request.getRouteIds());
         
-        // 发布路由刷新事件
-        eventPublisher.publishRouteRefresh();
+        // 只重新计算新旧绑定路由的限流规则，网关随路由快照增量同步
+        eventPublisher.publishRoutesUpdated(affectedRouteIds);
         
         log.info("应用限流策略成功 - policyId: {}, routeCount: {}", policyId, request.getRouteIds().size());
     }
@@ -170,8 +178,8 @@ public class RatelimitPolicyServiceImpl implements RatelimitPolicyService {
         
         routeRatelimitMapper.delete(wrapper);
         
-        // 发布路由刷新事件
-        eventPublisher.publishRouteRefresh();
+        // 重新计算该路由的限流规则
+        eventPublisher.publishRoutesUpdated(Collections.singletonList(routeId));
         
         log.info("移除路由限流策略成功 - policyId: {}, routeId: {}", policyId, routeId);
     }
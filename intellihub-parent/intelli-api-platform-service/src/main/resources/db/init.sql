@@ -52,6 +52,9 @@ CREATE TABLE `api_info` (
     `retry_count` int(11) DEFAULT 0 COMMENT '重试次数',
     `cache_enabled` tinyint(1) DEFAULT 0 COMMENT '是否启用缓存',
     `cache_ttl` int(11) DEFAULT 0 COMMENT '缓存时间(秒)',
+    `cache_stale_while_revalidate` int(11) DEFAULT 0 COMMENT '缓存过期后仍可返回旧响应并异步刷新的时间(秒)',
+    `cache_stale_if_error` int(11) DEFAULT 0 COMMENT '缓存过期后后端出错时仍可返回旧响应的时间(秒)',
+    `cache_vary_headers` varchar(256) DEFAULT NULL COMMENT '参与缓存Key计算的请求头，逗号分隔',
     `rate_limit_enabled` tinyint(1) DEFAULT 0 COMMENT '是否启用限流',
     `rate_limit_qps` int(11) DEFAULT 100 COMMENT '限流QPS',
     `mock_enabled` tinyint(1) DEFAULT 0 COMMENT '是否启用Mock',
@@ -224,7 +227,7 @@ CREATE TABLE IF NOT EXISTS `gateway_ratelimit_policy` (
   `name` varchar(100) NOT NULL COMMENT '策略名称',
   `description` varchar(500) DEFAULT NULL COMMENT '策略描述',
   `type` varchar(20) NOT NULL COMMENT '限流类型: qps/concurrency',
-  `dimension` varchar(20) NOT NULL COMMENT '限流维度: global/ip/path/ip_path/user',
+  `dimension` varchar(20) NOT NULL COMMENT '限流维度: global/ip/path/ip_path/user/app/tenant',
   `limit_value` int(11) NOT NULL COMMENT '限流阈值',
   `time_window` int(11) NOT NULL DEFAULT 1 COMMENT '时间窗口(秒)',
   `status` varchar(20) NOT NULL DEFAULT 'active' COMMENT '状态: active/inactive',
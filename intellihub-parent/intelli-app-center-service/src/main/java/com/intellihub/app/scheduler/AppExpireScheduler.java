@@ -5,6 +5,7 @@ import com.intellihub.app.entity.AppApiSubscription;
 import com.intellihub.app.entity.AppInfo;
 import com.intellihub.app.mapper.AppApiSubscriptionMapper;
 import com.intellihub.app.mapper.AppInfoMapper;
+import com.intellihub.app.service.AppCacheEventPublisher;
 import com.intellihub.enums.AppStatus;
 import com.intellihub.enums.SubscriptionStatus;
 import lombok.RequiredArgsConstructor;
@@ -33,6 +34,7 @@ public class AppExpireScheduler {
 
     private final AppInfoMapper appInfoMapper;
     private final AppApiSubscriptionMapper subscriptionMapper;
+    private final AppCacheEventPublisher cacheEventPublisher;
 
     /**
      * 每小时检查应用过期状态
@@ -58,6 +60,7 @@ public class AppExpireScheduler {
                 app.setStatus(AppStatus.EXPIRED.getCode());
                 app.setUpdatedAt(now);
                 appInfoMapper.updateById(app);
+                cacheEventPublisher.publishAppChanged(app.getAppKey());
                 expiredCount++;
                 
                 log.info("[过期检查] 应用已过期 - AppId: {}, AppName: {}, ExpireTime: {}", 
@@ -93,6 +96,7 @@ public class AppExpireScheduler {
                 subscription.setStatus(SubscriptionStatus.EXPIRED.getCode());
                 subscription.setUpdatedAt(now);
                 subscriptionMapper.updateById(subscription);
+                cacheEventPublisher.publishSubscriptionChanged(subscription.getAppId(), subscription.getApiId());
                 expiredCount++;
                 
                 log.info("[过期检查] 订阅已过期 - SubscriptionId: {}, AppId: {}, ApiId: {}, ExpireTime: {}", 
@@ -136,6 +140,7 @@ public class AppExpireScheduler {
                 }
                 subscription.setUpdatedAt(now);
                 subscriptionMapper.updateById(subscription);
+                cacheEventPublisher.publishSubscriptionChanged(subscription.getAppId(), subscription.getApiId());
                 effectiveCount++;
                 
                 log.info("[生效检查] 订阅已生效 - SubscriptionId: {}, AppId: {}, ApiId: {}, Status: {}", 
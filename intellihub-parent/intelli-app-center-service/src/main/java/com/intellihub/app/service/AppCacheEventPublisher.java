@@ -0,0 +1,74 @@
+package com.intellihub.app.service;
+
+import com.intellihub.constants.RedisKeyConstants;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 应用缓存失效事件发布器
+ * <p>
+ * 应用信息或订阅关系变更时通知网关清除AppKey信息和订阅关系缓存（本地缓存 + Redis缓存）
+ * 处于事务中时延迟到事务提交后发布，避免网关在提交前回源读到旧数据
+ * </p>
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AppCacheEventPublisher {
+
+    private final StringRedisTemplate redisTemplate;
+
+    /**
+     * 发布应用变更事件（状态、密钥、白名单、配额等）
+     *
+     * @param appKey AppKey
+     */
+    public void publishAppChanged(String appKey) {
+        if (appKey == null) {
+            return;
+        }
+        publish(RedisKeyConstants.CHANNEL_APP_STATUS_CHANGE, appKey);
+    }
+
+    /**
+     * 发布订阅关系变更事件
+     *
+     * @param appId 应用ID
+     * @param apiId API ID，为null时表示该应用的全部订阅
+     */
+    public void publishSubscriptionChanged(String appId, String apiId) {
+        if (appId == null) {
+            return;
+        }
+        publish(RedisKeyConstants.CHANNEL_APP_SUBSCRIPTION_CHANGE, apiId != null ? appId + ":" + apiId : appId);
+    }
+
+    private void publish(String channel, String message) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    doPublish(channel, message);
+                }
+            });
+            return;
+        }
+        doPublish(channel, message);
+    }
+
+    private void doPublish(String channel, String message) {
+        try {
+            redisTemplate.convertAndSend(channel, message);
+            log.debug("缓存失效事件发布成功 - channel: {}, message: {}", channel, message);
+        } catch (Exception e) {
+            log.error("缓存失效事件发布失败 - channel: {}, message: {}", channel, message, e);
+        }
+    }
+}
@@ -8,6 +8,7 @@ import com.intellihub.app.entity.AppApiSubscription;
 import com.intellihub.app.entity.AppInfo;
 import com.intellihub.app.mapper.AppApiSubscriptionMapper;
 import com.intellihub.app.mapper.AppInfoMapper;
+import com.intellihub.app.service.AppCacheEventPublisher;
 import com.intellihub.app.service.AppService;
 import com.intellihub.dubbo.ApiPlatformDubboService;
 import com.intellihub.dubbo.ApiRouteDTO;
@@ -44,6 +45,7 @@ public class AppServiceImpl implements AppService {
 
     private final AppInfoMapper appInfoMapper;
     private final AppApiSubscriptionMapper subscriptionMapper;
+    private final AppCacheEventPublisher cacheEventPublisher;
     
     @DubboReference(check = false, timeout = 5000)
     private ApiPlatformDubboService apiPlatformDubboService;
@@ -197,6 +199,7 @@ public class AppServiceImpl implements AppService {
 
         appInfo.setUpdatedAt(LocalDateTime.now());
         appInfoMapper.updateById(appInfo);
+        cacheEventPublisher.publishAppChanged(appInfo.getAppKey());
 
         log.info("应用更新成功: appId={}", appId);
         return convertToResponse(appInfo);
@@ -217,6 +220,8 @@ public class AppServiceImpl implements AppService {
 
         // 删除应用（逻辑删除）
         appInfoMapper.deleteById(appId);
+        cacheEventPublisher.publishAppChanged(appInfo.getAppKey());
+        cacheEventPublisher.publishSubscriptionChanged(appId, null);
 
         log.info("应用删除成功: appId={}", appId);
     }
@@ -232,6 +237,7 @@ public class AppServiceImpl implements AppService {
         appInfo.setStatus(AppStatus.ACTIVE.getCode());
         appInfo.setUpdatedAt(LocalDateTime.now());
         appInfoMapper.updateById(appInfo);
+        cacheEventPublisher.publishAppChanged(appInfo.getAppKey());
 
         log.info("应用启用成功: appId={}", appId);
     }
@@ -247,6 +253,7 @@ public class AppServiceImpl implements AppService {
         appInfo.setStatus(AppStatus.DISABLED.getCode());
         appInfo.setUpdatedAt(LocalDateTime.now());
         appInfoMapper.updateById(appInfo);
+        cacheEventPublisher.publishAppChanged(appInfo.getAppKey());
 
         log.info("应用禁用成功: appId={}", appId);
     }
@@ -263,6 +270,7 @@ public class AppServiceImpl implements AppService {
         appInfo.setAppSecret(newSecret);
         appInfo.setUpdatedAt(LocalDateTime.now());
         appInfoMapper.updateById(appInfo);
+        cacheEventPublisher.publishAppChanged(appInfo.getAppKey());
 
         log.info("应用密钥重置成功: appId={}", appId);
         return newSecret;
@@ -312,6 +320,7 @@ public class AppServiceImpl implements AppService {
         subscription.setUpdatedAt(LocalDateTime.now());
 
         subscriptionMapper.insert(subscription);
+        cacheEventPublisher.publishSubscriptionChanged(appId, request.getApiId());
 
         log.info("API订阅成功: appId={}, apiId={}, apiName={}, apiPath={}", 
                 appId, request.getApiId(), subscription.getApiName(), subscription.getApiPath());
@@ -330,6 +339,7 @@ public class AppServiceImpl implements AppService {
         if (deleted == 0) {
             throw new BusinessException(ResponseStatus.DATA_NOT_FOUND.getCode(), "订阅关系不存在");
         }
+        cacheEventPublisher.publishSubscriptionChanged(appId, apiId);
 
         log.info("API取消订阅成功: appId={}, apiId={}", appId, apiId);
     }
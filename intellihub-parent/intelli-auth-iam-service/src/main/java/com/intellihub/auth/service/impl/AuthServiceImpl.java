@@ -12,9 +12,11 @@ import com.intellihub.auth.mapper.*;
 import com.intellihub.auth.service.AuthService;
 import com.intellihub.auth.util.CaptchaUtil;
 import com.intellihub.auth.util.JwtUtil;
+import com.intellihub.constants.RedisKeyConstants;
 import com.intellihub.context.UserContextHolder;
 import com.intellihub.exception.BusinessException;
 import com.intellihub.constants.ResponseStatus;
+import com.intellihub.util.TokenHashUtil;
 import io.jsonwebtoken.ExpiredJwtException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -223,6 +225,7 @@ public class AuthServiceImpl implements AuthService {
                         ttl,
                         TimeUnit.SECONDS
                 );
+                publishRevocation(accessToken, expiration.getTime());
             }
 
             // 删除refreshToken
@@ -232,6 +235,19 @@ public class AuthServiceImpl implements AuthService {
         }
     }
 
+    /**
+     * 广播Token注销，网关据此维护本地注销集合
+     * <p>
+     * 注销记录同时写入ZSet（按过期时间清理），网关启动和定期核对时全量加载，补齐丢失的通知
+     * </p>
+     */
+    private void publishRevocation(String accessToken, long expiresAtMillis) {
+        String tokenHash = TokenHashUtil.hash(accessToken);
+        redisTemplate.opsForZSet().add(RedisKeyConstants.TOKEN_REVOKED_KEY, tokenHash, expiresAtMillis);
+        redisTemplate.opsForZSet().removeRangeByScore(RedisKeyConstants.TOKEN_REVOKED_KEY, 0, System.currentTimeMillis());
+        redisTemplate.convertAndSend(RedisKeyConstants.CHANNEL_TOKEN_REVOKED, tokenHash + ":" + expiresAtMillis);
+    }
+
     @Override
     public CaptchaResponse getCaptcha() {
         String code = captchaUtil.generateCode();
@@ -0,0 +1,154 @@
+package com.intellihub.gateway.perf;
+
+import com.intellihub.gateway.GatewayApplication;
+import com.intellihub.gateway.perf.backend.StubBackendServer;
+import com.intellihub.gateway.perf.load.LoadGenerator;
+import com.intellihub.gateway.perf.load.LoadReport;
+import com.intellihub.gateway.perf.stub.InMemoryRouteSource;
+import com.intellihub.gateway.service.OpenApiRouteService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 网关压测入口
+ * <p>
+ * 在单机、无网络的环境中启动完整的 intelli-gateway-service 并施加负载：
+ * 1. 内嵌Redis（随机端口），网关的限流、调用统计、Pub/Sub监听等Redis访问照常执行
+ * 2. 本地桩后端（{@link StubBackendServer}），响应延迟和响应体大小可配置
+ * 3. 路由由进程内的 API平台Dubbo服务桩提供（injvm，{@link InMemoryRouteSource}），不连接Nacos
+ * 4. 关闭调用日志的Kafka发送（gateway.call-log.kafka-enabled=false），调用日志仍经缓冲区和上报线程维护Redis统计
+ * 5. 预热后按参数运行负载生成器，输出 rps、p50/p90/p99/p99.9，并把完整延迟分布写入 .hgrm 文件
+ * 错误率（非2xx与请求异常）超过 perf.max-error-rate 时以退出码1结束，使构建失败。
+ * 负载生成器、桩后端与网关在同一进程内各用独立的事件循环线程，结果适合做版本间对比，不代表独立部署的绝对容量。
+ * </p>
+ * 运行方式（参数见 intelli-gateway-perf/pom.xml 的 perf.* 属性）：
+ * <pre>
+ * mvn verify -Pperf -Dperf.concurrency=128 -Dperf.backend-latency-ms=5
+ * </pre>
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+@Slf4j
+public class GatewayLoadTest {
+
+    private static final String STUB_PACKAGE = "com.intellihub.gateway.perf.stub";
+    private static final String DUBBO_GROUP = "perf";
+
+    public static void main(String[] args) {
+        boolean passed;
+        try {
+            passed = run(PerfOptions.fromSystemProperties());
+        } catch (Throwable e) {
+            log.error("网关压测失败", e);
+            passed = false;
+        }
+        // Dubbo、Redis监听等非守护线程可能仍在运行，显式退出
+        System.exit(passed ? 0 : 1);
+    }
+
+    private static boolean run(PerfOptions options) throws Exception {
+        log.info("网关压测参数: {}", options);
+        int redisPort = freePort();
+        RedisServer redis = RedisServer.newRedisServer()
+                .port(redisPort)
+                .setting("bind 127.0.0.1")
+                .setting("save \"\"")
+                .setting("appendonly no")
+                .build();
+        redis.start();
+        try (StubBackendServer backend = StubBackendServer.start(options.getBackendLatency(),
+                options.getBackendPayloadBytes())) {
+            InMemoryRouteSource routeSource = InMemoryRouteSource.create(options, backend.port());
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(GatewayApplication.class)
+                    .initializers(ctx -> ctx.getBeanFactory().registerSingleton("inMemoryRouteSource", routeSource))
+                    .run(gatewayArgs(options, redisPort));
+            try {
+                // 启动时加载路由早于 injvm 服务暴露，就绪后重新全量加载
+                context.getBean(OpenApiRouteService.class).refreshAllRoutes();
+                int gatewayPort = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+                return runLoad(options, "http://127.0.0.1:" + gatewayPort, routeSource.size());
+            } finally {
+                context.close();
+            }
+        } finally {
+            redis.stop();
+        }
+    }
+
+    private static boolean runLoad(PerfOptions options, String baseUrl, int routes) throws IOException {
+        try (LoadGenerator generator = new LoadGenerator(baseUrl, () -> randomPath(routes),
+                options.getConcurrency(), options.getTargetRps())) {
+            if (!options.getWarmup().isZero()) {
+                generator.run("warmup", options.getWarmup()).print(System.out);
+            }
+            LoadReport report = generator.run("measure", options.getDuration());
+            report.print(System.out);
+            Path histogram = report.writeHistogram(Paths.get(options.getResultDir()));
+            System.out.println("[measure] latency distribution: " + histogram.toAbsolutePath());
+
+            if (report.errorRate() > options.getMaxErrorRate()) {
+                System.out.printf("[measure] FAILED: errorRate %.4f%% > max %.4f%%%n",
+                        report.errorRate() * 100, options.getMaxErrorRate() * 100);
+                return false;
+            }
+            return true;
+        }
+    }
+
+    private static String randomPath(int routes) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return InMemoryRouteSource.requestPath(random.nextInt(routes), random.nextInt(1_000_000));
+    }
+
+    /**
+     * 网关启动参数（命令行参数优先级最高，覆盖 application.yml 中的外部依赖地址）
+     */
+    private static String[] gatewayArgs(PerfOptions options, int redisPort) {
+        List<String> args = new ArrayList<>();
+        args.add("--server.port=0");
+        // Nacos：不注册、不拉取配置
+        args.add("--spring.cloud.nacos.discovery.enabled=false");
+        args.add("--spring.cloud.nacos.config.enabled=false");
+        args.add("--spring.cloud.nacos.config.import-check.enabled=false");
+        args.add("--spring.cloud.service-registry.auto-registration.enabled=false");
+        // Redis：内嵌实例
+        args.add("--spring.redis.host=127.0.0.1");
+        args.add("--spring.redis.port=" + redisPort);
+        args.add("--spring.redis.password=");
+        // Dubbo：不连注册中心，引用和服务都在进程内（injvm），服务桩与网关引用使用同一分组
+        args.add("--dubbo.registry.address=N/A");
+        args.add("--dubbo.protocol.name=injvm");
+        args.add("--dubbo.provider.scope=local");
+        args.add("--dubbo.provider.group=" + DUBBO_GROUP);
+        args.add("--dubbo.consumer.scope=local");
+        args.add("--dubbo.consumer.group=" + DUBBO_GROUP);
+        args.add("--dubbo.scan.base-packages=" + STUB_PACKAGE);
+        args.add("--gateway.dubbo.warmup-on-startup=false");
+        // Kafka：不发送调用日志
+        args.add("--gateway.call-log.kafka-enabled=false");
+        args.add("--intellihub.gateway.rate-limit.enabled=" + options.isRateLimit());
+        // 请求路径上的日志会直接影响结果
+        args.add("--gateway.metrics.access-log-sample-rate=0");
+        args.add("--logging.level.org.springframework.cloud.gateway=WARN");
+        args.add("--logging.level.com.intellihub.gateway=INFO");
+        args.add("--logging.level.org.apache.dubbo=WARN");
+        return args.toArray(new String[0]);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
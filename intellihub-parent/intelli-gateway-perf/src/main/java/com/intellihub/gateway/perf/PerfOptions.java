@@ -0,0 +1,103 @@
+package com.intellihub.gateway.perf;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * 压测参数
+ * <p>
+ * 从系统属性 perf.* 读取，默认值与 intelli-gateway-perf/pom.xml 中的 perf.* 属性一致
+ * </p>
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+@Getter
+public class PerfOptions {
+
+    /**
+     * 预热时长，预热结果不计入报告
+     */
+    private final Duration warmup;
+
+    /**
+     * 测量时长
+     */
+    private final Duration duration;
+
+    /**
+     * 并发连接数（闭环模式下即并发请求数）
+     */
+    private final int concurrency;
+
+    /**
+     * 目标请求速率，0表示闭环模式（每个连接收到响应后立即发下一个请求）
+     */
+    private final int targetRps;
+
+    /**
+     * 内存路由源中的路由数，请求均匀分布到各路由
+     */
+    private final int routes;
+
+    /**
+     * 桩后端响应延迟
+     */
+    private final Duration backendLatency;
+
+    /**
+     * 桩后端响应体大小（字节）
+     */
+    private final int backendPayloadBytes;
+
+    /**
+     * 是否启用路由级限流（每个请求访问一次Redis）
+     */
+    private final boolean rateLimit;
+
+    /**
+     * 是否为路由启用响应缓存
+     */
+    private final boolean responseCache;
+
+    /**
+     * 允许的最大错误率（非2xx与请求异常），超过时以非0退出码结束
+     */
+    private final double maxErrorRate;
+
+    /**
+     * 延迟分布（.hgrm）输出目录
+     */
+    private final String resultDir;
+
+    private PerfOptions() {
+        this.warmup = Duration.ofSeconds(Long.getLong("perf.warmup-seconds", 10));
+        this.duration = Duration.ofSeconds(Long.getLong("perf.duration-seconds", 30));
+        this.concurrency = Integer.getInteger("perf.concurrency", 64);
+        this.targetRps = Integer.getInteger("perf.target-rps", 0);
+        this.routes = Math.max(1, Integer.getInteger("perf.routes", 1000));
+        this.backendLatency = Duration.ofMillis(Long.getLong("perf.backend-latency-ms", 0));
+        this.backendPayloadBytes = Integer.getInteger("perf.backend-payload-bytes", 1024);
+        this.rateLimit = Boolean.getBoolean("perf.rate-limit");
+        this.responseCache = Boolean.getBoolean("perf.response-cache");
+        this.maxErrorRate = Double.parseDouble(System.getProperty("perf.max-error-rate", "0.001"));
+        this.resultDir = System.getProperty("perf.result-dir", "target/perf");
+    }
+
+    public static PerfOptions fromSystemProperties() {
+        return new PerfOptions();
+    }
+
+    @Override
+    public String toString() {
+        return "warmup=" + warmup.getSeconds() + "s, duration=" + duration.getSeconds() + "s"
+                + ", concurrency=" + concurrency
+                + ", targetRps=" + (targetRps > 0 ? String.valueOf(targetRps) : "closed-loop")
+                + ", routes=" + routes
+                + ", backendLatency=" + backendLatency.toMillis() + "ms"
+                + ", backendPayload=" + backendPayloadBytes + "B"
+                + ", rateLimit=" + rateLimit
+                + ", responseCache=" + responseCache;
+    }
+}
@@ -0,0 +1,89 @@
+package com.intellihub.gateway.perf.backend;
+
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.LoopResources;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * 本地桩后端（Netty）
+ * <p>
+ * 对任意请求在固定延迟后返回固定大小的JSON响应体。使用独立的事件循环线程，
+ * 不与网关的服务端、回源客户端共用 Reactor Netty 的全局事件循环
+ * </p>
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+@Slf4j
+public class StubBackendServer implements AutoCloseable {
+
+    private static final byte[] PAYLOAD_PREFIX = "{\"data\":\"".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] PAYLOAD_SUFFIX = "\"}".getBytes(StandardCharsets.US_ASCII);
+
+    private final LoopResources loops;
+    private final DisposableServer server;
+
+    private StubBackendServer(LoopResources loops, DisposableServer server) {
+        this.loops = loops;
+        this.server = server;
+    }
+
+    /**
+     * 启动桩后端，监听 127.0.0.1 的随机端口
+     *
+     * @param latency      响应延迟，0表示立即响应
+     * @param payloadBytes 响应体大小（字节）
+     */
+    public static StubBackendServer start(Duration latency, int payloadBytes) {
+        byte[] payload = buildPayload(payloadBytes);
+        String contentLength = String.valueOf(payload.length);
+        LoopResources loops = LoopResources.create("perf-backend",
+                Math.max(2, Runtime.getRuntime().availableProcessors() / 2), true);
+        DisposableServer server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .runOn(loops)
+                .handle((request, response) -> {
+                    Mono<Void> send = response
+                            .header(HttpHeaderNames.CONTENT_TYPE, HttpHeaderValues.APPLICATION_JSON)
+                            .header(HttpHeaderNames.CONTENT_LENGTH, contentLength)
+                            .send(Mono.fromSupplier(() -> Unpooled.wrappedBuffer(payload)))
+                            .then();
+                    return latency.isZero() ? send : Mono.delay(latency).then(send);
+                })
+                .bindNow();
+        log.info("桩后端已启动: port={}, latency={}ms, payload={}B", server.port(), latency.toMillis(), payload.length);
+        return new StubBackendServer(loops, server);
+    }
+
+    public int port() {
+        return server.port();
+    }
+
+    @Override
+    public void close() {
+        server.disposeNow();
+        loops.disposeLater().block();
+    }
+
+    /**
+     * 构建 {"data":"xxx..."} 形式的响应体，总长度为 payloadBytes（不小于前后缀长度）
+     */
+    private static byte[] buildPayload(int payloadBytes) {
+        int length = Math.max(payloadBytes, PAYLOAD_PREFIX.length + PAYLOAD_SUFFIX.length);
+        byte[] payload = new byte[length];
+        Arrays.fill(payload, (byte) 'x');
+        System.arraycopy(PAYLOAD_PREFIX, 0, payload, 0, PAYLOAD_PREFIX.length);
+        System.arraycopy(PAYLOAD_SUFFIX, 0, payload, length - PAYLOAD_SUFFIX.length, PAYLOAD_SUFFIX.length);
+        return payload;
+    }
+}
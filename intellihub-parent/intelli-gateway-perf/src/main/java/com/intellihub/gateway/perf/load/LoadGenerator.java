@@ -0,0 +1,147 @@
+package com.intellihub.gateway.perf.load;
+
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Recorder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 负载生成器
+ * <p>
+ * 1. 闭环模式（targetRps=0）：concurrency 个请求循环发送，收到响应后立即发下一个，测得的是最大吞吐
+ * 2. 开环模式（targetRps>0）：按固定速率排定每个请求的计划发送时间，延迟从计划时间算起，
+ *    网关变慢时排队等待的时间也计入延迟（避免协调遗漏），在途请求数不超过 {@link #MAX_IN_FLIGHT}
+ * 使用独立的事件循环线程和连接池，延迟记录到 HdrHistogram（微秒）
+ * </p>
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+@Slf4j
+public class LoadGenerator implements AutoCloseable {
+
+    private static final int MAX_IN_FLIGHT = 65536;
+    private static final Duration RESPONSE_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration SCHEDULE_TICK = Duration.ofMillis(1);
+
+    private final LoopResources loops;
+    private final ConnectionProvider connectionProvider;
+    private final HttpClient client;
+    private final Supplier<String> pathSupplier;
+    private final int concurrency;
+    private final int targetRps;
+
+    /**
+     * @param baseUrl      网关地址
+     * @param pathSupplier 每个请求的路径
+     * @param concurrency  连接数（闭环模式下即并发请求数）
+     * @param targetRps    目标请求速率，0表示闭环模式
+     */
+    public LoadGenerator(String baseUrl, Supplier<String> pathSupplier, int concurrency, int targetRps) {
+        this.loops = LoopResources.create("perf-client",
+                Math.max(2, Runtime.getRuntime().availableProcessors() / 2), true);
+        this.connectionProvider = ConnectionProvider.builder("perf-client")
+                .maxConnections(concurrency)
+                .pendingAcquireMaxCount(-1)
+                .pendingAcquireTimeout(RESPONSE_TIMEOUT)
+                .build();
+        this.client = HttpClient.create(connectionProvider)
+                .runOn(loops)
+                .baseUrl(baseUrl)
+                .responseTimeout(RESPONSE_TIMEOUT);
+        this.pathSupplier = pathSupplier;
+        this.concurrency = concurrency;
+        this.targetRps = targetRps;
+    }
+
+    /**
+     * 运行一轮负载，等待在途请求全部完成后返回结果
+     *
+     * @param phase    阶段名称（warmup、measure）
+     * @param duration 发送请求的时长
+     */
+    public LoadReport run(String phase, Duration duration) {
+        Recorder recorder = new Recorder(3);
+        Map<Integer, LongAdder> statusCounts = new ConcurrentHashMap<>();
+        LongAdder failures = new LongAdder();
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+
+        Flux<Void> load = targetRps > 0
+                ? openLoop(start, deadline, recorder, statusCounts, failures)
+                : closedLoop(deadline, recorder, statusCounts, failures);
+        load.blockLast();
+
+        long elapsed = System.nanoTime() - start;
+        Map<Integer, Long> statuses = new HashMap<>();
+        statusCounts.forEach((status, count) -> statuses.put(status, count.sum()));
+        return new LoadReport(phase, elapsed, recorder.getIntervalHistogram(), statuses, failures.sum());
+    }
+
+    private Flux<Void> closedLoop(long deadline, Recorder recorder, Map<Integer, LongAdder> statusCounts,
+                                  LongAdder failures) {
+        return Flux.range(0, concurrency)
+                .flatMap(worker -> Mono.defer(() -> send(System.nanoTime(), recorder, statusCounts, failures))
+                        .repeat(() -> System.nanoTime() < deadline), concurrency);
+    }
+
+    private Flux<Void> openLoop(long start, long deadline, Recorder recorder, Map<Integer, LongAdder> statusCounts,
+                                LongAdder failures) {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / targetRps;
+        long[] scheduled = {0};
+        return Flux.interval(SCHEDULE_TICK)
+                .onBackpressureDrop()
+                .takeUntil(tick -> System.nanoTime() >= deadline)
+                // 每个时钟周期排出计划时间已到的请求，周期被丢弃或延后时在下一周期补齐
+                .concatMapIterable(tick -> {
+                    long now = Math.min(System.nanoTime(), deadline);
+                    List<Long> due = new ArrayList<>();
+                    while (start + scheduled[0] * intervalNanos <= now) {
+                        due.add(start + scheduled[0] * intervalNanos);
+                        scheduled[0]++;
+                    }
+                    return due;
+                })
+                .flatMap(intended -> send(intended, recorder, statusCounts, failures), MAX_IN_FLIGHT);
+    }
+
+    /**
+     * 发送一个请求，记录从 startNanos 到收完响应的延迟
+     */
+    private Mono<Void> send(long startNanos, Recorder recorder, Map<Integer, LongAdder> statusCounts,
+                            LongAdder failures) {
+        return client.get()
+                .uri(pathSupplier.get())
+                .response((response, body) -> body.then(Mono.just(response.status().code())))
+                .next()
+                .doOnNext(status -> {
+                    recorder.recordValue(Math.max(1, TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos)));
+                    statusCounts.computeIfAbsent(status, key -> new LongAdder()).increment();
+                })
+                .onErrorResume(e -> {
+                    failures.increment();
+                    log.debug("请求失败: {}", e.toString());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    @Override
+    public void close() {
+        connectionProvider.disposeLater().block();
+        loops.disposeLater().block();
+    }
+}
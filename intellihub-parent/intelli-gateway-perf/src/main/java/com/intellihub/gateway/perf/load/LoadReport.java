@@ -0,0 +1,88 @@
+package com.intellihub.gateway.perf.load;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 一轮负载的结果：请求速率、状态码分布和延迟直方图（微秒）
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+public class LoadReport {
+
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final String phase;
+    private final long elapsedNanos;
+    private final Histogram histogram;
+    private final Map<Integer, Long> statusCounts;
+    private final long failures;
+
+    LoadReport(String phase, long elapsedNanos, Histogram histogram, Map<Integer, Long> statusCounts, long failures) {
+        this.phase = phase;
+        this.elapsedNanos = elapsedNanos;
+        this.histogram = histogram;
+        this.statusCounts = new TreeMap<>(statusCounts);
+        this.failures = failures;
+    }
+
+    /**
+     * 完成的请求数（含非2xx与请求异常）
+     */
+    public long requests() {
+        return histogram.getTotalCount() + failures;
+    }
+
+    public double rps() {
+        return requests() * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    /**
+     * 非2xx响应与请求异常的占比
+     */
+    public double errorRate() {
+        long requests = requests();
+        if (requests == 0) {
+            return 1.0;
+        }
+        long errors = failures;
+        for (Map.Entry<Integer, Long> entry : statusCounts.entrySet()) {
+            if (entry.getKey() < 200 || entry.getKey() >= 300) {
+                errors += entry.getValue();
+            }
+        }
+        return (double) errors / requests;
+    }
+
+    public void print(PrintStream out) {
+        out.printf("[%s] requests=%d, elapsed=%.1fs, rps=%.0f, errorRate=%.4f%%%n",
+                phase, requests(), elapsedNanos / 1_000_000_000.0, rps(), errorRate() * 100);
+        out.printf("[%s] latency(ms): p50=%.3f, p90=%.3f, p99=%.3f, p99.9=%.3f, max=%.3f%n", phase,
+                percentile(50), percentile(90), percentile(99), percentile(99.9),
+                histogram.getMaxValue() / MICROS_PER_MILLI);
+        out.printf("[%s] status: %s, failures=%d%n", phase, statusCounts, failures);
+    }
+
+    /**
+     * 输出完整的延迟分布（HdrHistogram .hgrm 格式，单位毫秒），可用 HdrHistogram 的 plotter 绘图
+     */
+    public Path writeHistogram(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        Path file = dir.resolve("gateway-" + phase + ".hgrm");
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file), false, "UTF-8")) {
+            histogram.outputPercentileDistribution(out, MICROS_PER_MILLI);
+        }
+        return file;
+    }
+
+    private double percentile(double percentile) {
+        return histogram.getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+    }
+}
@@ -0,0 +1,96 @@
+package com.intellihub.gateway.perf.stub;
+
+import com.intellihub.dubbo.ApiCallCountDTO;
+import com.intellihub.dubbo.ApiInfoDTO;
+import com.intellihub.dubbo.ApiPlatformDubboService;
+import com.intellihub.dubbo.ApiRouteDTO;
+import com.intellihub.dubbo.RouteChangesDTO;
+import lombok.RequiredArgsConstructor;
+import org.apache.dubbo.config.annotation.DubboService;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * API平台Dubbo服务桩
+ * <p>
+ * 与网关在同一进程内以 injvm 协议暴露，网关的 {@link ApiPlatformDubboService} 引用（scope=local）直接调用本实现，
+ * 路由来自 {@link InMemoryRouteSource}。增量同步总是返回全量快照；未加载的路径一律视为未匹配
+ * </p>
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+@DubboService
+@RequiredArgsConstructor
+public class InMemoryApiPlatformDubboService implements ApiPlatformDubboService {
+
+    private final InMemoryRouteSource routeSource;
+
+    @Override
+    public ApiRouteDTO getRouteByPath(String path, String method) {
+        return null;
+    }
+
+    @Override
+    public List<ApiRouteDTO> getAllPublishedRoutes() {
+        return routeSource.getRoutes();
+    }
+
+    @Override
+    public ApiRouteDTO getRouteByApiId(String apiId) {
+        return routeSource.getRoute(apiId);
+    }
+
+    @Override
+    public boolean isApiPublished(String path, String method) {
+        return false;
+    }
+
+    @Override
+    public ApiRouteDTO matchRouteByPath(String requestPath, String method) {
+        return null;
+    }
+
+    @Override
+    public long getRouteVersion() {
+        return InMemoryRouteSource.VERSION;
+    }
+
+    @Override
+    public RouteChangesDTO getRouteChangesSince(long version) {
+        RouteChangesDTO changes = new RouteChangesDTO();
+        changes.setVersion(InMemoryRouteSource.VERSION);
+        if (version < InMemoryRouteSource.VERSION) {
+            changes.setFullSnapshot(true);
+            changes.setRoutes(routeSource.getRoutes());
+        }
+        return changes;
+    }
+
+    @Override
+    public int batchUpdateApiCallCounts(List<ApiCallCountDTO> callCounts) {
+        return callCounts != null ? callCounts.size() : 0;
+    }
+
+    @Override
+    public List<ApiInfoDTO> getAllApiInfoForSync(Long tenantId) {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public List<ApiInfoDTO> getApiInfoUpdatedAfter(Long tenantId, LocalDateTime lastSyncTime) {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public int countApisByTenantId(String tenantId) {
+        return routeSource.size();
+    }
+
+    @Override
+    public long countTodayCallsByTenantId(String tenantId) {
+        return 0;
+    }
+}
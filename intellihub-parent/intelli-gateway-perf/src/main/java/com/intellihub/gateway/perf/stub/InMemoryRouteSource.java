@@ -0,0 +1,99 @@
+package com.intellihub.gateway.perf.stub;
+
+import com.intellihub.dubbo.ApiRouteDTO;
+import com.intellihub.dubbo.RouteRateLimitDTO;
+import com.intellihub.gateway.perf.PerfOptions;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 内存路由源
+ * <p>
+ * 压测期间路由不变，版本号固定为1。路由路径形如 /open/perf/r{序号}/items/{id}，
+ * 全部指向本地桩后端（HTTP、免认证），按参数附加路由限流规则和响应缓存配置
+ * </p>
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+public class InMemoryRouteSource {
+
+    public static final long VERSION = 1L;
+
+    private static final String PATH_PREFIX = "/open/perf/r";
+
+    /**
+     * apiId -> 路由
+     */
+    private final Map<String, ApiRouteDTO> routes;
+
+    public InMemoryRouteSource(List<ApiRouteDTO> routes) {
+        Map<String, ApiRouteDTO> byApiId = new LinkedHashMap<>();
+        for (ApiRouteDTO route : routes) {
+            byApiId.put(route.getApiId(), route);
+        }
+        this.routes = Collections.unmodifiableMap(byApiId);
+    }
+
+    /**
+     * 按压测参数生成路由
+     *
+     * @param options     压测参数
+     * @param backendPort 桩后端端口
+     */
+    public static InMemoryRouteSource create(PerfOptions options, int backendPort) {
+        List<ApiRouteDTO> routes = new ArrayList<>(options.getRoutes());
+        for (int i = 0; i < options.getRoutes(); i++) {
+            ApiRouteDTO route = new ApiRouteDTO();
+            route.setApiId(String.format("perf-%06d", i));
+            route.setTenantId("perf");
+            route.setApiName("perf-route-" + i);
+            route.setPath(PATH_PREFIX + i + "/items/{id}");
+            route.setMethod("GET");
+            route.setAuthType("none");
+            route.setTimeout(30000);
+            route.setMockEnabled(false);
+            route.setBackendType("http");
+            route.setBackendProtocol("http");
+            route.setBackendHost("127.0.0.1:" + backendPort);
+            route.setBackendPath("/stub");
+            if (options.isRateLimit()) {
+                RouteRateLimitDTO rule = new RouteRateLimitDTO();
+                rule.setDimension(RouteRateLimitDTO.DIMENSION_PATH);
+                rule.setLimit(Integer.MAX_VALUE);
+                rule.setWindow(60);
+                route.setRateLimitEnabled(true);
+                route.setRateLimits(Collections.singletonList(rule));
+            }
+            if (options.isResponseCache()) {
+                route.setCacheEnabled(true);
+                route.setCacheTtl(60);
+            }
+            routes.add(route);
+        }
+        return new InMemoryRouteSource(routes);
+    }
+
+    /**
+     * 第 index 条路由的一个请求路径
+     */
+    public static String requestPath(int index, long id) {
+        return PATH_PREFIX + index + "/items/" + id;
+    }
+
+    public List<ApiRouteDTO> getRoutes() {
+        return new ArrayList<>(routes.values());
+    }
+
+    public ApiRouteDTO getRoute(String apiId) {
+        return routes.get(apiId);
+    }
+
+    public int size() {
+        return routes.size();
+    }
+}
@@ -43,6 +43,16 @@ public class AppKeyConfig {
      */
     private List<String> skipPaths = new ArrayList<>();
 
+    /**
+     * AppKey信息与订阅关系的本地缓存（L1）配置
+     */
+    private LocalCache localCache = new LocalCache();
+
+    /**
+     * 防重放（Nonce）校验配置
+     */
+    private NonceGuard nonceGuard = new NonceGuard();
+
     /**
      * 检查路径是否需要AppKey认证
      */
@@ -78,4 +88,82 @@ public class AppKeyConfig {
             return path.equals(pattern);
         }
     }
+
+    /**
+     * 本地缓存配置
+     */
+    @Data
+    public static class LocalCache {
+
+        /**
+         * 是否启用本地缓存，关闭后每次请求都读Redis
+         */
+        private boolean enabled = true;
+
+        /**
+         * 本地缓存过期时间（秒），变更通过Pub/Sub精确失效，过期只是兜底
+         */
+        private long expireSeconds = 120;
+
+        /**
+         * 写入多久后在访问时提前异步刷新（秒），需小于过期时间
+         */
+        private long refreshAfterSeconds = 60;
+
+        /**
+         * AppKey信息最大条目数
+         */
+        private long appKeyMaxSize = 10000;
+
+        /**
+         * 订阅关系判定最大条目数
+         */
+        private long subscriptionMaxSize = 100000;
+    }
+
+    /**
+     * 防重放（Nonce）校验方式
+     */
+    public enum NonceGuardMode {
+        /**
+         * 每个Nonce一个Redis Key（SET NX EX），精确判定
+         */
+        EXACT,
+        /**
+         * 按请求时间戳分桶轮换的布隆过滤器（Redis位图 + 本地过滤器），内存固定，存在可控的误判率
+         */
+        BLOOM
+    }
+
+    /**
+     * 防重放（Nonce）校验配置
+     */
+    @Data
+    public static class NonceGuard {
+
+        /**
+         * 校验方式
+         */
+        private NonceGuardMode mode = NonceGuardMode.EXACT;
+
+        /**
+         * BLOOM：每个布隆过滤器覆盖的时间戳区间（秒）
+         */
+        private long bucketSeconds = 60;
+
+        /**
+         * BLOOM：每个时间桶预计的请求数（全部应用合计），超过后误判率上升
+         */
+        private long expectedInsertionsPerBucket = 1000000;
+
+        /**
+         * BLOOM：时间桶写满 expectedInsertionsPerBucket 个Nonce时的误判率
+         */
+        private double falsePositiveRate = 1e-6;
+
+        /**
+         * BLOOM：是否同时维护本地过滤器，本节点见过的重放请求不经Redis直接拒绝
+         */
+        private boolean localEnabled = true;
+    }
 }
@@ -0,0 +1,107 @@
+package com.intellihub.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 开放API HTTP后端连接池配置
+ * <p>
+ * 每个后端主机（scheme://host:port）一个连接池，hosts 中可按主机覆盖默认配置
+ * </p>
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.backend.http")
+public class BackendHttpClientConfig {
+
+    /**
+     * 默认连接池配置
+     */
+    private Pool pool = new Pool();
+
+    /**
+     * 按后端主机覆盖的连接池配置，Key 为 host:port（如 10.0.0.8:8080，服务名路由按负载均衡选出的实例地址匹配），YAML 中需写成 "[10.0.0.8:8080]"
+     */
+    private Map<String, Pool> hosts = new HashMap<>();
+
+    /**
+     * 默认连接超时（毫秒），路由配置了连接超时时以路由为准
+     */
+    private int connectTimeoutMs = 5000;
+
+    /**
+     * 默认响应超时（毫秒），路由配置了超时时以路由为准
+     */
+    private int responseTimeoutMs = 30000;
+
+    /**
+     * 是否启用HTTP/2（http 使用 h2c，https 使用 h2，均可回退 HTTP/1.1）
+     */
+    private boolean http2 = false;
+
+    /**
+     * 是否启用HTTP keep-alive
+     */
+    private boolean keepAlive = true;
+
+    /**
+     * 后端主机多久没有请求后释放其客户端和连接池（分钟），下线的实例不再被选中，到期后随之释放
+     */
+    private int idleExpireMinutes = 10;
+
+    /**
+     * 最多保留的后端主机数量，超过时释放最久未使用主机的客户端和连接池
+     */
+    private int maxBackends = 1000;
+
+    /**
+     * 获取指定主机的连接池配置
+     */
+    public Pool getPool(String hostAndPort) {
+        Pool override = hosts.get(hostAndPort);
+        return override != null ? override : pool;
+    }
+
+    /**
+     * 连接池配置
+     */
+    @Data
+    public static class Pool {
+        /**
+         * 最大连接数
+         */
+        private int maxConnections = 200;
+
+        /**
+         * 等待获取连接的最大请求数，超过后直接失败
+         */
+        private int pendingAcquireMaxCount = 1000;
+
+        /**
+         * 等待获取连接的超时时间（毫秒）
+         */
+        private long pendingAcquireTimeoutMs = 5000;
+
+        /**
+         * 连接最大空闲时间（秒）
+         */
+        private long maxIdleTimeSeconds = 30;
+
+        /**
+         * 连接最大存活时间（秒）
+         */
+        private long maxLifeTimeSeconds = 300;
+
+        /**
+         * 后台驱逐空闲/过期连接的间隔（秒），0表示不后台驱逐
+         */
+        private long evictIntervalSeconds = 30;
+    }
+}
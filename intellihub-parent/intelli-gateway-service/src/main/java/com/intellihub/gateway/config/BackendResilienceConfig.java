@@ -0,0 +1,144 @@
+package com.intellihub.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 开放API后端熔断与自适应并发限制配置
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.backend.resilience")
+public class BackendResilienceConfig {
+
+    /**
+     * 是否启用后端熔断与自适应并发限制
+     */
+    private boolean enabled = true;
+
+    /**
+     * 是否按API细分（默认按后端细分：HTTP后端按主机，Dubbo后端按接口/分组/版本）
+     */
+    private boolean perApi = false;
+
+    /**
+     * 熔断配置
+     */
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+    /**
+     * 自适应并发限制配置
+     */
+    private Concurrency concurrency = new Concurrency();
+
+    /**
+     * 熔断配置
+     */
+    @Data
+    public static class CircuitBreaker {
+        /**
+         * 是否启用熔断
+         */
+        private boolean enabled = true;
+
+        /**
+         * 失败率阈值（百分比），达到后熔断
+         */
+        private int failureRateThreshold = 50;
+
+        /**
+         * 慢调用率阈值（百分比），达到后熔断
+         */
+        private int slowCallRateThreshold = 80;
+
+        /**
+         * 慢调用耗时阈值（毫秒）
+         */
+        private long slowCallDurationMs = 3000;
+
+        /**
+         * 统计窗口内的最少调用数，不足时不计算失败率
+         */
+        private int minimumCalls = 20;
+
+        /**
+         * 统计窗口（秒），按秒分桶滑动
+         */
+        private int windowSeconds = 10;
+
+        /**
+         * 熔断持续时间（毫秒），到期后进入半开状态
+         */
+        private long openDurationMs = 10000;
+
+        /**
+         * 半开状态允许的探测调用数，全部完成后按失败率决定关闭或重新熔断
+         */
+        private int halfOpenPermittedCalls = 5;
+    }
+
+    /**
+     * 自适应并发限制配置（Gradient算法：按短期延迟与长期基线延迟的比值调整并发上限）
+     */
+    @Data
+    public static class Concurrency {
+        /**
+         * 是否启用自适应并发限制
+         */
+        private boolean enabled = true;
+
+        /**
+         * 初始并发上限
+         */
+        private int initialLimit = 50;
+
+        /**
+         * 最小并发上限
+         */
+        private int minLimit = 5;
+
+        /**
+         * 最大并发上限
+         */
+        private int maxLimit = 500;
+
+        /**
+         * 延迟容忍倍数，短期延迟不超过基线的该倍数时不收缩
+         */
+        private double rttTolerance = 1.5;
+
+        /**
+         * 平滑系数（0-1），越大调整越快
+         */
+        private double smoothing = 0.2;
+
+        /**
+         * 出现失败或超时时的乘性收缩比例
+         */
+        private double backoffRatio = 0.9;
+
+        /**
+         * 采样窗口（毫秒），每个窗口结束时调整一次上限
+         */
+        private long sampleWindowMs = 1000;
+
+        /**
+         * 窗口内最少采样数，不足时延长窗口
+         */
+        private int minSamples = 10;
+
+        /**
+         * 长期基线延迟的平滑窗口（窗口数）
+         */
+        private int longWindow = 100;
+
+        /**
+         * 超过并发上限被拒绝时返回的 Retry-After（秒）
+         */
+        private int retryAfterSeconds = 1;
+    }
+}
@@ -0,0 +1,68 @@
+package com.intellihub.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 调用日志上报配置
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.call-log")
+public class CallLogConfig {
+
+    /**
+     * 缓冲区容量（条），向上取整为2的幂
+     */
+    private int bufferSize = 65536;
+
+    /**
+     * 缓冲区满时的处理策略
+     */
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+
+    /**
+     * BLOCK策略下最长等待时间（毫秒），超时仍未写入则丢弃；请求线程是事件循环线程，不宜过长
+     */
+    private long blockTimeoutMs = 5;
+
+    /**
+     * 单次从缓冲区取出的最大条数
+     */
+    private int drainBatchSize = 512;
+
+    /**
+     * Redis实时统计的刷新间隔（毫秒）
+     */
+    private long flushIntervalMs = 1000;
+
+    /**
+     * Kafka消息是否使用二进制编码；关闭时输出旧版JSON，用于治理服务尚未升级时的过渡
+     */
+    private boolean binaryEncoding = true;
+
+    /**
+     * 是否发送Kafka；关闭时不创建生产者，只维护Redis实时统计（压测、没有治理服务的环境）
+     */
+    private boolean kafkaEnabled = true;
+
+    /**
+     * 缓冲区满时的处理策略
+     */
+    public enum OverflowPolicy {
+
+        /**
+         * 直接丢弃
+         */
+        DROP,
+
+        /**
+         * 等待缓冲区腾出空间，超过 blockTimeoutMs 后丢弃
+         */
+        BLOCK
+    }
+}
@@ -0,0 +1,42 @@
+package com.intellihub.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 开放API Dubbo泛化调用配置
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.dubbo")
+public class DubboInvokeConfig {
+
+    /**
+     * 单个接口的最大并发调用数，超过时直接拒绝（503），0表示不限制
+     */
+    private int maxConcurrencyPerInterface = 200;
+
+    /**
+     * 默认调用超时（毫秒），路由配置了超时时以路由为准
+     */
+    private int defaultTimeoutMs = 5000;
+
+    /**
+     * 启动时是否为已发布的Dubbo路由预先创建服务引用
+     */
+    private boolean warmupOnStartup = true;
+
+    /**
+     * 泛化服务引用的最大数量，超过时淘汰最久未使用的引用并销毁
+     */
+    private int referenceMaxSize = 100;
+
+    /**
+     * 泛化服务引用多久未被访问后销毁（分钟）
+     */
+    private int referenceExpireMinutes = 30;
+}
@@ -7,15 +7,18 @@ package com.intellihub.gateway.config;
  * </p>
  * <pre>
  * 执行顺序：
- * 1. CacheBodyFilter          (-200) - 缓存请求Body，供后续过滤器使用
- * 2. AccessLogFilter          (-100) - 访问日志记录（请求开始）
- * 3. OpenApiRouteMatchFilter  (-50)  - 开放API路由匹配，设置API上下文
- * 4. RateLimitFilter          (100)  - 限流控制（在认证之前，防止资源浪费）
- * 5. JwtAuthenticationFilter  (1000) - JWT Token认证（管理后台请求）
- * 6. GlobalTenantFilter       (1050) - 租户上下文处理（在JWT认证之后）
- * 7. AppKeyAuthenticationFilter (1100) - AppKey签名认证（开放API请求）
- * 8. OpenApiRouteFilter       (1200) - 开放API动态路由转发
+ * 1. AccessLogFilter          (-100) - 访问日志记录（请求开始）
+ * 2. OpenApiRouteMatchFilter  (-50)  - 开放API路由匹配，设置API上下文
+ * 3. RateLimitFilter          (100)  - 限流控制（在认证之前，防止资源浪费）
+ * 4. JwtAuthenticationFilter  (1000) - JWT Token认证（管理后台请求）
+ * 5. GlobalTenantFilter       (1050) - 租户上下文处理（在JWT认证之后）
+ * 6. OpenApiPipelineFilter    (1100) - 执行路由预编译的处理管道，只包含该路由需要的阶段：
+ *    AppKeyAuthenticationFilter (1100) - AppKey签名认证（开放API请求）
+ *    RouteRateLimitFilter     (1150) - 开放API路由级限流（按路由预计算的限流规则）
+ *    CacheBodyFilter          (1180) - 按路由需要缓存请求Body（其余请求流式转发）
+ *    OpenApiRouteFilter       (1200) - 开放API动态路由转发
  * </pre>
+ * 管道内的阶段不是全局过滤器，顺序值只用于管道内排序
  *
  * @author intellihub
  * @since 1.0.0
@@ -26,12 +29,6 @@ public final class FilterOrderConfig {
         // 禁止实例化
     }
 
-    /**
-     * CacheBodyFilter - 缓存请求Body
-     * <p>最先执行，确保Body可以被后续过滤器读取</p>
-     */
-    public static final int CACHE_BODY_FILTER = -200;
-
     /**
      * AccessLogFilter - 访问日志记录
      * <p>记录请求开始时间和基本信息</p>
@@ -69,12 +66,30 @@ public final class FilterOrderConfig {
      */
     public static final int GLOBAL_TENANT_FILTER = 1050;
 
+    /**
+     * OpenApiPipelineFilter - 开放API路由处理管道
+     * <p>在JWT认证和租户处理之后执行，按路由执行下面的处理阶段</p>
+     */
+    public static final int OPEN_API_PIPELINE_FILTER = 1100;
+
     /**
      * AppKeyAuthenticationFilter - AppKey签名认证
      * <p>验证开放API请求的AppKey签名</p>
      */
     public static final int APP_KEY_AUTHENTICATION_FILTER = 1100;
 
+    /**
+     * RouteRateLimitFilter - 开放API路由级限流
+     * <p>在AppKey认证之后执行，才能按应用、租户维度限流</p>
+     */
+    public static final int ROUTE_RATE_LIMIT_FILTER = 1150;
+
+    /**
+     * CacheBodyFilter - 缓存请求Body
+     * <p>在认证和限流之后执行，只为需要读取请求体的路由缓存，被拒绝的请求不读取请求体</p>
+     */
+    public static final int CACHE_BODY_FILTER = 1180;
+
     /**
      * OpenApiRouteFilter - 开放API路由转发
      * <p>根据API配置将请求转发到后端服务</p>
@@ -0,0 +1,55 @@
+package com.intellihub.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 网关请求与分阶段耗时指标配置
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.metrics")
+public class GatewayMetricsConfig {
+
+    /**
+     * 是否记录分阶段耗时指标
+     */
+    private boolean enabled = true;
+
+    /**
+     * apiId 哈希分桶数，api_bucket 标签的取值数量因此有界
+     */
+    private int apiBuckets = 16;
+
+    /**
+     * 单独作为 api_bucket 标签值的apiId（重点关注的API），其余API按哈希分桶
+     */
+    private List<String> trackedApiIds = new ArrayList<>();
+
+    /**
+     * 直方图最小预期耗时（毫秒），与最大预期耗时一起决定直方图桶的范围
+     */
+    private long histogramMinMs = 1;
+
+    /**
+     * 直方图最大预期耗时（毫秒）
+     */
+    private long histogramMaxMs = 30000;
+
+    /**
+     * 访问日志采样率（0-1），慢请求和5xx总是记录
+     */
+    private double accessLogSampleRate = 0.01;
+
+    /**
+     * 慢请求阈值（毫秒），超过时总是记录访问日志
+     */
+    private long slowRequestThresholdMs = 1000;
+}
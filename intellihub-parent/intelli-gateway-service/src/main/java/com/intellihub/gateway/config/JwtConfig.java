@@ -29,4 +29,46 @@ public class JwtConfig {
      * Token过期时间（小时）
      */
     private Integer tokenExpiration = 24;
+
+    /**
+     * 已验证Token的本地缓存配置
+     */
+    private Cache cache = new Cache();
+
+    /**
+     * Token注销集合配置
+     */
+    private Revocation revocation = new Revocation();
+
+    /**
+     * 已验证Token的本地缓存配置（按Token摘要缓存解析结果，Token过期时失效）
+     */
+    @Data
+    public static class Cache {
+        /**
+         * 是否启用缓存
+         */
+        private boolean enabled = true;
+
+        /**
+         * 最大缓存条数
+         */
+        private long maximumSize = 100000;
+    }
+
+    /**
+     * Token注销集合配置（本地副本，由Redis注销通知维护，定期与Redis全量核对）
+     */
+    @Data
+    public static class Revocation {
+        /**
+         * 是否检查Token注销
+         */
+        private boolean enabled = true;
+
+        /**
+         * 与Redis全量核对的间隔（毫秒），补齐丢失的注销通知
+         */
+        private long resyncIntervalMs = 60000;
+    }
 }
@@ -43,11 +43,17 @@ public class RateLimitConfig {
     /**
      * 限流算法类型
      * SLIDING_WINDOW: 滑动窗口（推荐，流量平滑，无临界突刺）
+     * SLIDING_WINDOW_COUNTER: 滑动窗口计数器（近似滑动窗口，单次原子脚本，内存O(1)，适合热点Key）
      * FIXED_WINDOW: 固定窗口（性能高，但有临界突刺问题）
      * TOKEN_BUCKET: 令牌桶（支持突发流量）
      */
     private Algorithm algorithm = Algorithm.SLIDING_WINDOW;
 
+    /**
+     * 混合令牌桶配置（algorithm 为 HYBRID_TOKEN_BUCKET 时生效）
+     */
+    private Hybrid hybrid = new Hybrid();
+
     /**
      * 限流Key的前缀
      */
@@ -68,6 +74,13 @@ public class RateLimitConfig {
          * 缺点：需要存储时间戳，内存占用略高
          */
         SLIDING_WINDOW,
+
+        /**
+         * 滑动窗口计数器算法
+         * 优点：两个固定窗口计数按时间加权估算，检查与计数一次原子脚本完成，每个Key内存占用O(1)
+         * 缺点：假设上一窗口内请求均匀分布，为近似滑动窗口
+         */
+        SLIDING_WINDOW_COUNTER,
         
         /**
          * 固定窗口算法
@@ -81,7 +94,14 @@ public class RateLimitConfig {
          * 优点：支持突发流量，流量整形效果好
          * 缺点：实现复杂，参数调优难度大
          */
-        TOKEN_BUCKET
+        TOKEN_BUCKET,
+
+        /**
+         * 混合令牌桶算法（本地令牌 + Redis租约）
+         * 优点：网关节点从Redis批量租借令牌，请求在本地无锁扣减，Redis不在每个请求的路径上
+         * 缺点：全局限流为近似值，单节点最多超发一个租约批次（见 {@link Hybrid}）
+         */
+        HYBRID_TOKEN_BUCKET
     }
 
     /**
@@ -106,4 +126,45 @@ public class RateLimitConfig {
             this.window = window;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * 混合令牌桶配置
+     * <p>
+     * 每个限流Key的全局令牌桶保存在Redis中，节点每次租借一批令牌到本地；
+     * 节点持有的未用令牌在全局桶回满时仍可使用，因此单节点的超发量不超过一个租约批次，
+     * 批次大小受 maxOvershootRatio 约束
+     * </p>
+     */
+    @Data
+    public static class Hybrid {
+        /**
+         * 每次从Redis租借的令牌数
+         */
+        private int leaseSize = 20;
+
+        /**
+         * 单节点允许的最大超发比例（相对于限流次数），租约批次不超过 requests * maxOvershootRatio，最少1个
+         */
+        private double maxOvershootRatio = 0.1;
+
+        /**
+         * 本地剩余令牌低于租约批次的该比例时异步续租
+         */
+        private double refillThreshold = 0.5;
+
+        /**
+         * 本地令牌桶空闲多久后归还未用令牌并释放（秒）
+         */
+        private int idleTimeout = 10;
+
+        /**
+         * 空闲令牌回收间隔（毫秒）
+         */
+        private long releaseIntervalMs = 5000;
+
+        /**
+         * 网关节点数，Redis不可用时每个节点按 全局速率 / nodeCount 在本地发放令牌
+         */
+        private int nodeCount = 1;
+    }
+}
@@ -3,12 +3,16 @@ package com.intellihub.gateway.config;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 
 /**
  * 响应式Redis配置类
  * <p>
- * 配置ReactiveStringRedisTemplate用于网关的响应式Redis操作
+ * 配置ReactiveStringRedisTemplate用于网关的响应式Redis操作，
+ * 以及值为字节数组的模板用于二进制数据（如API响应缓存）
  * </p>
  *
  * @author intellihub
@@ -28,4 +32,20 @@ public class ReactiveRedisConfig {
             ReactiveRedisConnectionFactory connectionFactory) {
         return new ReactiveStringRedisTemplate(connectionFactory);
     }
+
+    /**
+     * 配置值为字节数组的ReactiveRedisTemplate
+     * <p>
+     * 用于API响应缓存，响应体按原始字节存取，不做字符串编解码
+     * </p>
+     */
+    @Bean
+    public ReactiveRedisTemplate<String, byte[]> reactiveBytesRedisTemplate(
+            ReactiveRedisConnectionFactory connectionFactory) {
+        RedisSerializationContext<String, byte[]> context = RedisSerializationContext
+                .<String, byte[]>newSerializationContext(RedisSerializer.string())
+                .value(RedisSerializer.byteArray())
+                .build();
+        return new ReactiveRedisTemplate<>(connectionFactory, context);
+    }
 }
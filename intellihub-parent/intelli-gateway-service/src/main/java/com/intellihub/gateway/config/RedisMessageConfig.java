@@ -2,6 +2,7 @@ package com.intellihub.gateway.config;
 
 import com.intellihub.constants.RedisKeyConstants;
 import com.intellihub.gateway.listener.ApiRouteChangeListener;
+import com.intellihub.gateway.service.TokenRevocationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
@@ -13,7 +14,7 @@ import org.springframework.data.redis.listener.ReactiveRedisMessageListenerConta
 /**
  * Redis消息监听配置
  * <p>
- * 配置Redis Pub/Sub订阅，用于接收路由变更通知
+ * 配置Redis Pub/Sub订阅，用于接收路由变更通知和Token注销通知
  * </p>
  *
  * @author intellihub
@@ -25,6 +26,7 @@ import org.springframework.data.redis.listener.ReactiveRedisMessageListenerConta
 public class RedisMessageConfig {
 
     private final ApiRouteChangeListener apiRouteChangeListener;
+    private final TokenRevocationService tokenRevocationService;
 
     /**
      * 配置响应式Redis消息监听容器
@@ -56,9 +58,30 @@ public class RedisMessageConfig {
                 .doOnError(e -> log.error("应用状态变更监听异常", e))
                 .subscribe();
 
-        log.info("Redis消息监听容器已启动，订阅频道: {}, {}", 
+        // 订阅应用订阅关系变更频道
+        container.receive(ChannelTopic.of(RedisKeyConstants.CHANNEL_APP_SUBSCRIPTION_CHANGE))
+                .doOnNext(message -> {
+                    String body = message.getMessage();
+                    log.info("收到订阅关系变更通知: {}", body);
+                    apiRouteChangeListener.onSubscriptionChange(body);
+                })
+                .doOnError(e -> log.error("订阅关系变更监听异常", e))
+                .subscribe();
+
+        // 订阅Token注销频道
+        container.receive(ChannelTopic.of(RedisKeyConstants.CHANNEL_TOKEN_REVOKED))
+                .doOnNext(message -> {
+                    log.debug("收到Token注销通知: {}", message.getMessage());
+                    tokenRevocationService.onRevoked(message.getMessage());
+                })
+                .doOnError(e -> log.error("Token注销监听异常", e))
+                .subscribe();
+
+        log.info("Redis消息监听容器已启动，订阅频道: {}, {}, {}, {}", 
                 RedisKeyConstants.CHANNEL_API_ROUTE_CHANGE,
-                RedisKeyConstants.CHANNEL_APP_STATUS_CHANGE);
+                RedisKeyConstants.CHANNEL_APP_STATUS_CHANGE,
+                RedisKeyConstants.CHANNEL_APP_SUBSCRIPTION_CHANGE,
+                RedisKeyConstants.CHANNEL_TOKEN_REVOKED);
 
         return container;
     }
@@ -0,0 +1,22 @@
+package com.intellihub.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 请求体缓存配置
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.request-body")
+public class RequestBodyConfig {
+
+    /**
+     * 需要缓存请求体时允许的最大字节数，超过返回413；不缓存请求体的请求流式转发，不受此限制
+     */
+    private int maxBytes = 1024 * 1024;
+}
@@ -0,0 +1,35 @@
+package com.intellihub.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 开放API响应缓存配置
+ * <p>
+ * 缓存时间、stale窗口、Vary请求头按API配置（随路由下发），这里只配置本地缓存容量等全局参数
+ * </p>
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.response-cache")
+public class ResponseCacheConfig {
+
+    /**
+     * 是否启用本地缓存（L1），关闭后只使用Redis（L2）
+     */
+    private boolean localEnabled = true;
+
+    /**
+     * 本地缓存最大占用（字节），按响应体大小计重
+     */
+    private long localMaxBytes = 64 * 1024 * 1024;
+
+    /**
+     * 可缓存的最大响应体（字节），超过时不缓存，直接流式转发
+     */
+    private int maxBodyBytes = 1024 * 1024;
+}
@@ -1,6 +1,7 @@
 package com.intellihub.gateway.filter;
 
 import com.intellihub.gateway.service.CallLogReportService;
+import com.intellihub.gateway.service.metrics.GatewayMetrics;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
@@ -13,13 +14,16 @@ import org.springframework.web.server.ServerWebExchange;
 import com.intellihub.gateway.config.FilterOrderConfig;
 import reactor.core.publisher.Mono;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 访问日志过滤器
  * <p>
- * 记录访问日志并上报到Governance服务
+ * 记录请求总耗时指标（gateway.request），按采样率记录访问日志（慢请求和5xx总是记录），并上报调用日志到Governance服务
  * </p>
  *
  * @author intellihub
@@ -30,7 +34,10 @@ import java.time.format.DateTimeFormatter;
 @RequiredArgsConstructor
 public class AccessLogFilter implements GlobalFilter, Ordered {
 
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+
     private final CallLogReportService callLogReportService;
+    private final GatewayMetrics gatewayMetrics;
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
@@ -38,31 +45,31 @@ public class AccessLogFilter implements GlobalFilter, Ordered {
         ServerHttpResponse response = exchange.getResponse();
 
         // 记录请求信息
-        String startTime = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS"));
         String method = request.getMethod().name();
         String uri = request.getURI().getPath();
-        String query = request.getURI().getQuery();
         String clientIp = getClientIp(request);
         String userAgent = request.getHeaders().getFirst("User-Agent");
 
-        log.info("[Gateway Access] Start Time: {}, Method: {}, URI: {}, Query: {}, ClientIP: {}, UserAgent: {}",
-                startTime, method, uri, query, clientIp, userAgent);
-
-        long start = System.currentTimeMillis();
+        long startMillis = System.currentTimeMillis();
+        long startNanos = System.nanoTime();
 
         return chain.filter(exchange).then(Mono.fromRunnable(() -> {
-            long end = System.currentTimeMillis();
-            int duration = (int) (end - start);
+            long durationNanos = System.nanoTime() - startNanos;
+            int duration = (int) TimeUnit.NANOSECONDS.toMillis(durationNanos);
             int statusCode = response.getStatusCode() != null ? response.getStatusCode().value() : 0;
             boolean success = statusCode >= 200 && statusCode < 400;
+            String apiId = (String) exchange.getAttributes().get(OpenApiRouteMatchFilter.ATTR_API_ID);
 
-            log.info("[Gateway Access] End Time: {}, URI: {}, Status: {}, Duration: {}ms",
-                    LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS")),
-                    uri, statusCode, duration);
+            gatewayMetrics.recordRequest(apiId, statusCode, durationNanos);
+            if (gatewayMetrics.shouldLogAccess(statusCode, duration)) {
+                // 时间只在实际输出日志时格式化
+                log.info("[Gateway Access] Start Time: {}, Method: {}, URI: {}, Query: {}, ClientIP: {}, UserAgent: {}, Status: {}, Duration: {}ms",
+                        TIME_FORMATTER.format(LocalDateTime.ofInstant(Instant.ofEpochMilli(startMillis), ZoneId.systemDefault())),
+                        method, uri, request.getURI().getQuery(), clientIp, userAgent, statusCode, duration);
+            }
 
             // 上报调用日志到Governance服务
             String tenantId = request.getHeaders().getFirst("X-Tenant-Id");
-            String apiId = (String) exchange.getAttributes().get(OpenApiRouteMatchFilter.ATTR_API_ID);
             String appId = request.getHeaders().getFirst("X-App-Id");
             String appKey = request.getHeaders().getFirst("X-App-Key");
             
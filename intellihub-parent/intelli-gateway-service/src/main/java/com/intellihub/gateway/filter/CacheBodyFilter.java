@@ -1,27 +1,42 @@
 package com.intellihub.gateway.filter;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.intellihub.ApiResponse;
+import com.intellihub.dubbo.ApiRouteDTO;
+import com.intellihub.gateway.config.FilterOrderConfig;
+import com.intellihub.gateway.config.RequestBodyConfig;
+import com.intellihub.gateway.service.dubbo.DubboBindingPlanRegistry;
+import com.intellihub.gateway.service.route.RouteStage;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
-import org.springframework.cloud.gateway.filter.GlobalFilter;
-import org.springframework.core.Ordered;
 import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
 import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.server.reactive.ServerHttpRequest;
-import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
-import com.intellihub.gateway.config.FilterOrderConfig;
-import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.nio.charset.StandardCharsets;
+import java.util.Optional;
 
 /**
  * 请求Body缓存过滤器
  * <p>
- * 在最早期缓存请求Body，使其可以被多次读取
- * 解决Dubbo泛化调用等场景需要读取Body的问题
+ * 只为需要读取请求体的路由缓存请求体，其余请求（包括HTTP后端的开放API和管理后台请求）的请求体流式转发：
+ * 1. 在认证和限流之后、转发之前执行，被拒绝的请求不读取请求体
+ * 2. 目前需要请求体的只有参数绑定读取请求体的Dubbo路由（{@link DubboBindingPlanRegistry}）；
+ *    签名不包含请求体，响应缓存只用于GET请求，缓存Key不包含请求体
+ * 3. 请求体超过 gateway.request-body.max-bytes 时返回413（Content-Length 超限时不读取请求体）
+ * 4. 请求体聚合在一个池化的 DataBuffer 中，参数绑定直接从中流式解析，不再复制为字符串；
+ *    绑定完成后立即释放（{@link #releaseCachedBody}），未执行到绑定时在请求结束时释放。
+ *    Dubbo路由不转发原始请求体，缓存后不再提供重复读取
+ * 作为路由处理阶段执行（{@link OpenApiPipelineFilter}），路由条件在编译管道时判定，请求时只检查请求方法
  * </p>
  *
  * @author intellihub
@@ -29,52 +44,104 @@ import java.nio.charset.StandardCharsets;
  */
 @Slf4j
 @Component
-public class CacheBodyFilter implements GlobalFilter, Ordered {
+@RequiredArgsConstructor
+public class CacheBodyFilter implements RouteStage {
 
     /**
-     * Exchange属性Key - 缓存的请求Body
+     * Exchange属性Key - 缓存的请求Body（池化的 DataBuffer，由读取方在读取后释放）
      */
     public static final String ATTR_CACHED_BODY = "gateway.cached.body";
 
+    private final RequestBodyConfig config;
+    private final DubboBindingPlanRegistry bindingPlanRegistry;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * 参数绑定读取请求体的Dubbo路由（Mock路由不调用后端，请求方法只能是不带请求体的方法时也不需要）
+     */
+    @Override
+    public boolean isRequired(ApiRouteDTO route) {
+        if (route == null || !"dubbo".equalsIgnoreCase(route.getBackendType())
+                || (Boolean.TRUE.equals(route.getMockEnabled()) && route.getMockResponse() != null)) {
+            return false;
+        }
+        String method = route.getMethod();
+        if (method != null && !"ALL".equalsIgnoreCase(method) && !"POST".equalsIgnoreCase(method)
+                && !"PUT".equalsIgnoreCase(method) && !"PATCH".equalsIgnoreCase(method)) {
+            return false;
+        }
+        return bindingPlanRegistry.getPlan(route).readsBody();
+    }
+
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
-        ServerHttpRequest request = exchange.getRequest();
-        HttpMethod method = request.getMethod();
+        HttpMethod method = exchange.getRequest().getMethod();
+        if (method != HttpMethod.POST && method != HttpMethod.PUT && method != HttpMethod.PATCH) {
+            return chain.filter(exchange);
+        }
 
-        // 只对可能有Body的请求方法进行缓存
-        if (method == HttpMethod.POST || method == HttpMethod.PUT || method == HttpMethod.PATCH) {
-            return DataBufferUtils.join(request.getBody())
-                    .defaultIfEmpty(exchange.getResponse().bufferFactory().wrap(new byte[0]))
-                    .flatMap(dataBuffer -> {
-                        // 读取Body内容
-                        byte[] bytes = new byte[dataBuffer.readableByteCount()];
-                        dataBuffer.read(bytes);
-                        DataBufferUtils.release(dataBuffer);
+        ServerHttpRequest request = exchange.getRequest();
+        int maxBytes = config.getMaxBytes();
+        if (request.getHeaders().getContentLength() > maxBytes) {
+            log.warn("请求Body超过上限 - path: {}, contentLength: {}, maxBytes: {}",
+                    request.getPath(), request.getHeaders().getContentLength(), maxBytes);
+            return handlePayloadTooLarge(exchange.getResponse(), maxBytes);
+        }
 
-                        String bodyString = new String(bytes, StandardCharsets.UTF_8);
-                        
-                        // 缓存Body到exchange属性
-                        exchange.getAttributes().put(ATTR_CACHED_BODY, bodyString);
-                        
-                        log.debug("缓存请求Body - path: {}, length: {}", request.getPath(), bytes.length);
+        return DataBufferUtils.join(request.getBody(), maxBytes)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .onErrorResume(DataBufferLimitException.class, e -> {
+                    log.warn("请求Body超过上限 - path: {}, maxBytes: {}", request.getPath(), maxBytes);
+                    return handlePayloadTooLarge(exchange.getResponse(), maxBytes)
+                            .then(Mono.<Optional<DataBuffer>>empty());
+                })
+                .flatMap(body -> {
+                    if (!body.isPresent()) {
+                        return chain.filter(exchange);
+                    }
+                    DataBuffer buffer = body.get();
+                    exchange.getAttributes().put(ATTR_CACHED_BODY, buffer);
+                    log.debug("缓存请求Body - path: {}, length: {}", request.getPath(), buffer.readableByteCount());
+                    return chain.filter(exchange)
+                            .doFinally(signal -> releaseCachedBody(exchange));
+                });
+    }
 
-                        // 创建新的Request，使Body可以重复读取
-                        ServerHttpRequest mutatedRequest = new ServerHttpRequestDecorator(request) {
-                            @Override
-                            public Flux<DataBuffer> getBody() {
-                                if (bytes.length > 0) {
-                                    DataBuffer buffer = exchange.getResponse().bufferFactory().wrap(bytes);
-                                    return Flux.just(buffer);
-                                }
-                                return Flux.empty();
-                            }
-                        };
+    /**
+     * 获取缓存的请求体，未缓存或已释放时为null
+     */
+    public static DataBuffer getCachedBody(ServerWebExchange exchange) {
+        return exchange.getAttribute(ATTR_CACHED_BODY);
+    }
 
-                        return chain.filter(exchange.mutate().request(mutatedRequest).build());
-                    });
+    /**
+     * 释放缓存的请求体，可重复调用（属性移除后只有一个调用方拿到缓冲区）
+     */
+    public static void releaseCachedBody(ServerWebExchange exchange) {
+        Object buffer = exchange.getAttributes().remove(ATTR_CACHED_BODY);
+        if (buffer instanceof DataBuffer) {
+            DataBufferUtils.release((DataBuffer) buffer);
         }
+    }
+
+    /**
+     * 请求体超过上限
+     */
+    private Mono<Void> handlePayloadTooLarge(ServerHttpResponse response, int maxBytes) {
+        response.setStatusCode(HttpStatus.PAYLOAD_TOO_LARGE);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+
+        ApiResponse<?> errorResponse = ApiResponse.failed(413, "请求体超过上限: " + maxBytes + " 字节");
 
-        return chain.filter(exchange);
+        try {
+            String result = objectMapper.writeValueAsString(errorResponse);
+            DataBuffer buffer = response.bufferFactory().wrap(result.getBytes(StandardCharsets.UTF_8));
+            return response.writeWith(Mono.just(buffer));
+        } catch (Exception e) {
+            log.error("写入响应失败:", e);
+            return Mono.error(e);
+        }
     }
 
     @Override
@@ -5,7 +5,8 @@ import com.intellihub.gateway.config.FilterOrderConfig;
 import com.intellihub.gateway.config.JwtConfig;
 import com.intellihub.gateway.config.WhiteListConfig;
 import com.intellihub.gateway.dto.UserContext;
-import com.intellihub.gateway.util.JwtUtil;
+import com.intellihub.gateway.service.TokenVerificationService;
+import com.intellihub.gateway.service.metrics.GatewayMetrics;
 import com.intellihub.ApiResponse;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
@@ -28,7 +29,8 @@ import java.util.List;
 
 /**
  * JWT认证过滤器
- * 本地验证JWT Token，无需调用Auth服务，性能更高
+ * 本地验证JWT Token，无需调用Auth服务，性能更高；已验证的Token和注销集合均在本地缓存，
+ * 请求路径上不访问Redis（见 {@link TokenVerificationService}）
  *
  * @author intellihub
  * @since 1.0.0
@@ -38,9 +40,10 @@ import java.util.List;
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
 
-    private final JwtUtil jwtUtil;
+    private final TokenVerificationService tokenVerificationService;
     private final JwtConfig jwtConfig;
     private final WhiteListConfig whiteListConfig;
+    private final GatewayMetrics gatewayMetrics;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     @Override
@@ -61,6 +64,16 @@ public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
             log.debug("路径 {} 在白名单中，跳过认证", path);
             return chain.filter(exchange);
         }
+        return gatewayMetrics.timeStage(GatewayMetrics.Stage.AUTH, exchange, chain, this::authenticate);
+    }
+
+    /**
+     * JWT认证
+     */
+    private Mono<Void> authenticate(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        ServerHttpResponse response = exchange.getResponse();
+        String path = request.getPath().value();
 
         // 获取Authorization头
         String authHeader = request.getHeaders().getFirst("Authorization");
@@ -79,7 +92,7 @@ public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
 
         // 本地验证JWT Token
         try {
-            UserContext userContext = jwtUtil.parseToken(token);
+            UserContext userContext = tokenVerificationService.verify(token);
 
             // 将用户信息添加到请求头，传递给下游服务
             ServerHttpRequest.Builder requestBuilder = request.mutate()
@@ -99,7 +112,7 @@ public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
 
             ServerHttpRequest modifiedRequest = requestBuilder.build();
 
-            log.info("用户认证成功 - UserId: {}, Username: {}, Path: {}",
+            log.debug("用户认证成功 - UserId: {}, Username: {}, Path: {}",
                     userContext.getUserId(), userContext.getUsername(), path);
 
             return chain.filter(exchange.mutate().request(modifiedRequest).build());
@@ -0,0 +1,44 @@
+package com.intellihub.gateway.filter;
+
+import com.intellihub.dubbo.ApiRouteDTO;
+import com.intellihub.gateway.config.FilterOrderConfig;
+import com.intellihub.gateway.service.route.RoutePipelineRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * 开放API路由处理管道过滤器
+ * <p>
+ * AppKey认证、路由级限流、请求Body缓存和路由转发不再作为独立的全局过滤器逐个判断是否生效，
+ * 而是作为路由处理阶段（{@link com.intellihub.gateway.service.route.RouteStage}）按路由预先编译成管道，
+ * 这里取出 {@link OpenApiRouteMatchFilter} 匹配到的路由对应的管道执行，只调用该路由需要的阶段：
+ * 1. 认证方式为 none 的路由没有认证阶段
+ * 2. 只有读取请求体的Dubbo路由有Body缓存阶段
+ * 3. 未匹配到路由的请求（包括非开放API请求）使用固定的管道：按路径判断的AppKey认证和路由转发（返回404或放行）
+ * </p>
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+@Component
+@RequiredArgsConstructor
+public class OpenApiPipelineFilter implements GlobalFilter, Ordered {
+
+    private final RoutePipelineRegistry pipelineRegistry;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ApiRouteDTO route = exchange.getAttribute(OpenApiRouteMatchFilter.ATTR_API_ROUTE);
+        return pipelineRegistry.getPipeline(route).execute(exchange, chain);
+    }
+
+    @Override
+    public int getOrder() {
+        return FilterOrderConfig.OPEN_API_PIPELINE_FILTER;
+    }
+}
@@ -3,18 +3,31 @@ package com.intellihub.gateway.filter;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.intellihub.gateway.config.FilterOrderConfig;
 import com.intellihub.dubbo.ApiRouteDTO;
+import com.intellihub.gateway.service.BackendHttpClientRegistry;
+import com.intellihub.gateway.service.BackendResilienceRegistry;
 import com.intellihub.gateway.service.DubboGenericService;
 import com.intellihub.gateway.service.OpenApiRouteService;
+import com.intellihub.gateway.service.cache.CachedResponse;
+import com.intellihub.gateway.service.cache.ResponseCacheService;
+import com.intellihub.gateway.service.dubbo.DubboConcurrencyLimitException;
 import com.intellihub.gateway.service.dubbo.DubboInvocationContext;
 import com.intellihub.gateway.service.dubbo.DubboInvocationContextBuilder;
+import com.intellihub.gateway.service.dubbo.DubboParameterBindingException;
+import com.intellihub.gateway.service.metrics.GatewayMetrics;
+import com.intellihub.gateway.service.resilience.BackendPermit;
+import com.intellihub.gateway.service.resilience.BackendRejectedException;
+import com.intellihub.gateway.service.route.RouteStage;
 import com.intellihub.ApiResponse;
+import io.netty.channel.ConnectTimeoutException;
+import io.netty.handler.timeout.ReadTimeoutException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.dubbo.rpc.RpcException;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
-import org.springframework.cloud.gateway.filter.GlobalFilter;
-import org.springframework.core.Ordered;
 import org.springframework.core.io.buffer.DataBuffer;
-import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -23,13 +36,19 @@ import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.stereotype.Component;
 import org.springframework.cloud.client.ServiceInstance;
 import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
-import org.springframework.util.DigestUtils;
+import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClientRequest;
+import reactor.netty.internal.shaded.reactor.pool.PoolAcquirePendingLimitException;
+import reactor.netty.internal.shaded.reactor.pool.PoolAcquireTimeoutException;
 
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeoutException;
 
 /**
  * 开放API动态路由过滤器
@@ -38,6 +57,14 @@ import java.time.Duration;
  * 1. 查找路由配置
  * 2. 根据后端配置转发请求
  * 3. 支持HTTP后端和Mock响应
+ * 4. HTTP后端流式转发：响应状态、响应头、响应体原样透传，只有启用响应缓存时才聚合响应体
+ * 5. HTTP后端按主机共享连接池（{@link BackendHttpClientRegistry}），响应超时取路由配置，
+ *    超时返回504，连接池排队已满或等待超时返回503，其他错误返回502
+ * 6. 启用缓存的GET请求走两级响应缓存（{@link ResponseCacheService}），支持 stale-while-revalidate、
+ *    stale-if-error 与 ETag/If-None-Match
+ * 7. 回源调用（HTTP与Dubbo）受后端熔断与自适应并发限制保护（{@link BackendResilienceRegistry}），
+ *    熔断中或并发已达上限时直接返回503并带上 Retry-After
+ * 作为路由处理阶段执行（{@link OpenApiPipelineFilter}），是每个管道的最后一个阶段
  * </p>
  *
  * @author intellihub
@@ -46,15 +73,38 @@ import java.time.Duration;
 @Slf4j
 @Component
 @RequiredArgsConstructor
-public class OpenApiRouteFilter implements GlobalFilter, Ordered {
+public class OpenApiRouteFilter implements RouteStage {
 
     private final OpenApiRouteService routeService;
     private final DubboGenericService dubboGenericService;
     private final DubboInvocationContextBuilder contextBuilder;
     private final LoadBalancerClient loadBalancerClient;
-    private final ReactiveStringRedisTemplate redisTemplate;
+    private final ResponseCacheService responseCacheService;
+    private final BackendHttpClientRegistry httpClientRegistry;
+    private final BackendResilienceRegistry resilienceRegistry;
+    private final GatewayMetrics gatewayMetrics;
     private final ObjectMapper objectMapper = new ObjectMapper();
-    private final WebClient webClient = WebClient.create();
+
+    /**
+     * 逐跳头，只对单个连接有效，不能透传（RFC 7230 6.1）
+     */
+    private static final String[] HOP_BY_HOP_HEADERS = {
+            HttpHeaders.CONNECTION, "Keep-Alive", HttpHeaders.TRANSFER_ENCODING, HttpHeaders.TE,
+            HttpHeaders.TRAILER, HttpHeaders.UPGRADE, HttpHeaders.PROXY_AUTHENTICATE, HttpHeaders.PROXY_AUTHORIZATION
+    };
+
+    /**
+     * 条件请求头，合并回源时不转发（条件请求由网关按缓存的 ETag 处理）
+     */
+    private static final String[] CONDITIONAL_HEADERS = {
+            HttpHeaders.IF_NONE_MATCH, HttpHeaders.IF_MODIFIED_SINCE, HttpHeaders.IF_MATCH,
+            HttpHeaders.IF_UNMODIFIED_SINCE, HttpHeaders.IF_RANGE
+    };
+
+    @Override
+    public boolean isRequired(ApiRouteDTO route) {
+        return true;
+    }
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
@@ -100,9 +150,8 @@ public class OpenApiRouteFilter implements GlobalFilter, Ordered {
      */
     private Mono<Void> forwardToHttpBackend(ServerWebExchange exchange, GatewayFilterChain chain, ApiRouteDTO route) {
         ServerHttpRequest request = exchange.getRequest();
-        ServerHttpResponse response = exchange.getResponse();
 
-        // === 新增：缓存检查 ===
+        // 缓存检查
         if (Boolean.TRUE.equals(route.getCacheEnabled()) && route.getCacheTtl() != null && route.getCacheTtl() > 0) {
             // 只对GET请求启用缓存
             if (HttpMethod.GET.equals(request.getMethod())) {
@@ -110,56 +159,170 @@ public class OpenApiRouteFilter implements GlobalFilter, Ordered {
                 return checkCacheAndForward(exchange, route);
             }
         }
+        return streamFromBackend(exchange, route);
+    }
+
+    /**
+     * 流式转发到HTTP后端
+     */
+    private Mono<Void> streamFromBackend(ServerWebExchange exchange, ApiRouteDTO route) {
+        ServerHttpRequest request = exchange.getRequest();
+        ServerHttpResponse response = exchange.getResponse();
+
+        GatewayMetrics.StageTimer upstream = gatewayMetrics.startStage(GatewayMetrics.Stage.UPSTREAM, route.getApiId());
+        BackendPermit permit;
+        try {
+            permit = resilienceRegistry.acquire(resilienceRegistry.resolveBackend(route));
+        } catch (BackendRejectedException e) {
+            upstream.stop(GatewayMetrics.Outcome.REJECTED);
+            return handleRejected(response, e);
+        }
 
         try {
             // 解析后端地址
             String actualUri = resolveBackendUri(route);
-            log.info("转发请求到后端 - 原路径: {}, 后端地址: {}", request.getPath().value(), actualUri);
+            log.debug("转发请求到后端 - 原路径: {}, 后端地址: {}", request.getPath().value(), actualUri);
 
             String method = route.getBackendMethod() != null ? route.getBackendMethod() : request.getMethod().name();
-            
-            // 使用WebClient转发请求
-            WebClient.RequestBodySpec requestSpec = webClient
-                    .method(HttpMethod.valueOf(method))
-                    .uri(actualUri)
-                    .headers(headers -> {
-                        // 复制原始请求头（排除Host）
-                        request.getHeaders().forEach((name, values) -> {
-                            if (!"Host".equalsIgnoreCase(name)) {
-                                headers.addAll(name, values);
-                            }
-                        });
-                    });
-
-            // 获取缓存的请求体
-            String cachedBody = (String) exchange.getAttributes().get(CacheBodyFilter.ATTR_CACHED_BODY);
-            
-            Mono<String> responseMono;
-            if (cachedBody != null && !cachedBody.isEmpty()) {
-                responseMono = requestSpec.bodyValue(cachedBody)
-                        .retrieve()
-                        .bodyToMono(String.class);
-            } else {
-                responseMono = requestSpec.retrieve().bodyToMono(String.class);
-            }
 
-            return responseMono
-                    .flatMap(body -> {
-                        response.setStatusCode(HttpStatus.OK);
-                        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
-                        DataBuffer buffer = response.bufferFactory().wrap(body.getBytes(StandardCharsets.UTF_8));
-                        return response.writeWith(Mono.just(buffer));
+            // 流式转发：后端响应的 DataBuffer 直接写回客户端，不在网关内聚合
+            // 收到响应头时记录结果与延迟，响应体写完后才归还并发名额
+            return buildBackendRequest(request, route, method, actualUri)
+                    .exchangeToMono(clientResponse -> {
+                        upstream.stop(GatewayMetrics.Outcome.ofStatus(clientResponse.rawStatusCode()));
+                        permit.onResult(clientResponse.rawStatusCode() >= 500);
+                        response.setRawStatusCode(clientResponse.rawStatusCode());
+                        copyResponseHeaders(clientResponse.headers().asHttpHeaders(), response.getHeaders());
+                        return response.writeWith(clientResponse.bodyToFlux(DataBuffer.class));
                     })
                     .onErrorResume(e -> {
+                        upstream.stop(GatewayMetrics.Outcome.ERROR);
+                        if (isHttpBackendFailure(e)) {
+                            permit.onResult(true);
+                        }
                         log.error("转发请求失败 - uri: {}", actualUri, e);
-                        return handleError(response, 502, "后端服务调用失败: " + e.getMessage());
-                    });
+                        if (response.isCommitted()) {
+                            // 响应已开始写出，只能中断连接
+                            return Mono.error(e);
+                        }
+                        return handleBackendError(response, e);
+                    })
+                    .doFinally(signal -> permit.release());
         } catch (Exception e) {
+            permit.release();
+            upstream.stop(GatewayMetrics.Outcome.ERROR);
             log.error("构建后端URI失败 - route: {}", route, e);
             return handleError(response, 500, "路由配置错误: " + e.getMessage());
         }
     }
 
+    /**
+     * 构建后端请求：透传请求头（排除Host和逐跳头），请求体按 DataBuffer 流式转发
+     */
+    private WebClient.RequestHeadersSpec<?> buildBackendRequest(ServerHttpRequest request, ApiRouteDTO route,
+                                                                String method, String uri) {
+        return buildBackendRequest(request, route, method, uri, false);
+    }
+
+    /**
+     * 构建后端请求
+     *
+     * @param sharedFetch 是否为合并回源：结果会写入缓存并返回给所有等待的请求，不转发首个请求的条件请求头，
+     *                    否则后端可能按首个请求的 If-None-Match 返回304，其他请求拿不到响应体
+     */
+    private WebClient.RequestHeadersSpec<?> buildBackendRequest(ServerHttpRequest request, ApiRouteDTO route,
+                                                                String method, String uri, boolean sharedFetch) {
+        Duration responseTimeout = httpClientRegistry.getResponseTimeout(route);
+        WebClient.RequestBodySpec requestSpec = httpClientRegistry.getClient(uri, route)
+                .method(HttpMethod.valueOf(method))
+                .uri(uri)
+                .httpRequest(httpRequest -> {
+                    HttpClientRequest nativeRequest = httpRequest.getNativeRequest();
+                    nativeRequest.responseTimeout(responseTimeout);
+                })
+                .headers(headers -> request.getHeaders().forEach((name, values) -> {
+                    if (!"Host".equalsIgnoreCase(name) && !isHopByHopHeader(name)
+                            && !(sharedFetch && isConditionalHeader(name))) {
+                        headers.addAll(name, values);
+                    }
+                }));
+
+        HttpHeaders requestHeaders = request.getHeaders();
+        if (requestHeaders.getContentLength() > 0 || requestHeaders.containsKey(HttpHeaders.TRANSFER_ENCODING)) {
+            // 请求体流式转发，HTTP后端的请求不经 CacheBodyFilter 缓存
+            return requestSpec.body(BodyInserters.fromDataBuffers(request.getBody()));
+        }
+        return requestSpec;
+    }
+
+    /**
+     * 透传后端响应头（排除逐跳头，由网关自己的连接决定）
+     */
+    private void copyResponseHeaders(HttpHeaders source, HttpHeaders target) {
+        source.forEach((name, values) -> {
+            if (!isHopByHopHeader(name)) {
+                target.put(name, values);
+            }
+        });
+    }
+
+    /**
+     * 后端调用失败：熔断或并发超限返回503，其余按异常类型返回504/503/502
+     */
+    private Mono<Void> handleBackendError(ServerHttpResponse response, Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof BackendRejectedException) {
+                return handleRejected(response, (BackendRejectedException) cause);
+            }
+            if (cause instanceof ReadTimeoutException || cause instanceof ConnectTimeoutException
+                    || cause instanceof TimeoutException) {
+                return handleError(response, 504, "后端服务响应超时");
+            }
+            if (isPoolAcquireFailure(cause)) {
+                return handleError(response, 503, "后端服务繁忙，请稍后重试");
+            }
+        }
+        return handleError(response, 502, "后端服务调用失败: " + e.getMessage());
+    }
+
+    /**
+     * HTTP后端调用异常是否计为后端失败：网关本地的连接池排队失败和响应体超过缓存上限不计入
+     */
+    private boolean isHttpBackendFailure(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof BackendRejectedException || cause instanceof DataBufferLimitException
+                    || isPoolAcquireFailure(cause)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 连接池等待队列已满或等待获取连接超时
+     */
+    private boolean isPoolAcquireFailure(Throwable e) {
+        return e instanceof PoolAcquirePendingLimitException || e instanceof PoolAcquireTimeoutException;
+    }
+
+    private boolean isHopByHopHeader(String name) {
+        for (String header : HOP_BY_HOP_HEADERS) {
+            if (header.equalsIgnoreCase(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isConditionalHeader(String name) {
+        for (String header : CONDITIONAL_HEADERS) {
+            if (header.equalsIgnoreCase(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * 解析后端URI（如果是服务名，使用LoadBalancer解析为实际地址）
      */
@@ -210,22 +373,78 @@ public class OpenApiRouteFilter implements GlobalFilter, Ordered {
      * </p>
      */
     private Mono<Void> forwardToDubboBackend(ServerWebExchange exchange, ApiRouteDTO route) {
-        log.info("[OpenApiRouteFilter] Dubbo转发开始: path={}, interface={}, method={}, group={}", 
+        log.debug("[OpenApiRouteFilter] Dubbo转发开始: path={}, interface={}, method={}, group={}", 
                 route.getPath(), route.getDubboInterface(), route.getDubboMethod(), route.getDubboGroup());
 
-        // 使用建造者构建调用上下文（参数提取由提取器链完成）
-        DubboInvocationContext context = contextBuilder.build(exchange, route);
+        // 使用建造者构建调用上下文（参数由路由预先编译的绑定计划完成）
+        DubboInvocationContext context;
+        try {
+            context = contextBuilder.build(exchange, route);
+        } catch (DubboParameterBindingException e) {
+            log.warn("[OpenApiRouteFilter] Dubbo参数绑定失败: apiId={}, error={}", route.getApiId(), e.getMessage());
+            return handleError(exchange.getResponse(), 400, e.getMessage());
+        }
 
-        // 执行泛化调用
-        return dubboGenericService.invoke(context)
+        // 执行泛化调用（受后端熔断与自适应并发限制保护，业务异常不计为后端失败）
+        GatewayMetrics.StageTimer upstream = gatewayMetrics.startStage(GatewayMetrics.Stage.UPSTREAM, route.getApiId());
+        return resilienceRegistry.protect(resilienceRegistry.resolveBackend(route), dubboGenericService.invoke(context),
+                        result -> false, this::isDubboBackendFailure)
+                .doOnSuccess(result -> upstream.stop(GatewayMetrics.Outcome.STATUS_2XX))
+                .doOnError(e -> upstream.stop(isRejected(e) ? GatewayMetrics.Outcome.REJECTED : GatewayMetrics.Outcome.ERROR))
                 .flatMap(result -> handleDubboResponse(exchange.getResponse(), result))
-                .doOnSuccess(v -> log.info("[OpenApiRouteFilter] Dubbo转发完成: {}", context.toSummary()))
+                .doOnSuccess(v -> log.debug("[OpenApiRouteFilter] Dubbo转发完成: {}", context.toSummary()))
                 .onErrorResume(e -> {
                     log.error("[OpenApiRouteFilter] Dubbo转发失败: {}, error={}", context.toSummary(), e.getMessage(), e);
-                    return handleError(exchange.getResponse(), 500, "Dubbo服务调用失败: " + e.getMessage());
+                    return handleDubboError(exchange.getResponse(), e);
                 });
     }
 
+    /**
+     * Dubbo调用失败：熔断或并发超限返回503，超时返回504，其他错误返回500
+     */
+    private Mono<Void> handleDubboError(ServerHttpResponse response, Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof BackendRejectedException) {
+                return handleRejected(response, (BackendRejectedException) cause);
+            }
+            if (cause instanceof DubboConcurrencyLimitException) {
+                return handleError(response, 503, "后端服务繁忙，请稍后重试");
+            }
+            if (cause instanceof TimeoutException
+                    || (cause instanceof RpcException && ((RpcException) cause).isTimeout())) {
+                return handleError(response, 504, "Dubbo服务响应超时");
+            }
+        }
+        return handleError(response, 500, "Dubbo服务调用失败: " + e.getMessage());
+    }
+
+    /**
+     * 是否被熔断或并发限制拒绝（未到达后端）
+     */
+    private boolean isRejected(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof BackendRejectedException || cause instanceof DubboConcurrencyLimitException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Dubbo调用异常是否计为后端失败：超时和非业务的RPC异常计入，业务异常与网关本地限流不计入
+     */
+    private boolean isDubboBackendFailure(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TimeoutException) {
+                return true;
+            }
+            if (cause instanceof RpcException) {
+                return !((RpcException) cause).isBiz();
+            }
+        }
+        return false;
+    }
+
     /**
      * 处理Dubbo响应
      */
@@ -261,6 +480,17 @@ public class OpenApiRouteFilter implements GlobalFilter, Ordered {
         return handleError(response, 404, message);
     }
 
+    /**
+     * 后端熔断或并发超限：返回503并带上 Retry-After
+     */
+    private Mono<Void> handleRejected(ServerHttpResponse response, BackendRejectedException e) {
+        log.warn("后端请求被拒绝 - backend: {}, reason: {}", e.getBackend(), e.getReason());
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+        String message = e.getReason() == BackendRejectedException.Reason.CIRCUIT_OPEN
+                ? "后端服务暂不可用，请稍后重试" : "后端服务繁忙，请稍后重试";
+        return handleError(response, 503, message);
+    }
+
     /**
      * 处理错误响应
      */
@@ -280,109 +510,197 @@ public class OpenApiRouteFilter implements GlobalFilter, Ordered {
         }
     }
 
-    /**
-     * 构建缓存Key
-     */
-    private String buildCacheKey(ServerHttpRequest request, ApiRouteDTO route) {
-        String queryParams = request.getURI().getQuery();
-        
-        // 计算参数哈希
-        String paramsHash = "";
-        if (queryParams != null && !queryParams.isEmpty()) {
-            paramsHash = DigestUtils.md5DigestAsHex(queryParams.getBytes(StandardCharsets.UTF_8));
-        }
-        
-        return String.format("api:response:cache:%s:%s", route.getApiId(), paramsHash);
-    }
-
     /**
      * 检查缓存并转发
+     * <p>
+     * 新鲜期内直接返回缓存；过期后在 stale-while-revalidate 窗口内返回旧响应并异步刷新，
+     * 在 stale-if-error 窗口内回源，后端出错（异常或5xx）时返回旧响应
+     * </p>
      */
     private Mono<Void> checkCacheAndForward(ServerWebExchange exchange, ApiRouteDTO route) {
-        String cacheKey = buildCacheKey(exchange.getRequest(), route);
-        
-        // 1. 尝试从Redis获取缓存
-        return redisTemplate.opsForValue().get(cacheKey)
-                .flatMap(cachedResponse -> {
-                    // 缓存命中
-                    log.debug("API响应缓存命中 - apiId: {}, cacheKey: {}", route.getApiId(), cacheKey);
-                    return writeCachedResponse(exchange.getResponse(), cachedResponse);
-                })
-                .switchIfEmpty(Mono.defer(() -> {
-                    // 缓存未命中，转发请求并缓存响应
-                    log.debug("API响应缓存未命中 - apiId: {}, cacheKey: {}", route.getApiId(), cacheKey);
-                    return forwardAndCache(exchange, route, cacheKey);
-                }));
+        String cacheKey = responseCacheService.buildKey(exchange, route);
+        GatewayMetrics.StageTimer lookup = gatewayMetrics.startStage(GatewayMetrics.Stage.CACHE, route.getApiId());
+
+        return responseCacheService.get(cacheKey)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(cached -> {
+                    if (!cached.isPresent()) {
+                        lookup.stop(GatewayMetrics.Outcome.MISS);
+                        log.debug("API响应缓存未命中 - apiId: {}, cacheKey: {}", route.getApiId(), cacheKey);
+                        return forwardAndCache(exchange, route, cacheKey, null);
+                    }
+                    return serveCached(exchange, route, cacheKey, cached.get(), lookup);
+                });
+    }
+
+    private Mono<Void> serveCached(ServerWebExchange exchange, ApiRouteDTO route, String cacheKey, CachedResponse cached,
+                                   GatewayMetrics.StageTimer lookup) {
+        long now = System.currentTimeMillis();
+        if (cached.isFresh(now)) {
+            lookup.stop(GatewayMetrics.Outcome.HIT);
+            log.debug("API响应缓存命中 - apiId: {}, cacheKey: {}", route.getApiId(), cacheKey);
+            responseCacheService.record(ResponseCacheService.STATUS_HIT);
+            return writeCachedResponse(exchange, route, cached, ResponseCacheService.STATUS_HIT);
+        }
+        if (cached.isWithinStaleWhileRevalidate(now)) {
+            lookup.stop(GatewayMetrics.Outcome.STALE);
+            log.debug("API响应缓存已过期，返回旧响应并异步刷新 - apiId: {}, cacheKey: {}", route.getApiId(), cacheKey);
+            responseCacheService.record(ResponseCacheService.STATUS_STALE);
+            try {
+                loadFromBackend(exchange.getRequest(), route, cacheKey, resolveBackendUri(route))
+                        .subscribe(null, e -> log.warn("异步刷新API响应缓存失败 - cacheKey: {}, error: {}",
+                                cacheKey, e.getMessage()));
+            } catch (Exception e) {
+                log.warn("异步刷新API响应缓存失败 - cacheKey: {}, error: {}", cacheKey, e.getMessage());
+            }
+            return writeCachedResponse(exchange, route, cached, ResponseCacheService.STATUS_STALE);
+        }
+        lookup.stop(GatewayMetrics.Outcome.MISS);
+        if (cached.isWithinStaleIfError(now)) {
+            return forwardAndCache(exchange, route, cacheKey, cached);
+        }
+        return forwardAndCache(exchange, route, cacheKey, null);
     }
 
     /**
-     * 转发请求并缓存响应
+     * 回源并缓存响应
+     *
+     * @param stale stale-if-error 窗口内的旧响应，后端出错时返回；没有时为null
      */
-    private Mono<Void> forwardAndCache(ServerWebExchange exchange, ApiRouteDTO route, String cacheKey) {
-        ServerHttpRequest request = exchange.getRequest();
+    private Mono<Void> forwardAndCache(ServerWebExchange exchange, ApiRouteDTO route, String cacheKey,
+                                       CachedResponse stale) {
         ServerHttpResponse response = exchange.getResponse();
-        
+
+        String actualUri;
         try {
-            String actualUri = resolveBackendUri(route);
-            String method = route.getBackendMethod() != null ? route.getBackendMethod() : request.getMethod().name();
-            
-            WebClient.RequestBodySpec requestSpec = webClient
-                    .method(HttpMethod.valueOf(method))
-                    .uri(actualUri)
-                    .headers(headers -> {
-                        request.getHeaders().forEach((name, values) -> {
-                            if (!"Host".equalsIgnoreCase(name)) {
-                                headers.addAll(name, values);
-                            }
-                        });
-                    });
-
-            // 获取缓存的请求体
-            String cachedBody = (String) exchange.getAttributes().get(CacheBodyFilter.ATTR_CACHED_BODY);
-            
-            Mono<String> responseMono;
-            if (cachedBody != null && !cachedBody.isEmpty()) {
-                responseMono = requestSpec.bodyValue(cachedBody)
-                        .retrieve()
-                        .bodyToMono(String.class);
-            } else {
-                responseMono = requestSpec.retrieve().bodyToMono(String.class);
-            }
-            
-            return responseMono
-                    .flatMap(body -> {
-                        // 保存到缓存
-                        Duration ttl = Duration.ofSeconds(route.getCacheTtl());
-                        redisTemplate.opsForValue().set(cacheKey, body, ttl)
-                                .doOnSuccess(v -> log.debug("API响应已缓存 - apiId: {}, ttl: {}s", route.getApiId(), route.getCacheTtl()))
-                                .subscribe();
-                        
-                        // 返回响应
-                        response.setStatusCode(HttpStatus.OK);
-                        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
-                        response.getHeaders().set("X-Cache-Status", "MISS"); // 标记缓存未命中
-                        DataBuffer buffer = response.bufferFactory().wrap(body.getBytes(StandardCharsets.UTF_8));
-                        return response.writeWith(Mono.just(buffer));
-                    })
-                    .onErrorResume(e -> {
-                        log.error("转发请求失败 - uri: {}", actualUri, e);
-                        return handleError(response, 502, "后端服务调用失败: " + e.getMessage());
-                    });
+            actualUri = resolveBackendUri(route);
         } catch (Exception e) {
+            if (stale != null) {
+                log.warn("后端不可用，返回旧响应 - apiId: {}, error: {}", route.getApiId(), e.getMessage());
+                responseCacheService.record(ResponseCacheService.STATUS_STALE);
+                return writeCachedResponse(exchange, route, stale, ResponseCacheService.STATUS_STALE);
+            }
             log.error("构建后端URI失败 - route: {}", route, e);
             return handleError(response, 500, "路由配置错误: " + e.getMessage());
         }
+
+        return loadFromBackend(exchange.getRequest(), route, cacheKey, actualUri)
+                .flatMap(fresh -> {
+                    if (stale != null && fresh.getStatus() >= 500) {
+                        log.warn("后端返回{}，返回旧响应 - apiId: {}", fresh.getStatus(), route.getApiId());
+                        responseCacheService.record(ResponseCacheService.STATUS_STALE);
+                        return writeCachedResponse(exchange, route, stale, ResponseCacheService.STATUS_STALE);
+                    }
+                    responseCacheService.record(ResponseCacheService.STATUS_MISS);
+                    return writeCachedResponse(exchange, route, fresh, ResponseCacheService.STATUS_MISS);
+                })
+                .onErrorResume(DataBufferLimitException.class, e -> {
+                    // 响应体超过可缓存上限，不缓存，直接流式转发
+                    log.debug("API响应超过缓存上限，改为流式转发 - apiId: {}", route.getApiId());
+                    return streamFromBackend(exchange, route);
+                })
+                .onErrorResume(e -> {
+                    if (stale != null) {
+                        log.warn("后端调用失败，返回旧响应 - apiId: {}, error: {}", route.getApiId(), e.getMessage());
+                        responseCacheService.record(ResponseCacheService.STATUS_STALE);
+                        return writeCachedResponse(exchange, route, stale, ResponseCacheService.STATUS_STALE);
+                    }
+                    log.error("转发请求失败 - uri: {}", actualUri, e);
+                    return handleBackendError(response, e);
+                });
     }
 
     /**
-     * 写入缓存的响应
+     * 回源获取完整响应，同一缓存Key的并发回源合并为一次后端调用（只占用一个并发名额），200响应写入缓存
      */
-    private Mono<Void> writeCachedResponse(ServerHttpResponse response, String cachedBody) {
-        response.setStatusCode(HttpStatus.OK);
-        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
-        response.getHeaders().set("X-Cache-Status", "HIT"); // 标记缓存命中
-        DataBuffer buffer = response.bufferFactory().wrap(cachedBody.getBytes(StandardCharsets.UTF_8));
-        return response.writeWith(Mono.just(buffer));
+    private Mono<CachedResponse> loadFromBackend(ServerHttpRequest request, ApiRouteDTO route,
+                                                 String cacheKey, String actualUri) {
+        String method = route.getBackendMethod() != null ? route.getBackendMethod() : request.getMethod().name();
+        int maxBodyBytes = responseCacheService.getMaxBodyBytes();
+
+        Mono<CachedResponse> backendCall = Mono.defer(() -> {
+            GatewayMetrics.StageTimer upstream = gatewayMetrics.startStage(GatewayMetrics.Stage.UPSTREAM, route.getApiId());
+            return buildBackendRequest(request, route, method, actualUri, true)
+                    .exchangeToMono(clientResponse -> {
+                        HttpHeaders headers = clientResponse.headers().asHttpHeaders();
+                        MediaType contentType = headers.getContentType();
+                        return DataBufferUtils.join(clientResponse.bodyToFlux(DataBuffer.class), maxBodyBytes)
+                                .map(buffer -> {
+                                    byte[] body = new byte[buffer.readableByteCount()];
+                                    buffer.read(body);
+                                    DataBufferUtils.release(buffer);
+                                    return body;
+                                })
+                                .defaultIfEmpty(new byte[0])
+                                .map(body -> responseCacheService.create(route, clientResponse.rawStatusCode(),
+                                        contentType != null ? contentType.toString() : null, headers.getETag(), body));
+                    })
+                    .doOnSuccess(cached -> upstream.stop(cached != null
+                            ? GatewayMetrics.Outcome.ofStatus(cached.getStatus()) : GatewayMetrics.Outcome.ERROR))
+                    .doOnError(e -> upstream.stop(GatewayMetrics.Outcome.ERROR));
+        });
+        return responseCacheService.load(cacheKey, resilienceRegistry.protect(resilienceRegistry.resolveBackend(route),
+                        backendCall, cached -> cached.getStatus() >= 500, this::isHttpBackendFailure)
+                .doOnError(BackendRejectedException.class, e -> gatewayMetrics.recordStage(
+                        GatewayMetrics.Stage.UPSTREAM, route.getApiId(), GatewayMetrics.Outcome.REJECTED, System.nanoTime())));
+    }
+
+    /**
+     * 写入缓存的响应，If-None-Match 与 ETag 匹配时返回304
+     */
+    private Mono<Void> writeCachedResponse(ServerWebExchange exchange, ApiRouteDTO route,
+                                           CachedResponse cached, String cacheStatus) {
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+        if (!cached.getContentType().isEmpty()) {
+            headers.set(HttpHeaders.CONTENT_TYPE, cached.getContentType());
+        }
+        headers.set("X-Cache-Status", cacheStatus);
+        if (route.getCacheVaryHeaders() != null && !route.getCacheVaryHeaders().isEmpty()) {
+            headers.setVary(route.getCacheVaryHeaders());
+        }
+
+        if (!cached.isCacheable()) {
+            response.setRawStatusCode(cached.getStatus());
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.getBody())));
+        }
+
+        headers.setETag(cached.getEtag());
+        if (!ResponseCacheService.STATUS_MISS.equals(cacheStatus)) {
+            headers.set(HttpHeaders.AGE, String.valueOf(cached.getAgeSeconds(System.currentTimeMillis())));
+        }
+        if (matchesIfNoneMatch(exchange.getRequest().getHeaders(), cached.getEtag())) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            headers.remove(HttpHeaders.CONTENT_TYPE);
+            return response.setComplete();
+        }
+        response.setRawStatusCode(cached.getStatus());
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.getBody())));
+    }
+
+    /**
+     * If-None-Match 弱比较（忽略 W/ 前缀），支持 *
+     */
+    private boolean matchesIfNoneMatch(HttpHeaders requestHeaders, String etag) {
+        List<String> ifNoneMatch = requestHeaders.get(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch == null || etag.isEmpty()) {
+            return false;
+        }
+        String target = stripWeak(etag);
+        for (String value : ifNoneMatch) {
+            for (String candidate : value.split(",")) {
+                String tag = candidate.trim();
+                if ("*".equals(tag) || stripWeak(tag).equals(target)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private String stripWeak(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
     }
 
     @Override
@@ -2,6 +2,7 @@ package com.intellihub.gateway.filter;
 
 import com.intellihub.dubbo.ApiRouteDTO;
 import com.intellihub.gateway.service.OpenApiRouteService;
+import com.intellihub.gateway.service.metrics.GatewayMetrics;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
@@ -33,6 +34,7 @@ import java.util.List;
 public class OpenApiRouteMatchFilter implements GlobalFilter, Ordered {
 
     private final OpenApiRouteService routeService;
+    private final GatewayMetrics gatewayMetrics;
     private final AntPathMatcher pathMatcher = new AntPathMatcher();
 
     /**
@@ -45,6 +47,11 @@ public class OpenApiRouteMatchFilter implements GlobalFilter, Ordered {
      */
     public static final String ATTR_API_ID = "gateway.api.id";
 
+    /**
+     * Exchange属性Key - 路由匹配时提取的路径参数（Map&lt;String, String&gt;）
+     */
+    public static final String ATTR_PATH_VARIABLES = "gateway.api.pathVariables";
+
     /**
      * Exchange属性Key - 是否为开放API请求
      */
@@ -70,29 +77,38 @@ public class OpenApiRouteMatchFilter implements GlobalFilter, Ordered {
         }
 
         exchange.getAttributes().put(ATTR_IS_OPEN_API, true);
-        log.debug("开放API路由匹配 - {} {}", method, path);
+        return gatewayMetrics.timeStage(GatewayMetrics.Stage.ROUTE_MATCH, exchange, chain,
+                (ex, stageChain) -> matchRoute(ex, stageChain, path, method));
+    }
 
-        // 匹配路由配置（支持路径参数）
-        log.info("[OpenApiRouteMatchFilter] 开始匹配路由 - method: {}, path: {}", method, path);
-        return routeService.matchRoute(path, method)
-                .doOnNext(route -> {
+    /**
+     * 匹配路由配置（支持路径参数）
+     */
+    private Mono<Void> matchRoute(ServerWebExchange exchange, GatewayFilterChain chain, String path, String method) {
+        log.debug("[OpenApiRouteMatchFilter] 开始匹配路由 - method: {}, path: {}", method, path);
+        return routeService.matchRouteWithVariables(path, method)
+                .doOnNext(match -> {
+                    ApiRouteDTO route = match.getRoute();
                     // 将API信息存入exchange属性，供后续过滤器使用
                     exchange.getAttributes().put(ATTR_API_ROUTE, route);
                     exchange.getAttributes().put(ATTR_API_ID, route.getApiId());
-                    log.info("[OpenApiRouteMatchFilter] API路由匹配成功 - path: {}, apiId: {}, apiName: {}, backendType: {}",
+                    exchange.getAttributes().put(ATTR_PATH_VARIABLES, match.getPathVariables());
+                    log.debug("[OpenApiRouteMatchFilter] API路由匹配成功 - path: {}, apiId: {}, apiName: {}, backendType: {}",
                             path, route.getApiId(), route.getApiName(), route.getBackendType());
-                    if ("dubbo".equalsIgnoreCase(route.getBackendType())) {
-                        log.info("[OpenApiRouteMatchFilter] Dubbo配置 - interface: {}, method: {}, version: {}, group: {}",
+                    if (log.isDebugEnabled() && "dubbo".equalsIgnoreCase(route.getBackendType())) {
+                        log.debug("[OpenApiRouteMatchFilter] Dubbo配置 - interface: {}, method: {}, version: {}, group: {}",
                                 route.getDubboInterface(), route.getDubboMethod(), 
                                 route.getDubboVersion(), route.getDubboGroup());
                     }
                 })
                 .doOnError(e -> log.error("[OpenApiRouteMatchFilter] 路由匹配失败 - path: {}, error: {}", path, e.getMessage()))
-                .then(chain.filter(exchange))
-                .switchIfEmpty(Mono.defer(() -> {
-                    log.warn("[OpenApiRouteMatchFilter] 未找到匹配的路由 - path: {}", path);
+                .hasElement()
+                .flatMap(matched -> {
+                    if (!matched) {
+                        log.warn("[OpenApiRouteMatchFilter] 未找到匹配的路由 - path: {}", path);
+                    }
                     return chain.filter(exchange);
-                }));
+                });
     }
 
     /**
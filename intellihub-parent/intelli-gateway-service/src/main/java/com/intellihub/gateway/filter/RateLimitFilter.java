@@ -3,6 +3,8 @@ package com.intellihub.gateway.filter;
 import com.intellihub.gateway.config.FilterOrderConfig;
 import com.intellihub.gateway.config.RateLimitConfig;
 import com.intellihub.gateway.service.RateLimitService;
+import com.intellihub.gateway.service.metrics.GatewayMetrics;
+import com.intellihub.gateway.util.ClientIpUtil;
 import com.intellihub.ApiResponse;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
@@ -21,7 +23,6 @@ import org.springframework.util.PathMatcher;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
-import java.net.InetSocketAddress;
 import java.nio.charset.StandardCharsets;
 
 /**
@@ -40,7 +41,10 @@ public class RateLimitFilter implements GlobalFilter, Ordered {
     @Autowired
     private RateLimitConfig rateLimitConfig;
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    @Autowired
+    private GatewayMetrics gatewayMetrics;
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
     private final PathMatcher pathMatcher = new AntPathMatcher();
 
     @Override
@@ -50,9 +54,21 @@ public class RateLimitFilter implements GlobalFilter, Ordered {
             return chain.filter(exchange);
         }
 
+        // 开放API按路由预计算的限流规则在 RouteRateLimitFilter 中处理
+        if (exchange.getAttribute(OpenApiRouteMatchFilter.ATTR_API_ROUTE) != null) {
+            return chain.filter(exchange);
+        }
+        return gatewayMetrics.timeStage(GatewayMetrics.Stage.RATE_LIMIT, exchange, chain, this::checkRateLimit);
+    }
+
+    /**
+     * 按 IP + Path 限流
+     */
+    private Mono<Void> checkRateLimit(ServerWebExchange exchange, GatewayFilterChain chain) {
+
         ServerHttpRequest request = exchange.getRequest();
         String path = request.getPath().value();
-        String ip = getClientIp(request);
+        String ip = ClientIpUtil.getClientIp(request);
 
         // 获取限流配置
         RateLimitConfig.Limit limit = getLimitConfig(path);
@@ -60,30 +76,26 @@ public class RateLimitFilter implements GlobalFilter, Ordered {
         // 使用组合维度（IP+Path）限流 - 最严格且最有效
         String rateLimitKey = rateLimitService.buildKey("combined", ip + ":" + path);
 
-        // 检查限流
-        return rateLimitService.checkLimit(rateLimitKey, limit.getRequests(), limit.getWindow())
+        // 检查并计数（一次Redis调用）
+        return rateLimitService.tryAcquire(rateLimitKey, limit.getRequests(), limit.getWindow())
                 .flatMap(result -> {
                     if (!result.isAllowed()) {
                         return handleRateLimit(exchange.getResponse(), 
                                 rateLimitConfig.getErrorMessage(), result);
                     }
 
-                    // 检查通过，增加计数
-                    return rateLimitService.incrementCounter(rateLimitKey, limit.getWindow())
-                            .then(Mono.defer(() -> {
-                                // 添加限流信息到响应头
-                                ServerHttpResponse response = exchange.getResponse();
-                                response.getHeaders().set("X-RateLimit-Limit", 
-                                        String.valueOf(result.getLimit()));
-                                response.getHeaders().set("X-RateLimit-Remaining", 
-                                        String.valueOf(result.getRemaining() - 1)); // 减1因为已经计数
-                                response.getHeaders().set("X-RateLimit-Reset", 
-                                        String.valueOf(result.getResetTime()));
-
-                                log.debug("限流检查通过 - IP: {}, Path: {}, 剩余: {}", 
-                                        ip, path, result.getRemaining() - 1);
+                    // 添加限流信息到响应头
+                    ServerHttpResponse response = exchange.getResponse();
+                    response.getHeaders().set("X-RateLimit-Limit", 
+                            String.valueOf(result.getLimit()));
+                    response.getHeaders().set("X-RateLimit-Remaining", 
+                            String.valueOf(result.getRemaining() - 1)); // 减1因为已经计数
+                    response.getHeaders().set("X-RateLimit-Reset", 
+                            String.valueOf(result.getResetTime()));
+
+                    log.debug("限流检查通过 - IP: {}, Path: {}, 剩余: {}", 
+                            ip, path, result.getRemaining() - 1);
                     return chain.filter(exchange);
-                            }));
                 });
     }
 
@@ -107,129 +119,9 @@ public class RateLimitFilter implements GlobalFilter, Ordered {
     }
 
     /**
-     * 获取客户端真实IP（增强版）
-     * <p>
-     * 改进：
-     * 1. 支持更多代理头
-     * 2. IP格式校验
-     * 3. 内网IP过滤
-     * 4. 从X-Forwarded-For取最后一个非内网IP
-     * </p>
-     */
-    private String getClientIp(ServerHttpRequest request) {
-        String ip = null;
-        
-        // 1. 尝试从各种Header获取
-        String[] headerNames = {
-            "X-Forwarded-For", 
-            "X-Real-IP", 
-            "Proxy-Client-IP", 
-            "WL-Proxy-Client-IP",
-            "HTTP_CLIENT_IP",
-            "HTTP_X_FORWARDED_FOR"
-        };
-        
-        for (String headerName : headerNames) {
-            String headerValue = request.getHeaders().getFirst(headerName);
-            if (isValidIp(headerValue)) {
-                ip = headerValue;
-                break;
-            }
-        }
-        
-        // 2. 如果Header中没有，从RemoteAddress获取
-        if (!isValidIp(ip)) {
-            InetSocketAddress remoteAddress = request.getRemoteAddress();
-            if (remoteAddress != null && remoteAddress.getAddress() != null) {
-                ip = remoteAddress.getAddress().getHostAddress();
-            }
-        }
-        
-        // 3. X-Forwarded-For可能有多个IP，取最后一个可信代理的前一个
-        if (ip != null && ip.contains(",")) {
-            String[] ips = ip.split(",");
-            // 从后向前找第一个非内网IP
-            for (int i = ips.length - 1; i >= 0; i--) {
-                String candidateIp = ips[i].trim();
-                if (isValidIp(candidateIp) && !isInternalIp(candidateIp)) {
-                    ip = candidateIp;
-                    break;
-                }
-            }
-            // 如果都是内网IP，取第一个
-            if (ip.contains(",")) {
-                ip = ips[0].trim();
-        }
-        }
-        
-        // 4. 最终校验
-        if (!isValidIp(ip)) {
-            ip = "unknown";
-        }
-        
-        return ip;
-    }
-
-    /**
-     * 校验IP格式是否有效
-     */
-    private boolean isValidIp(String ip) {
-        if (ip == null || ip.isEmpty() || "unknown".equalsIgnoreCase(ip)) {
-            return false;
-        }
-        
-        // 简单的IP格式校验（支持IPv4和IPv6）
-        // IPv4: xxx.xxx.xxx.xxx
-        if (ip.matches("^([0-9]{1,3}\\.){3}[0-9]{1,3}$")) {
-            // 进一步校验每段不超过255
-            String[] parts = ip.split("\\.");
-            for (String part : parts) {
-                int value = Integer.parseInt(part);
-                if (value < 0 || value > 255) {
-                    return false;
-                }
-            }
-            return true;
-        }
-        
-        // IPv6: 包含冒号
-        if (ip.contains(":")) {
-            // 简单判断，不做严格校验
-            return true;
-        }
-        
-        return false;
-    }
-
-    /**
-     * 判断是否是内网IP
-     */
-    private boolean isInternalIp(String ip) {
-        if (ip == null || ip.isEmpty()) {
-            return false;
-        }
-        
-        // IPv4内网地址段
-        return ip.startsWith("10.") || 
-               ip.startsWith("192.168.") || 
-               ip.startsWith("172.16.") || ip.startsWith("172.17.") || 
-               ip.startsWith("172.18.") || ip.startsWith("172.19.") || 
-               ip.startsWith("172.20.") || ip.startsWith("172.21.") || 
-               ip.startsWith("172.22.") || ip.startsWith("172.23.") || 
-               ip.startsWith("172.24.") || ip.startsWith("172.25.") || 
-               ip.startsWith("172.26.") || ip.startsWith("172.27.") || 
-               ip.startsWith("172.28.") || ip.startsWith("172.29.") || 
-               ip.startsWith("172.30.") || ip.startsWith("172.31.") || 
-               ip.equals("127.0.0.1") || 
-               ip.equals("localhost") ||
-               ip.equals("0:0:0:0:0:0:0:1") ||
-               ip.equals("::1");
-    }
-
-    /**
-     * 处理限流
+     * 处理限流（RouteRateLimitFilter 共用）
      */
-    private Mono<Void> handleRateLimit(ServerHttpResponse response, String message, 
+    static Mono<Void> handleRateLimit(ServerHttpResponse response, String message, 
                                        RateLimitService.RateLimitResult result) {
         response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
         response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
@@ -243,7 +135,7 @@ public class RateLimitFilter implements GlobalFilter, Ordered {
         ApiResponse<?> errorResponse = ApiResponse.failed(429, message);
 
         try {
-            String resultJson = objectMapper.writeValueAsString(errorResponse);
+            String resultJson = OBJECT_MAPPER.writeValueAsString(errorResponse);
             DataBuffer buffer = response.bufferFactory().wrap(resultJson.getBytes(StandardCharsets.UTF_8));
             
             log.warn("限流触发 - Message: {}, Limit: {}, Remaining: {}, Reset: {}", 
@@ -0,0 +1,141 @@
+package com.intellihub.gateway.filter;
+
+import com.intellihub.dubbo.ApiRouteDTO;
+import com.intellihub.dubbo.RouteRateLimitDTO;
+import com.intellihub.gateway.config.FilterOrderConfig;
+import com.intellihub.gateway.config.RateLimitConfig;
+import com.intellihub.gateway.service.RateLimitService;
+import com.intellihub.gateway.service.metrics.GatewayMetrics;
+import com.intellihub.gateway.service.route.RouteStage;
+import com.intellihub.gateway.util.ClientIpUtil;
+import com.intellihub.gateway.vo.AppKeyInfo;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * 开放API路由级限流过滤器
+ * <p>
+ * 限流规则由API平台在加载路由时预先计算（{@link ApiRouteDTO#getRateLimits()}），这里只读取字段，不做路径匹配。
+ * 在AppKey认证之后执行，支持以下维度：
+ * 1. global / ip / app / user / tenant：同一策略绑定的所有路由共享计数（API自身的限流配置按单个API计数）
+ * 2. path / ip_path：按单个API计数
+ * 3. app / user / tenant 取认证通过的应用信息，无应用信息（如免认证API）时退化为按IP限流
+ * 路由未配置限流规则时使用默认限流（IP+Path）。
+ * 作为路由处理阶段执行（{@link OpenApiPipelineFilter}），只包含在匹配到的路由的管道中。
+ * </p>
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+@Component
+@RequiredArgsConstructor
+public class RouteRateLimitFilter implements RouteStage {
+
+    private final RateLimitService rateLimitService;
+    private final RateLimitConfig rateLimitConfig;
+    private final GatewayMetrics gatewayMetrics;
+
+    @Override
+    public boolean isRequired(ApiRouteDTO route) {
+        return rateLimitConfig.isEnabled() && route != null;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ApiRouteDTO route = exchange.getRequiredAttribute(OpenApiRouteMatchFilter.ATTR_API_ROUTE);
+        return gatewayMetrics.timeStage(GatewayMetrics.Stage.RATE_LIMIT, exchange, chain,
+                (ex, stageChain) -> checkRateLimit(ex, stageChain, route));
+    }
+
+    /**
+     * 按路由预计算的限流规则依次检查
+     */
+    private Mono<Void> checkRateLimit(ServerWebExchange exchange, GatewayFilterChain chain, ApiRouteDTO route) {
+
+        String ip = ClientIpUtil.getClientIp(exchange.getRequest());
+        List<RouteRateLimitDTO> rules = route.getRateLimits();
+        if (rules == null || rules.isEmpty()) {
+            RateLimitConfig.Limit limit = rateLimitConfig.getDefaultLimit();
+            String key = rateLimitService.buildKey("combined", ip + ":" + exchange.getRequest().getPath().value());
+            return acquire(key, limit.getRequests(), limit.getWindow())
+                    .flatMap(result -> proceed(exchange, chain, result));
+        }
+
+        AppKeyInfo appKeyInfo = exchange.getAttribute(AppKeyAuthenticationFilter.ATTR_APP_KEY_INFO);
+        return Flux.fromIterable(rules)
+                .concatMap(rule -> acquire(buildKey(rule, route, ip, appKeyInfo), rule.getLimit(), rule.getWindow()))
+                .takeUntil(result -> !result.isAllowed())
+                // 任一规则拒绝即停止；全部通过时取剩余次数最少的结果写入响应头
+                .reduce((tightest, next) -> !next.isAllowed() || next.getRemaining() < tightest.getRemaining() ? next : tightest)
+                .flatMap(result -> proceed(exchange, chain, result));
+    }
+
+    @Override
+    public int getOrder() {
+        return FilterOrderConfig.ROUTE_RATE_LIMIT_FILTER;
+    }
+
+    /**
+     * 单条规则检查并计数（一次Redis调用）
+     */
+    private Mono<RateLimitService.RateLimitResult> acquire(String key, int requests, int window) {
+        return rateLimitService.tryAcquire(key, requests, window);
+    }
+
+    private Mono<Void> proceed(ServerWebExchange exchange, GatewayFilterChain chain,
+                               RateLimitService.RateLimitResult result) {
+        ServerHttpResponse response = exchange.getResponse();
+        if (!result.isAllowed()) {
+            return RateLimitFilter.handleRateLimit(response, rateLimitConfig.getErrorMessage(), result);
+        }
+        response.getHeaders().set("X-RateLimit-Limit", String.valueOf(result.getLimit()));
+        response.getHeaders().set("X-RateLimit-Remaining", String.valueOf(Math.max(0, result.getRemaining() - 1)));
+        response.getHeaders().set("X-RateLimit-Reset", String.valueOf(result.getResetTime()));
+        return chain.filter(exchange);
+    }
+
+    /**
+     * 按维度构建限流Key（同一作用域下不同时间窗口的规则分别计数）
+     */
+    private String buildKey(RouteRateLimitDTO rule, ApiRouteDTO route, String ip, AppKeyInfo appKeyInfo) {
+        String scope = rule.getPolicyId() != null ? "policy:" + rule.getPolicyId() : "api:" + route.getApiId();
+        String apiScope = "api:" + route.getApiId();
+        String dimension = rule.getDimension() != null ? rule.getDimension() : RouteRateLimitDTO.DIMENSION_IP_PATH;
+
+        String value;
+        switch (dimension) {
+            case RouteRateLimitDTO.DIMENSION_GLOBAL:
+                value = scope;
+                break;
+            case RouteRateLimitDTO.DIMENSION_IP:
+                value = scope + ":ip:" + ip;
+                break;
+            case RouteRateLimitDTO.DIMENSION_PATH:
+                value = apiScope;
+                break;
+            case RouteRateLimitDTO.DIMENSION_APP:
+            case RouteRateLimitDTO.DIMENSION_USER:
+                value = appKeyInfo != null && appKeyInfo.getAppId() != null
+                        ? scope + ":app:" + appKeyInfo.getAppId()
+                        : scope + ":ip:" + ip;
+                break;
+            case RouteRateLimitDTO.DIMENSION_TENANT:
+                value = appKeyInfo != null && appKeyInfo.getTenantId() != null
+                        ? scope + ":tenant:" + appKeyInfo.getTenantId()
+                        : scope + ":ip:" + ip;
+                break;
+            case RouteRateLimitDTO.DIMENSION_IP_PATH:
+            default:
+                value = apiScope + ":ip:" + ip;
+                break;
+        }
+        return rateLimitService.buildKey("route", value + ":" + rule.getWindow() + "s");
+    }
+}
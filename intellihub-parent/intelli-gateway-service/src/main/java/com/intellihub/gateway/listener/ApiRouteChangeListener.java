@@ -1,17 +1,25 @@
 package com.intellihub.gateway.listener;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.intellihub.dubbo.ApiRouteDTO;
 import com.intellihub.event.ApiRouteChangeEvent;
 import com.intellihub.gateway.service.AppKeyService;
 import com.intellihub.gateway.service.OpenApiRouteService;
+import com.intellihub.gateway.service.cache.ResponseCacheService;
+import com.intellihub.gateway.service.dubbo.DubboBindingPlanRegistry;
+import com.intellihub.gateway.service.dubbo.DubboReferenceRegistry;
+import com.intellihub.gateway.service.route.RoutePipelineRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 /**
  * 路由刷新监听器
  * <p>
- * 处理Redis Pub/Sub消息，刷新本地缓存
+ * 处理Redis Pub/Sub消息，刷新本地缓存（路由变更时一并清空对应API的本地响应缓存，
+ * API下线或删除时释放不再使用的Dubbo服务引用）
  * </p>
  *
  * @author intellihub
@@ -26,6 +34,10 @@ public class ApiRouteChangeListener {
 
     private final OpenApiRouteService openApiRouteService;
     private final AppKeyService appKeyService;
+    private final ResponseCacheService responseCacheService;
+    private final DubboBindingPlanRegistry bindingPlanRegistry;
+    private final DubboReferenceRegistry referenceRegistry;
+    private final RoutePipelineRegistry pipelineRegistry;
     private final ObjectMapper objectMapper;
 
     /**
@@ -43,7 +55,27 @@ public class ApiRouteChangeListener {
         try {
             // 解析JSON消息
             ApiRouteChangeEvent event = objectMapper.readValue(message, ApiRouteChangeEvent.class);
-            
+            invalidateResponseCache(event);
+            // 下线/删除前先取出路由，移除后据此释放Dubbo服务引用
+            ApiRouteDTO removed = isRemoval(event) ? openApiRouteService.getRouteByApiId(event.getApiId()) : null;
+
+            // 带版本号的事件统一走增量同步，遗漏的通知在同步时一并补齐
+            if (event.getVersion() > 0) {
+                log.info("路由变更通知 - type: {}, apiId: {}, version: {}",
+                        event.getEventType(), event.getApiId(), event.getVersion());
+                Mono.fromRunnable(() -> {
+                            openApiRouteService.onRouteVersion(event.getVersion());
+                            if (isRemoval(event)) {
+                                bindingPlanRegistry.remove(event.getApiId());
+                                pipelineRegistry.remove(event.getApiId());
+                            }
+                            referenceRegistry.release(removed);
+                        })
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .subscribe();
+                return;
+            }
+
             switch (event.getEventType()) {
                 case REFRESH_ALL:
                     log.info("执行全量路由刷新");
@@ -54,6 +86,7 @@ public class ApiRouteChangeListener {
                 case UPDATE:
                     log.info("API发布/更新，刷新路由 - apiId: {}, path: {}", 
                             event.getApiId(), event.getPath());
+                    openApiRouteService.invalidateRouteMisses();
                     openApiRouteService.refreshRoute(event.getApiId()).subscribe();
                     break;
                     
@@ -62,6 +95,9 @@ public class ApiRouteChangeListener {
                     log.info("API下线/删除，移除路由 - apiId: {}, path: {}", 
                             event.getApiId(), event.getPath());
                     openApiRouteService.removeRouteByApiId(event.getApiId());
+                    bindingPlanRegistry.remove(event.getApiId());
+                    pipelineRegistry.remove(event.getApiId());
+                    referenceRegistry.release(removed);
                     break;
                     
                 default:
@@ -72,6 +108,22 @@ public class ApiRouteChangeListener {
         }
     }
 
+    private boolean isRemoval(ApiRouteChangeEvent event) {
+        return event.getEventType() == ApiRouteChangeEvent.EventType.OFFLINE
+                || event.getEventType() == ApiRouteChangeEvent.EventType.DELETE;
+    }
+
+    /**
+     * 清空本地响应缓存（缓存配置可能已变更），Redis中的响应缓存由API平台清除
+     */
+    private void invalidateResponseCache(ApiRouteChangeEvent event) {
+        if (event.getEventType() == ApiRouteChangeEvent.EventType.REFRESH_ALL) {
+            responseCacheService.invalidateAll();
+        } else if (event.getApiId() != null) {
+            responseCacheService.invalidate(event.getApiId());
+        }
+    }
+
     /**
      * 处理应用状态变更消息
      * <p>
@@ -98,4 +150,35 @@ public class ApiRouteChangeListener {
             log.error("处理应用状态变更消息失败 - message: {}", message, e);
         }
     }
+
+    /**
+     * 处理订阅关系变更消息
+     * <p>
+     * 消息格式：
+     * - "ALL" - 清除所有订阅关系缓存
+     * - "{appId}" - 清除指定应用的订阅关系缓存
+     * - "{appId}:{apiId}" - 清除指定应用对指定API的订阅关系缓存
+     * </p>
+     */
+    public void onSubscriptionChange(String message) {
+        if (message == null || message.isEmpty()) {
+            log.warn("收到空的订阅关系变更消息");
+            return;
+        }
+
+        try {
+            if (MSG_REFRESH_ALL.equalsIgnoreCase(message)) {
+                log.info("清除所有订阅关系缓存");
+                appKeyService.clearAllSubscriptionCache().subscribe();
+                return;
+            }
+            int separator = message.indexOf(':');
+            String appId = separator < 0 ? message : message.substring(0, separator);
+            String apiId = separator < 0 ? null : message.substring(separator + 1);
+            log.info("清除订阅关系缓存 - appId: {}, apiId: {}", appId, apiId);
+            appKeyService.clearSubscriptionCache(appId, apiId).subscribe();
+        } catch (Exception e) {
+            log.error("处理订阅关系变更消息失败 - message: {}", message, e);
+        }
+    }
 }
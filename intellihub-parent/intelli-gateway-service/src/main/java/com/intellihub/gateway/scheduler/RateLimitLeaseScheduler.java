@@ -0,0 +1,27 @@
+package com.intellihub.gateway.scheduler;
+
+import com.intellihub.gateway.service.HybridRateLimiter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 限流令牌租约回收定时任务
+ * <p>
+ * 定期把空闲本地令牌桶中的未用令牌归还Redis，避免长期持有的令牌在全局桶回满后叠加超发
+ * </p>
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+@Component
+@RequiredArgsConstructor
+public class RateLimitLeaseScheduler {
+
+    private final HybridRateLimiter hybridRateLimiter;
+
+    @Scheduled(fixedDelayString = "${intellihub.gateway.rate-limit.hybrid.release-interval-ms:5000}")
+    public void releaseIdleBuckets() {
+        hybridRateLimiter.releaseIdleBuckets();
+    }
+}
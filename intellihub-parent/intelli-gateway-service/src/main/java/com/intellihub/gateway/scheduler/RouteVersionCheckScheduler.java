@@ -0,0 +1,30 @@
+package com.intellihub.gateway.scheduler;
+
+import com.intellihub.gateway.service.OpenApiRouteService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 路由版本核对定时任务
+ * <p>
+ * 定期与API Platform核对路由版本号，补齐丢失的Redis变更通知（包括启动时加载失败的情况）
+ * </p>
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RouteVersionCheckScheduler {
+
+    private final OpenApiRouteService openApiRouteService;
+
+    @Scheduled(initialDelayString = "${gateway.route.version-check-interval-ms:30000}",
+            fixedDelayString = "${gateway.route.version-check-interval-ms:30000}")
+    public void checkRouteVersion() {
+        openApiRouteService.checkRouteVersion();
+    }
+}
@@ -0,0 +1,30 @@
+package com.intellihub.gateway.scheduler;
+
+import com.intellihub.gateway.service.TokenRevocationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Token注销集合核对定时任务
+ * <p>
+ * 定期与Redis中的注销记录全量核对，补齐丢失的注销通知并清理已过期的条目
+ * </p>
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TokenRevocationSyncScheduler {
+
+    private final TokenRevocationService tokenRevocationService;
+
+    @Scheduled(initialDelayString = "${intellihub.gateway.auth.revocation.resync-interval-ms:60000}",
+            fixedDelayString = "${intellihub.gateway.auth.revocation.resync-interval-ms:60000}")
+    public void resync() {
+        tokenRevocationService.resync();
+    }
+}
@@ -1,20 +1,42 @@
 package com.intellihub.gateway.service;
 
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.intellihub.constants.RedisKeyConstants;
 import com.intellihub.dubbo.AppCenterDubboService;
 import com.intellihub.dubbo.AppKeyInfoDTO;
+import com.intellihub.gateway.config.AppKeyConfig;
+import com.intellihub.gateway.service.nonce.NonceBloomGuard;
 import com.intellihub.gateway.util.ReactiveRedisUtil;
 import com.intellihub.gateway.vo.AppKeyInfo;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.dubbo.config.annotation.DubboReference;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
 /**
  * AppKey服务
  * <p>
- * 负责获取和缓存AppKey信息
+ * 负责获取和缓存AppKey信息与订阅关系，两级缓存：
+ * 1. L1：进程内Caffeine缓存，命中时不产生任何网络调用；写入一段时间后访问会提前异步刷新，热点Key不会集中过期
+ * 2. L2：Redis缓存，多个网关实例共享
+ * 3. 均未命中时通过Dubbo回源app-center
+ * 变更通过应用状态/订阅关系变更频道精确失效两级缓存
  * </p>
  *
  * @author intellihub
@@ -24,30 +46,156 @@ import reactor.core.scheduler.Schedulers;
 @Service
 public class AppKeyService {
 
+    private static final String CACHE_APPKEY = "appkey";
+    private static final String CACHE_SUBSCRIPTION = "subscription";
+
+    private static final long RESERVE_NONCE_REUSED = -1L;
+    private static final long RESERVE_QUOTA_EXCEEDED = -2L;
+
+    /**
+     * KEYS[1]=Nonce KEYS[2]=配额计数；ARGV[1]=Nonce有效期（秒） ARGV[2]=配额上限（0不限制）
+     * 不限制配额时也计数，已用次数用于统计和之后调整配额
+     * 返回：-1 Nonce重复，-2 配额已用完，其余为占用后的已用次数
+     */
+    private static final RedisScript<Long> RESERVE_REQUEST_SCRIPT = new DefaultRedisScript<>(
+            "if not redis.call('SET', KEYS[1], '1', 'NX', 'EX', ARGV[1]) then\n" +
+            "    return -1\n" +
+            "end\n" +
+            "local limit = tonumber(ARGV[2])\n" +
+            "if limit > 0 then\n" +
+            "    local used = tonumber(redis.call('GET', KEYS[2]) or '0')\n" +
+            "    if used >= limit then\n" +
+            "        return -2\n" +
+            "    end\n" +
+            "end\n" +
+            "return redis.call('INCR', KEYS[2])",
+            Long.class);
+
+    /**
+     * 布隆过滤器模式（{@link NonceBloomGuard}），配额部分与 RESERVE_REQUEST_SCRIPT 相同
+     * KEYS[1]=时间桶位图 KEYS[2]=配额计数；ARGV[1]=位图过期时刻（秒） ARGV[2]=配额上限（0不限制） ARGV[3..]=位偏移
+     * 一次BITFIELD置位全部偏移并取回原值，原值全为1时判定为重复
+     * 返回：-1 Nonce可能重复，-2 配额已用完，其余为占用后的已用次数
+     */
+    private static final RedisScript<Long> RESERVE_REQUEST_BLOOM_SCRIPT = new DefaultRedisScript<>(
+            "local ops = {}\n" +
+            "for i = 3, #ARGV do\n" +
+            "    ops[#ops + 1] = 'SET'\n" +
+            "    ops[#ops + 1] = 'u1'\n" +
+            "    ops[#ops + 1] = ARGV[i]\n" +
+            "    ops[#ops + 1] = 1\n" +
+            "end\n" +
+            "local previous = redis.call('BITFIELD', KEYS[1], unpack(ops))\n" +
+            "local seen = true\n" +
+            "for i = 1, #previous do\n" +
+            "    if previous[i] == 0 then\n" +
+            "        seen = false\n" +
+            "        break\n" +
+            "    end\n" +
+            "end\n" +
+            "if seen then\n" +
+            "    return -1\n" +
+            "end\n" +
+            "redis.call('EXPIREAT', KEYS[1], ARGV[1])\n" +
+            "local limit = tonumber(ARGV[2])\n" +
+            "if limit > 0 then\n" +
+            "    local used = tonumber(redis.call('GET', KEYS[2]) or '0')\n" +
+            "    if used >= limit then\n" +
+            "        return -2\n" +
+            "    end\n" +
+            "end\n" +
+            "return redis.call('INCR', KEYS[2])",
+            Long.class);
+
     private final ReactiveRedisUtil redisUtil;
+    private final NonceBloomGuard nonceBloomGuard;
+    private final boolean localCacheEnabled;
 
     @DubboReference(check = false, timeout = 5000)
     private AppCenterDubboService appCenterDubboService;
 
-    public AppKeyService(ReactiveRedisUtil redisUtil) {
+    /**
+     * L1：AppKey -> AppKey信息
+     */
+    private final AsyncLoadingCache<String, AppKeyInfo> appKeyCache;
+
+    /**
+     * L1：订阅关系判定结果
+     */
+    private final AsyncLoadingCache<SubscriptionKey, Boolean> subscriptionCache;
+
+    private final Counter appKeyL2HitCounter;
+    private final Counter appKeyL2MissCounter;
+    private final Counter subscriptionL2HitCounter;
+    private final Counter subscriptionL2MissCounter;
+
+    public AppKeyService(ReactiveRedisUtil redisUtil, NonceBloomGuard nonceBloomGuard,
+                         AppKeyConfig appKeyConfig, MeterRegistry meterRegistry) {
         this.redisUtil = redisUtil;
+        this.nonceBloomGuard = nonceBloomGuard;
+
+        AppKeyConfig.LocalCache config = appKeyConfig.getLocalCache();
+        this.localCacheEnabled = config.isEnabled();
+        this.appKeyCache = Caffeine.newBuilder()
+                .maximumSize(config.getAppKeyMaxSize())
+                .expireAfterWrite(Duration.ofSeconds(config.getExpireSeconds()))
+                .refreshAfterWrite(Duration.ofSeconds(config.getRefreshAfterSeconds()))
+                .recordStats()
+                .buildAsync((appKey, executor) -> loadAppKeyInfo(appKey).toFuture());
+        this.subscriptionCache = Caffeine.newBuilder()
+                .maximumSize(config.getSubscriptionMaxSize())
+                .expireAfterWrite(Duration.ofSeconds(config.getExpireSeconds()))
+                .refreshAfterWrite(Duration.ofSeconds(config.getRefreshAfterSeconds()))
+                .recordStats()
+                .buildAsync((key, executor) -> loadSubscription(key).toFuture());
+
+        // L1命中率：cache.gets{cache=gateway.appkey|gateway.subscription, result=hit|miss}
+        CaffeineCacheMetrics.monitor(meterRegistry, appKeyCache.synchronous(), "gateway.appkey");
+        CaffeineCacheMetrics.monitor(meterRegistry, subscriptionCache.synchronous(), "gateway.subscription");
+
+        // L2命中率：L1未命中（含提前刷新）后读Redis的结果
+        this.appKeyL2HitCounter = buildL2Counter(meterRegistry, CACHE_APPKEY, "hit");
+        this.appKeyL2MissCounter = buildL2Counter(meterRegistry, CACHE_APPKEY, "miss");
+        this.subscriptionL2HitCounter = buildL2Counter(meterRegistry, CACHE_SUBSCRIPTION, "hit");
+        this.subscriptionL2MissCounter = buildL2Counter(meterRegistry, CACHE_SUBSCRIPTION, "miss");
     }
 
     /**
      * 获取AppKey信息
      * <p>
-     * 优先从Redis缓存获取，缓存不存在则从app-center服务获取
+     * 依次查找本地缓存、Redis缓存，都不存在则从app-center服务获取
      * </p>
      *
      * @param appKey AppKey
      * @return AppKey信息
      */
     public Mono<AppKeyInfo> getAppKeyInfo(String appKey) {
+        if (!localCacheEnabled) {
+            return loadAppKeyInfo(appKey);
+        }
+        return fromCache(appKeyCache.get(appKey));
+    }
+
+    /**
+     * L1未命中时的加载逻辑：Redis -> app-center
+     */
+    private Mono<AppKeyInfo> loadAppKeyInfo(String appKey) {
         String cacheKey = RedisKeyConstants.buildAppKeyInfoKey(appKey);
-        
+
         return redisUtil.getObject(cacheKey, AppKeyInfo.class)
-                .doOnNext(info -> log.debug("从缓存获取AppKey信息 - AppKey: {}", appKey))
-                .switchIfEmpty(fetchFromAppCenter(appKey, cacheKey));
+                .doOnNext(info -> {
+                    appKeyL2HitCounter.increment();
+                    log.debug("从缓存获取AppKey信息 - AppKey: {}", appKey);
+                })
+                .switchIfEmpty(Mono.defer(() -> {
+                    appKeyL2MissCounter.increment();
+                    return fetchFromAppCenter(appKey, cacheKey);
+                }))
+                // 加载时预编译IP白名单、生成签名密钥，命中本地缓存的请求直接复用
+                .doOnNext(info -> {
+                    info.getIpWhitelistMatcher();
+                    info.getSignatureVerifier();
+                });
     }
 
     /**
@@ -55,7 +203,7 @@ public class AppKeyService {
      */
     private Mono<AppKeyInfo> fetchFromAppCenter(String appKey, String cacheKey) {
         log.debug("从app-center服务获取AppKey信息（Dubbo） - AppKey: {}", appKey);
-        
+
         return Mono.fromCallable(() -> {
             try {
                 AppKeyInfoDTO dto = appCenterDubboService.getAppKeyInfo(appKey);
@@ -92,25 +240,30 @@ public class AppKeyService {
         info.setAppSecret(dto.getAppSecret());
         info.setStatus(dto.getStatus());
         info.setExpireTime(dto.getExpireTime());
-        
+
         // ✅ 日志追踪：记录从DTO转换后的租户ID
-        log.info("[AppKey认证] DTO转AppKeyInfo - AppKey: {}, TenantId: {}", dto.getAppKey(), dto.getTenantId());
-        
+        log.debug("[AppKey认证] DTO转AppKeyInfo - AppKey: {}, TenantId: {}", dto.getAppKey(), dto.getTenantId());
+
         // 设置新增字段
         info.setIpWhitelist(dto.getIpWhitelist());
         info.setQuotaLimit(dto.getQuotaLimit());
         info.setQuotaUsed(dto.getQuotaUsed());
         info.setQuotaResetTime(dto.getQuotaResetTime());
-        
+
         return info;
     }
 
     /**
      * 清除AppKey缓存
+     * <p>
+     * 先清本地缓存，删除Redis后再清一次，避免期间的提前刷新把Redis中的旧值写回本地
+     * </p>
      */
     public Mono<Boolean> invalidateCache(String appKey) {
         String cacheKey = RedisKeyConstants.buildAppKeyInfoKey(appKey);
-        return redisUtil.delete(cacheKey);
+        appKeyCache.synchronous().invalidate(appKey);
+        return redisUtil.delete(cacheKey)
+                .doOnSuccess(result -> appKeyCache.synchronous().invalidate(appKey));
     }
 
     /**
@@ -120,8 +273,7 @@ public class AppKeyService {
      * @return 操作结果
      */
     public Mono<Void> clearCache(String appKey) {
-        String cacheKey = RedisKeyConstants.buildAppKeyInfoKey(appKey);
-        return redisUtil.delete(cacheKey)
+        return invalidateCache(appKey)
                 .doOnSuccess(result -> log.info("清除AppKey缓存 - appKey: {}, result: {}", appKey, result))
                 .then();
     }
@@ -133,8 +285,12 @@ public class AppKeyService {
      */
     public Mono<Void> clearAllCache() {
         String pattern = RedisKeyConstants.GATEWAY_APPKEY_INFO_PREFIX + "*";
+        appKeyCache.synchronous().invalidateAll();
         return redisUtil.deleteByPattern(pattern)
-                .doOnSuccess(count -> log.info("清除所有AppKey缓存，删除数量: {}", count))
+                .doOnSuccess(count -> {
+                    appKeyCache.synchronous().invalidateAll();
+                    log.info("清除所有AppKey缓存，删除数量: {}", count);
+                })
                 .then();
     }
 
@@ -146,26 +302,7 @@ public class AppKeyService {
      * @return 是否有订阅权限
      */
     public Mono<Boolean> checkSubscription(String appId, String path) {
-        String cacheKey = RedisKeyConstants.buildSubscriptionPathKey(appId, path);
-        
-        return redisUtil.get(cacheKey)
-                .map("1"::equals)
-                .switchIfEmpty(
-                    Mono.fromCallable(() -> {
-                        try {
-                            return appCenterDubboService.checkSubscriptionByPath(appId, path);
-                        } catch (Exception e) {
-                            log.error("Dubbo检查订阅关系失败 - AppId: {}, Path: {}", appId, path, e);
-                            return false;
-                        }
-                    })
-                    .subscribeOn(Schedulers.boundedElastic())
-                    .flatMap(hasSubscription -> {
-                        String value = hasSubscription ? "1" : "0";
-                        return redisUtil.set(cacheKey, value, RedisKeyConstants.TTL_SUBSCRIPTION)
-                                .thenReturn(hasSubscription);
-                    })
-                );
+        return checkSubscription(new SubscriptionKey(appId, path, false));
     }
 
     /**
@@ -176,16 +313,37 @@ public class AppKeyService {
      * @return 是否有订阅权限
      */
     public Mono<Boolean> checkSubscriptionByApiId(String appId, String apiId) {
-        String cacheKey = RedisKeyConstants.buildSubscriptionApiKey(appId, apiId);
-        
+        return checkSubscription(new SubscriptionKey(appId, apiId, true));
+    }
+
+    private Mono<Boolean> checkSubscription(SubscriptionKey key) {
+        if (!localCacheEnabled) {
+            return loadSubscription(key);
+        }
+        return fromCache(subscriptionCache.get(key));
+    }
+
+    /**
+     * L1未命中时的加载逻辑：Redis -> app-center
+     */
+    private Mono<Boolean> loadSubscription(SubscriptionKey key) {
+        String cacheKey = key.redisKey();
+
         return redisUtil.get(cacheKey)
-                .map("1"::equals)
-                .switchIfEmpty(
-                    Mono.fromCallable(() -> {
+                .map(value -> {
+                    subscriptionL2HitCounter.increment();
+                    return "1".equals(value);
+                })
+                .switchIfEmpty(Mono.defer(() -> {
+                    subscriptionL2MissCounter.increment();
+                    return Mono.fromCallable(() -> {
                         try {
-                            return appCenterDubboService.checkSubscriptionByApiId(appId, apiId);
+                            return key.byApiId
+                                    ? appCenterDubboService.checkSubscriptionByApiId(key.appId, key.target)
+                                    : appCenterDubboService.checkSubscriptionByPath(key.appId, key.target);
                         } catch (Exception e) {
-                            log.error("Dubbo检查订阅关系失败 - AppId: {}, ApiId: {}", appId, apiId, e);
+                            log.error("Dubbo检查订阅关系失败 - AppId: {}, {}: {}",
+                                    key.appId, key.byApiId ? "ApiId" : "Path", key.target, e);
                             return false;
                         }
                     })
@@ -194,7 +352,169 @@ public class AppKeyService {
                         String value = hasSubscription ? "1" : "0";
                         return redisUtil.set(cacheKey, value, RedisKeyConstants.TTL_SUBSCRIPTION)
                                 .thenReturn(hasSubscription);
-                    })
-                );
+                    });
+                }));
+    }
+
+    /**
+     * 清除订阅关系缓存（用于Pub/Sub通知）
+     * <p>
+     * 指定apiId时清除该API的判定；按路径缓存的判定无法反查API，同一应用的路径判定一并清除
+     * </p>
+     *
+     * @param appId 应用ID
+     * @param apiId API ID，为null时清除该应用的全部订阅判定
+     * @return 操作结果
+     */
+    public Mono<Void> clearSubscriptionCache(String appId, String apiId) {
+        invalidateLocalSubscriptions(appId, apiId);
+        Mono<?> deleteApi = apiId != null
+                ? redisUtil.delete(RedisKeyConstants.buildSubscriptionApiKey(appId, apiId))
+                : redisUtil.deleteByPattern(RedisKeyConstants.buildSubscriptionApiKey(appId, "*"));
+        Mono<Long> deletePath = redisUtil.deleteByPattern(RedisKeyConstants.SUBSCRIPTION_PREFIX + "path:" + appId + ":*");
+        return deleteApi.then(deletePath)
+                .doOnSuccess(result -> {
+                    invalidateLocalSubscriptions(appId, apiId);
+                    log.info("清除订阅关系缓存 - appId: {}, apiId: {}", appId, apiId);
+                })
+                .then();
+    }
+
+    /**
+     * 清除所有订阅关系缓存（用于Pub/Sub通知）
+     */
+    public Mono<Void> clearAllSubscriptionCache() {
+        subscriptionCache.synchronous().invalidateAll();
+        return redisUtil.deleteByPattern(RedisKeyConstants.SUBSCRIPTION_PREFIX + "*")
+                .doOnSuccess(count -> {
+                    subscriptionCache.synchronous().invalidateAll();
+                    log.info("清除所有订阅关系缓存，删除数量: {}", count);
+                })
+                .then();
+    }
+
+    private void invalidateLocalSubscriptions(String appId, String apiId) {
+        subscriptionCache.synchronous().asMap().keySet().removeIf(key -> key.appId.equals(appId)
+                && (apiId == null || !key.byApiId || key.target.equals(apiId)));
+    }
+
+    /**
+     * 一次往返完成防重放与配额预占（原子操作）
+     * <p>
+     * 签名与订阅关系校验通过后调用：Nonce首次出现才继续，配额未用完时直接占用一次，
+     * 检查与计数在同一脚本中执行，并发请求不会超出配额。
+     * 启用布隆过滤器模式时Nonce记录在按时间戳分桶的位图中，本地过滤器判定为重复的请求不访问Redis
+     * </p>
+     *
+     * @param appKey     AppKey
+     * @param nonce      请求Nonce
+     * @param timestamp  请求签名中的时间戳（秒），需已通过允许范围校验
+     * @param appId      应用ID
+     * @param quotaLimit 配额上限，null或不大于0表示不限制
+     * @return 预占结果
+     */
+    public Mono<RequestReservation> reserveRequest(String appKey, String nonce, long timestamp,
+                                                   String appId, Long quotaLimit) {
+        String limit = String.valueOf(quotaLimit != null ? quotaLimit : 0L);
+        Mono<Long> reply;
+        if (nonceBloomGuard.isEnabled()) {
+            NonceBloomGuard.Probe probe = nonceBloomGuard.probe(appKey, nonce, timestamp);
+            if (probe.isLocalHit()) {
+                return Mono.just(RequestReservation.NONCE_REUSED);
+            }
+            long[] offsets = probe.getOffsets();
+            List<String> args = new ArrayList<>(offsets.length + 2);
+            args.add(String.valueOf(probe.getExpireAt()));
+            args.add(limit);
+            for (long offset : offsets) {
+                args.add(String.valueOf(offset));
+            }
+            List<String> keys = Arrays.asList(probe.getRedisKey(), RedisKeyConstants.buildAppQuotaKey(appId));
+            // 共享过滤器确认后才写入本地过滤器，Redis不可用时同一Nonce仍可重试
+            reply = redisUtil.execute(RESERVE_REQUEST_BLOOM_SCRIPT, keys, args)
+                    .doOnNext(code -> {
+                        if (code != RESERVE_QUOTA_EXCEEDED) {
+                            nonceBloomGuard.record(probe);
+                        }
+                    });
+        } else {
+            List<String> keys = Arrays.asList(
+                    RedisKeyConstants.buildNonceKey(appKey, nonce),
+                    RedisKeyConstants.buildAppQuotaKey(appId));
+            List<String> args = Arrays.asList(String.valueOf(RedisKeyConstants.TTL_NONCE), limit);
+            reply = redisUtil.execute(RESERVE_REQUEST_SCRIPT, keys, args);
+        }
+
+        return reply
+                .map(code -> {
+                    if (code == RESERVE_NONCE_REUSED) {
+                        return RequestReservation.NONCE_REUSED;
+                    }
+                    if (code == RESERVE_QUOTA_EXCEEDED) {
+                        return RequestReservation.QUOTA_EXCEEDED;
+                    }
+                    return RequestReservation.RESERVED;
+                })
+                .defaultIfEmpty(RequestReservation.UNAVAILABLE);
+    }
+
+    /**
+     * 将缓存中的Future转换为Mono
+     * <p>
+     * 通过派生Future隔离订阅取消，避免单个请求取消时把共享的加载任务一起取消
+     * </p>
+     */
+    private <T> Mono<T> fromCache(CompletableFuture<T> future) {
+        return Mono.fromFuture(future.thenApply(Function.identity()));
+    }
+
+    private Counter buildL2Counter(MeterRegistry meterRegistry, String cache, String result) {
+        return Counter.builder("gateway.auth.cache.l2")
+                .description("本地缓存未命中后读取Redis缓存的结果")
+                .tag("cache", cache)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 订阅关系缓存Key
+     */
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    private static final class SubscriptionKey {
+        private final String appId;
+        /**
+         * API ID或请求路径
+         */
+        private final String target;
+        private final boolean byApiId;
+
+        String redisKey() {
+            return byApiId
+                    ? RedisKeyConstants.buildSubscriptionApiKey(appId, target)
+                    : RedisKeyConstants.buildSubscriptionPathKey(appId, target);
+        }
+    }
+
+    /**
+     * 防重放与配额预占结果
+     */
+    public enum RequestReservation {
+        /**
+         * Nonce有效，配额已占用
+         */
+        RESERVED,
+        /**
+         * Nonce重复使用
+         */
+        NONCE_REUSED,
+        /**
+         * 配额已用完
+         */
+        QUOTA_EXCEEDED,
+        /**
+         * Redis不可用，无法完成校验
+         */
+        UNAVAILABLE
     }
 }
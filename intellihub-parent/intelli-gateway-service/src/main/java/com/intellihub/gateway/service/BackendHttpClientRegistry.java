@@ -0,0 +1,161 @@
+package com.intellihub.gateway.service;
+
+import com.intellihub.dubbo.ApiRouteDTO;
+import com.intellihub.gateway.config.BackendHttpClientConfig;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.netty.channel.ChannelOption;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * HTTP后端客户端注册表
+ * <p>
+ * 每个后端主机（scheme://host:port）共享一个调优过的 Reactor Netty 连接池：
+ * 1. 最大连接数、等待队列、空闲/存活时间与后台驱逐均可配置，可按主机覆盖
+ * 2. 连接超时取路由配置（backendConnectTimeout），同一主机不同连接超时的客户端共享连接池
+ * 3. 响应超时取路由配置（timeout），按请求设置
+ * 4. 连接池指标通过 Micrometer 导出（reactor.netty.connection.provider.*，按 name=主机 区分），
+ *    包括总连接数、活跃连接数、空闲连接数、等待获取数以及等待获取耗时（pending.connections.time），
+ *    客户端指标（reactor.netty.http.client.*）的 uri 标签统一为主机
+ * 5. 主机一段时间没有请求（实例下线、路由变更）或主机数超过上限时，释放其客户端并关闭连接池
+ * </p>
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class BackendHttpClientRegistry {
+
+    private final BackendHttpClientConfig config;
+
+    /**
+     * 主机（scheme://host:port） -> 连接池及其客户端
+     */
+    private final Cache<String, Backend> backends;
+
+    public BackendHttpClientRegistry(BackendHttpClientConfig config) {
+        this.config = config;
+        this.backends = Caffeine.newBuilder()
+                .maximumSize(config.getMaxBackends())
+                .expireAfterAccess(Duration.ofMinutes(config.getIdleExpireMinutes()))
+                .removalListener((String name, Backend backend, RemovalCause cause) -> {
+                    if (backend != null) {
+                        log.info("释放后端连接池 - backend: {}, cause: {}", name, cause);
+                        // 等待在途请求归还连接后关闭
+                        backend.provider.disposeLater().subscribe();
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * 获取后端地址对应的客户端
+     *
+     * @param uri   后端完整地址
+     * @param route 路由配置（连接超时）
+     * @return 共享连接池的客户端
+     */
+    public WebClient getClient(String uri, ApiRouteDTO route) {
+        UriComponents components = UriComponentsBuilder.fromUriString(uri).build();
+        String scheme = components.getScheme() != null ? components.getScheme().toLowerCase() : "http";
+        int port = components.getPort() > 0 ? components.getPort() : ("https".equals(scheme) ? 443 : 80);
+        String hostAndPort = components.getHost() + ":" + port;
+        int connectTimeout = positive(route.getBackendConnectTimeout(), config.getConnectTimeoutMs());
+
+        Backend backend = backends.get(scheme + "://" + hostAndPort,
+                name -> new Backend(createProvider(name, config.getPool(hostAndPort))));
+        WebClient client = backend.clients.get(connectTimeout);
+        if (client == null) {
+            client = backend.clients.computeIfAbsent(connectTimeout,
+                    k -> createClient(backend.provider, scheme, hostAndPort, connectTimeout));
+        }
+        return client;
+    }
+
+    /**
+     * 路由的响应超时
+     */
+    public Duration getResponseTimeout(ApiRouteDTO route) {
+        return Duration.ofMillis(positive(route.getTimeout(), config.getResponseTimeoutMs()));
+    }
+
+    /**
+     * 当前连接池数量
+     */
+    public int getPoolCount() {
+        return (int) backends.estimatedSize();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        backends.asMap().values().forEach(backend -> backend.provider.dispose());
+        backends.asMap().clear();
+    }
+
+    private WebClient createClient(ConnectionProvider provider, String scheme, String hostAndPort,
+                                   int connectTimeout) {
+        HttpClient httpClient = HttpClient.create(provider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeout)
+                .keepAlive(config.isKeepAlive())
+                // uri 标签统一为主机，避免路径导致标签基数膨胀
+                .metrics(true, uri -> hostAndPort)
+                .responseTimeout(Duration.ofMillis(config.getResponseTimeoutMs()));
+        if (config.isHttp2()) {
+            httpClient = "https".equals(scheme)
+                    ? httpClient.protocol(HttpProtocol.H2, HttpProtocol.HTTP11).secure()
+                    : httpClient.protocol(HttpProtocol.H2C, HttpProtocol.HTTP11);
+        }
+
+        log.info("创建后端HTTP客户端 - backend: {}://{}, connectTimeout: {}ms", scheme, hostAndPort, connectTimeout);
+        return WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+
+    private ConnectionProvider createProvider(String name, BackendHttpClientConfig.Pool pool) {
+        ConnectionProvider.Builder builder = ConnectionProvider.builder(name)
+                .maxConnections(pool.getMaxConnections())
+                .pendingAcquireMaxCount(pool.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(Duration.ofMillis(pool.getPendingAcquireTimeoutMs()))
+                .maxIdleTime(Duration.ofSeconds(pool.getMaxIdleTimeSeconds()))
+                .maxLifeTime(Duration.ofSeconds(pool.getMaxLifeTimeSeconds()))
+                .metrics(true);
+        if (pool.getEvictIntervalSeconds() > 0) {
+            builder.evictInBackground(Duration.ofSeconds(pool.getEvictIntervalSeconds()));
+        }
+        log.info("创建后端连接池 - backend: {}, maxConnections: {}, pendingAcquireMaxCount: {}",
+                name, pool.getMaxConnections(), pool.getPendingAcquireMaxCount());
+        return builder.build();
+    }
+
+    private int positive(Integer value, int defaultValue) {
+        return value != null && value > 0 ? value : defaultValue;
+    }
+
+    /**
+     * 单个后端主机：连接池及共享它的客户端（连接超时 -> 客户端）
+     */
+    private static final class Backend {
+        private final ConnectionProvider provider;
+        private final Map<Integer, WebClient> clients = new ConcurrentHashMap<>();
+
+        Backend(ConnectionProvider provider) {
+            this.provider = provider;
+        }
+    }
+}
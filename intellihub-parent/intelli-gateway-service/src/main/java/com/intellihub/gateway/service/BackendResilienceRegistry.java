@@ -0,0 +1,235 @@
+package com.intellihub.gateway.service;
+
+import com.intellihub.dubbo.ApiRouteDTO;
+import com.intellihub.gateway.config.BackendResilienceConfig;
+import com.intellihub.gateway.service.resilience.AdaptiveConcurrencyLimiter;
+import com.intellihub.gateway.service.resilience.BackendCircuitBreaker;
+import com.intellihub.gateway.service.resilience.BackendPermit;
+import com.intellihub.gateway.service.resilience.BackendRejectedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * 后端熔断与自适应并发限制注册表
+ * <p>
+ * 每个后端（HTTP后端按主机，Dubbo后端按接口/分组/版本，perApi 时再按API细分）一个熔断器和一个自适应并发限制：
+ * 1. 转发前先检查熔断，再占用并发名额；熔断中或并发已达上限时抛出 {@link BackendRejectedException}，
+ *    由调用方返回503并带上 Retry-After
+ * 2. 拿到后端响应时记录结果和延迟：异常、超时、5xx计为失败，延迟同时驱动慢调用统计和并发上限调整
+ * 3. 指标：
+ *    gateway.backend.circuit.state{backend}（0关闭，1半开，2熔断）、
+ *    gateway.backend.circuit.transitions{backend,state}（state=open 即熔断次数）、
+ *    gateway.backend.concurrency.limit{backend}、gateway.backend.concurrency.inflight{backend}、
+ *    gateway.backend.rejected{backend,result=circuit_open|concurrency_limit}
+ * </p>
+ * backend 标签取值为路由配置中的后端，数量随路由有界。
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class BackendResilienceRegistry {
+
+    private final BackendResilienceConfig config;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 后端 -> 熔断器与并发限制
+     */
+    private final Map<String, BackendGuard> guards = new ConcurrentHashMap<>();
+
+    public BackendResilienceRegistry(BackendResilienceConfig config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+        log.info("后端熔断与自适应并发限制: enabled={}, perApi={}, circuitBreaker={}, concurrency={}",
+                config.isEnabled(), config.isPerApi(), config.getCircuitBreaker().isEnabled(),
+                config.getConcurrency().isEnabled());
+    }
+
+    /**
+     * 路由对应的后端标识
+     */
+    public String resolveBackend(ApiRouteDTO route) {
+        StringBuilder backend = new StringBuilder(64);
+        if ("dubbo".equalsIgnoreCase(route.getBackendType())) {
+            backend.append("dubbo:").append(route.getDubboInterface());
+            if (route.getDubboGroup() != null && !route.getDubboGroup().isEmpty()) {
+                backend.append(':').append(route.getDubboGroup());
+            }
+            if (route.getDubboVersion() != null && !route.getDubboVersion().isEmpty()) {
+                backend.append(':').append(route.getDubboVersion());
+            }
+        } else {
+            String host = route.getBackendHost() != null ? route.getBackendHost().toLowerCase(Locale.ROOT) : "";
+            if (host.startsWith("http://")) {
+                host = host.substring(7);
+            } else if (host.startsWith("https://")) {
+                host = host.substring(8);
+            }
+            backend.append("http:").append(host);
+        }
+        if (config.isPerApi()) {
+            backend.append('#').append(route.getApiId());
+        }
+        return backend.toString();
+    }
+
+    /**
+     * 获取调用许可
+     *
+     * @param backend 后端标识
+     * @return 调用许可，调用结束时必须 {@link BackendPermit#release()}
+     * @throws BackendRejectedException 已熔断或并发已达上限
+     */
+    public BackendPermit acquire(String backend) {
+        if (!config.isEnabled()) {
+            return BackendGuard.NOOP_PERMIT;
+        }
+        return guards.computeIfAbsent(backend, this::createGuard).acquire();
+    }
+
+    /**
+     * 在熔断与并发限制保护下执行后端调用，订阅时才获取许可
+     *
+     * @param backend      后端标识
+     * @param call         后端调用
+     * @param failedResult 正常返回的结果是否计为失败（如5xx）
+     * @param failedError  异常是否计为后端失败；不计为失败的异常（如网关本地错误）不进入熔断统计
+     */
+    public <T> Mono<T> protect(String backend, Mono<T> call, Predicate<T> failedResult,
+                               Predicate<Throwable> failedError) {
+        return Mono.defer(() -> {
+            BackendPermit permit = acquire(backend);
+            return call
+                    .doOnSuccess(result -> permit.onResult(result != null && failedResult.test(result)))
+                    .doOnError(e -> {
+                        if (failedError.test(e)) {
+                            permit.onResult(true);
+                        }
+                    })
+                    .doFinally(signal -> permit.release());
+        });
+    }
+
+    /**
+     * 当前熔断状态，后端尚未调用过时返回null
+     */
+    public BackendCircuitBreaker.State getCircuitState(String backend) {
+        BackendGuard guard = guards.get(backend);
+        return guard != null && guard.circuitBreaker != null ? guard.circuitBreaker.getState() : null;
+    }
+
+    /**
+     * 当前并发上限，后端尚未调用过时返回-1
+     */
+    public int getConcurrencyLimit(String backend) {
+        BackendGuard guard = guards.get(backend);
+        return guard != null && guard.limiter != null ? guard.limiter.getLimit() : -1;
+    }
+
+    private BackendGuard createGuard(String backend) {
+        BackendCircuitBreaker circuitBreaker = null;
+        if (config.getCircuitBreaker().isEnabled()) {
+            Map<BackendCircuitBreaker.State, Counter> transitions = new ConcurrentHashMap<>();
+            for (BackendCircuitBreaker.State state : BackendCircuitBreaker.State.values()) {
+                transitions.put(state, Counter.builder("gateway.backend.circuit.transitions")
+                        .tag("backend", backend)
+                        .tag("state", state.name().toLowerCase(Locale.ROOT))
+                        .register(meterRegistry));
+            }
+            circuitBreaker = new BackendCircuitBreaker(config.getCircuitBreaker(), state -> {
+                transitions.get(state).increment();
+                if (state == BackendCircuitBreaker.State.OPEN) {
+                    log.warn("后端熔断: backend={}, openDurationMs={}", backend,
+                            config.getCircuitBreaker().getOpenDurationMs());
+                } else {
+                    log.info("后端熔断状态变更: backend={}, state={}", backend, state);
+                }
+            });
+            Gauge.builder("gateway.backend.circuit.state", circuitBreaker, cb -> cb.getState().getCode())
+                    .tag("backend", backend)
+                    .description("后端熔断状态：0关闭，1半开，2熔断")
+                    .register(meterRegistry);
+        }
+
+        AdaptiveConcurrencyLimiter limiter = null;
+        if (config.getConcurrency().isEnabled()) {
+            limiter = new AdaptiveConcurrencyLimiter(config.getConcurrency());
+            Gauge.builder("gateway.backend.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                    .tag("backend", backend)
+                    .description("后端当前的自适应并发上限")
+                    .register(meterRegistry);
+            Gauge.builder("gateway.backend.concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::getInflight)
+                    .tag("backend", backend)
+                    .description("后端进行中的调用数")
+                    .register(meterRegistry);
+        }
+
+        return new BackendGuard(backend, circuitBreaker, limiter, config.getConcurrency().getRetryAfterSeconds(),
+                buildRejectedCounter(backend, "circuit_open"), buildRejectedCounter(backend, "concurrency_limit"));
+    }
+
+    private Counter buildRejectedCounter(String backend, String result) {
+        return Counter.builder("gateway.backend.rejected")
+                .tag("backend", backend)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 单个后端的熔断器与并发限制
+     */
+    private static final class BackendGuard {
+
+        private static final BackendPermit NOOP_PERMIT = BackendPermit.noop();
+
+        private final String backend;
+        private final BackendCircuitBreaker circuitBreaker;
+        private final AdaptiveConcurrencyLimiter limiter;
+        private final long limitRetryAfterSeconds;
+        private final Counter circuitOpenCounter;
+        private final Counter concurrencyLimitCounter;
+
+        private BackendGuard(String backend, BackendCircuitBreaker circuitBreaker, AdaptiveConcurrencyLimiter limiter,
+                             long limitRetryAfterSeconds, Counter circuitOpenCounter, Counter concurrencyLimitCounter) {
+            this.backend = backend;
+            this.circuitBreaker = circuitBreaker;
+            this.limiter = limiter;
+            this.limitRetryAfterSeconds = Math.max(1, limitRetryAfterSeconds);
+            this.circuitOpenCounter = circuitOpenCounter;
+            this.concurrencyLimitCounter = concurrencyLimitCounter;
+        }
+
+        private BackendPermit acquire() {
+            BackendCircuitBreaker.Permission permission = BackendCircuitBreaker.Permission.PERMITTED;
+            if (circuitBreaker != null) {
+                permission = circuitBreaker.tryAcquire();
+                if (permission == BackendCircuitBreaker.Permission.REJECTED) {
+                    circuitOpenCounter.increment();
+                    long retryAfter = Math.max(1, (circuitBreaker.getRemainingOpenMillis() + 999) / 1000);
+                    throw new BackendRejectedException(backend, BackendRejectedException.Reason.CIRCUIT_OPEN,
+                            retryAfter);
+                }
+            }
+            if (limiter != null && !limiter.tryAcquire()) {
+                if (circuitBreaker != null) {
+                    circuitBreaker.onIgnored(permission);
+                }
+                concurrencyLimitCounter.increment();
+                throw new BackendRejectedException(backend, BackendRejectedException.Reason.CONCURRENCY_LIMIT,
+                        limitRetryAfterSeconds);
+            }
+            return new BackendPermit(circuitBreaker, permission, limiter);
+        }
+    }
+}
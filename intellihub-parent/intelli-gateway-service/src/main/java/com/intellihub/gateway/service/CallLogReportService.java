@@ -1,28 +1,49 @@
 package com.intellihub.gateway.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.intellihub.constants.RedisKeyConstants;
+import com.intellihub.gateway.config.CallLogConfig;
+import com.intellihub.gateway.service.calllog.CallLogRingBuffer;
+import com.intellihub.gateway.service.calllog.RealtimeStatsAggregator;
+import com.intellihub.kafka.calllog.CallLogRecord;
+import com.intellihub.kafka.calllog.CallLogRecordSerializer;
 import com.intellihub.kafka.constant.KafkaTopics;
-import com.intellihub.kafka.producer.KafkaMessageProducer;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
 import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
-import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
+import org.springframework.util.concurrent.ListenableFutureCallback;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.StringWriter;
 import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * 调用日志上报服务
  * <p>
- * 将API调用日志异步上报到Kafka，由Governance服务消费
+ * 将API调用日志异步上报到Kafka，由Governance服务消费；同时维护告警用的Redis实时统计。
+ * 1. 请求线程只把日志事件写入有界无锁缓冲区，不做序列化，也不访问Kafka和Redis
+ * 2. 专用上报线程批量取出事件逐条发送Kafka，由生产者按 linger.ms/batch.size 攒批并压缩；
+ *    消息体使用 {@link com.intellihub.kafka.calllog.CallLogCodec} 二进制格式，可配置回退为旧版JSON
+ * 3. Redis实时统计在上报线程内预聚合，每个刷新周期合并为一批命令发出
+ * 4. 缓冲区满时按配置丢弃或短暂等待，结果计入 gateway.call.log{result=accepted|blocked|dropped}
+ * 5. 关闭Kafka发送（gateway.call-log.kafka-enabled=false）时不创建生产者，只维护Redis实时统计
  * </p>
  *
  * @author intellihub
@@ -30,116 +51,280 @@ import java.util.UUID;
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class CallLogReportService {
 
+    private static final DateTimeFormatter HOUR_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMddHH");
+    private static final DateTimeFormatter MINUTE_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMddHHmm");
+
+    private static final String DEFAULT_TENANT = "default";
+
+    /**
+     * 缓冲区为空时上报线程的休眠时间
+     */
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    /**
+     * BLOCK策略下两次重试之间的等待时间
+     */
+    private static final long BLOCK_RETRY_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    /**
+     * 停止时等待最后一批Redis统计写入的时间
+     */
+    private static final Duration SHUTDOWN_FLUSH_TIMEOUT = Duration.ofSeconds(3);
+
     private final ReactiveStringRedisTemplate redisTemplate;
-    private final KafkaMessageProducer kafkaMessageProducer;
+
+    /**
+     * 关闭Kafka发送时为null
+     */
+    private final DefaultKafkaProducerFactory<String, CallLogRecord> producerFactory;
+    private final KafkaTemplate<String, CallLogRecord> kafkaTemplate;
     private final ObjectMapper objectMapper;
+    private final CallLogConfig config;
 
-    private static final DateTimeFormatter HOUR_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMddHH");
-    private static final DateTimeFormatter MINUTE_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMddHHmm");
+    private final CallLogRingBuffer<CallLogRecord> buffer;
+    private final RealtimeStatsAggregator aggregator = new RealtimeStatsAggregator();
+
+    private final Counter acceptedCounter;
+    private final Counter blockedCounter;
+    private final Counter droppedCounter;
+    private final Counter kafkaFailedCounter;
+    private final Counter redisFlushFailedCounter;
+    private final ListenableFutureCallback<SendResult<String, CallLogRecord>> sendCallback;
+
+    private volatile boolean running;
+    private Thread reportThread;
 
     /**
-     * 上报调用日志（异步）
+     * 上报线程内缓存当前分钟的时间标识，避免逐条格式化
      */
-    public void reportCallLog(String tenantId, String apiId, String apiPath, String apiMethod,
-                              String appId, String appKey, String clientIp,
-                              Integer statusCode, Boolean success, Integer latency,
-                              String errorMessage, String userAgent) {
-        
-        Mono.fromRunnable(() -> {
+    private long cachedMinute = -1;
+    private String cachedHour;
+    private String cachedMinuteText;
+
+    public CallLogReportService(ReactiveStringRedisTemplate redisTemplate,
+                                KafkaProperties kafkaProperties,
+                                ObjectMapper objectMapper,
+                                CallLogConfig config,
+                                MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        // 调用日志使用独立的值序列化器，生产者在此创建而不注册为Bean，避免替换Spring Boot默认的KafkaTemplate
+        if (config.isKafkaEnabled()) {
+            this.producerFactory = new DefaultKafkaProducerFactory<>(kafkaProperties.buildProducerProperties(),
+                    new StringSerializer(), new CallLogRecordSerializer(!config.isBinaryEncoding()));
+            this.kafkaTemplate = new KafkaTemplate<>(producerFactory);
+        } else {
+            this.producerFactory = null;
+            this.kafkaTemplate = null;
+        }
+        this.objectMapper = objectMapper;
+        this.config = config;
+        this.buffer = new CallLogRingBuffer<>(config.getBufferSize());
+
+        this.acceptedCounter = buildCounter(meterRegistry, "gateway.call.log", "accepted");
+        this.blockedCounter = buildCounter(meterRegistry, "gateway.call.log", "blocked");
+        this.droppedCounter = buildCounter(meterRegistry, "gateway.call.log", "dropped");
+        this.kafkaFailedCounter = buildCounter(meterRegistry, "gateway.call.log.kafka", "failed");
+        this.redisFlushFailedCounter = buildCounter(meterRegistry, "gateway.call.log.redis.flush", "failed");
+        Counter kafkaSentCounter = buildCounter(meterRegistry, "gateway.call.log.kafka", "sent");
+        Gauge.builder("gateway.call.log.buffer.size", buffer, CallLogRingBuffer::size)
+                .description("调用日志缓冲区中待上报的条数")
+                .register(meterRegistry);
+
+        this.sendCallback = new ListenableFutureCallback<SendResult<String, CallLogRecord>>() {
+            @Override
+            public void onSuccess(SendResult<String, CallLogRecord> result) {
+                kafkaSentCounter.increment();
+            }
+
+            @Override
+            public void onFailure(Throwable ex) {
+                kafkaFailedCounter.increment();
+                log.warn("调用日志发送Kafka失败: {}", ex.getMessage());
+            }
+        };
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        reportThread = new Thread(this::runReportLoop, "call-log-reporter");
+        reportThread.setDaemon(true);
+        reportThread.start();
+        log.info("调用日志上报线程已启动: bufferSize={}, overflowPolicy={}, flushIntervalMs={}, binaryEncoding={}, kafkaEnabled={}",
+                buffer.capacity(), config.getOverflowPolicy(), config.getFlushIntervalMs(), config.isBinaryEncoding(),
+                config.isKafkaEnabled());
+    }
+
+    /**
+     * 停止上报线程，上报缓冲区中剩余的日志并写入最后一批Redis统计
+     */
+    @PreDestroy
+    public void stop() {
+        running = false;
+        Thread thread = reportThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
             try {
-                // 1. 构建日志对象
-                Map<String, Object> logData = new HashMap<>();
-                logData.put("tenantId", tenantId != null ? tenantId : "default");
-                logData.put("apiId", apiId);
-                logData.put("apiPath", apiPath);
-                logData.put("apiMethod", apiMethod);
-                logData.put("appId", appId);
-                logData.put("appKey", appKey);
-                logData.put("clientIp", clientIp);
-                logData.put("statusCode", statusCode);
-                logData.put("success", success);
-                logData.put("latency", latency);
-                logData.put("errorMessage", errorMessage);
-                logData.put("userAgent", userAgent);
-                logData.put("requestTime", LocalDateTime.now().toString());
-
-                // 2. 发送到Kafka（供Governance服务消费）
-                kafkaMessageProducer.send(KafkaTopics.CALL_LOG, logData);
-
-                // 3. 更新实时统计（Redis）
-                updateRealtimeStats(tenantId, apiPath, success, latency);
-
-                log.debug("调用日志上报成功 - path: {}, latency: {}ms", apiPath, latency);
-            } catch (Exception e) {
-                log.error("调用日志上报失败 - path: {}", apiPath, e);
+                thread.join(SHUTDOWN_FLUSH_TIMEOUT.toMillis() * 2);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
             }
-        }).subscribeOn(Schedulers.boundedElastic()).subscribe();
+        }
+        if (kafkaTemplate != null) {
+            kafkaTemplate.flush();
+            producerFactory.destroy();
+        }
     }
 
     /**
-     * 更新告警相关的 Redis 数据
+     * 上报调用日志（异步）
      * <p>
-     * 新数据结构:
-     * 1. alert:requests:{tenantId}:{hour} - List，存储每个请求的JSON详情
-     * 2. alert:stats:{tenantId}:{hour} - Hash，存储统计汇总
+     * 只写入缓冲区，不阻塞请求线程（BLOCK策略下缓冲区满时最多等待 blockTimeoutMs）
      * </p>
      */
-    private void updateRealtimeStats(String tenantId, String apiPath, Boolean success, Integer latency) {
-        String hour = LocalDateTime.now().format(HOUR_FORMATTER);
-        String tenant = tenantId != null ? tenantId : "default";
-        Duration ttl = Duration.ofSeconds(RedisKeyConstants.TTL_ALERT_DATA);
-        
-        log.debug("[Gateway Redis] tenantId={}, hour={}, apiPath={}, success={}, latency={}", 
-                tenant, hour, apiPath, success, latency);
-
-        // 1. 构建请求详情
-        String requestsKey = RedisKeyConstants.buildAlertRequestsKey(tenant, hour);
-        Map<String, Object> requestDetail = new HashMap<>();
-        requestDetail.put("requestId", UUID.randomUUID().toString());
-        requestDetail.put("apiPath", apiPath);
-        requestDetail.put("statusCode", success != null && success ? 200 : 500);
-        requestDetail.put("success", success);
-        requestDetail.put("latency", latency);
-        requestDetail.put("timestamp", LocalDateTime.now().toString());
-
-        // 2. 统计 Key
-        String statsKey = RedisKeyConstants.buildAlertStatsKey(tenant, hour);
-        String minute = LocalDateTime.now().format(MINUTE_FORMATTER);
-        String qpsKey = RedisKeyConstants.buildQpsKey(tenant, minute);
-        Duration qpsTtl = Duration.ofSeconds(RedisKeyConstants.TTL_QPS_DATA);
+    public void reportCallLog(String tenantId, String apiId, String apiPath, String apiMethod,
+                              String appId, String appKey, String clientIp,
+                              Integer statusCode, Boolean success, Integer latency,
+                              String errorMessage, String userAgent) {
+        CallLogRecord record = new CallLogRecord(tenantId != null ? tenantId : DEFAULT_TENANT, apiId, apiPath,
+                apiMethod, appId, appKey, clientIp, statusCode, success, latency, errorMessage, userAgent,
+                System.currentTimeMillis());
 
-        try {
-            String requestJson = objectMapper.writeValueAsString(requestDetail);
+        if (buffer.offer(record)) {
+            acceptedCounter.increment();
+            return;
+        }
+        if (config.getOverflowPolicy() == CallLogConfig.OverflowPolicy.BLOCK && offerWithTimeout(record)) {
+            blockedCounter.increment();
+            return;
+        }
+        droppedCounter.increment();
+        log.debug("调用日志缓冲区已满，丢弃日志 - path: {}", apiPath);
+    }
 
-            // 3. 构建所有 Redis 操作（原子化执行）
-            Mono<Long> pushMono = redisTemplate.opsForList().rightPush(requestsKey, requestJson)
-                    .flatMap(v -> redisTemplate.expire(requestsKey, ttl).thenReturn(v));
+    private boolean offerWithTimeout(CallLogRecord record) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(config.getBlockTimeoutMs());
+        while (System.nanoTime() < deadline) {
+            LockSupport.parkNanos(BLOCK_RETRY_NANOS);
+            if (buffer.offer(record)) {
+                return true;
+            }
+        }
+        return false;
+    }
 
-            Mono<Long> totalCountMono = redisTemplate.opsForHash().increment(statsKey, "totalCount", 1)
-                    .flatMap(v -> redisTemplate.expire(statsKey, ttl).thenReturn(v));
+    private void runReportLoop() {
+        long nextFlush = System.currentTimeMillis() + config.getFlushIntervalMs();
+        while (running) {
+            int drained = buffer.drain(this::report, config.getDrainBatchSize());
+            long now = System.currentTimeMillis();
+            if (now >= nextFlush) {
+                flushRealtimeStats(false);
+                nextFlush = now + config.getFlushIntervalMs();
+            }
+            if (drained == 0) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
 
-            Mono<Long> successOrFailMono = Boolean.TRUE.equals(success)
-                    ? redisTemplate.opsForHash().increment(statsKey, "successCount", 1)
-                    : redisTemplate.opsForHash().increment(statsKey, "failCount", 1);
+        while (buffer.drain(this::report, config.getDrainBatchSize()) > 0) {
+            // 停止前上报剩余日志
+        }
+        flushRealtimeStats(true);
+        log.info("调用日志上报线程已停止");
+    }
 
-            Mono<Long> latencyMono = latency != null
-                    ? redisTemplate.opsForHash().increment(statsKey, "latencySum", latency)
-                    : Mono.just(0L);
+    /**
+     * 上报单条日志：发送Kafka并累加实时统计
+     */
+    private void report(CallLogRecord record) {
+        try {
+            LocalDateTime requestTime = refreshTimeBuckets(record.getRequestTime());
+            if (kafkaTemplate != null) {
+                kafkaTemplate.send(KafkaTopics.CALL_LOG, record).addCallback(sendCallback);
+            }
+            aggregator.add(record.getTenantId(), cachedHour, cachedMinuteText, record.getSuccess(), record.getLatency(),
+                    encodeRequestDetail(record, requestTime));
+        } catch (Exception e) {
+            kafkaFailedCounter.increment();
+            log.error("调用日志上报失败 - path: {}", record.getApiPath(), e);
+        }
+    }
+
+    private void flushRealtimeStats(boolean await) {
+        if (aggregator.isEmpty()) {
+            return;
+        }
+        try {
+            if (await) {
+                aggregator.flush(redisTemplate).block(SHUTDOWN_FLUSH_TIMEOUT);
+            } else {
+                aggregator.flush(redisTemplate).subscribe(null, e -> {
+                    redisFlushFailedCounter.increment();
+                    log.error("[Gateway Redis] 实时统计刷新失败: {}", e.getMessage());
+                });
+            }
+        } catch (Exception e) {
+            redisFlushFailedCounter.increment();
+            log.error("[Gateway Redis] 实时统计刷新失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 更新当前分钟的时间标识
+     *
+     * @return 请求时间
+     */
+    private LocalDateTime refreshTimeBuckets(long requestTimeMillis) {
+        LocalDateTime requestTime = LocalDateTime.ofInstant(Instant.ofEpochMilli(requestTimeMillis), ZoneId.systemDefault());
+        long minute = requestTimeMillis / 60_000;
+        if (minute != cachedMinute) {
+            cachedMinute = minute;
+            cachedHour = requestTime.format(HOUR_FORMATTER);
+            cachedMinuteText = requestTime.format(MINUTE_FORMATTER);
+        }
+        return requestTime;
+    }
 
-            Mono<Long> qpsMono = redisTemplate.opsForValue().increment(qpsKey)
-                    .flatMap(v -> redisTemplate.expire(qpsKey, qpsTtl).thenReturn(v));
+    /**
+     * 编码告警用的请求详情
+     */
+    private String encodeRequestDetail(CallLogRecord record, LocalDateTime requestTime) throws IOException {
+        StringWriter writer = new StringWriter(192);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(writer)) {
+            generator.writeStartObject();
+            generator.writeStringField("requestId", UUID.randomUUID().toString());
+            generator.writeStringField("apiPath", record.getApiPath());
+            generator.writeNumberField("statusCode", Boolean.TRUE.equals(record.getSuccess()) ? 200 : 500);
+            writeBooleanField(generator, "success", record.getSuccess());
+            writeIntField(generator, "latency", record.getLatency());
+            generator.writeStringField("timestamp", requestTime.toString());
+            generator.writeEndObject();
+        }
+        return writer.toString();
+    }
 
-            // 4. 原子化执行所有操作
-            Mono.when(pushMono, totalCountMono, successOrFailMono, latencyMono, qpsMono)
-                    .doOnSuccess(v -> log.debug("[Gateway Redis] 统计更新成功 - tenant={}, apiPath={}", tenant, apiPath))
-                    .doOnError(e -> log.error("[Gateway Redis] 统计更新失败 - tenant={}, apiPath={}", tenant, apiPath, e))
-                    .subscribe();
+    private static void writeIntField(JsonGenerator generator, String name, Integer value) throws IOException {
+        if (value != null) {
+            generator.writeNumberField(name, value);
+        } else {
+            generator.writeNullField(name);
+        }
+    }
 
-        } catch (JsonProcessingException e) {
-            log.error("[Gateway Redis] JSON序列化失败", e);
+    private static void writeBooleanField(JsonGenerator generator, String name, Boolean value) throws IOException {
+        if (value != null) {
+            generator.writeBooleanField(name, value);
+        } else {
+            generator.writeNullField(name);
         }
     }
+
+    private static Counter buildCounter(MeterRegistry meterRegistry, String name, String result) {
+        return Counter.builder(name)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
 }
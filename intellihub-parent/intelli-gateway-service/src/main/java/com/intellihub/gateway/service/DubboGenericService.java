@@ -1,28 +1,32 @@
 package com.intellihub.gateway.service;
 
+import com.intellihub.gateway.config.DubboInvokeConfig;
+import com.intellihub.gateway.service.dubbo.DubboConcurrencyLimitException;
 import com.intellihub.gateway.service.dubbo.DubboInvocationContext;
+import com.intellihub.gateway.service.dubbo.DubboReferenceRegistry;
 import com.intellihub.gateway.service.dubbo.strategy.InvocationStrategy;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.dubbo.config.ReferenceConfig;
-import org.apache.dubbo.config.RegistryConfig;
-import org.apache.dubbo.config.ApplicationConfig;
+import org.apache.dubbo.common.constants.CommonConstants;
+import org.apache.dubbo.rpc.RpcContext;
 import org.apache.dubbo.rpc.service.GenericService;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
-import javax.annotation.PostConstruct;
 import java.time.Duration;
 import java.util.List;
-
-import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 /**
  * Dubbo泛化调用服务
  * <p>
  * 支持在不依赖服务接口的情况下调用Dubbo服务
  * 用于开放API的Dubbo后端类型转发
+ * 1. 通过 $invokeAsync 异步调用，结果经 Mono.fromFuture 桥接，调用期间不占用任何线程
+ * 2. 按接口限制并发调用数，超过上限直接拒绝，避免单个慢接口堆积请求
+ * 3. 调用超时取路由配置，按请求设置
  * </p>
  *
  * @author intellihub
@@ -32,48 +36,32 @@ import com.github.benmanes.caffeine.cache.Caffeine;
 @Service
 public class DubboGenericService {
 
-    @Value("${dubbo.registry.address:nacos://127.0.0.1:8848}")
-    private String registryAddress;
-
-    @Value("${dubbo.application.name:intelli-gateway-service}")
-    private String applicationName;
-
-    @Value("${dubbo.consumer.group:}")
-    private String defaultGroup;
-
-    private ApplicationConfig applicationConfig;
-    private RegistryConfig registryConfig;
+    /**
+     * 网关侧超时在Dubbo超时基础上的余量（毫秒），正常情况下由Dubbo先超时
+     */
+    private static final long TIMEOUT_GRACE_MILLIS = 500;
 
     /**
      * 调用策略列表（Spring自动注入）
      */
     private final List<InvocationStrategy> strategies;
 
+    private final DubboReferenceRegistry referenceRegistry;
+    private final DubboInvokeConfig config;
+
     /**
-     * GenericService缓存（接口名:version:group -> GenericService）
-     * 使用Caffeine缓存，支持自动过期和容量限制
+     * 接口名 -> 进行中的调用数
      */
-    private final Cache<String, GenericService> genericServiceCache = Caffeine.newBuilder()
-            .expireAfterAccess(Duration.ofMinutes(30))
-            .maximumSize(100)
-            .removalListener((key, value, cause) -> 
-                    log.info("移除GenericService缓存: key={}, cause={}", key, cause))
-            .build();
-
-    public DubboGenericService(List<InvocationStrategy> strategies) {
-        this.strategies = strategies;
-    }
-
-    @PostConstruct
-    public void init() {
-        applicationConfig = new ApplicationConfig();
-        applicationConfig.setName(applicationName + "-generic");
-
-        registryConfig = new RegistryConfig();
-        registryConfig.setAddress(registryAddress);
+    private final Map<String, AtomicInteger> inflightCalls = new ConcurrentHashMap<>();
 
-        log.info("Dubbo泛化调用服务初始化完成: registry={}, strategies={}", 
-                registryAddress, strategies.stream().map(InvocationStrategy::getStrategyName).collect(java.util.stream.Collectors.toList()));
+    public DubboGenericService(List<InvocationStrategy> strategies, DubboReferenceRegistry referenceRegistry,
+                               DubboInvokeConfig config) {
+        this.strategies = strategies;
+        this.referenceRegistry = referenceRegistry;
+        this.config = config;
+        log.info("Dubbo泛化调用服务初始化完成: strategies={}, maxConcurrencyPerInterface={}",
+                strategies.stream().map(InvocationStrategy::getStrategyName).collect(Collectors.toList()),
+                config.getMaxConcurrencyPerInterface());
     }
 
     /**
@@ -86,32 +74,43 @@ public class DubboGenericService {
      * @return 调用结果
      */
     public Mono<Object> invoke(DubboInvocationContext context) {
-        return Mono.fromCallable(() -> {
-            try {
-                log.info("[DubboGenericService] 开始泛化调用: {}", context.toSummary());
-
-                // 获取或创建GenericService
-                String cacheKey = buildCacheKey(context.getInterfaceName(), context.getVersion(), context.getGroup());
-                GenericService genericService = genericServiceCache.get(cacheKey, 
-                        k -> createGenericService(context.getInterfaceName(), context.getVersion(), 
-                                context.getGroup(), context.getTimeout()));
-
-                // 选择并执行调用策略
-                InvocationStrategy strategy = selectStrategy(context);
-                log.debug("[DubboGenericService] 使用策略: {}", strategy.getStrategyName());
-                
-                Object result = strategy.invoke(genericService, context);
-
-                log.info("[DubboGenericService] 泛化调用成功: interface={}, method={}, resultType={}", 
-                        context.getInterfaceName(), context.getMethodName(), 
-                        result != null ? result.getClass().getSimpleName() : "null");
-                return result;
-
-            } catch (Exception e) {
-                log.error("[DubboGenericService] 泛化调用失败: {}, error={}", context.toSummary(), e.getMessage(), e);
-                throw e;
-            }
-        });
+        InvocationStrategy strategy;
+        try {
+            strategy = selectStrategy(context);
+        } catch (IllegalStateException e) {
+            return Mono.error(e);
+        }
+        int timeout = context.getTimeout() != null && context.getTimeout() > 0
+                ? context.getTimeout() : config.getDefaultTimeoutMs();
+
+        return referenceRegistry.getService(context)
+                .flatMap(genericService -> invoke(genericService, strategy, context, timeout));
+    }
+
+    private Mono<Object> invoke(GenericService genericService, InvocationStrategy strategy,
+                                DubboInvocationContext context, int timeout) {
+        String interfaceName = context.getInterfaceName();
+        AtomicInteger inflight = inflightCalls.computeIfAbsent(interfaceName, k -> new AtomicInteger());
+        int limit = config.getMaxConcurrencyPerInterface();
+        if (inflight.incrementAndGet() > limit && limit > 0) {
+            inflight.decrementAndGet();
+            log.warn("[DubboGenericService] 接口并发调用数已达上限: interface={}, limit={}", interfaceName, limit);
+            return Mono.error(new DubboConcurrencyLimitException(interfaceName, limit));
+        }
+
+        log.debug("[DubboGenericService] 开始泛化调用: {}, strategy={}, timeout={}ms",
+                context.toSummary(), strategy.getStrategyName(), timeout);
+        return Mono.fromFuture(() -> {
+                    // 附件只对当前线程的下一次调用生效，覆盖引用上的默认超时
+                    RpcContext.getClientAttachment().setAttachment(CommonConstants.TIMEOUT_KEY, String.valueOf(timeout));
+                    return strategy.invoke(genericService, context);
+                })
+                .timeout(Duration.ofMillis(timeout + TIMEOUT_GRACE_MILLIS))
+                .doOnNext(result -> log.debug("[DubboGenericService] 泛化调用成功: interface={}, method={}, resultType={}",
+                        interfaceName, context.getMethodName(), result.getClass().getSimpleName()))
+                .doOnError(e -> log.error("[DubboGenericService] 泛化调用失败: {}, error={}",
+                        context.toSummary(), e.getMessage()))
+                .doFinally(signal -> inflight.decrementAndGet());
     }
 
     /**
@@ -131,89 +130,24 @@ public class DubboGenericService {
     }
 
     /**
-     * 创建GenericService实例
-     * <p>
-     * 根据接口配置创建Dubbo泛化服务引用，支持版本和分组配置
-     * </p>
-     *
-     * @param interfaceName 接口全限定名
-     * @param version       版本号（可为空）
-     * @param group         分组（可为空，为空时使用默认分组）
-     * @param timeout       超时时间（毫秒）
-     * @return GenericService实例
-     */
-    private GenericService createGenericService(String interfaceName, String version, String group, Integer timeout) {
-        log.info("[DubboGenericService] 创建GenericService: interface={}, version={}, group={}, timeout={}, registry={}", 
-                interfaceName, version, group, timeout, registryAddress);
-        
-        ReferenceConfig<GenericService> reference = new ReferenceConfig<>();
-        reference.setApplication(applicationConfig);
-        reference.setRegistry(registryConfig);
-        reference.setInterface(interfaceName);
-        reference.setGeneric("true");
-
-        // 设置版本号
-        if (version != null && !version.isEmpty()) {
-            reference.setVersion(version);
-        }
-        
-        // 设置分组（优先使用传入的group，为空时使用默认配置）
-        String effectiveGroup = (group != null && !group.isEmpty()) ? group : defaultGroup;
-        if (effectiveGroup != null && !effectiveGroup.isEmpty()) {
-            reference.setGroup(effectiveGroup);
-        }
-        
-        // 设置超时时间
-        reference.setTimeout(timeout != null && timeout > 0 ? timeout : 5000);
-        reference.setRetries(0);
-
-        try {
-            GenericService service = reference.get();
-            log.info("[DubboGenericService] GenericService创建成功: interface={}, effectiveGroup={}", 
-                    interfaceName, effectiveGroup);
-            return service;
-        } catch (Exception e) {
-            log.error("[DubboGenericService] GenericService创建失败: interface={}, version={}, group={}, error={}", 
-                    interfaceName, version, effectiveGroup, e.getMessage(), e);
-            throw e;
-        }
-    }
-
-    /**
-     * 构建缓存Key
+     * 移除指定接口的服务引用
      */
-    private String buildCacheKey(String interfaceName, String version, String group) {
-        StringBuilder sb = new StringBuilder(interfaceName);
-        if (version != null && !version.isEmpty()) {
-            sb.append(":").append(version);
-        }
-        if (group != null && !group.isEmpty()) {
-            sb.append(":").append(group);
-        }
-        return sb.toString();
-    }
-
-    /**
-     * 清除GenericService缓存
-     */
-    public void clearCache() {
-        genericServiceCache.clear();
-        log.info("已清除GenericService缓存");
+    public void removeCache(String interfaceName, String version, String group) {
+        referenceRegistry.remove(interfaceName, version, group);
     }
 
     /**
-     * 移除指定接口的缓存
+     * 获取已创建的服务引用数量
      */
-    public void removeCache(String interfaceName, String version, String group) {
-        String cacheKey = buildCacheKey(interfaceName, version, group);
-        genericServiceCache.remove(cacheKey);
-        log.info("移除GenericService缓存 - key: {}", cacheKey);
+    public long getCacheSize() {
+        return referenceRegistry.size();
     }
 
     /**
-     * 获取缓存大小
+     * 获取指定接口进行中的调用数
      */
-    public long getCacheSize() {
-        return genericServiceCache.estimatedSize();
+    public int getInflightCalls(String interfaceName) {
+        AtomicInteger inflight = inflightCalls.get(interfaceName);
+        return inflight != null ? inflight.get() : 0;
     }
 }
@@ -0,0 +1,330 @@
+package com.intellihub.gateway.service;
+
+import com.intellihub.gateway.config.RateLimitConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 混合令牌桶限流器（本地令牌 + Redis租约）
+ * <p>
+ * 1. 全局令牌桶保存在Redis中，节点每次通过Lua脚本租借一批令牌
+ * 2. 请求在本地令牌桶中CAS扣减，不访问Redis
+ * 3. 本地剩余令牌低于阈值时异步续租；耗尽时等待同一个续租请求（同一Key同时只有一个租约请求）
+ * 4. 本地令牌桶空闲超时、限流配置变更被替换或节点关闭时，把未用的租借令牌归还Redis；
+ *    已退役的桶上晚到的租约结果也立即归还
+ * 5. Redis不可用时按 全局速率 / 网关节点数（hybrid.node-count）在本地发放令牌，集群总放行量仍接近全局限额；
+ *    本地发放的令牌不归还Redis
+ * </p>
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HybridRateLimiter {
+
+    /**
+     * 租借令牌：按时间补充全局令牌后扣除本次租借量
+     * KEYS[1]=全局令牌桶；ARGV[1]=容量 ARGV[2]=每毫秒补充令牌数 ARGV[3]=当前时间（毫秒） ARGV[4]=租借数 ARGV[5]=过期时间（毫秒）
+     * 返回实际租到的令牌数
+     */
+    private static final DefaultRedisScript<Long> LEASE_SCRIPT = new DefaultRedisScript<>(
+            "local capacity = tonumber(ARGV[1])\n" +
+            "local rate = tonumber(ARGV[2])\n" +
+            "local now = tonumber(ARGV[3])\n" +
+            "local bucket = redis.call('HMGET', KEYS[1], 'tokens', 'ts')\n" +
+            "local tokens = tonumber(bucket[1]) or capacity\n" +
+            "local ts = tonumber(bucket[2]) or now\n" +
+            "if now > ts then\n" +
+            "    tokens = math.min(capacity, tokens + (now - ts) * rate)\n" +
+            "    ts = now\n" +
+            "end\n" +
+            "local granted = math.min(tonumber(ARGV[4]), math.floor(tokens))\n" +
+            "redis.call('HMSET', KEYS[1], 'tokens', tostring(tokens - granted), 'ts', ts)\n" +
+            "redis.call('PEXPIRE', KEYS[1], ARGV[5])\n" +
+            "return granted",
+            Long.class);
+
+    /**
+     * 归还令牌（不超过容量）
+     * KEYS[1]=全局令牌桶；ARGV[1]=容量 ARGV[2]=归还数
+     */
+    private static final DefaultRedisScript<Long> RETURN_SCRIPT = new DefaultRedisScript<>(
+            "local tokens = tonumber(redis.call('HGET', KEYS[1], 'tokens'))\n" +
+            "if tokens then\n" +
+            "    redis.call('HSET', KEYS[1], 'tokens', tostring(math.min(tonumber(ARGV[1]), tokens + tonumber(ARGV[2]))))\n" +
+            "end\n" +
+            "return 0",
+            Long.class);
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final RateLimitConfig rateLimitConfig;
+
+    private final Map<String, LocalBucket> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * 尝试获取一个令牌
+     *
+     * @param key      限流Key
+     * @param requests 时间窗口内允许的请求数（全局桶容量）
+     * @param window   时间窗口（秒）
+     * @return 限流结果
+     */
+    public Mono<RateLimitService.RateLimitResult> tryAcquire(String key, int requests, int window) {
+        LocalBucket bucket = bucketFor(key, requests, window);
+        bucket.lastAccessNanos = System.nanoTime();
+
+        long remaining = bucket.tryTake();
+        if (remaining >= 0) {
+            if (remaining < bucket.lowWatermark) {
+                refill(bucket).subscribe();
+            }
+            return Mono.just(result(bucket, true, remaining));
+        }
+
+        // 本地令牌耗尽：等待续租后再尝试一次
+        return refill(bucket).map(granted -> {
+            long left = bucket.tryTake();
+            return result(bucket, left >= 0, Math.max(0, left));
+        });
+    }
+
+    /**
+     * 获取本地令牌桶，首次访问时创建；限流配置变更时替换，被替换的桶退役并归还未用令牌
+     */
+    private LocalBucket bucketFor(String key, int requests, int window) {
+        LocalBucket cached = buckets.get(key);
+        if (cached != null && cached.matches(requests, window)) {
+            return cached;
+        }
+        LocalBucket[] replaced = new LocalBucket[1];
+        LocalBucket bucket = buckets.compute(key, (k, existing) -> {
+            if (existing != null && existing.matches(requests, window)) {
+                return existing;
+            }
+            replaced[0] = existing;
+            return new LocalBucket(k + ":lease", requests, window, leaseSize(requests));
+        });
+        if (replaced[0] != null) {
+            retire(replaced[0]).subscribe();
+        }
+        return bucket;
+    }
+
+    /**
+     * 归还空闲本地令牌桶中的未用令牌并释放
+     */
+    public void releaseIdleBuckets() {
+        long idleNanos = TimeUnit.SECONDS.toNanos(rateLimitConfig.getHybrid().getIdleTimeout());
+        long now = System.nanoTime();
+        buckets.forEach((key, bucket) -> {
+            if (now - bucket.lastAccessNanos > idleNanos && buckets.remove(key, bucket)) {
+                retire(bucket).subscribe();
+            }
+        });
+    }
+
+    /**
+     * 节点关闭时归还所有未用令牌
+     */
+    @PreDestroy
+    public void releaseAll() {
+        buckets.forEach((key, bucket) -> {
+            if (buckets.remove(key, bucket)) {
+                try {
+                    retire(bucket).block(Duration.ofSeconds(1));
+                } catch (Exception e) {
+                    log.debug("归还限流令牌失败 - Key: {}", key, e);
+                }
+            }
+        });
+    }
+
+    /**
+     * 续租：同一本地桶同时只有一个租约请求，并发的等待者共享结果
+     */
+    private Mono<Long> refill(LocalBucket bucket) {
+        Mono<Long> pending = bucket.pending.get();
+        if (pending != null) {
+            return pending;
+        }
+        Mono<Long> lease = Mono.defer(() -> lease(bucket))
+                .doOnNext(granted -> {
+                    if (granted > 0) {
+                        bucket.tokens.addAndGet(granted);
+                        // 租约完成前桶已被替换或回收：令牌不会再被使用，立即归还
+                        if (bucket.retired) {
+                            giveBack(bucket).subscribe();
+                        }
+                    }
+                })
+                .doFinally(signal -> bucket.pending.set(null))
+                .cache();
+        if (bucket.pending.compareAndSet(null, lease)) {
+            return lease;
+        }
+        pending = bucket.pending.get();
+        // 其他线程的续租已经完成，本地令牌已补充
+        return pending != null ? pending : Mono.just(0L);
+    }
+
+    private Mono<Long> lease(LocalBucket bucket) {
+        long ttlMillis = TimeUnit.SECONDS.toMillis(bucket.window) * 2;
+        return redisTemplate.execute(LEASE_SCRIPT,
+                        Collections.singletonList(bucket.redisKey),
+                        Arrays.asList(
+                                String.valueOf(bucket.requests),
+                                String.valueOf(bucket.refillPerMilli),
+                                String.valueOf(System.currentTimeMillis()),
+                                String.valueOf(bucket.leaseSize),
+                                String.valueOf(ttlMillis)))
+                .next()
+                .defaultIfEmpty(0L)
+                .onErrorResume(e -> {
+                    log.warn("租借限流令牌失败，使用本地限流 - Key: {}, Error: {}", bucket.redisKey, e.getMessage());
+                    return Mono.just(bucket.degradedGrant());
+                });
+    }
+
+    /**
+     * 退役本地令牌桶（已从映射中移除）：之后完成的租约由 {@link #refill} 直接归还
+     */
+    private Mono<Void> retire(LocalBucket bucket) {
+        bucket.retired = true;
+        return giveBack(bucket);
+    }
+
+    /**
+     * 归还未用令牌，不包括Redis不可用时本地发放的令牌
+     */
+    private Mono<Void> giveBack(LocalBucket bucket) {
+        long unused = bucket.tokens.getAndSet(0) - bucket.degradedTokens.getAndSet(0);
+        if (unused <= 0) {
+            return Mono.empty();
+        }
+        return redisTemplate.execute(RETURN_SCRIPT,
+                        Collections.singletonList(bucket.redisKey),
+                        Arrays.asList(String.valueOf(bucket.requests), String.valueOf(unused)))
+                .then()
+                .onErrorResume(e -> {
+                    log.debug("归还限流令牌失败 - Key: {}, Error: {}", bucket.redisKey, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * 租约批次：不超过配置的租约大小和超发上限，最少1个
+     */
+    private int leaseSize(int requests) {
+        RateLimitConfig.Hybrid hybrid = rateLimitConfig.getHybrid();
+        int maxOvershoot = (int) (requests * hybrid.getMaxOvershootRatio());
+        return Math.max(1, Math.min(hybrid.getLeaseSize(), maxOvershoot));
+    }
+
+    private RateLimitService.RateLimitResult result(LocalBucket bucket, boolean allowed, long remaining) {
+        long resetTime = System.currentTimeMillis() / 1000 + bucket.window;
+        // remaining 为本节点持有的令牌数，过滤器会在放行后减1
+        return new RateLimitService.RateLimitResult(allowed, bucket.requests,
+                (int) Math.min(bucket.requests, allowed ? remaining + 1 : remaining), resetTime);
+    }
+
+    /**
+     * 本地令牌桶
+     */
+    private final class LocalBucket {
+        final String redisKey;
+        final int requests;
+        final int window;
+        final int leaseSize;
+        final long lowWatermark;
+        final double refillPerMilli;
+        final AtomicLong tokens = new AtomicLong();
+        final AtomicReference<Mono<Long>> pending = new AtomicReference<>();
+        volatile long lastAccessNanos = System.nanoTime();
+
+        /**
+         * 已从映射中移除（被替换或空闲回收）
+         */
+        volatile boolean retired;
+
+        /**
+         * Redis不可用时本地发放的令牌数（累计到下次归还），归还时扣除
+         */
+        final AtomicLong degradedTokens = new AtomicLong();
+
+        /**
+         * Redis不可用时本节点的令牌补充速率（全局速率按节点数均分）
+         */
+        final double degradedRefillPerMilli;
+
+        /**
+         * Redis不可用时上次本地发放令牌的时间，0表示尚未发放
+         */
+        private long lastDegradedGrantNanos;
+
+        LocalBucket(String redisKey, int requests, int window, int leaseSize) {
+            this.redisKey = redisKey;
+            this.requests = requests;
+            this.window = window;
+            this.leaseSize = leaseSize;
+            this.lowWatermark = (long) (leaseSize * rateLimitConfig.getHybrid().getRefillThreshold());
+            this.refillPerMilli = (double) requests / TimeUnit.SECONDS.toMillis(Math.max(1, window));
+            this.degradedRefillPerMilli = refillPerMilli / Math.max(1, rateLimitConfig.getHybrid().getNodeCount());
+        }
+
+        boolean matches(int requests, int window) {
+            return this.requests == requests && this.window == window;
+        }
+
+        /**
+         * 无锁扣减一个令牌
+         *
+         * @return 扣减后的剩余令牌数，令牌不足返回-1
+         */
+        long tryTake() {
+            while (true) {
+                long current = tokens.get();
+                if (current <= 0) {
+                    return -1;
+                }
+                if (tokens.compareAndSet(current, current - 1)) {
+                    return current - 1;
+                }
+            }
+        }
+
+        /**
+         * Redis不可用时按本节点分得的补充速率在本地发放令牌（首次发放一个租约批次）
+         */
+        synchronized long degradedGrant() {
+            long now = System.nanoTime();
+            long granted;
+            if (lastDegradedGrantNanos == 0) {
+                granted = leaseSize;
+            } else {
+                double elapsedMillis = (now - lastDegradedGrantNanos) / 1_000_000.0;
+                granted = Math.min(leaseSize, (long) (elapsedMillis * degradedRefillPerMilli));
+            }
+            if (granted > 0) {
+                lastDegradedGrantNanos = now;
+                degradedTokens.addAndGet(granted);
+            }
+            return granted;
+        }
+    }
+}
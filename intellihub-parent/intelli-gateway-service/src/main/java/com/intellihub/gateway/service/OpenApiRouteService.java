@@ -2,13 +2,18 @@ package com.intellihub.gateway.service;
 
 import com.intellihub.dubbo.ApiPlatformDubboService;
 import com.intellihub.dubbo.ApiRouteDTO;
+import com.intellihub.dubbo.RouteChangesDTO;
+import com.intellihub.dubbo.route.RouteMatch;
+import com.intellihub.dubbo.route.RouteTrie;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.dubbo.config.annotation.DubboReference;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
 import org.springframework.stereotype.Service;
-import org.springframework.util.AntPathMatcher;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
@@ -22,6 +27,10 @@ import java.util.concurrent.ConcurrentHashMap;
  * 开放API路由服务
  * <p>
  * 负责加载和缓存API路由配置，支持动态刷新
+ * 路由预编译为按请求方法划分的前缀树（{@link RouteTrie}），匹配耗时与路由总数无关
+ * 本地未命中时回源API Platform：未匹配结果短暂缓存（负缓存），同一path+method的并发回源合并为一次Dubbo调用
+ * 路由带单调递增的版本号：变更通知只触发增量同步（{@link ApiPlatformDubboService#getRouteChangesSince}），
+ * 在副本上应用差异后原子替换，遗漏通知时根据版本空洞补齐
  * </p>
  *
  * @author intellihub
@@ -31,29 +40,70 @@ import java.util.concurrent.ConcurrentHashMap;
 @Service
 public class OpenApiRouteService {
 
+    private static final long VERSION_NOT_LOADED = -1L;
+
     @DubboReference(check = false, timeout = 5000)
     private ApiPlatformDubboService apiPlatformDubboService;
 
     private final ReactiveStringRedisTemplate redisTemplate;
-    private final AntPathMatcher pathMatcher = new AntPathMatcher();
 
     /**
-     * 本地路由缓存（path:method -> ApiRouteDTO）
+     * 本地路由前缀树
      * 注意：path可能包含路径参数，如 /open/user/{id}
-     * 使用Caffeine缓存，支持自动过期和容量限制
+     * 全量刷新时整体替换，单个API变更时增量更新
+     */
+    private volatile RouteTrie routeTrie = new RouteTrie();
+
+    /**
+     * 路由写操作锁，保证全量替换与增量更新不会互相覆盖
+     */
+    private final Object routeLock = new Object();
+
+    /**
+     * 本地路由已同步到的版本号，{@link #VERSION_NOT_LOADED} 表示尚未完成全量加载
      */
-    private final Cache<String, ApiRouteDTO> localRouteCache = Caffeine.newBuilder()
-            .expireAfterWrite(Duration.ofMinutes(10))
-            .maximumSize(10000)
-            .build();
+    private volatile long routeVersion = VERSION_NOT_LOADED;
 
     /**
-     * API ID索引缓存（apiId -> cacheKey）
+     * 同步锁，保证同一时刻只有一次增量同步在拉取变更
      */
-    private final Map<String, String> apiIdIndex = new ConcurrentHashMap<>();
+    private final Object syncLock = new Object();
+
+    /**
+     * 未匹配路由的负缓存（path:METHOD -> 未命中标记），防止随机路径扫描把每个请求都打到API Platform
+     */
+    private final Cache<String, Boolean> routeMissCache;
+
+    /**
+     * 进行中的回源请求（path:METHOD -> 共享结果），并发未命中共用一次Dubbo调用
+     */
+    private final Map<String, Mono<RouteMatch>> inflightLookups = new ConcurrentHashMap<>();
+
+    private final Counter negativeCacheHitCounter;
+    private final Counter negativeCacheMissCounter;
+    private final Counter lookupCoalescedCounter;
 
-    public OpenApiRouteService(ReactiveStringRedisTemplate redisTemplate) {
+    public OpenApiRouteService(ReactiveStringRedisTemplate redisTemplate,
+                               MeterRegistry meterRegistry,
+                               @Value("${gateway.route.negative-cache-ttl-seconds:5}") long negativeCacheTtlSeconds,
+                               @Value("${gateway.route.negative-cache-max-size:10000}") long negativeCacheMaxSize) {
         this.redisTemplate = redisTemplate;
+        this.routeMissCache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(negativeCacheTtlSeconds))
+                .maximumSize(negativeCacheMaxSize)
+                .build();
+        this.negativeCacheHitCounter = Counter.builder("gateway.route.negative.cache")
+                .description("开放API路由负缓存命中（直接判定未匹配，不回源）")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.negativeCacheMissCounter = Counter.builder("gateway.route.negative.cache")
+                .description("开放API路由负缓存未命中（发起Dubbo回源）")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.lookupCoalescedCounter = Counter.builder("gateway.route.negative.cache")
+                .description("开放API路由回源被合并到进行中的Dubbo调用")
+                .tag("result", "coalesced")
+                .register(meterRegistry);
     }
 
     /**
@@ -71,26 +121,119 @@ public class OpenApiRouteService {
 
     /**
      * 刷新所有路由配置
+     * <p>
+     * 先在新的前缀树上完成构建，再原子替换，刷新期间匹配不受影响
+     * </p>
      */
     public void refreshAllRoutes() {
         try {
-            List<ApiRouteDTO> routes = apiPlatformDubboService.getAllPublishedRoutes();
-            localRouteCache.invalidateAll();
-            apiIdIndex.clear();
-
-            for (ApiRouteDTO route : routes) {
-                String cacheKey = buildCacheKey(route.getPath(), route.getMethod());
-                localRouteCache.put(cacheKey, route);
-                apiIdIndex.put(route.getApiId(), cacheKey);
+            synchronized (syncLock) {
+                applyRouteChanges(apiPlatformDubboService.getRouteChangesSince(0L));
             }
-
-            log.info("路由配置刷新完成，共加载 {} 条路由", routes.size());
+            log.info("路由配置刷新完成，共加载 {} 条路由, version: {}", routeTrie.size(), routeVersion);
         } catch (Exception e) {
             log.error("刷新路由配置失败", e);
             throw e;
         }
     }
 
+    /**
+     * 增量同步路由变更
+     * <p>
+     * 拉取本地版本之后的变更并应用；本地尚未加载或变更日志无法覆盖时，API Platform返回全量快照
+     * </p>
+     */
+    public void syncRouteChanges() {
+        try {
+            synchronized (syncLock) {
+                long localVersion = routeVersion;
+                RouteChangesDTO changes = apiPlatformDubboService.getRouteChangesSince(Math.max(localVersion, 0L));
+                applyRouteChanges(changes);
+                log.info("路由增量同步完成 - version: {} -> {}, fullSnapshot: {}, upserts: {}, removed: {}",
+                        localVersion, changes.getVersion(), changes.isFullSnapshot(),
+                        changes.getRoutes().size(), changes.getRemovedApiIds().size());
+            }
+        } catch (Exception e) {
+            log.error("路由增量同步失败 - version: {}", routeVersion, e);
+        }
+    }
+
+    /**
+     * 收到带版本号的变更通知
+     * <p>
+     * 版本号不大于本地版本说明已同步过；否则（包括中间遗漏了若干通知）一次增量同步补齐到最新
+     * </p>
+     *
+     * @param version 通知携带的版本号
+     */
+    public void onRouteVersion(long version) {
+        if (version <= routeVersion) {
+            log.debug("路由版本已同步，忽略通知 - local: {}, event: {}", routeVersion, version);
+            return;
+        }
+        if (routeVersion != VERSION_NOT_LOADED && version > routeVersion + 1) {
+            log.warn("检测到路由版本空洞，补齐遗漏的变更 - local: {}, event: {}", routeVersion, version);
+        }
+        syncRouteChanges();
+    }
+
+    /**
+     * 与API Platform核对路由版本号
+     * <p>
+     * 兜底遗漏了最后几条变更通知、之后又没有新通知的情况
+     * </p>
+     */
+    public void checkRouteVersion() {
+        try {
+            long remoteVersion = apiPlatformDubboService.getRouteVersion();
+            if (remoteVersion != routeVersion) {
+                log.info("路由版本不一致，开始同步 - local: {}, remote: {}", routeVersion, remoteVersion);
+                syncRouteChanges();
+            }
+        } catch (Exception e) {
+            log.warn("核对路由版本失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 当前路由版本号
+     */
+    public long getRouteVersion() {
+        return routeVersion;
+    }
+
+    /**
+     * 应用路由变更：在副本上完成修改后与版本号一起原子替换
+     * <p>
+     * 增量变更在共享节点的副本上执行，只复制被修改路由所在的节点路径，不重新编译全部路由
+     * </p>
+     */
+    private void applyRouteChanges(RouteChangesDTO changes) {
+        if (!changes.isFullSnapshot() && changes.getVersion() <= routeVersion) {
+            return;
+        }
+        synchronized (routeLock) {
+            RouteTrie next;
+            if (changes.isFullSnapshot()) {
+                next = RouteTrie.of(changes.getRoutes());
+            } else {
+                next = routeTrie.copy();
+                for (String apiId : changes.getRemovedApiIds()) {
+                    next.remove(apiId);
+                }
+                for (ApiRouteDTO route : changes.getRoutes()) {
+                    next.put(route);
+                }
+            }
+            routeTrie = next;
+            routeVersion = changes.getVersion();
+        }
+        if (changes.isFullSnapshot() || !changes.getRoutes().isEmpty()) {
+            // 新增/变更的路由可能命中之前判定为未匹配的路径
+            routeMissCache.invalidateAll();
+        }
+    }
+
     /**
      * 匹配路由配置（支持路径参数）
      * <p>
@@ -102,45 +245,84 @@ public class OpenApiRouteService {
      * @return 匹配的路由配置
      */
     public Mono<ApiRouteDTO> matchRoute(String requestPath, String method) {
-        // 1. 先尝试精确匹配
-        String exactKey = buildCacheKey(requestPath, method);
-        ApiRouteDTO exactMatch = localRouteCache.getIfPresent(exactKey);
-        if (exactMatch != null) {
-            log.debug("精确匹配路由 - path: {}, method: {}", requestPath, method);
-            return Mono.just(exactMatch);
-        }
-
-        // 2. 尝试通配符匹配（支持路径参数）
-        for (Map.Entry<String, ApiRouteDTO> entry : localRouteCache.asMap().entrySet()) {
-            ApiRouteDTO route = entry.getValue();
-            // 方法必须匹配
-            if (!method.equalsIgnoreCase(route.getMethod()) && !"ALL".equalsIgnoreCase(route.getMethod())) {
-                continue;
-            }
-            // 使用AntPathMatcher匹配路径（支持 {id} 等路径参数）
-            if (pathMatcher.match(route.getPath(), requestPath)) {
-                log.debug("通配符匹配路由 - requestPath: {}, pattern: {}", requestPath, route.getPath());
-                return Mono.just(route);
-            }
+        return matchRouteWithVariables(requestPath, method).map(RouteMatch::getRoute);
+    }
+
+    /**
+     * 匹配路由配置，并返回匹配过程中提取的路径参数
+     *
+     * @param requestPath 实际请求路径
+     * @param method      请求方法
+     * @return 匹配结果（路由配置 + 路径参数）
+     */
+    public Mono<RouteMatch> matchRouteWithVariables(String requestPath, String method) {
+        // 1. 本地前缀树匹配（精确路径与路径参数统一处理）
+        RouteMatch match = routeTrie.match(requestPath, method);
+        if (match != null) {
+            log.debug("本地匹配路由 - requestPath: {}, pattern: {}", requestPath, match.getRoute().getPath());
+            return Mono.just(match);
+        }
+
+        // 2. 负缓存命中，说明近期已确认无匹配路由
+        String lookupKey = buildLookupKey(requestPath, method);
+        if (routeMissCache.getIfPresent(lookupKey) != null) {
+            negativeCacheHitCounter.increment();
+            log.debug("路由负缓存命中 - path: {}, method: {}", requestPath, method);
+            return Mono.empty();
         }
 
-        // 3. 本地缓存未命中，尝试从Dubbo服务获取
+        // 3. 本地未命中，从Dubbo服务获取（同一path+method的并发请求共用一次调用）
+        boolean[] created = {false};
+        Mono<RouteMatch> lookup = inflightLookups.computeIfAbsent(lookupKey, key -> {
+            created[0] = true;
+            return loadRouteFromPlatform(requestPath, method, key);
+        });
+        if (created[0]) {
+            negativeCacheMissCounter.increment();
+        } else {
+            lookupCoalescedCounter.increment();
+        }
+        return lookup;
+    }
+
+    /**
+     * 从API Platform回源匹配路由
+     * <p>
+     * 返回的Mono被缓存并在并发请求间共享，完成后从进行中列表移除；
+     * 回源成功但无匹配时写入负缓存，回源异常不写入
+     * </p>
+     */
+    private Mono<RouteMatch> loadRouteFromPlatform(String requestPath, String method, String lookupKey) {
         return Mono.fromCallable(() -> {
             log.debug("从API Platform匹配路由 - path: {}, method: {}", requestPath, method);
             ApiRouteDTO route = apiPlatformDubboService.matchRouteByPath(requestPath, method);
-            if (route != null) {
-                // 加入本地缓存
-                String cacheKey = buildCacheKey(route.getPath(), route.getMethod());
-                localRouteCache.put(cacheKey, route);
-                apiIdIndex.put(route.getApiId(), cacheKey);
+            if (route == null) {
+                routeMissCache.put(lookupKey, Boolean.TRUE);
+                return null;
             }
-            return route;
+            // 加入本地前缀树，并重新匹配以提取路径参数
+            putRoute(route);
+            RouteMatch loaded = routeTrie.match(requestPath, method);
+            return loaded != null ? loaded : RouteMatch.of(route);
         })
         .subscribeOn(Schedulers.boundedElastic())
         .onErrorResume(e -> {
             log.error("匹配路由配置失败 - path: {}, method: {}", requestPath, method, e);
             return Mono.empty();
-        });
+        })
+        .doFinally(signal -> inflightLookups.remove(lookupKey))
+        .cache();
+    }
+
+    /**
+     * 清空路由负缓存
+     * <p>
+     * API发布/更新后，之前判定为未匹配的路径可能已有路由
+     * </p>
+     */
+    public void invalidateRouteMisses() {
+        routeMissCache.invalidateAll();
+        log.debug("已清空路由负缓存");
     }
 
     /**
@@ -151,22 +333,19 @@ public class OpenApiRouteService {
      * @return 路由配置
      */
     public Mono<ApiRouteDTO> getRoute(String path, String method) {
-        String cacheKey = buildCacheKey(path, method);
-
-        // 1. 先从本地缓存获取
-        ApiRouteDTO cachedRoute = localRouteCache.get(cacheKey);
+        // 1. 先从本地路由获取
+        ApiRouteDTO cachedRoute = routeTrie.get(path, method);
         if (cachedRoute != null) {
             log.debug("从本地缓存获取路由配置 - path: {}, method: {}", path, method);
             return Mono.just(cachedRoute);
         }
 
-        // 2. 本地缓存未命中，从Dubbo服务获取
+        // 2. 本地未命中，从Dubbo服务获取
         return Mono.fromCallable(() -> {
             log.debug("从API Platform获取路由配置 - path: {}, method: {}", path, method);
             ApiRouteDTO route = apiPlatformDubboService.getRouteByPath(path, method);
             if (route != null) {
-                // 加入本地缓存
-                localRouteCache.put(cacheKey, route);
+                putRoute(route);
             }
             return route;
         })
@@ -187,8 +366,7 @@ public class OpenApiRouteService {
             try {
                 ApiRouteDTO route = apiPlatformDubboService.getRouteByApiId(apiId);
                 if (route != null) {
-                    String cacheKey = buildCacheKey(route.getPath(), route.getMethod());
-                    localRouteCache.put(cacheKey, route);
+                    putRoute(route);
                     log.info("刷新路由配置成功 - apiId: {}, path: {}", apiId, route.getPath());
                 }
             } catch (Exception e) {
@@ -204,8 +382,9 @@ public class OpenApiRouteService {
      * @param method 请求方法
      */
     public void removeRoute(String path, String method) {
-        String cacheKey = buildCacheKey(path, method);
-        localRouteCache.invalidate(cacheKey);
+        synchronized (routeLock) {
+            routeTrie.remove(path, method);
+        }
         log.info("移除路由配置 - path: {}, method: {}", path, method);
     }
 
@@ -215,13 +394,12 @@ public class OpenApiRouteService {
      * @param apiId API ID
      */
     public void removeRouteByApiId(String apiId) {
-        String cacheKey = apiIdIndex.remove(apiId);
-        if (cacheKey != null) {
-            ApiRouteDTO removed = localRouteCache.getIfPresent(cacheKey);
-            localRouteCache.invalidate(cacheKey);
-            if (removed != null) {
-                log.info("移除路由配置 - apiId: {}, path: {}", apiId, removed.getPath());
-            }
+        ApiRouteDTO removed;
+        synchronized (routeLock) {
+            removed = routeTrie.remove(apiId);
+        }
+        if (removed != null) {
+            log.info("移除路由配置 - apiId: {}, path: {}", apiId, removed.getPath());
         } else {
             log.debug("未找到待移除的路由 - apiId: {}", apiId);
         }
@@ -231,18 +409,40 @@ public class OpenApiRouteService {
      * 检查路径是否有对应的路由配置
      */
     public boolean hasRoute(String path, String method) {
-        String cacheKey = buildCacheKey(path, method);
-        return localRouteCache.asMap().containsKey(cacheKey);
+        return routeTrie.contains(path, method);
+    }
+
+    /**
+     * 根据API ID获取本地路由，不存在时返回null
+     */
+    public ApiRouteDTO getRouteByApiId(String apiId) {
+        return routeTrie.getByApiId(apiId);
+    }
+
+    /**
+     * 当前本地全部路由（快照）
+     */
+    public List<ApiRouteDTO> getRoutes() {
+        return routeTrie.routes();
     }
 
     /**
      * 获取缓存的路由数量
      */
-    public long getRouteCacheSize() {
-        return localRouteCache.estimatedSize();
+    public int getRouteCacheSize() {
+        return routeTrie.size();
     }
 
-    private String buildCacheKey(String path, String method) {
+    private String buildLookupKey(String path, String method) {
         return path + ":" + method.toUpperCase();
     }
+
+    /**
+     * 增量写入单条路由
+     */
+    private void putRoute(ApiRouteDTO route) {
+        synchronized (routeLock) {
+            routeTrie.put(route);
+        }
+    }
 }
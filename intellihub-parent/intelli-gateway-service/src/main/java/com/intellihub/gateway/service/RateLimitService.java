@@ -25,6 +25,9 @@ import java.util.List;
  * 2. 实现正确的滑动窗口算法（基于Redis Sorted Set）
  * 3. 实现令牌桶算法（基于Redis + Lua脚本）
  * 4. 支持根据配置选择限流算法
+ * 5. 滑动窗口计数器：检查与计数在同一Lua脚本中完成，每个Key内存占用O(1)
+ * 6. 混合令牌桶：本地扣减令牌，Redis只负责批量租借（{@link HybridRateLimiter}）
+ * 7. {@link #tryAcquire}：每种算法的检查与计数都在一次Redis调用（Lua脚本）中原子完成
  * </p>
  *
  * @author intellihub
@@ -35,8 +38,112 @@ import java.util.List;
 @RequiredArgsConstructor
 public class RateLimitService {
 
+    /**
+     * 滑动窗口（Sorted Set）：移除过期数据 + 统计当前窗口内的请求数
+     * <p>
+     * 所有脚本在类加载时创建一次，SHA1只计算一次，执行时走 EVALSHA（脚本未缓存时自动回退 EVAL）
+     * </p>
+     */
+    private static final DefaultRedisScript<Long> SLIDING_WINDOW_SCRIPT = new DefaultRedisScript<>(
+            "local key = KEYS[1]\n" +
+            "local windowStart = tonumber(ARGV[1])\n" +
+            "\n" +
+            "-- 移除窗口外的过期数据\n" +
+            "redis.call('ZREMRANGEBYSCORE', key, 0, windowStart)\n" +
+            "\n" +
+            "-- 统计当前窗口内的请求数\n" +
+            "return redis.call('ZCARD', key)",
+            Long.class);
+
+    /**
+     * 固定窗口：检查并计数
+     * KEYS[1]=计数 ARGV[1]=限制 ARGV[2]=过期时间（秒）；返回放行后的剩余次数，拒绝时返回-1
+     */
+    private static final DefaultRedisScript<Long> FIXED_WINDOW_ACQUIRE_SCRIPT = new DefaultRedisScript<>(
+            "local limit = tonumber(ARGV[1])\n" +
+            "local current = tonumber(redis.call('GET', KEYS[1]) or '0')\n" +
+            "if current >= limit then\n" +
+            "    return -1\n" +
+            "end\n" +
+            "current = redis.call('INCR', KEYS[1])\n" +
+            "if current == 1 then\n" +
+            "    redis.call('EXPIRE', KEYS[1], ARGV[2])\n" +
+            "end\n" +
+            "return limit - current",
+            Long.class);
+
+    /**
+     * 滑动窗口（Sorted Set）：检查并记录本次请求
+     * KEYS[1]=有序集合 ARGV[1]=窗口起点 ARGV[2]=当前时间 ARGV[3]=限制 ARGV[4]=成员 ARGV[5]=过期时间（秒）
+     * 返回放行后的剩余次数，拒绝时返回-1
+     */
+    private static final DefaultRedisScript<Long> SLIDING_WINDOW_ACQUIRE_SCRIPT = new DefaultRedisScript<>(
+            "local limit = tonumber(ARGV[3])\n" +
+            "redis.call('ZREMRANGEBYSCORE', KEYS[1], 0, ARGV[1])\n" +
+            "local count = redis.call('ZCARD', KEYS[1])\n" +
+            "if count >= limit then\n" +
+            "    return -1\n" +
+            "end\n" +
+            "redis.call('ZADD', KEYS[1], ARGV[2], ARGV[4])\n" +
+            "redis.call('EXPIRE', KEYS[1], ARGV[5])\n" +
+            "return limit - count - 1",
+            Long.class);
+
+    /**
+     * 滑动窗口计数器：两个固定窗口计数按时间加权估算，检查与计数在同一脚本中完成
+     * KEYS[1]=当前窗口计数 KEYS[2]=上一窗口计数；ARGV[1]=限制 ARGV[2]=上一窗口权重 ARGV[3]=过期时间（秒）
+     * 返回放行后的剩余次数，拒绝时返回-1
+     */
+    private static final DefaultRedisScript<Long> SLIDING_WINDOW_COUNTER_SCRIPT = new DefaultRedisScript<>(
+            "local limit = tonumber(ARGV[1])\n" +
+            "local weight = tonumber(ARGV[2])\n" +
+            "local previous = tonumber(redis.call('GET', KEYS[2]) or '0')\n" +
+            "local current = tonumber(redis.call('GET', KEYS[1]) or '0')\n" +
+            "if previous * weight + current >= limit then\n" +
+            "    return -1\n" +
+            "end\n" +
+            "current = redis.call('INCR', KEYS[1])\n" +
+            "if current == 1 then\n" +
+            "    redis.call('EXPIRE', KEYS[1], ARGV[3])\n" +
+            "end\n" +
+            "return math.max(0, math.floor(limit - previous * weight - current))",
+            Long.class);
+
+    /**
+     * 令牌桶：补充令牌 + 消费1个令牌，返回 {是否允许, 剩余令牌数}
+     */
+    @SuppressWarnings("rawtypes")
+    private static final DefaultRedisScript<List> TOKEN_BUCKET_SCRIPT = new DefaultRedisScript<>(
+            "local key = KEYS[1]\n" +
+            "local capacity = tonumber(ARGV[1])\n" +
+            "local refillRate = tonumber(ARGV[2])\n" +
+            "local now = tonumber(ARGV[3])\n" +
+            "\n" +
+            "local bucket = redis.call('HMGET', key, 'tokens', 'lastRefill')\n" +
+            "local tokens = tonumber(bucket[1]) or capacity\n" +
+            "local lastRefill = tonumber(bucket[2]) or now\n" +
+            "\n" +
+            "-- 计算应该添加的令牌数\n" +
+            "local elapsedSeconds = (now - lastRefill) / 1000\n" +
+            "local tokensToAdd = math.floor(elapsedSeconds * refillRate)\n" +
+            "tokens = math.min(capacity, tokens + tokensToAdd)\n" +
+            "\n" +
+            "-- 尝试消费1个令牌\n" +
+            "local allowed = 0\n" +
+            "if tokens >= 1 then\n" +
+            "    tokens = tokens - 1\n" +
+            "    redis.call('HMSET', key, 'tokens', tokens, 'lastRefill', now)\n" +
+            "    redis.call('EXPIRE', key, 3600)\n" +
+            "    allowed = 1\n" +
+            "end\n" +
+            "\n" +
+            "-- 返回：是否允许,剩余令牌数\n" +
+            "return {allowed, tokens}",
+            List.class);
+
     private final ReactiveStringRedisTemplate redisTemplate;
     private final RateLimitConfig rateLimitConfig;
+    private final HybridRateLimiter hybridRateLimiter;
 
     /**
      * 检查是否允许请求（只检查不增加计数）
@@ -52,14 +159,41 @@ public class RateLimitService {
         switch (algorithm) {
             case SLIDING_WINDOW:
                 return checkSlidingWindow(key, requests, window);
+            case SLIDING_WINDOW_COUNTER:
+                return checkSlidingWindowCounter(key, requests, window);
             case TOKEN_BUCKET:
                 return checkTokenBucket(key, requests, window);
+            case HYBRID_TOKEN_BUCKET:
+                return hybridRateLimiter.tryAcquire(key, requests, window);
             case FIXED_WINDOW:
             default:
                 return checkFixedWindow(key, requests, window);
         }
     }
 
+    /**
+     * 检查并计数（一次Redis调用，原子操作）
+     * <p>
+     * 放行时已计入本次请求；与 {@link #checkLimit} 一致，返回的剩余次数尚未扣除本次请求，由调用方减1
+     * </p>
+     *
+     * @param key      限流Key
+     * @param requests 允许的请求数
+     * @param window   时间窗口（秒）
+     * @return RateLimitResult 包含是否允许、剩余次数等信息
+     */
+    public Mono<RateLimitResult> tryAcquire(String key, int requests, int window) {
+        switch (rateLimitConfig.getAlgorithm()) {
+            case SLIDING_WINDOW:
+                return acquireSlidingWindow(key, requests, window);
+            case FIXED_WINDOW:
+                return acquireFixedWindow(key, requests, window);
+            default:
+                // 滑动窗口计数器和令牌桶在检查时已计数
+                return checkLimit(key, requests, window);
+        }
+    }
+
     /**
      * 增加计数（在所有检查通过后调用）
      *
@@ -73,7 +207,10 @@ public class RateLimitService {
         switch (algorithm) {
             case SLIDING_WINDOW:
                 return incrementSlidingWindow(key, window);
+            case SLIDING_WINDOW_COUNTER:
+                return Mono.empty(); // 滑动窗口计数器在检查时已经计数
             case TOKEN_BUCKET:
+            case HYBRID_TOKEN_BUCKET:
                 return Mono.empty(); // 令牌桶在检查时已经消费令牌
             case FIXED_WINDOW:
             default:
@@ -121,6 +258,20 @@ public class RateLimitService {
                 .then();
     }
 
+    /**
+     * 固定窗口算法 - 检查并计数（原子操作）
+     */
+    private Mono<RateLimitResult> acquireFixedWindow(String key, int requests, int window) {
+        long resetTime = System.currentTimeMillis() / 1000 + window;
+        List<String> keys = Arrays.asList(key + ":count");
+        List<String> args = Arrays.asList(String.valueOf(requests), String.valueOf(window));
+
+        return redisTemplate.execute(FIXED_WINDOW_ACQUIRE_SCRIPT, keys, args)
+                .next()
+                .map(remaining -> toAcquireResult(key, remaining, requests, resetTime))
+                .defaultIfEmpty(new RateLimitResult(true, requests, requests, resetTime));
+    }
+
     // ==================== 滑动窗口算法（基于Redis Sorted Set）====================
 
     /**
@@ -131,26 +282,6 @@ public class RateLimitService {
         long now = System.currentTimeMillis();
         long windowStart = now - window * 1000L;
 
-        // Lua脚本：移除过期数据 + 统计当前窗口内的请求数
-        String luaScript = 
-            "local key = KEYS[1]\n" +
-            "local windowStart = tonumber(ARGV[1])\n" +
-            "local now = tonumber(ARGV[2])\n" +
-            "local limit = tonumber(ARGV[3])\n" +
-            "\n" +
-            "-- 移除窗口外的过期数据\n" +
-            "redis.call('ZREMRANGEBYSCORE', key, 0, windowStart)\n" +
-            "\n" +
-            "-- 统计当前窗口内的请求数\n" +
-            "local count = redis.call('ZCARD', key)\n" +
-            "\n" +
-            "-- 返回：当前计数\n" +
-            "return count";
-
-        DefaultRedisScript<Long> script = new DefaultRedisScript<>();
-        script.setScriptText(luaScript);
-        script.setResultType(Long.class);
-
         List<String> keys = Arrays.asList(zsetKey);
         List<String> args = Arrays.asList(
             String.valueOf(windowStart),
@@ -158,7 +289,7 @@ public class RateLimitService {
             String.valueOf(limit)
         );
 
-        return redisTemplate.execute(script, keys, args)
+        return redisTemplate.execute(SLIDING_WINDOW_SCRIPT, keys, args)
                 .next()
                 .map(count -> {
                     boolean allowed = count < limit;
@@ -189,6 +320,71 @@ public class RateLimitService {
                 .then();
     }
 
+    /**
+     * 滑动窗口算法 - 检查并记录（原子操作）
+     */
+    private Mono<RateLimitResult> acquireSlidingWindow(String key, int limit, int window) {
+        long now = System.currentTimeMillis();
+        long resetTime = now / 1000 + window;
+        List<String> keys = Arrays.asList(key + ":sliding");
+        List<String> args = Arrays.asList(
+            String.valueOf(now - window * 1000L),
+            String.valueOf(now),
+            String.valueOf(limit),
+            // 使用纳秒避免成员重复
+            now + ":" + System.nanoTime(),
+            String.valueOf(window + 1)
+        );
+
+        return redisTemplate.execute(SLIDING_WINDOW_ACQUIRE_SCRIPT, keys, args)
+                .next()
+                .map(remaining -> toAcquireResult(key, remaining, limit, resetTime))
+                .defaultIfEmpty(new RateLimitResult(true, limit, limit, resetTime));
+    }
+
+    /**
+     * 检查并计数脚本的返回值转换为限流结果（脚本已计数，过滤器会在放行后再减1）
+     */
+    private RateLimitResult toAcquireResult(String key, Long remaining, int limit, long resetTime) {
+        boolean allowed = remaining >= 0;
+        log.debug("限流检查 - Key: {}, 允许: {}, 剩余: {}", key, allowed, remaining);
+        return new RateLimitResult(allowed, limit, allowed ? remaining.intValue() + 1 : 0, resetTime);
+    }
+
+    // ==================== 滑动窗口计数器算法 ====================
+
+    /**
+     * 滑动窗口计数器 - 检查并计数（原子操作）
+     * <p>
+     * 估算值 = 上一窗口计数 * 上一窗口在滑动窗口内的占比 + 当前窗口计数，
+     * 每个Key只保存两个计数器，内存占用与请求量无关
+     * </p>
+     */
+    private Mono<RateLimitResult> checkSlidingWindowCounter(String key, int limit, int window) {
+        long now = System.currentTimeMillis();
+        long windowMillis = window * 1000L;
+        long windowIndex = now / windowMillis;
+        double previousWeight = 1.0 - (double) (now - windowIndex * windowMillis) / windowMillis;
+        long resetTime = (windowIndex + 1) * window;
+
+        List<String> keys = Arrays.asList(key + ":swc:" + windowIndex, key + ":swc:" + (windowIndex - 1));
+        List<String> args = Arrays.asList(
+            String.valueOf(limit),
+            String.valueOf(previousWeight),
+            String.valueOf(window * 2)
+        );
+
+        return redisTemplate.execute(SLIDING_WINDOW_COUNTER_SCRIPT, keys, args)
+                .next()
+                .map(remaining -> {
+                    boolean allowed = remaining >= 0;
+                    log.debug("滑动窗口计数器限流检查 - Key: {}, 允许: {}, 剩余: {}", key, allowed, remaining);
+                    // 已在脚本中计数，过滤器会在放行后再减1
+                    return new RateLimitResult(allowed, limit, allowed ? remaining.intValue() + 1 : 0, resetTime);
+                })
+                .defaultIfEmpty(new RateLimitResult(true, limit, limit, resetTime));
+    }
+
     // ==================== 令牌桶算法（基于Redis + Lua脚本）====================
 
     /**
@@ -203,38 +399,6 @@ public class RateLimitService {
         long now = System.currentTimeMillis();
         double refillRate = (double) capacity / window;
 
-        // Lua脚本保证原子性
-        String luaScript = 
-            "local key = KEYS[1]\n" +
-            "local capacity = tonumber(ARGV[1])\n" +
-            "local refillRate = tonumber(ARGV[2])\n" +
-            "local now = tonumber(ARGV[3])\n" +
-            "\n" +
-            "local bucket = redis.call('HMGET', key, 'tokens', 'lastRefill')\n" +
-            "local tokens = tonumber(bucket[1]) or capacity\n" +
-            "local lastRefill = tonumber(bucket[2]) or now\n" +
-            "\n" +
-            "-- 计算应该添加的令牌数\n" +
-            "local elapsedSeconds = (now - lastRefill) / 1000\n" +
-            "local tokensToAdd = math.floor(elapsedSeconds * refillRate)\n" +
-            "tokens = math.min(capacity, tokens + tokensToAdd)\n" +
-            "\n" +
-            "-- 尝试消费1个令牌\n" +
-            "local allowed = 0\n" +
-            "if tokens >= 1 then\n" +
-            "    tokens = tokens - 1\n" +
-            "    redis.call('HMSET', key, 'tokens', tokens, 'lastRefill', now)\n" +
-            "    redis.call('EXPIRE', key, 3600)\n" +
-            "    allowed = 1\n" +
-            "end\n" +
-            "\n" +
-            "-- 返回：是否允许,剩余令牌数\n" +
-            "return {allowed, tokens}";
-
-        DefaultRedisScript<List> script = new DefaultRedisScript<>();
-        script.setScriptText(luaScript);
-        script.setResultType(List.class);
-
         List<String> keys = Arrays.asList(bucketKey);
         List<String> args = Arrays.asList(
             String.valueOf(capacity),
@@ -242,7 +406,7 @@ public class RateLimitService {
             String.valueOf(now)
         );
 
-        return redisTemplate.execute(script, keys, args)
+        return redisTemplate.execute(TOKEN_BUCKET_SCRIPT, keys, args)
                 .collectList()
                 .flatMap(resultList -> {
                     if (resultList.isEmpty()) {
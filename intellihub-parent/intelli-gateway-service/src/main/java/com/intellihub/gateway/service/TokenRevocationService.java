@@ -0,0 +1,113 @@
+package com.intellihub.gateway.service;
+
+import com.intellihub.constants.RedisKeyConstants;
+import com.intellihub.gateway.config.JwtConfig;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Token注销集合（本地副本）
+ * <p>
+ * 认证服务注销Token时把Token摘要写入Redis ZSet（score为Token过期时间）并发布注销通知：
+ * 1. 网关收到通知后加入本地集合，请求路径上只查本地集合，不访问Redis
+ * 2. 启动时和定期核对时从ZSet全量加载，补齐丢失的通知（Pub/Sub不保证送达）
+ * 3. 核对时清理已过期的条目（过期的Token本身已无法通过验证）
+ * 指标：gateway.jwt.revoked.size
+ * </p>
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class TokenRevocationService {
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final JwtConfig jwtConfig;
+
+    /**
+     * Token摘要 -> Token过期时间（毫秒）
+     */
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+
+    public TokenRevocationService(ReactiveStringRedisTemplate redisTemplate, JwtConfig jwtConfig,
+                                  MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.jwtConfig = jwtConfig;
+        Gauge.builder("gateway.jwt.revoked.size", revokedTokens, Map::size)
+                .description("网关本地的已注销Token数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Token是否已注销
+     *
+     * @param tokenHash Token摘要
+     */
+    public boolean isRevoked(String tokenHash) {
+        return jwtConfig.getRevocation().isEnabled() && revokedTokens.containsKey(tokenHash);
+    }
+
+    /**
+     * 处理注销通知
+     * <p>
+     * 消息格式：{Token摘要}:{Token过期时间毫秒数}
+     * </p>
+     */
+    public void onRevoked(String message) {
+        int separator = message != null ? message.lastIndexOf(':') : -1;
+        if (separator <= 0) {
+            log.warn("无效的Token注销通知: {}", message);
+            return;
+        }
+        try {
+            revoke(message.substring(0, separator), Long.parseLong(message.substring(separator + 1)));
+        } catch (NumberFormatException e) {
+            log.warn("无效的Token注销通知: {}", message);
+        }
+    }
+
+    /**
+     * 加入注销集合，已过期的Token忽略
+     */
+    public void revoke(String tokenHash, long expiresAtMillis) {
+        if (expiresAtMillis > System.currentTimeMillis()) {
+            revokedTokens.put(tokenHash, expiresAtMillis);
+        }
+    }
+
+    /**
+     * 启动完成后全量加载
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        resync();
+    }
+
+    /**
+     * 与Redis全量核对：清理本地已过期条目，加载尚未过期的注销记录
+     */
+    public void resync() {
+        if (!jwtConfig.getRevocation().isEnabled()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        revokedTokens.values().removeIf(expiresAt -> expiresAt <= now);
+        redisTemplate.opsForZSet()
+                .rangeByScoreWithScores(RedisKeyConstants.TOKEN_REVOKED_KEY,
+                        Range.rightUnbounded(Range.Bound.exclusive((double) now)))
+                .doOnNext(tuple -> revoke(tuple.getValue(), tuple.getScore().longValue()))
+                .count()
+                .subscribe(count -> log.debug("Token注销集合核对完成 - redis: {}, local: {}", count, revokedTokens.size()),
+                        e -> log.warn("Token注销集合核对失败: {}", e.getMessage()));
+    }
+}
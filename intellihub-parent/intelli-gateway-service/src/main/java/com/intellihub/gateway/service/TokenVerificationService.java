@@ -0,0 +1,127 @@
+package com.intellihub.gateway.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.intellihub.gateway.config.JwtConfig;
+import com.intellihub.gateway.dto.UserContext;
+import com.intellihub.gateway.util.JwtUtil;
+import com.intellihub.util.TokenHashUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 控制台JWT验证服务
+ * <p>
+ * 1. 先按Token摘要查本地注销集合（{@link TokenRevocationService}），已注销的Token直接拒绝
+ * 2. 再查已验证Token的本地缓存（Key为Token摘要），命中时不再验签和解析Claims
+ * 3. 未命中时由 {@link JwtUtil} 验证，结果放入缓存，条目在Token的 exp 时刻过期；没有 exp 的Token不缓存
+ * 请求路径上不访问Redis。
+ * 指标：cache.gets{cache=gateway.jwt, result=hit|miss}
+ * </p>
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class TokenVerificationService {
+
+    private final JwtUtil jwtUtil;
+    private final TokenRevocationService revocationService;
+
+    /**
+     * Token摘要 -> 已验证的用户上下文，未启用缓存时为null
+     */
+    private final Cache<String, VerifiedToken> verifiedTokens;
+
+    public TokenVerificationService(JwtUtil jwtUtil, JwtConfig jwtConfig,
+                                    TokenRevocationService revocationService, MeterRegistry meterRegistry) {
+        this.jwtUtil = jwtUtil;
+        this.revocationService = revocationService;
+        if (jwtConfig.getCache().isEnabled()) {
+            this.verifiedTokens = Caffeine.newBuilder()
+                    .maximumSize(jwtConfig.getCache().getMaximumSize())
+                    .expireAfter(new TokenExpiry())
+                    .recordStats()
+                    .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "gateway.jwt");
+        } else {
+            this.verifiedTokens = null;
+        }
+        log.info("JWT验证缓存: enabled={}, maximumSize={}, revocation={}", verifiedTokens != null,
+                jwtConfig.getCache().getMaximumSize(), jwtConfig.getRevocation().isEnabled());
+    }
+
+    /**
+     * 验证访问Token，返回用户上下文
+     *
+     * @param token JWT Token（不含Bearer前缀）
+     * @return 用户上下文信息
+     * @throws JwtException 如果Token无效、已过期或已注销
+     */
+    public UserContext verify(String token) {
+        String tokenHash = TokenHashUtil.hash(token);
+        if (revocationService.isRevoked(tokenHash)) {
+            throw new JwtException("Token已注销");
+        }
+        if (verifiedTokens == null) {
+            return jwtUtil.parseToken(token);
+        }
+
+        VerifiedToken cached = verifiedTokens.getIfPresent(tokenHash);
+        if (cached != null && cached.expiresAtMillis > System.currentTimeMillis()) {
+            return cached.userContext;
+        }
+
+        Claims claims = jwtUtil.parseAccessClaims(token);
+        UserContext userContext = jwtUtil.toUserContext(claims);
+        Date expiration = claims.getExpiration();
+        if (expiration != null) {
+            verifiedTokens.put(tokenHash, new VerifiedToken(userContext, expiration.getTime()));
+        }
+        return userContext;
+    }
+
+    /**
+     * 已验证的Token
+     */
+    private static final class VerifiedToken {
+
+        private final UserContext userContext;
+        private final long expiresAtMillis;
+
+        private VerifiedToken(UserContext userContext, long expiresAtMillis) {
+            this.userContext = userContext;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+
+    /**
+     * 缓存条目在Token过期时失效
+     */
+    private static class TokenExpiry implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, value.expiresAtMillis - System.currentTimeMillis()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
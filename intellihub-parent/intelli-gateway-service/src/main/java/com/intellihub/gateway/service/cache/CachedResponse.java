@@ -0,0 +1,168 @@
+package com.intellihub.gateway.service.cache;
+
+import lombok.Getter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * 缓存的API响应
+ * <p>
+ * 响应体按原始字节保存，命中时直接包装写回，不做字符串编解码。
+ * 新鲜期（ttl）内直接返回；过期后在 staleWhileRevalidate 窗口内返回旧响应并异步刷新，
+ * 在 staleIfError 窗口内仅当后端出错时返回旧响应。
+ * </p>
+ * Redis中的存储格式（二进制，首字节为格式版本，旧版本的JSON字符串缓存读取时按未命中处理）：
+ * <pre>
+ * version(1) status(4) storedAt(8) ttl(4) staleWhileRevalidate(4) staleIfError(4)
+ * etag(UTF) contentType(UTF) bodyLength(4) body
+ * </pre>
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+@Getter
+public class CachedResponse {
+
+    private static final byte FORMAT_VERSION = 1;
+
+    /**
+     * 响应状态码
+     */
+    private final int status;
+
+    /**
+     * 响应Content-Type，可能为空字符串
+     */
+    private final String contentType;
+
+    /**
+     * ETag（含引号）
+     */
+    private final String etag;
+
+    /**
+     * 响应体
+     */
+    private final byte[] body;
+
+    /**
+     * 写入时间（毫秒）
+     */
+    private final long storedAt;
+
+    /**
+     * 新鲜期（秒）
+     */
+    private final int ttl;
+
+    /**
+     * 过期后返回旧响应并异步刷新的时间（秒）
+     */
+    private final int staleWhileRevalidate;
+
+    /**
+     * 过期后后端出错时返回旧响应的时间（秒）
+     */
+    private final int staleIfError;
+
+    public CachedResponse(int status, String contentType, String etag, byte[] body,
+                          long storedAt, int ttl, int staleWhileRevalidate, int staleIfError) {
+        this.status = status;
+        this.contentType = contentType != null ? contentType : "";
+        this.etag = etag != null ? etag : "";
+        this.body = body;
+        this.storedAt = storedAt;
+        this.ttl = ttl;
+        this.staleWhileRevalidate = staleWhileRevalidate;
+        this.staleIfError = staleIfError;
+    }
+
+    /**
+     * 是否可写入缓存（只缓存200响应）
+     */
+    public boolean isCacheable() {
+        return status == 200 && ttl > 0;
+    }
+
+    public boolean isFresh(long now) {
+        return now < storedAt + ttl * 1000L;
+    }
+
+    public boolean isWithinStaleWhileRevalidate(long now) {
+        return now < storedAt + (ttl + (long) staleWhileRevalidate) * 1000L;
+    }
+
+    public boolean isWithinStaleIfError(long now) {
+        return now < storedAt + (ttl + (long) staleIfError) * 1000L;
+    }
+
+    /**
+     * 缓存保留时长（秒）：新鲜期加上两个stale窗口中较长的一个
+     */
+    public long getRetentionSeconds() {
+        return ttl + (long) Math.max(staleWhileRevalidate, staleIfError);
+    }
+
+    /**
+     * 距离保留期结束的剩余时间（毫秒）
+     */
+    public long getRemainingMillis(long now) {
+        return storedAt + getRetentionSeconds() * 1000L - now;
+    }
+
+    /**
+     * 缓存年龄（秒），用于Age响应头
+     */
+    public long getAgeSeconds(long now) {
+        return Math.max(0, (now - storedAt) / 1000);
+    }
+
+    public byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(body.length + 64 + etag.length() + contentType.length());
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            out.writeInt(status);
+            out.writeLong(storedAt);
+            out.writeInt(ttl);
+            out.writeInt(staleWhileRevalidate);
+            out.writeInt(staleIfError);
+            out.writeUTF(etag);
+            out.writeUTF(contentType);
+            out.writeInt(body.length);
+            out.write(body);
+        } catch (IOException e) {
+            throw new IllegalStateException("编码缓存响应失败", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * 解码缓存响应
+     *
+     * @return 格式不匹配（如旧版本缓存）时返回null
+     */
+    public static CachedResponse decode(byte[] data) {
+        if (data == null || data.length == 0 || data[0] != FORMAT_VERSION) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            in.readByte();
+            int status = in.readInt();
+            long storedAt = in.readLong();
+            int ttl = in.readInt();
+            int staleWhileRevalidate = in.readInt();
+            int staleIfError = in.readInt();
+            String etag = in.readUTF();
+            String contentType = in.readUTF();
+            byte[] body = new byte[in.readInt()];
+            in.readFully(body);
+            return new CachedResponse(status, contentType, etag, body, storedAt, ttl, staleWhileRevalidate, staleIfError);
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package com.intellihub.gateway.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.intellihub.dubbo.ApiRouteDTO;
+import com.intellihub.gateway.config.ResponseCacheConfig;
+import com.intellihub.gateway.filter.AppKeyAuthenticationFilter;
+import com.intellihub.gateway.vo.AppKeyInfo;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 开放API响应缓存服务
+ * <p>
+ * 两级缓存，只用于启用了缓存的GET请求：
+ * 1. L1：进程内Caffeine缓存，按响应体字节数计重，条目在保留期（ttl + stale窗口）结束时过期
+ * 2. L2：Redis缓存（api:response:cache:{apiId}:{hash}），多个网关实例共享，响应体按原始字节存储
+ * 3. 均未命中时回源，同一缓存Key的并发回源合并为一次后端调用
+ * 缓存Key包含请求路径、查询参数、调用方（appId、租户）和API配置的Vary请求头。
+ * 路由变更时按API清空L1，L2由API平台清除。
+ * </p>
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+@Slf4j
+@Service
+public class ResponseCacheService {
+
+    public static final String STATUS_HIT = "HIT";
+    public static final String STATUS_STALE = "STALE";
+    public static final String STATUS_MISS = "MISS";
+
+    private static final String KEY_PREFIX = "api:response:cache:";
+    private static final String TENANT_ID_HEADER = "X-Tenant-Id";
+
+    /**
+     * 每个本地缓存条目除响应体以外的估算开销（字节）
+     */
+    private static final int ENTRY_OVERHEAD_BYTES = 128;
+
+    private final ReactiveRedisTemplate<String, byte[]> redisTemplate;
+    private final ResponseCacheConfig config;
+
+    /**
+     * L1：缓存Key -> 缓存响应
+     */
+    private final Cache<String, CachedResponse> localCache;
+
+    /**
+     * 进行中的回源请求（缓存Key -> 共享结果）
+     */
+    private final Map<String, Mono<CachedResponse>> inflightLoads = new ConcurrentHashMap<>();
+
+    private final Map<String, Counter> resultCounters = new HashMap<>();
+    private final Counter coalescedCounter;
+
+    public ResponseCacheService(ReactiveRedisTemplate<String, byte[]> reactiveBytesRedisTemplate,
+                                ResponseCacheConfig config,
+                                MeterRegistry meterRegistry) {
+        this.redisTemplate = reactiveBytesRedisTemplate;
+        this.config = config;
+        this.localCache = Caffeine.newBuilder()
+                .maximumWeight(config.getLocalMaxBytes())
+                .weigher((String key, CachedResponse value) -> value.getBody().length + key.length() + ENTRY_OVERHEAD_BYTES)
+                .expireAfter(new RetentionExpiry())
+                .recordStats()
+                .build();
+
+        // L1命中率：cache.gets{cache=gateway.response, result=hit|miss}
+        CaffeineCacheMetrics.monitor(meterRegistry, localCache, "gateway.response");
+        for (String status : new String[]{STATUS_HIT, STATUS_STALE, STATUS_MISS}) {
+            resultCounters.put(status, buildCounter(meterRegistry, status.toLowerCase()));
+        }
+        this.coalescedCounter = buildCounter(meterRegistry, "coalesced");
+    }
+
+    /**
+     * 构建缓存Key：apiId + 请求路径、查询参数、调用方与Vary请求头的MD5
+     * <p>
+     * 路径参数不同的请求（/users/1、/users/2）落在同一API下，必须按实际路径区分；
+     * 经AppKey认证的请求按 appId 和租户区分，避免把一个调用方的响应返回给另一个调用方。
+     * Key 以 apiId 开头，{@link #invalidate(String)} 按前缀清空
+     * </p>
+     */
+    public String buildKey(ServerWebExchange exchange, ApiRouteDTO route) {
+        ServerHttpRequest request = exchange.getRequest();
+        StringBuilder source = new StringBuilder(request.getPath().value());
+        String query = request.getURI().getRawQuery();
+        if (query != null && !query.isEmpty()) {
+            source.append('?').append(query);
+        }
+
+        AppKeyInfo appKeyInfo = exchange.getAttribute(AppKeyAuthenticationFilter.ATTR_APP_KEY_INFO);
+        if (appKeyInfo != null) {
+            source.append("\napp=").append(appKeyInfo.getAppId())
+                    .append("\ntenant=").append(appKeyInfo.getTenantId());
+        } else {
+            String tenantId = request.getHeaders().getFirst(TENANT_ID_HEADER);
+            if (tenantId != null) {
+                source.append("\ntenant=").append(tenantId);
+            }
+        }
+
+        List<String> varyHeaders = route.getCacheVaryHeaders();
+        if (varyHeaders != null) {
+            for (String header : varyHeaders) {
+                List<String> values = request.getHeaders().get(header);
+                source.append('\n').append(header).append('=');
+                if (values != null) {
+                    source.append(String.join(",", values));
+                }
+            }
+        }
+        String hash = DigestUtils.md5DigestAsHex(source.toString().getBytes(StandardCharsets.UTF_8));
+        return KEY_PREFIX + route.getApiId() + ":" + hash;
+    }
+
+    /**
+     * 查找缓存（含已过期但仍在stale窗口内的响应），依次查找本地缓存和Redis
+     */
+    public Mono<CachedResponse> get(String key) {
+        if (config.isLocalEnabled()) {
+            CachedResponse cached = localCache.getIfPresent(key);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+        }
+        return redisTemplate.opsForValue().get(key)
+                .flatMap(data -> Mono.justOrEmpty(CachedResponse.decode(data)))
+                .doOnNext(cached -> {
+                    if (config.isLocalEnabled()) {
+                        localCache.put(key, cached);
+                    }
+                })
+                .onErrorResume(e -> {
+                    log.warn("读取API响应缓存失败，按未命中处理 - key: {}, error: {}", key, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * 回源并写入缓存，同一Key的并发调用共享一次回源
+     *
+     * @param key   缓存Key
+     * @param fetch 回源调用（只在实际回源时订阅）
+     * @return 后端响应（非200响应同样返回，但不写入缓存）
+     */
+    public Mono<CachedResponse> load(String key, Mono<CachedResponse> fetch) {
+        boolean[] created = {false};
+        Mono<CachedResponse> load = inflightLoads.computeIfAbsent(key, k -> {
+            created[0] = true;
+            return fetch
+                    .doOnNext(response -> {
+                        if (response.isCacheable()) {
+                            put(k, response);
+                        }
+                    })
+                    .doFinally(signal -> inflightLoads.remove(k))
+                    .cache();
+        });
+        if (!created[0]) {
+            coalescedCounter.increment();
+        }
+        return load;
+    }
+
+    /**
+     * 由后端响应构建缓存响应，后端未返回ETag时按响应体MD5生成
+     */
+    public CachedResponse create(ApiRouteDTO route, int status, String contentType, String etag, byte[] body) {
+        String effectiveEtag = etag;
+        if ((effectiveEtag == null || effectiveEtag.isEmpty()) && status == 200) {
+            effectiveEtag = "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+        }
+        return new CachedResponse(status, contentType, effectiveEtag, body, System.currentTimeMillis(),
+                positive(route.getCacheTtl()), positive(route.getCacheStaleWhileRevalidate()),
+                positive(route.getCacheStaleIfError()));
+    }
+
+    /**
+     * 记录缓存结果（HIT / STALE / MISS）
+     */
+    public void record(String status) {
+        Counter counter = resultCounters.get(status);
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+    /**
+     * 可缓存的最大响应体（字节）
+     */
+    public int getMaxBodyBytes() {
+        return config.getMaxBodyBytes();
+    }
+
+    /**
+     * 清空指定API的本地缓存
+     */
+    public void invalidate(String apiId) {
+        String prefix = KEY_PREFIX + apiId + ":";
+        localCache.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    /**
+     * 清空全部本地缓存
+     */
+    public void invalidateAll() {
+        localCache.invalidateAll();
+    }
+
+    private void put(String key, CachedResponse response) {
+        if (config.isLocalEnabled()) {
+            localCache.put(key, response);
+        }
+        redisTemplate.opsForValue()
+                .set(key, response.encode(), Duration.ofSeconds(response.getRetentionSeconds()))
+                .doOnSuccess(v -> log.debug("API响应已缓存 - key: {}, ttl: {}s", key, response.getTtl()))
+                .subscribe(null, e -> log.warn("写入API响应缓存失败 - key: {}, error: {}", key, e.getMessage()));
+    }
+
+    private int positive(Integer value) {
+        return value != null && value > 0 ? value : 0;
+    }
+
+    private Counter buildCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("gateway.response.cache")
+                .description("开放API响应缓存结果")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 本地缓存条目在保留期结束时过期，与Redis过期时间一致
+     */
+    private static class RetentionExpiry implements Expiry<String, CachedResponse> {
+
+        @Override
+        public long expireAfterCreate(String key, CachedResponse value, long currentTime) {
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, value.getRemainingMillis(System.currentTimeMillis())));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedResponse value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedResponse value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.intellihub.gateway.service.calllog;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * 有界无锁环形缓冲区（多生产者、单消费者）
+ * <p>
+ * 每个槽位带一个序号：生产者通过CAS抢占写入位置，写入元素后发布序号；消费者按序号判断槽位是否可读，
+ * 读取后把序号推进一圈，供生产者下一轮复用。全程无锁，缓冲区满时 {@link #offer} 立即返回false。
+ * </p>
+ * 只允许一个线程调用 {@link #poll} 和 {@link #drain}。
+ *
+ * @param <E> 元素类型
+ * @author intellihub
+ * @since 1.0.0
+ */
+public class CallLogRingBuffer<E> {
+
+    private final int mask;
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong producerIndex = new AtomicLong();
+
+    /**
+     * 消费位置，只由消费线程写入，volatile 供 {@link #size()} 读取
+     */
+    private volatile long consumerIndex;
+
+    /**
+     * @param capacity 容量，向上取整为2的幂
+     */
+    public CallLogRingBuffer(int capacity) {
+        if (capacity < 2 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("缓冲区容量必须在 2 到 2^30 之间: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = size - 1;
+        this.elements = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * 写入元素（任意线程）
+     *
+     * @param element 元素
+     * @return 缓冲区已满时返回false
+     */
+    public boolean offer(E element) {
+        long position = producerIndex.get();
+        int index;
+        while (true) {
+            index = (int) (position & mask);
+            long diff = sequences.get(index) - position;
+            if (diff == 0) {
+                if (producerIndex.compareAndSet(position, position + 1)) {
+                    break;
+                }
+                position = producerIndex.get();
+            } else if (diff < 0) {
+                // 槽位仍是上一轮未被消费的元素
+                return false;
+            } else {
+                position = producerIndex.get();
+            }
+        }
+        elements.lazySet(index, element);
+        sequences.lazySet(index, position + 1);
+        return true;
+    }
+
+    /**
+     * 取出一个元素（仅消费线程）
+     *
+     * @return 缓冲区为空时返回null
+     */
+    public E poll() {
+        long position = consumerIndex;
+        int index = (int) (position & mask);
+        if (sequences.get(index) != position + 1) {
+            return null;
+        }
+        E element = elements.get(index);
+        elements.lazySet(index, null);
+        sequences.lazySet(index, position + mask + 1);
+        consumerIndex = position + 1;
+        return element;
+    }
+
+    /**
+     * 批量取出元素（仅消费线程）
+     *
+     * @param consumer 元素处理
+     * @param limit    最多取出的元素数
+     * @return 实际取出的元素数
+     */
+    public int drain(Consumer<E> consumer, int limit) {
+        int count = 0;
+        E element;
+        while (count < limit && (element = poll()) != null) {
+            consumer.accept(element);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * 当前元素数（近似值）
+     */
+    public int size() {
+        long size = producerIndex.get() - consumerIndex;
+        return (int) Math.max(0, Math.min(size, capacity()));
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,131 @@
+package com.intellihub.gateway.service.calllog;
+
+import com.intellihub.constants.RedisKeyConstants;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 告警实时统计的内存预聚合
+ * <p>
+ * 在上报线程内累加调用日志对应的Redis统计，每个刷新周期把累加结果合并为一批命令发出，
+ * 请求不再逐条访问Redis。Redis数据结构与原逐条写入时一致：
+ * 1. alert:requests:{tenantId}:{hour} - List，每个请求一条JSON详情（一次RPUSH写入本周期的全部详情）
+ * 2. alert:stats:{tenantId}:{hour} - Hash，totalCount/successCount/failCount/latencySum（每个字段一次HINCRBY）
+ * 3. alert:qps:{tenantId}:{minute} - 每分钟请求数（一次INCRBY）
+ * </p>
+ * 非线程安全，只在上报线程内使用。
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+public class RealtimeStatsAggregator {
+
+    private static final Duration ALERT_TTL = Duration.ofSeconds(RedisKeyConstants.TTL_ALERT_DATA);
+    private static final Duration QPS_TTL = Duration.ofSeconds(RedisKeyConstants.TTL_QPS_DATA);
+
+    /**
+     * 统计Key -> 累加值
+     */
+    private Map<String, HourStats> stats = new HashMap<>();
+
+    /**
+     * QPS Key -> 请求数
+     */
+    private Map<String, long[]> qpsCounts = new HashMap<>();
+
+    /**
+     * 请求详情Key -> 本周期的请求详情
+     */
+    private Map<String, List<String>> requestDetails = new HashMap<>();
+
+    /**
+     * 累加一条调用记录
+     *
+     * @param tenantId      租户ID
+     * @param hour          小时标识（yyyyMMddHH）
+     * @param minute        分钟标识（yyyyMMddHHmm）
+     * @param success       是否成功
+     * @param latency       延迟（毫秒）
+     * @param requestDetail 请求详情JSON
+     */
+    public void add(String tenantId, String hour, String minute, Boolean success, Integer latency,
+                    String requestDetail) {
+        HourStats hourStats = stats.computeIfAbsent(RedisKeyConstants.buildAlertStatsKey(tenantId, hour),
+                k -> new HourStats());
+        hourStats.totalCount++;
+        if (Boolean.TRUE.equals(success)) {
+            hourStats.successCount++;
+        } else {
+            hourStats.failCount++;
+        }
+        if (latency != null) {
+            hourStats.latencySum += latency;
+        }
+
+        qpsCounts.computeIfAbsent(RedisKeyConstants.buildQpsKey(tenantId, minute), k -> new long[1])[0]++;
+        requestDetails.computeIfAbsent(RedisKeyConstants.buildAlertRequestsKey(tenantId, hour),
+                k -> new ArrayList<>()).add(requestDetail);
+    }
+
+    public boolean isEmpty() {
+        return stats.isEmpty();
+    }
+
+    /**
+     * 取出本周期的累加结果并生成Redis命令，累加状态随即清空
+     * <p>
+     * 返回的命令在订阅时同时发出，由Lettuce在同一连接上流水线发送，不逐条等待响应
+     * </p>
+     *
+     * @param redisTemplate Redis模板
+     * @return 全部命令完成时结束
+     */
+    public Mono<Void> flush(ReactiveStringRedisTemplate redisTemplate) {
+        Map<String, HourStats> currentStats = stats;
+        Map<String, long[]> currentQps = qpsCounts;
+        Map<String, List<String>> currentDetails = requestDetails;
+        stats = new HashMap<>();
+        qpsCounts = new HashMap<>();
+        requestDetails = new HashMap<>();
+
+        List<Mono<?>> commands = new ArrayList<>(currentStats.size() * 5 + currentQps.size() * 2
+                + currentDetails.size() * 2);
+        for (Map.Entry<String, List<String>> entry : currentDetails.entrySet()) {
+            commands.add(redisTemplate.opsForList().rightPushAll(entry.getKey(), entry.getValue()));
+            commands.add(redisTemplate.expire(entry.getKey(), ALERT_TTL));
+        }
+        for (Map.Entry<String, HourStats> entry : currentStats.entrySet()) {
+            String key = entry.getKey();
+            HourStats value = entry.getValue();
+            commands.add(redisTemplate.opsForHash().increment(key, "totalCount", value.totalCount));
+            if (value.successCount > 0) {
+                commands.add(redisTemplate.opsForHash().increment(key, "successCount", value.successCount));
+            }
+            if (value.failCount > 0) {
+                commands.add(redisTemplate.opsForHash().increment(key, "failCount", value.failCount));
+            }
+            if (value.latencySum > 0) {
+                commands.add(redisTemplate.opsForHash().increment(key, "latencySum", value.latencySum));
+            }
+            commands.add(redisTemplate.expire(key, ALERT_TTL));
+        }
+        for (Map.Entry<String, long[]> entry : currentQps.entrySet()) {
+            commands.add(redisTemplate.opsForValue().increment(entry.getKey(), entry.getValue()[0]));
+            commands.add(redisTemplate.expire(entry.getKey(), QPS_TTL));
+        }
+        return Mono.when(commands);
+    }
+
+    private static final class HourStats {
+        private long totalCount;
+        private long successCount;
+        private long failCount;
+        private long latencySum;
+    }
+}
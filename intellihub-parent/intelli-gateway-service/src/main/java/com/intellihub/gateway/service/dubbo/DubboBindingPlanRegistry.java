@@ -0,0 +1,115 @@
+package com.intellihub.gateway.service.dubbo;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.intellihub.dubbo.ApiRouteDTO;
+import com.intellihub.gateway.service.OpenApiRouteService;
+import com.intellihub.gateway.service.dubbo.binding.DubboBindingPlan;
+import com.intellihub.gateway.service.dubbo.extractor.ParameterExtractor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Dubbo参数绑定计划注册表
+ * <p>
+ * 按 apiId 保存已编译的参数绑定计划：
+ * 1. 启动完成后为所有已发布的Dubbo路由编译计划，之后新加载的路由在首次调用时编译
+ * 2. 路由重新加载后 {@link ApiRouteDTO} 对象会变化，计划记录编译时的路由对象，不一致即重新编译
+ * 3. API下线、删除时由路由变更监听器移除
+ * </p>
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class DubboBindingPlanRegistry {
+
+    private final List<ParameterExtractor> extractors;
+    private final OpenApiRouteService routeService;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * apiId -> 参数绑定计划
+     */
+    private final Map<String, DubboBindingPlan> plans = new ConcurrentHashMap<>();
+
+    /**
+     * 构造函数，注入所有参数提取器并按顺序排序
+     *
+     * @param extractors   参数提取器列表（Spring自动注入所有实现类）
+     * @param routeService 开放API路由服务
+     */
+    public DubboBindingPlanRegistry(List<ParameterExtractor> extractors, OpenApiRouteService routeService) {
+        List<ParameterExtractor> sorted = new ArrayList<>(extractors);
+        sorted.sort(Comparator.comparingInt(ParameterExtractor::getOrder));
+        this.extractors = sorted;
+        this.routeService = routeService;
+        log.info("初始化参数提取器链: {}",
+                sorted.stream().map(e -> e.getClass().getSimpleName()).collect(Collectors.toList()));
+    }
+
+    /**
+     * 启动完成后为已发布的Dubbo路由编译参数绑定计划
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmup() {
+        int declared = 0;
+        for (ApiRouteDTO route : routeService.getRoutes()) {
+            if ("dubbo".equalsIgnoreCase(route.getBackendType()) && route.getApiId() != null) {
+                if (getPlan(route).isDeclared()) {
+                    declared++;
+                }
+            }
+        }
+        log.info("[DubboBindingPlanRegistry] 参数绑定计划编译完成: plans={}, declared={}", plans.size(), declared);
+    }
+
+    /**
+     * 获取路由的参数绑定计划，尚未编译或路由已重新加载时编译
+     *
+     * @param route API路由配置
+     * @return 参数绑定计划
+     */
+    public DubboBindingPlan getPlan(ApiRouteDTO route) {
+        String apiId = route.getApiId();
+        DubboBindingPlan plan = apiId != null ? plans.get(apiId) : null;
+        if (plan != null && plan.getRoute() == route) {
+            return plan;
+        }
+        plan = DubboBindingPlan.compile(route, extractors, objectMapper);
+        if (apiId != null) {
+            plans.put(apiId, plan);
+        }
+        log.debug("[DubboBindingPlanRegistry] 编译参数绑定计划: apiId={}, plan={}", apiId, plan);
+        return plan;
+    }
+
+    /**
+     * 移除指定API的参数绑定计划
+     */
+    public void remove(String apiId) {
+        if (apiId != null) {
+            plans.remove(apiId);
+        }
+    }
+
+    /**
+     * 清空全部参数绑定计划
+     */
+    public void clear() {
+        plans.clear();
+    }
+
+    public int size() {
+        return plans.size();
+    }
+}
@@ -0,0 +1,16 @@
+package com.intellihub.gateway.service.dubbo;
+
+/**
+ * Dubbo接口并发调用数超过上限
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+public class DubboConcurrencyLimitException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public DubboConcurrencyLimitException(String interfaceName, int limit) {
+        super("Dubbo接口并发调用数已达上限: interface=" + interfaceName + ", limit=" + limit);
+    }
+}
@@ -1,9 +1,11 @@
 package com.intellihub.gateway.service.dubbo;
 
 import com.intellihub.dubbo.ApiRouteDTO;
+import com.intellihub.gateway.service.dubbo.binding.DubboBindingPlan;
 import lombok.Builder;
 import lombok.Data;
 
+import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
@@ -12,7 +14,7 @@ import java.util.Map;
  * <p>
  * 封装一次Dubbo泛化调用所需的所有信息，包括：
  * - 路由配置（接口名、方法名、分组、版本等）
- * - 提取的参数（按顺序存储）
+ * - 提取的参数（按顺序存储），或按参数声明绑定的参数值（类型由绑定计划给出）
  * - 原始请求信息
  * </p>
  *
@@ -34,6 +36,16 @@ public class DubboInvocationContext {
     @Builder.Default
     private Map<String, Object> parameters = new LinkedHashMap<>();
 
+    /**
+     * 路由的参数绑定计划
+     */
+    private DubboBindingPlan bindingPlan;
+
+    /**
+     * 按参数声明绑定的参数值（按方法参数顺序），未声明参数的路由为null
+     */
+    private Object[] arguments;
+
     /**
      * 原始请求路径
      */
@@ -86,10 +98,20 @@ public class DubboInvocationContext {
         return route != null ? route.getPath() : null;
     }
 
+    /**
+     * 参数是否已按声明绑定
+     */
+    public boolean isBound() {
+        return arguments != null;
+    }
+
     /**
      * 获取参数数量
      */
     public int getParameterCount() {
+        if (arguments != null) {
+            return arguments.length;
+        }
         return parameters != null ? parameters.size() : 0;
     }
 
@@ -97,7 +119,7 @@ public class DubboInvocationContext {
      * 判断是否有参数
      */
     public boolean hasParameters() {
-        return parameters != null && !parameters.isEmpty();
+        return getParameterCount() > 0;
     }
 
     /**
@@ -133,6 +155,7 @@ public class DubboInvocationContext {
     public String toSummary() {
         return String.format("interface=%s, method=%s, group=%s, version=%s, paramCount=%d, params=%s",
                 getInterfaceName(), getMethodName(), getGroup(), getVersion(),
-                getParameterCount(), parameters != null ? parameters.keySet() : "[]");
+                getParameterCount(), arguments != null ? Arrays.toString(bindingPlan.getParameterNames())
+                        : parameters != null ? parameters.keySet() : "[]");
     }
 }
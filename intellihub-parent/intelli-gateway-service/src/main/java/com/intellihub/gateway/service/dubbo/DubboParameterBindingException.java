@@ -0,0 +1,20 @@
+package com.intellihub.gateway.service.dubbo;
+
+/**
+ * Dubbo调用参数绑定失败（缺少必填参数、类型不匹配或请求体格式错误）
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+public class DubboParameterBindingException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public DubboParameterBindingException(String message) {
+        super(message);
+    }
+
+    public DubboParameterBindingException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,284 @@
+package com.intellihub.gateway.service.dubbo;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.intellihub.dubbo.ApiRouteDTO;
+import com.intellihub.gateway.config.DubboInvokeConfig;
+import com.intellihub.gateway.service.OpenApiRouteService;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.dubbo.config.ApplicationConfig;
+import org.apache.dubbo.config.ReferenceConfig;
+import org.apache.dubbo.config.RegistryConfig;
+import org.apache.dubbo.rpc.service.GenericService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Dubbo泛化服务引用注册表
+ * <p>
+ * 按 接口名:版本:分组 保存泛化服务引用（Caffeine，容量和访问过期时间见 gateway.dubbo.reference-*），
+ * 引用被淘汰、过期或移除时销毁：
+ * 1. 启动完成后为所有已发布的Dubbo路由预先创建引用，首次调用不再承担 ReferenceConfig.get() 的开销
+ * 2. 之后新增的路由在首次调用时创建：缓存中只放入一个待完成的Future，
+ *    创建过程（注册中心订阅等阻塞操作）在缓存锁之外、boundedElastic 线程执行，并发请求等待同一个Future；
+ *    创建失败时移除该条目，下次调用重新创建
+ * 3. API下线或删除后，没有其他路由使用的引用立即销毁（{@link #release}）
+ * 4. 调用超时按请求设置，引用上只配置默认超时
+ * </p>
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class DubboReferenceRegistry {
+
+    @Value("${dubbo.registry.address:nacos://127.0.0.1:8848}")
+    private String registryAddress;
+
+    @Value("${dubbo.application.name:intelli-gateway-service}")
+    private String applicationName;
+
+    @Value("${dubbo.consumer.group:}")
+    private String defaultGroup;
+
+    private final DubboInvokeConfig config;
+    private final OpenApiRouteService routeService;
+
+    private ApplicationConfig applicationConfig;
+    private RegistryConfig registryConfig;
+
+    /**
+     * 接口名:版本:分组 -> 服务引用
+     */
+    private final Cache<String, ReferenceEntry> references;
+
+    public DubboReferenceRegistry(DubboInvokeConfig config, OpenApiRouteService routeService) {
+        this.config = config;
+        this.routeService = routeService;
+        this.references = Caffeine.newBuilder()
+                .maximumSize(config.getReferenceMaxSize())
+                .expireAfterAccess(Duration.ofMinutes(config.getReferenceExpireMinutes()))
+                .removalListener((String key, ReferenceEntry entry, RemovalCause cause) -> {
+                    if (entry != null) {
+                        log.info("[DubboReferenceRegistry] 销毁服务引用: key={}, cause={}", key, cause);
+                        entry.destroy();
+                    }
+                })
+                .build();
+    }
+
+    @PostConstruct
+    public void init() {
+        applicationConfig = new ApplicationConfig();
+        applicationConfig.setName(applicationName + "-generic");
+
+        registryConfig = new RegistryConfig();
+        registryConfig.setAddress(registryAddress);
+    }
+
+    /**
+     * 启动完成后预热已发布Dubbo路由的服务引用
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmup() {
+        if (!config.isWarmupOnStartup()) {
+            return;
+        }
+        Mono.fromRunnable(() -> {
+            int created = 0;
+            for (ApiRouteDTO route : routeService.getRoutes()) {
+                if (!"dubbo".equalsIgnoreCase(route.getBackendType()) || route.getDubboInterface() == null) {
+                    continue;
+                }
+                try {
+                    getOrCreate(route.getDubboInterface(), route.getDubboVersion(), route.getDubboGroup());
+                    created++;
+                } catch (Exception e) {
+                    log.warn("[DubboReferenceRegistry] 预热服务引用失败: interface={}, error={}",
+                            route.getDubboInterface(), e.getMessage());
+                }
+            }
+            log.info("[DubboReferenceRegistry] 服务引用预热完成: routes={}, references={}", created, size());
+        }).subscribeOn(Schedulers.boundedElastic()).subscribe();
+    }
+
+    /**
+     * 获取泛化服务，尚未创建时在 boundedElastic 线程创建
+     */
+    public Mono<GenericService> getService(DubboInvocationContext context) {
+        String interfaceName = context.getInterfaceName();
+        String version = context.getVersion();
+        String group = context.getGroup();
+        String key = buildKey(interfaceName, version, group);
+        ReferenceEntry entry = references.get(key, ReferenceEntry::new);
+        GenericService service = entry.getIfReady();
+        if (service != null) {
+            return Mono.just(service);
+        }
+        if (entry.claim()) {
+            Mono.fromRunnable(() -> create(entry, interfaceName, version, group))
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .subscribe();
+        }
+        // 派生Future，请求取消时不影响共享的创建结果
+        return Mono.fromFuture(entry.future.thenApply(Function.identity()));
+    }
+
+    /**
+     * 已创建的引用数量
+     */
+    public int size() {
+        return (int) references.estimatedSize();
+    }
+
+    /**
+     * 路由下线或删除后释放其服务引用（仍有其他路由使用同一 接口名:版本:分组 时保留）
+     *
+     * @param route 已移除的路由，非Dubbo路由忽略
+     */
+    public void release(ApiRouteDTO route) {
+        if (route == null || !"dubbo".equalsIgnoreCase(route.getBackendType()) || route.getDubboInterface() == null) {
+            return;
+        }
+        String key = buildKey(route.getDubboInterface(), route.getDubboVersion(), route.getDubboGroup());
+        for (ApiRouteDTO other : routeService.getRoutes()) {
+            if ("dubbo".equalsIgnoreCase(other.getBackendType()) && other.getDubboInterface() != null
+                    && key.equals(buildKey(other.getDubboInterface(), other.getDubboVersion(), other.getDubboGroup()))) {
+                return;
+            }
+        }
+        references.invalidate(key);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        references.asMap().values().forEach(ReferenceEntry::destroy);
+        references.invalidateAll();
+    }
+
+    /**
+     * 阻塞获取泛化服务（预热使用，在 boundedElastic 线程调用）
+     */
+    private GenericService getOrCreate(String interfaceName, String version, String group) {
+        ReferenceEntry entry = references.get(buildKey(interfaceName, version, group), ReferenceEntry::new);
+        if (entry.claim()) {
+            create(entry, interfaceName, version, group);
+        }
+        return entry.future.join();
+    }
+
+    /**
+     * 创建引用并完成条目的Future（在缓存锁之外执行）
+     */
+    private void create(ReferenceEntry entry, String interfaceName, String version, String group) {
+        try {
+            ReferenceConfig<GenericService> reference = createReference(interfaceName, version, group);
+            entry.complete(reference, reference.get());
+        } catch (Throwable e) {
+            log.warn("[DubboReferenceRegistry] 创建服务引用失败: key={}, error={}", entry.key, e.getMessage());
+            // 移除失败的条目，下次调用重新创建
+            references.asMap().remove(entry.key, entry);
+            entry.future.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * 创建泛化服务引用
+     * <p>
+     * 根据接口配置创建Dubbo泛化服务引用，支持版本和分组配置
+     * </p>
+     */
+    private ReferenceConfig<GenericService> createReference(String interfaceName, String version, String group) {
+        String effectiveGroup = (group != null && !group.isEmpty()) ? group : defaultGroup;
+        log.info("[DubboReferenceRegistry] 创建服务引用: interface={}, version={}, group={}, registry={}",
+                interfaceName, version, effectiveGroup, registryAddress);
+
+        ReferenceConfig<GenericService> reference = new ReferenceConfig<>();
+        reference.setApplication(applicationConfig);
+        reference.setRegistry(registryConfig);
+        reference.setInterface(interfaceName);
+        reference.setGeneric("true");
+        if (version != null && !version.isEmpty()) {
+            reference.setVersion(version);
+        }
+        if (effectiveGroup != null && !effectiveGroup.isEmpty()) {
+            reference.setGroup(effectiveGroup);
+        }
+        reference.setTimeout(config.getDefaultTimeoutMs());
+        reference.setRetries(0);
+        reference.setCheck(false);
+        return reference;
+    }
+
+    private String buildKey(String interfaceName, String version, String group) {
+        StringBuilder sb = new StringBuilder(interfaceName);
+        if (version != null && !version.isEmpty()) {
+            sb.append(":").append(version);
+        }
+        if (group != null && !group.isEmpty()) {
+            sb.append(":").append(group);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 缓存条目：创建中的引用用Future表示，由第一个请求（claim成功者）负责创建
+     */
+    private static final class ReferenceEntry {
+        private final String key;
+        private final CompletableFuture<GenericService> future = new CompletableFuture<>();
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        private ReferenceConfig<GenericService> reference;
+        private boolean destroyed;
+
+        ReferenceEntry(String key) {
+            this.key = key;
+        }
+
+        boolean claim() {
+            return !claimed.get() && claimed.compareAndSet(false, true);
+        }
+
+        GenericService getIfReady() {
+            return future.isDone() && !future.isCompletedExceptionally() ? future.join() : null;
+        }
+
+        void complete(ReferenceConfig<GenericService> created, GenericService service) {
+            boolean destroyNow;
+            synchronized (this) {
+                reference = created;
+                destroyNow = destroyed;
+            }
+            if (destroyNow) {
+                // 创建期间条目已被淘汰或移除
+                created.destroy();
+            }
+            future.complete(service);
+        }
+
+        void destroy() {
+            ReferenceConfig<GenericService> created;
+            synchronized (this) {
+                destroyed = true;
+                created = reference;
+                reference = null;
+            }
+            if (created != null) {
+                created.destroy();
+            }
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.intellihub.gateway.service.dubbo.binding;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.exc.InputCoercionException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.intellihub.gateway.service.dubbo.DubboParameterBindingException;
+import com.intellihub.gateway.service.dubbo.enums.ParameterSource;
+import com.intellihub.gateway.service.dubbo.enums.ParameterType;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 单个Dubbo方法参数的绑定规则
+ * <p>
+ * 路由加载时由参数声明编译得到：来源、目标类型、JSON路径和默认值都已解析完成，
+ * 请求时只做取值和类型转换
+ * </p>
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+@Getter
+public class DubboArgumentBinding {
+
+    /**
+     * 在方法参数列表中的位置
+     */
+    private final int index;
+
+    private final String name;
+
+    private final ParameterSource source;
+
+    /**
+     * 目标类型，声明为类全限定名时按 MAP 读取（泛化调用以Map传递POJO）
+     */
+    private final ParameterType type;
+
+    /**
+     * 传给泛化调用的参数类型名
+     */
+    private final String javaType;
+
+    private final boolean required;
+
+    /**
+     * 已转换为目标类型的默认值，未配置时为null
+     */
+    private final Object defaultValue;
+
+    /**
+     * 请求体中的字段路径，空数组表示整个请求体；来源不是请求体时为null
+     */
+    private final String[] path;
+
+    private final ObjectMapper objectMapper;
+
+    DubboArgumentBinding(int index, String name, ParameterSource source, ParameterType type, String javaType,
+                         boolean required, String defaultValue, String[] path, ObjectMapper objectMapper) {
+        this.index = index;
+        this.name = name;
+        this.source = source;
+        this.type = type;
+        this.javaType = javaType;
+        this.required = required;
+        this.path = path;
+        this.objectMapper = objectMapper;
+        this.defaultValue = defaultValue != null ? convert(defaultValue) : null;
+    }
+
+    /**
+     * 转换路径参数、Query参数和默认值
+     */
+    public Object convert(String raw) {
+        if (raw == null) {
+            return null;
+        }
+        try {
+            switch (type) {
+                case STRING:
+                    return raw;
+                case INTEGER:
+                    return Integer.valueOf(raw.trim());
+                case LONG:
+                    return Long.valueOf(raw.trim());
+                case DOUBLE:
+                    return Double.valueOf(raw.trim());
+                case FLOAT:
+                    return Float.valueOf(raw.trim());
+                case BOOLEAN:
+                    return parseBoolean(raw.trim());
+                case LIST:
+                    return raw.trim().startsWith("[")
+                            ? objectMapper.readValue(raw, List.class) : new ArrayList<>(Arrays.asList(raw.split(",")));
+                default:
+                    return objectMapper.readValue(raw, Map.class);
+            }
+        } catch (DubboParameterBindingException e) {
+            throw e;
+        } catch (Exception e) {
+            throw typeMismatch(e);
+        }
+    }
+
+    /**
+     * 转换多值Query参数：列表类型保留全部值，其他类型取第一个值
+     */
+    public Object convert(List<String> raws) {
+        if (raws == null || raws.isEmpty()) {
+            return null;
+        }
+        if (type != ParameterType.LIST || raws.size() == 1) {
+            return convert(raws.get(0));
+        }
+        return new ArrayList<>(raws);
+    }
+
+    /**
+     * 从流式解析器读取参数值，解析器当前位于该字段的值上
+     */
+    public Object read(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token == JsonToken.VALUE_STRING && type != ParameterType.STRING) {
+            return convert(parser.getText());
+        }
+        switch (type) {
+            case STRING:
+                if (token.isScalarValue()) {
+                    return parser.getText();
+                }
+                break;
+            case INTEGER:
+                if (token == JsonToken.VALUE_NUMBER_INT) {
+                    try {
+                        return parser.getIntValue();
+                    } catch (InputCoercionException e) {
+                        throw outOfRange(e);
+                    }
+                }
+                break;
+            case LONG:
+                if (token == JsonToken.VALUE_NUMBER_INT) {
+                    try {
+                        return parser.getLongValue();
+                    } catch (InputCoercionException e) {
+                        throw outOfRange(e);
+                    }
+                }
+                break;
+            case DOUBLE:
+                if (token.isNumeric()) {
+                    return parser.getDoubleValue();
+                }
+                break;
+            case FLOAT:
+                if (token.isNumeric()) {
+                    return parser.getFloatValue();
+                }
+                break;
+            case BOOLEAN:
+                if (token.isBoolean()) {
+                    return parser.getBooleanValue();
+                }
+                break;
+            case LIST:
+                if (token == JsonToken.START_ARRAY) {
+                    return objectMapper.readValue(parser, List.class);
+                }
+                break;
+            default:
+                if (token == JsonToken.START_OBJECT) {
+                    return objectMapper.readValue(parser, Map.class);
+                }
+                break;
+        }
+        throw typeMismatch(null);
+    }
+
+    private Boolean parseBoolean(String raw) {
+        String value = raw.toLowerCase(Locale.ROOT);
+        if ("true".equals(value)) {
+            return Boolean.TRUE;
+        }
+        if ("false".equals(value)) {
+            return Boolean.FALSE;
+        }
+        throw typeMismatch(null);
+    }
+
+    /**
+     * 数值超出目标类型的取值范围（JSON本身合法，不能按JSON格式错误返回）
+     */
+    private DubboParameterBindingException outOfRange(Exception cause) {
+        return new DubboParameterBindingException("参数超出取值范围: " + name + " 应为 " + javaType, cause);
+    }
+
+    private DubboParameterBindingException typeMismatch(Exception cause) {
+        String message = "参数类型错误: " + name + " 应为 " + javaType;
+        return cause != null ? new DubboParameterBindingException(message, cause) : new DubboParameterBindingException(message);
+    }
+}
@@ -0,0 +1,413 @@
+package com.intellihub.gateway.service.dubbo.binding;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.intellihub.dubbo.ApiRouteDTO;
+import com.intellihub.dubbo.RouteParamDTO;
+import com.intellihub.gateway.filter.CacheBodyFilter;
+import com.intellihub.gateway.filter.OpenApiRouteMatchFilter;
+import com.intellihub.gateway.service.dubbo.DubboInvocationContext;
+import com.intellihub.gateway.service.dubbo.DubboParameterBindingException;
+import com.intellihub.gateway.service.dubbo.enums.ParameterSource;
+import com.intellihub.gateway.service.dubbo.enums.ParameterType;
+import com.intellihub.gateway.service.dubbo.extractor.ParameterExtractor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dubbo路由的参数绑定计划
+ * <p>
+ * 每个路由加载后编译一次，请求时直接执行：
+ * 1. 路由声明了方法参数时，参数类型、来源、请求体JSON路径和默认值都在编译时解析，
+ *    请求体用流式解析器读取一遍，只物化声明的参数，读满后提前结束；参数类型按声明传递，不再按值推断
+ * 2. 未声明参数时沿用参数提取器链（按值推断类型），但链中只保留适用于该路由的提取器
+ * </p>
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+@Slf4j
+public class DubboBindingPlan {
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    /**
+     * 编译时使用的路由配置，路由重新加载后对象会变化，据此判断计划是否过期
+     */
+    @Getter
+    private final ApiRouteDTO route;
+
+    /**
+     * 未声明参数时使用的提取器链（已排序、已按路由过滤）
+     */
+    @Getter
+    private final List<ParameterExtractor> extractors;
+
+    /**
+     * 声明的参数绑定规则，按方法参数顺序排列；未声明参数时为null
+     */
+    private final DubboArgumentBinding[] bindings;
+
+    /**
+     * 声明的参数类型，所有请求共用同一数组，调用方不得修改
+     */
+    @Getter
+    private final String[] parameterTypes;
+
+    @Getter
+    private final String[] parameterNames;
+
+    /**
+     * 请求体字段路径树，没有来自请求体的参数时为null
+     */
+    private final JsonPathNode bodyRoot;
+
+    /**
+     * 绑定整个请求体的参数（JSON路径为 $），没有时为null
+     */
+    private final DubboArgumentBinding wholeBodyBinding;
+
+    private final int bodyArgCount;
+
+    /**
+     * 绑定是否需要请求体（有来自请求体的声明参数，或未声明参数时提取器链中有读取请求体的提取器）
+     */
+    private final boolean readsBody;
+
+    private final boolean pathArgs;
+
+    private final ObjectMapper objectMapper;
+
+    private DubboBindingPlan(ApiRouteDTO route, List<ParameterExtractor> extractors, DubboArgumentBinding[] bindings,
+                             ObjectMapper objectMapper) {
+        this.route = route;
+        this.extractors = extractors;
+        this.bindings = bindings;
+        this.objectMapper = objectMapper;
+        if (bindings == null) {
+            this.parameterTypes = null;
+            this.parameterNames = null;
+            this.bodyRoot = null;
+            this.wholeBodyBinding = null;
+            this.bodyArgCount = 0;
+            this.pathArgs = false;
+            boolean extractorsReadBody = false;
+            for (ParameterExtractor extractor : extractors) {
+                extractorsReadBody |= extractor.readsBody();
+            }
+            this.readsBody = extractorsReadBody;
+            return;
+        }
+
+        this.parameterTypes = new String[bindings.length];
+        this.parameterNames = new String[bindings.length];
+        JsonPathNode root = new JsonPathNode();
+        DubboArgumentBinding wholeBody = null;
+        int bodyArgs = 0;
+        boolean hasPathArgs = false;
+        for (DubboArgumentBinding binding : bindings) {
+            parameterTypes[binding.getIndex()] = binding.getJavaType();
+            parameterNames[binding.getIndex()] = binding.getName();
+            if (binding.getSource() == ParameterSource.PATH) {
+                hasPathArgs = true;
+            } else if (binding.getSource() == ParameterSource.BODY) {
+                bodyArgs++;
+                if (binding.getPath().length == 0) {
+                    wholeBody = binding;
+                } else {
+                    root.add(binding.getPath(), 0, binding);
+                }
+            }
+        }
+        this.bodyRoot = bodyArgs > 0 && wholeBody == null ? root : null;
+        this.wholeBodyBinding = wholeBody;
+        this.bodyArgCount = bodyArgs;
+        this.readsBody = bodyArgs > 0;
+        this.pathArgs = hasPathArgs;
+    }
+
+    /**
+     * 编译路由的参数绑定计划
+     * <p>
+     * 参数声明无法编译（位置或类型不支持、请求体路径冲突）时记录告警并退回提取器链，不影响路由可用性
+     * </p>
+     *
+     * @param route      API路由配置
+     * @param extractors 已排序的全部参数提取器
+     * @param objectMapper JSON映射器
+     * @return 绑定计划
+     */
+    public static DubboBindingPlan compile(ApiRouteDTO route, List<ParameterExtractor> extractors,
+                                           ObjectMapper objectMapper) {
+        List<ParameterExtractor> routeExtractors = new ArrayList<>(extractors.size());
+        for (ParameterExtractor extractor : extractors) {
+            if (extractor.appliesTo(route)) {
+                routeExtractors.add(extractor);
+            }
+        }
+        routeExtractors = Collections.unmodifiableList(routeExtractors);
+
+        List<RouteParamDTO> params = route.getDubboParams();
+        if (params == null || params.isEmpty()) {
+            return new DubboBindingPlan(route, routeExtractors, null, objectMapper);
+        }
+        try {
+            DubboArgumentBinding[] bindings = new DubboArgumentBinding[params.size()];
+            for (int i = 0; i < params.size(); i++) {
+                bindings[i] = compileBinding(i, params.get(i), objectMapper);
+            }
+            checkBodyPaths(bindings);
+            return new DubboBindingPlan(route, routeExtractors, bindings, objectMapper);
+        } catch (IllegalArgumentException | DubboParameterBindingException e) {
+            log.warn("[DubboBindingPlan] 参数声明无法编译，退回按请求参数推断: apiId={}, error={}",
+                    route.getApiId(), e.getMessage());
+            return new DubboBindingPlan(route, routeExtractors, null, objectMapper);
+        }
+    }
+
+    private static DubboArgumentBinding compileBinding(int index, RouteParamDTO param, ObjectMapper objectMapper) {
+        String name = param.getName();
+        ParameterSource source = ParameterSource.fromCode(param.getLocation());
+        if (source == null || source == ParameterSource.HEADER) {
+            throw new IllegalArgumentException("不支持的参数位置: " + name + "=" + param.getLocation());
+        }
+
+        ParameterType type = ParameterType.fromDeclaredType(param.getType());
+        String javaType;
+        if (type != null) {
+            javaType = type.getJavaType();
+        } else if (param.getType() != null && param.getType().indexOf('.') > 0) {
+            // 声明为类全限定名：请求中的JSON对象以Map传递，由Dubbo按类名反序列化
+            type = ParameterType.MAP;
+            javaType = param.getType().trim();
+        } else {
+            throw new IllegalArgumentException("不支持的参数类型: " + name + "=" + param.getType());
+        }
+
+        String[] path = null;
+        if (source == ParameterSource.BODY) {
+            String expression = name.startsWith("$") ? name.substring(1) : name;
+            if (expression.startsWith(".")) {
+                expression = expression.substring(1);
+            }
+            path = expression.isEmpty() ? new String[0] : expression.split("\\.");
+            for (String segment : path) {
+                if (segment.isEmpty()) {
+                    throw new IllegalArgumentException("请求体参数路径格式错误: " + name);
+                }
+            }
+        }
+        return new DubboArgumentBinding(index, name, source, type, javaType,
+                Boolean.TRUE.equals(param.getRequired()), param.getDefaultValue(), path, objectMapper);
+    }
+
+    /**
+     * 请求体参数的路径不能互为前缀（流式解析时字段值只能读取一次），整个请求体只能绑定到唯一的请求体参数
+     */
+    private static void checkBodyPaths(DubboArgumentBinding[] bindings) {
+        List<String> paths = new ArrayList<>();
+        boolean wholeBody = false;
+        for (DubboArgumentBinding binding : bindings) {
+            if (binding.getPath() != null) {
+                paths.add(String.join(".", binding.getPath()) + ".");
+                wholeBody |= binding.getPath().length == 0;
+            }
+        }
+        if (wholeBody && paths.size() > 1) {
+            throw new IllegalArgumentException("绑定整个请求体时不能再声明其他请求体参数");
+        }
+        Collections.sort(paths);
+        for (int i = 1; i < paths.size(); i++) {
+            if (paths.get(i).startsWith(paths.get(i - 1))) {
+                throw new IllegalArgumentException("请求体参数路径冲突: " + paths.get(i - 1) + " / " + paths.get(i));
+            }
+        }
+    }
+
+    /**
+     * 是否按声明的参数绑定
+     */
+    public boolean isDeclared() {
+        return bindings != null;
+    }
+
+    /**
+     * 绑定是否需要请求体
+     */
+    public boolean readsBody() {
+        return readsBody;
+    }
+
+    /**
+     * 执行绑定，结果写入调用上下文
+     * <p>
+     * 请求体从 {@link CacheBodyFilter} 缓存的 DataBuffer 直接流式解析，绑定结束后立即释放缓冲区
+     * </p>
+     *
+     * @param exchange HTTP交换对象
+     * @param context  Dubbo调用上下文
+     * @throws DubboParameterBindingException 缺少必填参数、类型不匹配或请求体格式错误
+     */
+    public void bind(ServerWebExchange exchange, DubboInvocationContext context) {
+        context.setBindingPlan(this);
+        try {
+            if (bindings == null) {
+                for (ParameterExtractor extractor : extractors) {
+                    if (extractor.supports(exchange, context)) {
+                        extractor.extract(exchange, context);
+                    }
+                }
+                return;
+            }
+
+            Map<String, String> pathVariables = null;
+            if (pathArgs) {
+                pathVariables = exchange.getAttribute(OpenApiRouteMatchFilter.ATTR_PATH_VARIABLES);
+                if (pathVariables == null && PATH_MATCHER.match(route.getPath(), context.getOriginalPath())) {
+                    pathVariables = PATH_MATCHER.extractUriTemplateVariables(route.getPath(), context.getOriginalPath());
+                }
+            }
+            DataBuffer body = bodyArgCount > 0 ? CacheBodyFilter.getCachedBody(exchange) : null;
+            context.setArguments(bindArguments(pathVariables, exchange.getRequest().getQueryParams(),
+                    body != null ? body.asInputStream() : null));
+        } finally {
+            CacheBodyFilter.releaseCachedBody(exchange);
+        }
+    }
+
+    /**
+     * 按声明绑定参数值
+     *
+     * @param pathVariables 路径参数
+     * @param queryParams   Query参数
+     * @param body          请求体（UTF-8 JSON），没有请求体时为null
+     * @return 按方法参数顺序排列的参数值
+     */
+    public Object[] bindArguments(Map<String, String> pathVariables, MultiValueMap<String, String> queryParams,
+                                  InputStream body) {
+        Object[] values = new Object[bindings.length];
+        boolean[] present = new boolean[bindings.length];
+
+        for (DubboArgumentBinding binding : bindings) {
+            if (binding.getSource() == ParameterSource.PATH) {
+                String raw = pathVariables != null ? pathVariables.get(binding.getName()) : null;
+                if (raw != null) {
+                    values[binding.getIndex()] = binding.convert(raw);
+                    present[binding.getIndex()] = true;
+                }
+            } else if (binding.getSource() == ParameterSource.QUERY) {
+                List<String> raws = queryParams != null ? queryParams.get(binding.getName()) : null;
+                if (raws != null && !raws.isEmpty()) {
+                    values[binding.getIndex()] = binding.convert(raws);
+                    present[binding.getIndex()] = true;
+                }
+            }
+        }
+
+        if (bodyArgCount > 0 && body != null) {
+            readBody(body, values, present);
+        }
+
+        for (DubboArgumentBinding binding : bindings) {
+            int index = binding.getIndex();
+            if (present[index] && values[index] != null) {
+                continue;
+            }
+            if (binding.getDefaultValue() != null) {
+                values[index] = binding.getDefaultValue();
+            } else if (binding.isRequired()) {
+                throw new DubboParameterBindingException("缺少必填参数: " + binding.getName());
+            }
+        }
+        return values;
+    }
+
+    /**
+     * 流式解析请求体，空请求体视为没有请求体参数
+     */
+    private void readBody(InputStream body, Object[] values, boolean[] present) {
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                return;
+            }
+            if (wholeBodyBinding != null) {
+                values[wholeBodyBinding.getIndex()] = wholeBodyBinding.read(parser);
+                present[wholeBodyBinding.getIndex()] = true;
+                return;
+            }
+            if (token != JsonToken.START_OBJECT) {
+                throw new DubboParameterBindingException("请求体必须是JSON对象");
+            }
+            readObject(parser, bodyRoot, values, present, bodyArgCount);
+        } catch (IOException e) {
+            throw new DubboParameterBindingException("请求体不是合法的JSON", e);
+        }
+    }
+
+    /**
+     * 读取当前对象中声明的字段，未声明的字段整体跳过
+     *
+     * @return 剩余未读取的请求体参数数量，为0时调用方直接结束解析
+     */
+    private int readObject(JsonParser parser, JsonPathNode node, Object[] values, boolean[] present,
+                           int remaining) throws IOException {
+        while (remaining > 0 && parser.nextToken() == JsonToken.FIELD_NAME) {
+            JsonPathNode child = node.children.get(parser.getCurrentName());
+            JsonToken token = parser.nextToken();
+            if (child == null) {
+                parser.skipChildren();
+            } else if (child.binding != null) {
+                int index = child.binding.getIndex();
+                values[index] = child.binding.read(parser);
+                if (!present[index]) {
+                    present[index] = true;
+                    remaining--;
+                }
+            } else if (token == JsonToken.START_OBJECT) {
+                remaining = readObject(parser, child, values, present, remaining);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return remaining;
+    }
+
+    @Override
+    public String toString() {
+        return bindings != null ? "declared" + Arrays.toString(parameterNames) : "extractors" + extractors.size();
+    }
+
+    /**
+     * 请求体字段路径树节点
+     */
+    static final class JsonPathNode {
+
+        private final Map<String, JsonPathNode> children = new HashMap<>(4);
+
+        private DubboArgumentBinding binding;
+
+        void add(String[] path, int depth, DubboArgumentBinding target) {
+            JsonPathNode child = children.computeIfAbsent(path[depth], k -> new JsonPathNode());
+            if (depth == path.length - 1) {
+                child.binding = target;
+            } else {
+                child.add(path, depth + 1, target);
+            }
+        }
+    }
+}
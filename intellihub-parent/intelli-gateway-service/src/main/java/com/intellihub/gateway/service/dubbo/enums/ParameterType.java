@@ -68,6 +68,46 @@ public enum ParameterType {
         return OBJECT;
     }
 
+    /**
+     * 根据参数声明中的类型获取参数类型
+     * <p>
+     * 支持 string/integer/int/long/number/double/float/boolean/array/list/object/map（不区分大小写），
+     * 其他值返回null，由调用方决定按类名处理还是拒绝
+     * </p>
+     *
+     * @param declaredType 参数声明中的类型
+     * @return 对应的参数类型枚举，无法识别时返回null
+     */
+    public static ParameterType fromDeclaredType(String declaredType) {
+        if (declaredType == null) {
+            return null;
+        }
+        switch (declaredType.trim().toLowerCase(java.util.Locale.ROOT)) {
+            case "string":
+                return STRING;
+            case "integer":
+            case "int":
+                return INTEGER;
+            case "long":
+                return LONG;
+            case "number":
+            case "double":
+                return DOUBLE;
+            case "float":
+                return FLOAT;
+            case "boolean":
+                return BOOLEAN;
+            case "array":
+            case "list":
+                return LIST;
+            case "object":
+            case "map":
+                return MAP;
+            default:
+                return null;
+        }
+    }
+
     /**
      * 获取值对应的Java类型名称
      *
@@ -1,21 +1,24 @@
 package com.intellihub.gateway.service.dubbo.extractor;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.intellihub.dubbo.ApiRouteDTO;
 import com.intellihub.gateway.filter.CacheBodyFilter;
 import com.intellihub.gateway.service.dubbo.DubboInvocationContext;
 import com.intellihub.gateway.service.dubbo.enums.ParameterSource;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpMethod;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 
 /**
  * 请求体参数提取器
  * <p>
  * 从POST/PUT/PATCH请求的JSON Body中提取参数
- * 依赖 CacheBodyFilter 预先缓存的请求体内容
+ * 依赖 CacheBodyFilter 预先缓存的请求体内容（{@link #readsBody()} 使所在路由缓存请求体）
  * </p>
  *
  * @author intellihub
@@ -33,24 +36,38 @@ public class BodyParameterExtractor implements ParameterExtractor {
         return ORDER;
     }
 
+    @Override
+    public boolean appliesTo(ApiRouteDTO route) {
+        String method = route.getMethod();
+        return method == null || "ALL".equalsIgnoreCase(method) || "POST".equalsIgnoreCase(method)
+                || "PUT".equalsIgnoreCase(method) || "PATCH".equalsIgnoreCase(method);
+    }
+
     @Override
     public boolean supports(ServerWebExchange exchange, DubboInvocationContext context) {
         HttpMethod method = exchange.getRequest().getMethod();
         return method == HttpMethod.POST || method == HttpMethod.PUT || method == HttpMethod.PATCH;
     }
 
+    @Override
+    public boolean readsBody() {
+        return true;
+    }
+
     @Override
     public void extract(ServerWebExchange exchange, DubboInvocationContext context) {
-        String cachedBody = exchange.getAttribute(CacheBodyFilter.ATTR_CACHED_BODY);
+        DataBuffer cachedBody = CacheBodyFilter.getCachedBody(exchange);
         
-        if (cachedBody == null || cachedBody.isEmpty()) {
+        if (cachedBody == null || cachedBody.readableByteCount() == 0) {
             log.debug("[{}] 请求体为空，跳过提取", ParameterSource.BODY.getDescription());
             return;
         }
 
+        int start = cachedBody.readPosition();
+        int length = cachedBody.readableByteCount();
         try {
             @SuppressWarnings("unchecked")
-            Map<String, Object> bodyParams = objectMapper.readValue(cachedBody, Map.class);
+            Map<String, Object> bodyParams = objectMapper.readValue(cachedBody.asInputStream(), Map.class);
             
             if (!bodyParams.isEmpty()) {
                 context.addParameters(bodyParams);
@@ -58,7 +75,8 @@ public class BodyParameterExtractor implements ParameterExtractor {
                         ParameterSource.BODY.getDescription(), bodyParams.size(), bodyParams.keySet());
             }
         } catch (Exception e) {
-            String preview = cachedBody.length() > 100 ? cachedBody.substring(0, 100) + "..." : cachedBody;
+            String preview = cachedBody.toString(start, Math.min(length, 100), StandardCharsets.UTF_8)
+                    + (length > 100 ? "..." : "");
             log.warn("[{}] JSON解析失败: body={}, error={}", 
                     ParameterSource.BODY.getDescription(), preview, e.getMessage());
         }
@@ -1,5 +1,6 @@
 package com.intellihub.gateway.service.dubbo.extractor;
 
+import com.intellihub.dubbo.ApiRouteDTO;
 import com.intellihub.gateway.service.dubbo.DubboInvocationContext;
 import org.springframework.web.server.ServerWebExchange;
 
@@ -30,6 +31,16 @@ public interface ParameterExtractor {
      */
     void extract(ServerWebExchange exchange, DubboInvocationContext context);
 
+    /**
+     * 判断当前提取器是否适用于该路由（路由加载时判断一次，不适用的提取器不进入该路由的提取器链）
+     *
+     * @param route API路由配置
+     * @return true表示适用，false表示该路由的请求都不需要此提取器
+     */
+    default boolean appliesTo(ApiRouteDTO route) {
+        return true;
+    }
+
     /**
      * 判断当前提取器是否支持处理该请求
      *
@@ -40,4 +51,13 @@ public interface ParameterExtractor {
     default boolean supports(ServerWebExchange exchange, DubboInvocationContext context) {
         return true;
     }
+
+    /**
+     * 是否读取请求体（读取请求体的提取器所在的路由由 CacheBodyFilter 预先缓存请求体）
+     *
+     * @return true表示需要请求体
+     */
+    default boolean readsBody() {
+        return false;
+    }
 }
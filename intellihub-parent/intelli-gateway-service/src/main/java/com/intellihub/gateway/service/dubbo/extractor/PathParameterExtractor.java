@@ -1,5 +1,7 @@
 package com.intellihub.gateway.service.dubbo.extractor;
 
+import com.intellihub.dubbo.ApiRouteDTO;
+import com.intellihub.gateway.filter.OpenApiRouteMatchFilter;
 import com.intellihub.gateway.filter.OriginalPathSaveFilter;
 import com.intellihub.gateway.service.dubbo.DubboInvocationContext;
 import com.intellihub.gateway.service.dubbo.enums.ParameterSource;
@@ -14,7 +16,7 @@ import java.util.Map;
  * 路径参数提取器
  * <p>
  * 从URL路径中提取参数，如 /open/app/{appkey} 中的 appkey
- * 使用 AntPathMatcher 进行路径模板匹配和变量提取
+ * 优先复用路由匹配阶段已提取的路径参数，缺失时才使用 AntPathMatcher 重新匹配
  * </p>
  *
  * @author intellihub
@@ -32,6 +34,11 @@ public class PathParameterExtractor implements ParameterExtractor {
         return ORDER;
     }
 
+    @Override
+    public boolean appliesTo(ApiRouteDTO route) {
+        return route.getPath() != null && route.getPath().contains("{");
+    }
+
     @Override
     public boolean supports(ServerWebExchange exchange, DubboInvocationContext context) {
         String routePath = context.getRoutePath();
@@ -40,6 +47,16 @@ public class PathParameterExtractor implements ParameterExtractor {
 
     @Override
     public void extract(ServerWebExchange exchange, DubboInvocationContext context) {
+        // 路由匹配阶段已提取路径参数，直接复用
+        Map<String, String> matchedVariables = exchange.getAttribute(OpenApiRouteMatchFilter.ATTR_PATH_VARIABLES);
+        if (matchedVariables != null) {
+            if (!matchedVariables.isEmpty()) {
+                context.addParameters(matchedVariables);
+                log.debug("[{}] 复用路由匹配结果: params={}", ParameterSource.PATH.getDescription(), matchedVariables);
+            }
+            return;
+        }
+
         String routePath = context.getRoutePath();
         String originalPath = context.getOriginalPath();
 
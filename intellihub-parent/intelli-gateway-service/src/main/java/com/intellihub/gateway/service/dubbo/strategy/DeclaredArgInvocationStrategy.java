@@ -0,0 +1,52 @@
+package com.intellihub.gateway.service.dubbo.strategy;
+
+import com.intellihub.gateway.service.dubbo.DubboInvocationContext;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.dubbo.rpc.service.GenericService;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 声明参数调用策略
+ * <p>
+ * 处理按路由参数声明绑定的调用：参数类型和顺序由绑定计划预先确定，直接传递绑定结果
+ * 需排在按参数数量选择的策略之前（已绑定的上下文不使用参数Map）
+ * </p>
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class DeclaredArgInvocationStrategy implements InvocationStrategy {
+
+    private static final String STRATEGY_NAME = "DeclaredArgStrategy";
+
+    @Override
+    public boolean supports(DubboInvocationContext context) {
+        return context.isBound();
+    }
+
+    @Override
+    public CompletableFuture<Object> invoke(GenericService genericService, DubboInvocationContext context) {
+        String methodName = context.getMethodName();
+        String[] paramTypes = context.getBindingPlan().getParameterTypes();
+
+        if (log.isDebugEnabled()) {
+            log.debug("[{}] 执行声明参数调用: method={}, paramNames={}, paramTypes={}", STRATEGY_NAME, methodName,
+                    Arrays.toString(context.getBindingPlan().getParameterNames()), Arrays.toString(paramTypes));
+        }
+
+        return genericService.$invokeAsync(methodName, paramTypes, context.getArguments());
+    }
+
+    @Override
+    public String getStrategyName() {
+        return STRATEGY_NAME;
+    }
+}
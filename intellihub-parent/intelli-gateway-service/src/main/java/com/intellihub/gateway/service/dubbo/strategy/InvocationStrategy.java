@@ -3,6 +3,8 @@ package com.intellihub.gateway.service.dubbo.strategy;
 import com.intellihub.gateway.service.dubbo.DubboInvocationContext;
 import org.apache.dubbo.rpc.service.GenericService;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Dubbo调用策略接口
  * <p>
@@ -26,13 +28,13 @@ public interface InvocationStrategy {
     boolean supports(DubboInvocationContext context);
 
     /**
-     * 执行Dubbo泛化调用
+     * 执行Dubbo泛化调用（异步，使用 $invokeAsync，不占用调用线程）
      *
      * @param genericService Dubbo泛化服务
      * @param context        调用上下文
      * @return 调用结果
      */
-    Object invoke(GenericService genericService, DubboInvocationContext context);
+    CompletableFuture<Object> invoke(GenericService genericService, DubboInvocationContext context);
 
     /**
      * 获取策略名称（用于日志）
@@ -8,6 +8,7 @@ import org.springframework.stereotype.Component;
 
 import java.util.Arrays;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * 多参数调用策略
@@ -32,7 +33,7 @@ public class MultiArgInvocationStrategy implements InvocationStrategy {
     }
 
     @Override
-    public Object invoke(GenericService genericService, DubboInvocationContext context) {
+    public CompletableFuture<Object> invoke(GenericService genericService, DubboInvocationContext context) {
         String methodName = context.getMethodName();
         Map<String, Object> params = context.getParameters();
         
@@ -50,7 +51,7 @@ public class MultiArgInvocationStrategy implements InvocationStrategy {
         log.debug("[{}] 执行多参数调用: method={}, paramCount={}, paramNames={}, paramTypes={}", 
                 STRATEGY_NAME, methodName, size, params.keySet(), Arrays.toString(paramTypes));
 
-        return genericService.$invoke(methodName, paramTypes, paramValues);
+        return genericService.$invokeAsync(methodName, paramTypes, paramValues);
     }
 
     @Override
@@ -5,6 +5,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.dubbo.rpc.service.GenericService;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * 无参数调用策略
  * <p>
@@ -26,12 +28,12 @@ public class NoArgInvocationStrategy implements InvocationStrategy {
     }
 
     @Override
-    public Object invoke(GenericService genericService, DubboInvocationContext context) {
+    public CompletableFuture<Object> invoke(GenericService genericService, DubboInvocationContext context) {
         String methodName = context.getMethodName();
         
         log.debug("[{}] 执行无参数调用: method={}", STRATEGY_NAME, methodName);
         
-        return genericService.$invoke(methodName, new String[]{}, new Object[]{});
+        return genericService.$invokeAsync(methodName, new String[]{}, new Object[]{});
     }
 
     @Override
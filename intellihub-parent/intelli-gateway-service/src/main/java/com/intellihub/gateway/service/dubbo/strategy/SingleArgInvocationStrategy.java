@@ -6,6 +6,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.dubbo.rpc.service.GenericService;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * 单参数调用策略
  * <p>
@@ -28,7 +30,7 @@ public class SingleArgInvocationStrategy implements InvocationStrategy {
     }
 
     @Override
-    public Object invoke(GenericService genericService, DubboInvocationContext context) {
+    public CompletableFuture<Object> invoke(GenericService genericService, DubboInvocationContext context) {
         String methodName = context.getMethodName();
         Object value = context.getParameters().values().iterator().next();
         String paramName = context.getParameters().keySet().iterator().next();
@@ -37,7 +39,7 @@ public class SingleArgInvocationStrategy implements InvocationStrategy {
         log.debug("[{}] 执行单参数调用: method={}, paramName={}, paramType={}, value={}", 
                 STRATEGY_NAME, methodName, paramName, paramType, value);
 
-        return genericService.$invoke(methodName, new String[]{paramType}, new Object[]{value});
+        return genericService.$invokeAsync(methodName, new String[]{paramType}, new Object[]{value});
     }
 
     @Override
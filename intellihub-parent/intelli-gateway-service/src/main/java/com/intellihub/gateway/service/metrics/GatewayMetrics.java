@@ -0,0 +1,330 @@
+package com.intellihub.gateway.service.metrics;
+
+import com.intellihub.gateway.config.GatewayMetricsConfig;
+import com.intellihub.gateway.filter.OpenApiRouteMatchFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BiFunction;
+
+/**
+ * 网关请求与分阶段耗时指标
+ * <p>
+ * 1. gateway.request{status,api_bucket}：整个请求的耗时，status 为状态码类别（2xx/3xx/4xx/5xx）
+ * 2. gateway.stage{stage,outcome,api_bucket}：各阶段自身的耗时，stage 为
+ *    route_match/auth/rate_limit/cache/upstream，outcome 为 pass（放行到下一阶段）、
+ *    hit/stale/miss（缓存查询结果）、rejected（熔断或并发超限）、error 或响应状态码类别
+ * 3. 标签取值全部有界：apiId 按哈希分桶（trackedApiIds 中的API单独一个取值），没有API时为 none
+ * 4. 计时器发布预先确定桶边界的百分位直方图（桶范围由 histogramMinMs/histogramMaxMs 决定），
+ *    分位数由监控系统跨实例聚合计算，不在网关内计算；计时器首次使用时创建，之后按下标直接取用，
+ *    请求路径上不再查找注册表
+ * </p>
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class GatewayMetrics {
+
+    /**
+     * 网关处理阶段
+     */
+    public enum Stage {
+        ROUTE_MATCH("route_match"), AUTH("auth"), RATE_LIMIT("rate_limit"), CACHE("cache"), UPSTREAM("upstream");
+
+        private final String tag;
+
+        Stage(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    /**
+     * 阶段结果
+     */
+    public enum Outcome {
+        PASS("pass"), HIT("hit"), STALE("stale"), MISS("miss"), REJECTED("rejected"), ERROR("error"),
+        STATUS_1XX("1xx"), STATUS_2XX("2xx"), STATUS_3XX("3xx"), STATUS_4XX("4xx"), STATUS_5XX("5xx");
+
+        private final String tag;
+
+        Outcome(String tag) {
+            this.tag = tag;
+        }
+
+        /**
+         * 状态码对应的结果，状态码未知时为 error
+         */
+        public static Outcome ofStatus(int statusCode) {
+            switch (statusCode / 100) {
+                case 1:
+                    return STATUS_1XX;
+                case 2:
+                    return STATUS_2XX;
+                case 3:
+                    return STATUS_3XX;
+                case 4:
+                    return STATUS_4XX;
+                case 5:
+                    return STATUS_5XX;
+                default:
+                    return ERROR;
+            }
+        }
+    }
+
+    private static final int STAGES = Stage.values().length;
+    private static final int OUTCOMES = Outcome.values().length;
+
+    private final GatewayMetricsConfig config;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+
+    /**
+     * api_bucket 标签取值：下标0为 none，1..apiBuckets 为哈希分桶，之后为 trackedApiIds
+     */
+    private final String[] apiSlotTags;
+    private final Map<String, Integer> trackedApiSlots = new HashMap<>();
+    private final int apiBuckets;
+
+    /**
+     * 计时器按 [stage][outcome][apiSlot] 展开为一维数组
+     */
+    private final AtomicReferenceArray<Timer> stageTimers;
+
+    /**
+     * 计时器按 [outcome][apiSlot] 展开为一维数组
+     */
+    private final AtomicReferenceArray<Timer> requestTimers;
+
+    private final StageTimer noopTimer;
+
+    public GatewayMetrics(GatewayMetricsConfig config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+        this.enabled = config.isEnabled();
+        this.apiBuckets = Math.max(1, config.getApiBuckets());
+
+        int tracked = config.getTrackedApiIds().size();
+        this.apiSlotTags = new String[1 + apiBuckets + tracked];
+        apiSlotTags[0] = "none";
+        for (int i = 0; i < apiBuckets; i++) {
+            apiSlotTags[1 + i] = "b" + i;
+        }
+        for (int i = 0; i < tracked; i++) {
+            String apiId = config.getTrackedApiIds().get(i);
+            apiSlotTags[1 + apiBuckets + i] = apiId;
+            trackedApiSlots.put(apiId, 1 + apiBuckets + i);
+        }
+        this.stageTimers = new AtomicReferenceArray<>(STAGES * OUTCOMES * apiSlotTags.length);
+        this.requestTimers = new AtomicReferenceArray<>(OUTCOMES * apiSlotTags.length);
+        this.noopTimer = new StageTimer(null, null, true);
+        log.info("网关分阶段指标: enabled={}, apiBuckets={}, trackedApiIds={}", enabled, apiBuckets, tracked);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 在指定阶段的计时下执行过滤器逻辑
+     * <p>
+     * 从进入过滤器开始计时：过滤器把请求交给下一阶段（调用 chain.filter）时记录 pass；
+     * 过滤器自行结束请求（如返回401/429）时按响应状态记录；客户端取消时不记录
+     * </p>
+     *
+     * @param stage    阶段
+     * @param exchange 当前请求
+     * @param chain    过滤器链
+     * @param filter   过滤器逻辑
+     */
+    public Mono<Void> timeStage(Stage stage, ServerWebExchange exchange, GatewayFilterChain chain,
+                                BiFunction<ServerWebExchange, GatewayFilterChain, Mono<Void>> filter) {
+        if (!enabled) {
+            return filter.apply(exchange, chain);
+        }
+        StageChain stageChain = new StageChain(stage, exchange, chain);
+        Mono<Void> result;
+        try {
+            result = filter.apply(exchange, stageChain);
+        } catch (RuntimeException e) {
+            stageChain.complete(SignalType.ON_ERROR);
+            throw e;
+        }
+        return result.doFinally(stageChain::complete);
+    }
+
+    /**
+     * 开始一个阶段的计时，用于不经过过滤器链的阶段（缓存查询、后端调用）
+     *
+     * @param stage 阶段
+     * @param apiId API ID，可为null
+     */
+    public StageTimer startStage(Stage stage, String apiId) {
+        return enabled ? new StageTimer(stage, apiId, false) : noopTimer;
+    }
+
+    /**
+     * 记录一个阶段的耗时
+     *
+     * @param stage       阶段
+     * @param apiId       API ID，可为null
+     * @param outcome     结果
+     * @param startNanos  开始时间（System.nanoTime）
+     */
+    public void recordStage(Stage stage, String apiId, Outcome outcome, long startNanos) {
+        if (!enabled) {
+            return;
+        }
+        int slot = apiSlot(apiId);
+        int index = (stage.ordinal() * OUTCOMES + outcome.ordinal()) * apiSlotTags.length + slot;
+        Timer timer = stageTimers.get(index);
+        if (timer == null) {
+            timer = timer("gateway.stage", "网关各阶段自身的处理耗时",
+                    "stage", stage.tag, "outcome", outcome.tag, "api_bucket", apiSlotTags[slot]);
+            stageTimers.lazySet(index, timer);
+        }
+        timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 记录整个请求的耗时
+     *
+     * @param apiId       API ID，可为null
+     * @param statusCode  响应状态码
+     * @param durationNanos 耗时（纳秒）
+     */
+    public void recordRequest(String apiId, int statusCode, long durationNanos) {
+        if (!enabled) {
+            return;
+        }
+        int slot = apiSlot(apiId);
+        Outcome outcome = Outcome.ofStatus(statusCode);
+        int index = outcome.ordinal() * apiSlotTags.length + slot;
+        Timer timer = requestTimers.get(index);
+        if (timer == null) {
+            timer = timer("gateway.request", "网关请求的总耗时",
+                    "status", outcome.tag, "api_bucket", apiSlotTags[slot]);
+            requestTimers.lazySet(index, timer);
+        }
+        timer.record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 是否记录本次请求的访问日志：慢请求和5xx总是记录，其余按采样率记录
+     */
+    public boolean shouldLogAccess(int statusCode, long durationMillis) {
+        if (statusCode >= 500 || durationMillis >= config.getSlowRequestThresholdMs()) {
+            return true;
+        }
+        double rate = config.getAccessLogSampleRate();
+        return rate >= 1 || (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    private int apiSlot(String apiId) {
+        if (apiId == null) {
+            return 0;
+        }
+        if (!trackedApiSlots.isEmpty()) {
+            Integer tracked = trackedApiSlots.get(apiId);
+            if (tracked != null) {
+                return tracked;
+            }
+        }
+        return 1 + Math.floorMod(apiId.hashCode(), apiBuckets);
+    }
+
+    private Timer timer(String name, String description, String... tags) {
+        // 重复注册返回同一个计时器，并发创建是安全的
+        return Timer.builder(name)
+                .description(description)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(config.getHistogramMinMs()))
+                .maximumExpectedValue(Duration.ofMillis(config.getHistogramMaxMs()))
+                .register(meterRegistry);
+    }
+
+    /**
+     * 单个阶段的计时，只记录第一次 {@link #stop(Outcome)}（响应回调、超时与错误处理可能在不同线程上并发调用）
+     */
+    public final class StageTimer {
+
+        private final Stage stage;
+        private final String apiId;
+        private final long startNanos = System.nanoTime();
+        private final AtomicBoolean stopped;
+
+        private StageTimer(Stage stage, String apiId, boolean stopped) {
+            this.stage = stage;
+            this.apiId = apiId;
+            this.stopped = new AtomicBoolean(stopped);
+        }
+
+        /**
+         * 结束计时并按结果记录
+         */
+        public void stop(Outcome outcome) {
+            if (!stopped.compareAndSet(false, true)) {
+                return;
+            }
+            recordStage(stage, apiId, outcome, startNanos);
+        }
+    }
+
+    /**
+     * 记录阶段耗时的过滤器链包装：下一阶段开始时记录 pass，过滤器自行结束请求时按响应状态记录
+     */
+    private final class StageChain implements GatewayFilterChain {
+
+        private final Stage stage;
+        private final ServerWebExchange exchange;
+        private final GatewayFilterChain delegate;
+        private final long startNanos = System.nanoTime();
+        private boolean recorded;
+
+        private StageChain(Stage stage, ServerWebExchange exchange, GatewayFilterChain delegate) {
+            this.stage = stage;
+            this.exchange = exchange;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Mono<Void> filter(ServerWebExchange next) {
+            if (!recorded) {
+                recorded = true;
+                recordStage(stage, next.getAttribute(OpenApiRouteMatchFilter.ATTR_API_ID), Outcome.PASS, startNanos);
+            }
+            return delegate.filter(next);
+        }
+
+        private void complete(SignalType signal) {
+            if (recorded || signal == SignalType.CANCEL) {
+                return;
+            }
+            recorded = true;
+            Outcome outcome = Outcome.ERROR;
+            if (signal != SignalType.ON_ERROR) {
+                ServerHttpResponse response = exchange.getResponse();
+                Integer status = response.getRawStatusCode();
+                outcome = status != null ? Outcome.ofStatus(status) : Outcome.STATUS_2XX;
+            }
+            recordStage(stage, exchange.getAttribute(OpenApiRouteMatchFilter.ATTR_API_ID), outcome, startNanos);
+        }
+    }
+}
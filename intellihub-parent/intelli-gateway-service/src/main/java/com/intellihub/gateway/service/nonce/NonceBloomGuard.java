@@ -0,0 +1,220 @@
+package com.intellihub.gateway.service.nonce;
+
+import com.intellihub.constants.RedisKeyConstants;
+import com.intellihub.gateway.config.AppKeyConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * 基于布隆过滤器的防重放（Nonce）校验
+ * <p>
+ * 按请求签名中的时间戳分桶（bucket = timestamp / bucketSeconds），每个时间桶一个布隆过滤器：
+ * 1. 共享过滤器：Redis位图 intellihub:nonce:bloom:{bucket}，所有网关实例、所有应用共用，
+ *    在该时间桶内最晚的时间戳也超出允许范围后整体过期
+ * 2. 本地过滤器：{@link RotatingBloomFilter}，本节点见过的重放请求不经Redis直接拒绝
+ * 时间戳超出允许范围的请求在进入本校验前已被拒绝，因此只需保留覆盖允许范围的时间桶，
+ * 内存与请求量无关，只取决于 expectedInsertionsPerBucket 与 falsePositiveRate。
+ * </p>
+ * 误判率：位数 m = -n·ln(p) / (ln2)²，哈希数 k = (m/n)·ln2；时间桶内已有 x 个Nonce时，
+ * 首次出现的Nonce被误判为重复的概率为 (1 - e^(-k·x/m))^k，x 不超过 n 时不超过 p。
+ * 本地与共享过滤器各自独立判定，单个请求被误拒的概率不超过 p_local + p_shared ≤ 2p。
+ * 误判只会拒绝合法请求（客户端换Nonce重试即可），不会放过重放请求。
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class NonceBloomGuard {
+
+    /**
+     * Redis位图最大位数（512MB）
+     */
+    private static final long MAX_REDIS_BITS = 1L << 32;
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    @Getter
+    private final boolean enabled;
+    private final long bucketSeconds;
+    private final long toleranceSeconds;
+    @Getter
+    private final long bitsPerBucket;
+    @Getter
+    private final int hashCount;
+
+    /**
+     * 本地过滤器，未启用时为null
+     */
+    private final RotatingBloomFilter localFilter;
+    private final Counter localRejectCounter;
+
+    public NonceBloomGuard(AppKeyConfig appKeyConfig, MeterRegistry meterRegistry) {
+        AppKeyConfig.NonceGuard config = appKeyConfig.getNonceGuard();
+        this.enabled = config.getMode() == AppKeyConfig.NonceGuardMode.BLOOM;
+        this.bucketSeconds = Math.max(1, config.getBucketSeconds());
+        this.toleranceSeconds = appKeyConfig.getTimestampTolerance();
+        this.bitsPerBucket = optimalBits(config.getExpectedInsertionsPerBucket(), config.getFalsePositiveRate());
+        this.hashCount = optimalHashCount(config.getExpectedInsertionsPerBucket(), bitsPerBucket);
+        this.localFilter = enabled && config.isLocalEnabled()
+                ? new RotatingBloomFilter(liveBuckets(toleranceSeconds, bucketSeconds), bitsPerBucket)
+                : null;
+        this.localRejectCounter = Counter.builder("gateway.nonce.bloom.local.rejected")
+                .description("本地布隆过滤器直接拒绝的重放请求数")
+                .register(meterRegistry);
+        if (enabled) {
+            log.info("Nonce布隆过滤器: bucketSeconds={}, bitsPerBucket={}, hashCount={}, liveBuckets={}, local={}",
+                    bucketSeconds, bitsPerBucket, hashCount, liveBuckets(toleranceSeconds, bucketSeconds),
+                    localFilter != null);
+        }
+    }
+
+    /**
+     * 计算Nonce在时间桶中的位置，并用本地过滤器探测（不置位）
+     *
+     * @param appKey    AppKey
+     * @param nonce     请求Nonce
+     * @param timestamp 请求签名中的时间戳（秒）
+     */
+    public Probe probe(String appKey, String nonce, long timestamp) {
+        long bucket = Math.floorDiv(timestamp, bucketSeconds);
+        long[] offsets = offsets(appKey, nonce, hashCount, bitsPerBucket);
+        boolean localHit = localFilter != null
+                && localFilter.mightContain(bucket, offsets) == RotatingBloomFilter.Result.PROBABLY_PRESENT;
+        if (localHit) {
+            localRejectCounter.increment();
+        }
+        // 时间桶内最晚的时间戳超出允许范围后，位图不再被查询
+        long expireAt = (bucket + 1) * bucketSeconds + toleranceSeconds + 1;
+        return new Probe(bucket, RedisKeyConstants.buildNonceBloomKey(bucket), expireAt, offsets, localHit);
+    }
+
+    /**
+     * 共享过滤器确认Nonce已记录后，在本地过滤器中置位
+     * <p>
+     * Redis不可用时不置位，客户端用同一Nonce重试不会被本地误判为重放
+     * </p>
+     */
+    public void record(Probe probe) {
+        if (localFilter != null) {
+            localFilter.put(probe.getBucket(), probe.getOffsets());
+        }
+    }
+
+    /**
+     * 覆盖时间戳允许范围（±tolerance）所需的时间桶数
+     */
+    public static int liveBuckets(long toleranceSeconds, long bucketSeconds) {
+        return (int) ((2 * toleranceSeconds + bucketSeconds - 1) / bucketSeconds) + 2;
+    }
+
+    /**
+     * 最优位数，按64位对齐
+     *
+     * @param expectedInsertions 预计插入数
+     * @param falsePositiveRate  插入预计数量后的误判率
+     */
+    public static long optimalBits(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Invalid bloom filter config: expectedInsertions="
+                    + expectedInsertions + ", falsePositiveRate=" + falsePositiveRate);
+        }
+        double bits = -expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        long aligned = ((long) Math.ceil(bits) + Long.SIZE - 1) / Long.SIZE * Long.SIZE;
+        if (aligned > MAX_REDIS_BITS) {
+            throw new IllegalArgumentException("Bloom filter exceeds Redis bitmap limit: bits=" + aligned);
+        }
+        return aligned;
+    }
+
+    /**
+     * 最优哈希函数个数
+     */
+    public static int optimalHashCount(long expectedInsertions, long bits) {
+        return Math.max(1, (int) Math.round((double) bits / expectedInsertions * Math.log(2)));
+    }
+
+    /**
+     * 双重哈希生成 k 个位偏移：h1 + i·h2 (mod m)
+     * <p>
+     * 基础哈希为 appKey + ':' + nonce 的 FNV-1a 64位哈希，再经 fmix64 混合
+     * </p>
+     */
+    public static long[] offsets(String appKey, String nonce, int hashCount, long bits) {
+        long hash = FNV_OFFSET_BASIS;
+        hash = fnv1a(hash, appKey);
+        hash = (hash ^ ':') * FNV_PRIME;
+        hash = fnv1a(hash, nonce);
+        long h1 = fmix64(hash);
+        long h2 = fmix64(h1 + GOLDEN_GAMMA) | 1L;
+
+        long[] offsets = new long[hashCount];
+        long combined = h1;
+        for (int i = 0; i < hashCount; i++) {
+            offsets[i] = Long.remainderUnsigned(combined, bits);
+            combined += h2;
+        }
+        return offsets;
+    }
+
+    private static long fnv1a(long hash, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    private static long fmix64(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * 探测结果
+     */
+    @Getter
+    public static final class Probe {
+
+        /**
+         * 时间桶序号
+         */
+        private final long bucket;
+
+        /**
+         * 共享过滤器的Redis Key
+         */
+        private final String redisKey;
+
+        /**
+         * 共享过滤器的过期时刻（秒）
+         */
+        private final long expireAt;
+
+        /**
+         * 位偏移
+         */
+        private final long[] offsets;
+
+        /**
+         * 本地过滤器判定为可能重复
+         */
+        private final boolean localHit;
+
+        private Probe(long bucket, String redisKey, long expireAt, long[] offsets, boolean localHit) {
+            this.bucket = bucket;
+            this.redisKey = redisKey;
+            this.expireAt = expireAt;
+            this.offsets = offsets;
+            this.localHit = localHit;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.intellihub.gateway.service.nonce;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 按时间桶轮换的本地布隆过滤器
+ * <p>
+ * 固定数量的槽位组成环，时间桶 bucket 使用槽位 bucket % bucketCount：
+ * 1. 槽位中是更早的时间桶时，第一个访问者用新的空位图替换（CAS），旧位图整体丢弃
+ * 2. 槽位中已经是更新的时间桶时，说明请求的时间桶已轮换出去，返回未知，由调用方走共享过滤器
+ * 位图按需分配，空闲的槽位不占内存。
+ * 置位无锁：并发插入同一个Nonce时可能都判定为首次出现，由共享过滤器兜底。
+ * </p>
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+public class RotatingBloomFilter {
+
+    /**
+     * 探测结果
+     */
+    public enum Result {
+        /**
+         * 至少有一位此前未置位，一定是首次出现
+         */
+        ABSENT,
+        /**
+         * 所有位此前都已置位，可能是重复
+         */
+        PROBABLY_PRESENT,
+        /**
+         * 时间桶已轮换出去，无法判定
+         */
+        UNKNOWN
+    }
+
+    private final int bucketCount;
+    private final int wordsPerBucket;
+    private final AtomicReferenceArray<Slot> slots;
+
+    /**
+     * @param bucketCount   槽位数，需覆盖时间戳允许范围内的全部时间桶
+     * @param bitsPerBucket 每个时间桶的位数（按64位对齐）
+     */
+    public RotatingBloomFilter(int bucketCount, long bitsPerBucket) {
+        if (bucketCount <= 0 || bitsPerBucket <= 0 || bitsPerBucket > (long) Integer.MAX_VALUE * Long.SIZE) {
+            throw new IllegalArgumentException("Invalid bloom filter size: buckets=" + bucketCount
+                    + ", bits=" + bitsPerBucket);
+        }
+        this.bucketCount = bucketCount;
+        this.wordsPerBucket = (int) ((bitsPerBucket + Long.SIZE - 1) / Long.SIZE);
+        this.slots = new AtomicReferenceArray<>(bucketCount);
+    }
+
+    /**
+     * 置位并返回置位前的状态
+     *
+     * @param bucket  时间桶序号
+     * @param offsets 位偏移，需小于每个时间桶的位数
+     */
+    public Result testAndSet(long bucket, long[] offsets) {
+        Slot slot = slotFor(bucket);
+        if (slot == null) {
+            return Result.UNKNOWN;
+        }
+        AtomicLongArray bits = slot.bits;
+        boolean present = true;
+        for (long offset : offsets) {
+            int word = (int) (offset >>> 6);
+            long mask = 1L << offset;
+            long current = bits.get(word);
+            if ((current & mask) == 0) {
+                present = false;
+                while (!bits.compareAndSet(word, current, current | mask)) {
+                    current = bits.get(word);
+                    if ((current & mask) != 0) {
+                        break;
+                    }
+                }
+            }
+        }
+        return present ? Result.PROBABLY_PRESENT : Result.ABSENT;
+    }
+
+    /**
+     * 只探测不置位，也不分配或轮换槽位
+     *
+     * @param bucket  时间桶序号
+     * @param offsets 位偏移，需小于每个时间桶的位数
+     */
+    public Result mightContain(long bucket, long[] offsets) {
+        Slot slot = slots.get((int) Math.floorMod(bucket, (long) bucketCount));
+        if (slot == null || slot.bucket < bucket) {
+            return Result.ABSENT;
+        }
+        if (slot.bucket > bucket) {
+            return Result.UNKNOWN;
+        }
+        AtomicLongArray bits = slot.bits;
+        for (long offset : offsets) {
+            if ((bits.get((int) (offset >>> 6)) & (1L << offset)) == 0) {
+                return Result.ABSENT;
+            }
+        }
+        return Result.PROBABLY_PRESENT;
+    }
+
+    /**
+     * 置位，时间桶已轮换出去时忽略
+     *
+     * @param bucket  时间桶序号
+     * @param offsets 位偏移，需小于每个时间桶的位数
+     */
+    public void put(long bucket, long[] offsets) {
+        testAndSet(bucket, offsets);
+    }
+
+    /**
+     * 当前已分配位图占用的内存（字节）
+     */
+    public long allocatedBytes() {
+        long bytes = 0;
+        for (int i = 0; i < bucketCount; i++) {
+            if (slots.get(i) != null) {
+                bytes += (long) wordsPerBucket * Long.BYTES;
+            }
+        }
+        return bytes;
+    }
+
+    private Slot slotFor(long bucket) {
+        int index = (int) Math.floorMod(bucket, (long) bucketCount);
+        while (true) {
+            Slot slot = slots.get(index);
+            if (slot != null && slot.bucket == bucket) {
+                return slot;
+            }
+            if (slot != null && slot.bucket > bucket) {
+                return null;
+            }
+            Slot fresh = new Slot(bucket, wordsPerBucket);
+            if (slots.compareAndSet(index, slot, fresh)) {
+                return fresh;
+            }
+        }
+    }
+
+    /**
+     * 一个时间桶的位图
+     */
+    private static final class Slot {
+
+        private final long bucket;
+        private final AtomicLongArray bits;
+
+        private Slot(long bucket, int words) {
+            this.bucket = bucket;
+            this.bits = new AtomicLongArray(words);
+        }
+    }
+}
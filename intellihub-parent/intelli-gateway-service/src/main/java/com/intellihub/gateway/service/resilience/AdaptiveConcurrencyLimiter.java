@@ -0,0 +1,149 @@
+package com.intellihub.gateway.service.resilience;
+
+import com.intellihub.gateway.config.BackendResilienceConfig;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 自适应并发限制（Gradient算法）
+ * <p>
+ * 进行中的调用数达到当前上限时直接拒绝，不在网关内排队。上限在每个采样窗口结束时调整一次：
+ * 1. 长期基线延迟 longRtt 为窗口平均延迟的指数移动平均，短期延迟 shortRtt 为本窗口平均延迟
+ * 2. gradient = clamp(rttTolerance * longRtt / shortRtt, 0.5, 1.0)，延迟上升时按比例收缩
+ * 3. newLimit = limit * gradient + sqrt(limit)，延迟平稳时以 sqrt(limit) 的幅度探测增长
+ * 4. 窗口内最大并发不足上限一半时（调用方不饱和）不调整，避免上限虚高
+ * 5. 按 smoothing 与旧上限加权平滑
+ * 6. 窗口内出现失败或超时时至少按 backoffRatio 乘性收缩（AIMD），不做平滑
+ * 结果限制在 [minLimit, maxLimit]
+ * </p>
+ * 短期延迟远低于基线（后端恢复）时基线加速衰减，上限随之回升。
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final BackendResilienceConfig.Concurrency config;
+    private final long sampleWindowNanos;
+
+    private final AtomicInteger inflight = new AtomicInteger();
+    private volatile double limit;
+
+    /**
+     * 长期基线延迟（纳秒），只在窗口切换的线程内更新
+     */
+    private double longRtt;
+
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private final LongAdder windowRttSum = new LongAdder();
+    private final LongAdder windowSamples = new LongAdder();
+    private final AtomicInteger windowMaxInflight = new AtomicInteger();
+    private final AtomicBoolean windowDropped = new AtomicBoolean();
+
+    public AdaptiveConcurrencyLimiter(BackendResilienceConfig.Concurrency config) {
+        this.config = config;
+        this.sampleWindowNanos = config.getSampleWindowMs() * 1_000_000L;
+        this.limit = clamp(config.getInitialLimit());
+    }
+
+    /**
+     * 获取并发名额
+     *
+     * @return 已达上限时返回false
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inflight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                windowMaxInflight.accumulateAndGet(current + 1, Math::max);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 归还并发名额（与 {@link #tryAcquire()} 成对调用）
+     */
+    public void release() {
+        inflight.decrementAndGet();
+    }
+
+    /**
+     * 记录一次调用的延迟
+     *
+     * @param rttNanos 调用耗时（纳秒）
+     * @param dropped  是否失败或超时
+     */
+    public void onSample(long rttNanos, boolean dropped) {
+        if (dropped) {
+            windowDropped.set(true);
+        } else {
+            windowRttSum.add(rttNanos);
+            windowSamples.increment();
+        }
+
+        long now = System.nanoTime();
+        long start = windowStart.get();
+        if (now - start < sampleWindowNanos) {
+            return;
+        }
+        long samples = windowSamples.sum();
+        boolean didDrop = windowDropped.get();
+        if (samples < config.getMinSamples() && !didDrop) {
+            return;
+        }
+        if (!windowStart.compareAndSet(start, now)) {
+            return;
+        }
+        long rttSum = windowRttSum.sumThenReset();
+        samples = windowSamples.sumThenReset();
+        int maxInflight = windowMaxInflight.getAndSet(inflight.get());
+        windowDropped.set(false);
+        update(samples > 0 ? (double) rttSum / samples : 0, maxInflight, didDrop);
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+
+    private void update(double shortRtt, int maxInflight, boolean didDrop) {
+        double currentLimit = limit;
+        double newLimit = currentLimit;
+        if (shortRtt > 0) {
+            if (longRtt == 0) {
+                longRtt = shortRtt;
+            } else {
+                longRtt += (shortRtt - longRtt) / Math.max(1, config.getLongWindow());
+                if (longRtt / shortRtt > 2) {
+                    // 后端延迟明显下降，基线快速跟随
+                    longRtt *= 0.95;
+                }
+            }
+            if (maxInflight >= currentLimit / 2 || didDrop) {
+                double gradient = Math.max(0.5, Math.min(1.0, config.getRttTolerance() * longRtt / shortRtt));
+                newLimit = currentLimit * gradient + Math.sqrt(currentLimit);
+            }
+        }
+        double smoothing = config.getSmoothing();
+        newLimit = currentLimit * (1 - smoothing) + newLimit * smoothing;
+        if (didDrop) {
+            // 失败或超时时的收缩不做平滑，尽快减压
+            newLimit = Math.min(newLimit, currentLimit * config.getBackoffRatio());
+        }
+        limit = clamp(newLimit);
+    }
+
+    private double clamp(double value) {
+        return Math.max(config.getMinLimit(), Math.min(config.getMaxLimit(), value));
+    }
+}
@@ -0,0 +1,247 @@
+package com.intellihub.gateway.service.resilience;
+
+import com.intellihub.gateway.config.BackendResilienceConfig;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * 后端熔断器
+ * <p>
+ * 按秒分桶的滑动窗口统计调用数、失败数和慢调用数：
+ * 1. CLOSED：正常放行；窗口内调用数达到 minimumCalls 且失败率或慢调用率达到阈值时熔断
+ * 2. OPEN：直接拒绝，openDurationMs 到期后第一个请求把状态切换为半开
+ * 3. HALF_OPEN：只放行 halfOpenPermittedCalls 个探测调用，全部完成后按同样的阈值决定关闭或重新熔断；
+ *    探测调用被取消时归还名额
+ * </p>
+ * 分桶计数无锁，跨桶边界时个别计数可能丢失，统计结果为近似值。
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+public class BackendCircuitBreaker {
+
+    private static final long BUCKET_MILLIS = 1000;
+
+    /**
+     * 熔断状态
+     */
+    public enum State {
+        CLOSED(0), HALF_OPEN(1), OPEN(2);
+
+        private final int code;
+
+        State(int code) {
+            this.code = code;
+        }
+
+        /**
+         * 指标中的状态值
+         */
+        public int getCode() {
+            return code;
+        }
+    }
+
+    /**
+     * 获取调用许可的结果
+     */
+    public enum Permission {
+        /**
+         * 已熔断，拒绝调用
+         */
+        REJECTED,
+        /**
+         * 正常调用
+         */
+        PERMITTED,
+        /**
+         * 半开状态的探测调用
+         */
+        PROBE
+    }
+
+    private final BackendResilienceConfig.CircuitBreaker config;
+    private final Consumer<State> transitionListener;
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private volatile long openUntilMillis;
+
+    private final int bucketCount;
+    private final AtomicLongArray bucketEpochs;
+    private final AtomicLongArray bucketCalls;
+    private final AtomicLongArray bucketFailures;
+    private final AtomicLongArray bucketSlowCalls;
+
+    private final AtomicInteger probePermits = new AtomicInteger();
+    private final AtomicInteger probeCalls = new AtomicInteger();
+    private final AtomicInteger probeFailures = new AtomicInteger();
+    private final AtomicInteger probeSlowCalls = new AtomicInteger();
+
+    /**
+     * @param config             熔断配置
+     * @param transitionListener 状态切换回调（新状态），在切换成功的线程上调用
+     */
+    public BackendCircuitBreaker(BackendResilienceConfig.CircuitBreaker config, Consumer<State> transitionListener) {
+        this.config = config;
+        this.transitionListener = transitionListener;
+        this.bucketCount = Math.max(1, config.getWindowSeconds());
+        this.bucketEpochs = new AtomicLongArray(bucketCount);
+        this.bucketCalls = new AtomicLongArray(bucketCount);
+        this.bucketFailures = new AtomicLongArray(bucketCount);
+        this.bucketSlowCalls = new AtomicLongArray(bucketCount);
+        resetWindow();
+    }
+
+    /**
+     * 获取调用许可
+     */
+    public Permission tryAcquire() {
+        State current = state.get();
+        if (current == State.CLOSED) {
+            return Permission.PERMITTED;
+        }
+        if (current == State.OPEN) {
+            if (System.currentTimeMillis() < openUntilMillis) {
+                return Permission.REJECTED;
+            }
+            if (state.compareAndSet(State.OPEN, State.HALF_OPEN)) {
+                probeCalls.set(0);
+                probeFailures.set(0);
+                probeSlowCalls.set(0);
+                probePermits.set(Math.max(1, config.getHalfOpenPermittedCalls()));
+                transitionListener.accept(State.HALF_OPEN);
+            }
+        }
+        while (true) {
+            int permits = probePermits.get();
+            if (permits <= 0) {
+                return Permission.REJECTED;
+            }
+            if (probePermits.compareAndSet(permits, permits - 1)) {
+                return Permission.PROBE;
+            }
+        }
+    }
+
+    /**
+     * 记录调用结果
+     *
+     * @param permission    获取许可时的结果
+     * @param failed        是否失败
+     * @param latencyMillis 调用耗时（毫秒）
+     */
+    public void onResult(Permission permission, boolean failed, long latencyMillis) {
+        boolean slow = latencyMillis >= config.getSlowCallDurationMs();
+        if (permission == Permission.PROBE) {
+            onProbeResult(failed, slow);
+            return;
+        }
+        long epoch = System.currentTimeMillis() / BUCKET_MILLIS;
+        int index = bucketIndex(epoch);
+        bucketCalls.incrementAndGet(index);
+        if (failed) {
+            bucketFailures.incrementAndGet(index);
+        }
+        if (slow) {
+            bucketSlowCalls.incrementAndGet(index);
+        }
+        if ((failed || slow) && state.get() == State.CLOSED && isWindowTripped(epoch)) {
+            transitionToOpen(State.CLOSED);
+        }
+    }
+
+    /**
+     * 调用被取消或未到达后端，不计入统计；探测调用归还名额
+     */
+    public void onIgnored(Permission permission) {
+        if (permission == Permission.PROBE && state.get() == State.HALF_OPEN) {
+            probePermits.incrementAndGet();
+        }
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    /**
+     * 距离进入半开状态的剩余时间（毫秒），非熔断状态返回0
+     */
+    public long getRemainingOpenMillis() {
+        if (state.get() != State.OPEN) {
+            return 0;
+        }
+        return Math.max(0, openUntilMillis - System.currentTimeMillis());
+    }
+
+    private void onProbeResult(boolean failed, boolean slow) {
+        if (state.get() != State.HALF_OPEN) {
+            return;
+        }
+        int failures = failed ? probeFailures.incrementAndGet() : probeFailures.get();
+        int slowCalls = slow ? probeSlowCalls.incrementAndGet() : probeSlowCalls.get();
+        int calls = probeCalls.incrementAndGet();
+        if (calls < Math.max(1, config.getHalfOpenPermittedCalls())) {
+            return;
+        }
+        if (exceedsThreshold(calls, failures, slowCalls)) {
+            transitionToOpen(State.HALF_OPEN);
+        } else {
+            resetWindow();
+            if (state.compareAndSet(State.HALF_OPEN, State.CLOSED)) {
+                transitionListener.accept(State.CLOSED);
+            }
+        }
+    }
+
+    private void transitionToOpen(State from) {
+        openUntilMillis = System.currentTimeMillis() + config.getOpenDurationMs();
+        if (state.compareAndSet(from, State.OPEN)) {
+            probePermits.set(0);
+            transitionListener.accept(State.OPEN);
+        }
+    }
+
+    private boolean isWindowTripped(long epoch) {
+        long calls = 0;
+        long failures = 0;
+        long slowCalls = 0;
+        for (int i = 0; i < bucketCount; i++) {
+            if (epoch - bucketEpochs.get(i) < bucketCount) {
+                calls += bucketCalls.get(i);
+                failures += bucketFailures.get(i);
+                slowCalls += bucketSlowCalls.get(i);
+            }
+        }
+        return calls >= config.getMinimumCalls() && exceedsThreshold(calls, failures, slowCalls);
+    }
+
+    private boolean exceedsThreshold(long calls, long failures, long slowCalls) {
+        return failures * 100 >= (long) config.getFailureRateThreshold() * calls
+                || slowCalls * 100 >= (long) config.getSlowCallRateThreshold() * calls;
+    }
+
+    /**
+     * 定位当前秒的分桶，桶属于更早的秒时先清零
+     */
+    private int bucketIndex(long epoch) {
+        int index = (int) (epoch % bucketCount);
+        long bucketEpoch = bucketEpochs.get(index);
+        if (bucketEpoch != epoch && bucketEpochs.compareAndSet(index, bucketEpoch, epoch)) {
+            bucketCalls.set(index, 0);
+            bucketFailures.set(index, 0);
+            bucketSlowCalls.set(index, 0);
+        }
+        return index;
+    }
+
+    private void resetWindow() {
+        for (int i = 0; i < bucketCount; i++) {
+            bucketEpochs.set(i, Long.MIN_VALUE / 2);
+            bucketCalls.set(i, 0);
+            bucketFailures.set(i, 0);
+            bucketSlowCalls.set(i, 0);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.intellihub.gateway.service.resilience;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 一次后端调用的许可
+ * <p>
+ * 由 {@link com.intellihub.gateway.service.BackendResilienceRegistry#acquire} 获取：
+ * 拿到后端响应（或失败）时调用 {@link #onResult} 记录结果和延迟，调用结束时调用 {@link #release} 归还并发名额。
+ * 两者各只生效一次；未记录结果就释放（如客户端取消）时不计入熔断统计。
+ * </p>
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+public class BackendPermit {
+
+    private final BackendCircuitBreaker circuitBreaker;
+    private final BackendCircuitBreaker.Permission permission;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final long startNanos = System.nanoTime();
+    private final AtomicBoolean resultRecorded = new AtomicBoolean();
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    /**
+     * @param circuitBreaker 熔断器，未启用时为null
+     * @param permission     熔断器许可
+     * @param limiter        并发限制，未启用时为null
+     */
+    public BackendPermit(BackendCircuitBreaker circuitBreaker, BackendCircuitBreaker.Permission permission,
+                  AdaptiveConcurrencyLimiter limiter) {
+        this.circuitBreaker = circuitBreaker;
+        this.permission = permission;
+        this.limiter = limiter;
+    }
+
+    /**
+     * 不做任何限制的许可（未启用熔断与并发限制时使用）
+     */
+    public static BackendPermit noop() {
+        return new BackendPermit(null, BackendCircuitBreaker.Permission.PERMITTED, null);
+    }
+
+    /**
+     * 记录调用结果，耗时从获取许可开始计算
+     *
+     * @param failed 是否失败（异常、超时或5xx）
+     */
+    public void onResult(boolean failed) {
+        if (!resultRecorded.compareAndSet(false, true)) {
+            return;
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+        if (circuitBreaker != null) {
+            circuitBreaker.onResult(permission, failed, TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        }
+        if (limiter != null) {
+            limiter.onSample(elapsedNanos, failed);
+        }
+    }
+
+    /**
+     * 调用结束，归还并发名额
+     */
+    public void release() {
+        if (!released.compareAndSet(false, true)) {
+            return;
+        }
+        if (resultRecorded.compareAndSet(false, true) && circuitBreaker != null) {
+            circuitBreaker.onIgnored(permission);
+        }
+        if (limiter != null) {
+            limiter.release();
+        }
+    }
+}
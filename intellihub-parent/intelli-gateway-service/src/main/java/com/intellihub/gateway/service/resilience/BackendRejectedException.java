@@ -0,0 +1,37 @@
+package com.intellihub.gateway.service.resilience;
+
+import lombok.Getter;
+
+/**
+ * 后端已熔断或并发达到自适应上限，请求在转发前被拒绝
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+@Getter
+public class BackendRejectedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 拒绝原因
+     */
+    public enum Reason {
+        CIRCUIT_OPEN, CONCURRENCY_LIMIT
+    }
+
+    private final String backend;
+    private final Reason reason;
+
+    /**
+     * 建议客户端重试的等待时间（秒）
+     */
+    private final long retryAfterSeconds;
+
+    public BackendRejectedException(String backend, Reason reason, long retryAfterSeconds) {
+        super("后端请求被拒绝: backend=" + backend + ", reason=" + reason, null, false, false);
+        this.backend = backend;
+        this.reason = reason;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
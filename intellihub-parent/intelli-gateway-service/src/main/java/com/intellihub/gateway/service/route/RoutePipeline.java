@@ -0,0 +1,107 @@
+package com.intellihub.gateway.service.route;
+
+import com.intellihub.dubbo.ApiRouteDTO;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 路由处理管道（已编译）
+ * <p>
+ * 加载路由时按路由配置（认证方式、限流、Mock、后端类型、参数绑定等）筛选出需要的阶段，
+ * 请求时依次执行；最后一个阶段调用 chain.filter 时回到网关过滤器链。
+ * 管道不可变，路由更新后整体替换
+ * </p>
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+public final class RoutePipeline {
+
+    /**
+     * 编译时的路由对象，null表示未匹配到路由的管道
+     */
+    private final ApiRouteDTO route;
+    private final RouteStage[] stages;
+
+    private RoutePipeline(ApiRouteDTO route, RouteStage[] stages) {
+        this.route = route;
+        this.stages = stages;
+    }
+
+    /**
+     * 编译路由处理管道
+     *
+     * @param route  API路由配置，null表示未匹配到路由的请求
+     * @param stages 全部阶段（已按顺序排序）
+     */
+    public static RoutePipeline compile(ApiRouteDTO route, List<RouteStage> stages) {
+        List<RouteStage> required = new ArrayList<>(stages.size());
+        for (RouteStage stage : stages) {
+            if (stage.isRequired(route)) {
+                required.add(stage);
+            }
+        }
+        return new RoutePipeline(route, required.toArray(new RouteStage[0]));
+    }
+
+    /**
+     * 执行管道
+     *
+     * @param exchange 当前请求
+     * @param chain    网关过滤器链，全部阶段通过后继续执行
+     */
+    public Mono<Void> execute(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (stages.length == 0) {
+            return chain.filter(exchange);
+        }
+        return stages[0].filter(exchange, new StageChain(stages, 1, chain));
+    }
+
+    public ApiRouteDTO getRoute() {
+        return route;
+    }
+
+    public int size() {
+        return stages.length;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < stages.length; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(stages[i].getClass().getSimpleName());
+        }
+        return builder.append(']').toString();
+    }
+
+    /**
+     * 阶段链：index 指向下一个要执行的阶段
+     */
+    private static final class StageChain implements GatewayFilterChain {
+
+        private final RouteStage[] stages;
+        private final int index;
+        private final GatewayFilterChain next;
+
+        private StageChain(RouteStage[] stages, int index, GatewayFilterChain next) {
+            this.stages = stages;
+            this.index = index;
+            this.next = next;
+        }
+
+        @Override
+        public Mono<Void> filter(ServerWebExchange exchange) {
+            if (index >= stages.length) {
+                return next.filter(exchange);
+            }
+            return stages[index].filter(exchange, new StageChain(stages, index + 1, next));
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.intellihub.gateway.service.route;
+
+import com.intellihub.dubbo.ApiRouteDTO;
+import com.intellihub.gateway.service.OpenApiRouteService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.AnnotationAwareOrderComparator;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 路由处理管道注册表
+ * <p>
+ * 按 apiId 保存已编译的路由处理管道：
+ * 1. 启动完成后为所有已加载的路由编译管道，之后新加载的路由在首次请求时编译
+ * 2. 路由重新加载后 {@link ApiRouteDTO} 对象会变化，管道记录编译时的路由对象，不一致即重新编译并整体替换，
+ *    进行中的请求继续使用旧管道
+ * 3. API下线、删除时由路由变更监听器移除
+ * 未匹配到路由的请求使用同一个预编译的管道
+ * </p>
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class RoutePipelineRegistry {
+
+    private final List<RouteStage> stages;
+    private final OpenApiRouteService routeService;
+
+    /**
+     * apiId -> 路由处理管道
+     */
+    private final Map<String, RoutePipeline> pipelines = new ConcurrentHashMap<>();
+
+    /**
+     * 未匹配到路由的请求使用的管道
+     */
+    private final RoutePipeline unmatchedPipeline;
+
+    /**
+     * 构造函数，注入所有处理阶段并按顺序排序
+     *
+     * @param stages       处理阶段列表（Spring自动注入所有实现类）
+     * @param routeService 开放API路由服务
+     */
+    public RoutePipelineRegistry(List<RouteStage> stages, OpenApiRouteService routeService) {
+        List<RouteStage> sorted = new ArrayList<>(stages);
+        AnnotationAwareOrderComparator.sort(sorted);
+        this.stages = sorted;
+        this.routeService = routeService;
+        this.unmatchedPipeline = RoutePipeline.compile(null, sorted);
+        log.info("初始化路由处理阶段: {}, 未匹配路由管道: {}",
+                sorted.stream().map(s -> s.getClass().getSimpleName()).collect(Collectors.toList()), unmatchedPipeline);
+    }
+
+    /**
+     * 启动完成后为已加载的路由编译管道
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmup() {
+        for (ApiRouteDTO route : routeService.getRoutes()) {
+            getPipeline(route);
+        }
+        log.info("[RoutePipelineRegistry] 路由处理管道编译完成: pipelines={}", pipelines.size());
+    }
+
+    /**
+     * 获取路由的处理管道，尚未编译或路由已重新加载时编译
+     *
+     * @param route API路由配置，null表示未匹配到路由
+     * @return 路由处理管道
+     */
+    public RoutePipeline getPipeline(ApiRouteDTO route) {
+        if (route == null) {
+            return unmatchedPipeline;
+        }
+        String apiId = route.getApiId();
+        RoutePipeline pipeline = apiId != null ? pipelines.get(apiId) : null;
+        if (pipeline != null && pipeline.getRoute() == route) {
+            return pipeline;
+        }
+        pipeline = RoutePipeline.compile(route, stages);
+        if (apiId != null) {
+            pipelines.put(apiId, pipeline);
+        }
+        log.debug("[RoutePipelineRegistry] 编译路由处理管道: apiId={}, stages={}", apiId, pipeline);
+        return pipeline;
+    }
+
+    /**
+     * 移除指定API的处理管道
+     */
+    public void remove(String apiId) {
+        if (apiId != null) {
+            pipelines.remove(apiId);
+        }
+    }
+
+    /**
+     * 清空全部处理管道
+     */
+    public void clear() {
+        pipelines.clear();
+    }
+
+    public int size() {
+        return pipelines.size();
+    }
+}
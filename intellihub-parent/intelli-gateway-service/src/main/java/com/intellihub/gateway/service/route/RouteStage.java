@@ -0,0 +1,32 @@
+package com.intellihub.gateway.service.route;
+
+import com.intellihub.dubbo.ApiRouteDTO;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.Ordered;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * 开放API路由处理阶段
+ * <p>
+ * 加载路由时由 {@link RoutePipelineRegistry} 调用 {@link #isRequired} 判定一次，
+ * 路由不需要的阶段不进入该路由的处理管道，请求时不再调用；阶段按 {@link #getOrder()} 排序执行
+ * </p>
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+public interface RouteStage extends Ordered {
+
+    /**
+     * 路由是否需要本阶段
+     *
+     * @param route API路由配置，null表示未匹配到路由的请求（包括非开放API请求）
+     */
+    boolean isRequired(ApiRouteDTO route);
+
+    /**
+     * 处理请求，调用 chain.filter 进入下一阶段
+     */
+    Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain);
+}
@@ -0,0 +1,141 @@
+package com.intellihub.gateway.util;
+
+import org.springframework.http.server.reactive.ServerHttpRequest;
+
+import java.net.InetSocketAddress;
+
+/**
+ * 客户端IP解析工具
+ * <p>
+ * RateLimitFilter 与 RouteRateLimitFilter 共用，保证两处限流Key中的IP一致
+ * </p>
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+public final class ClientIpUtil {
+
+    private ClientIpUtil() {
+        // 禁止实例化
+    }
+
+    /**
+     * 获取客户端真实IP（增强版，限流使用）
+     * <p>
+     * 改进：
+     * 1. 支持更多代理头
+     * 2. IP格式校验
+     * 3. 内网IP过滤
+     * 4. 从X-Forwarded-For取最后一个非内网IP
+     * </p>
+     */
+    public static String getClientIp(ServerHttpRequest request) {
+        String ip = null;
+        
+        // 1. 尝试从各种Header获取
+        String[] headerNames = {
+            "X-Forwarded-For", 
+            "X-Real-IP", 
+            "Proxy-Client-IP", 
+            "WL-Proxy-Client-IP",
+            "HTTP_CLIENT_IP",
+            "HTTP_X_FORWARDED_FOR"
+        };
+        
+        for (String headerName : headerNames) {
+            String headerValue = request.getHeaders().getFirst(headerName);
+            if (isValidIp(headerValue)) {
+                ip = headerValue;
+                break;
+            }
+        }
+        
+        // 2. 如果Header中没有，从RemoteAddress获取
+        if (!isValidIp(ip)) {
+            InetSocketAddress remoteAddress = request.getRemoteAddress();
+            if (remoteAddress != null && remoteAddress.getAddress() != null) {
+                ip = remoteAddress.getAddress().getHostAddress();
+            }
+        }
+        
+        // 3. X-Forwarded-For可能有多个IP，取最后一个可信代理的前一个
+        if (ip != null && ip.contains(",")) {
+            String[] ips = ip.split(",");
+            // 从后向前找第一个非内网IP
+            for (int i = ips.length - 1; i >= 0; i--) {
+                String candidateIp = ips[i].trim();
+                if (isValidIp(candidateIp) && !isInternalIp(candidateIp)) {
+                    ip = candidateIp;
+                    break;
+                }
+            }
+            // 如果都是内网IP，取第一个
+            if (ip.contains(",")) {
+                ip = ips[0].trim();
+        }
+        }
+        
+        // 4. 最终校验
+        if (!isValidIp(ip)) {
+            ip = "unknown";
+        }
+        
+        return ip;
+    }
+
+    /**
+     * 校验IP格式是否有效
+     */
+    private static boolean isValidIp(String ip) {
+        if (ip == null || ip.isEmpty() || "unknown".equalsIgnoreCase(ip)) {
+            return false;
+        }
+        
+        // 简单的IP格式校验（支持IPv4和IPv6）
+        // IPv4: xxx.xxx.xxx.xxx
+        if (ip.matches("^([0-9]{1,3}\\.){3}[0-9]{1,3}$")) {
+            // 进一步校验每段不超过255
+            String[] parts = ip.split("\\.");
+            for (String part : parts) {
+                int value = Integer.parseInt(part);
+                if (value < 0 || value > 255) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        
+        // IPv6: 包含冒号
+        if (ip.contains(":")) {
+            // 简单判断，不做严格校验
+            return true;
+        }
+        
+        return false;
+    }
+
+    /**
+     * 判断是否是内网IP
+     */
+    private static boolean isInternalIp(String ip) {
+        if (ip == null || ip.isEmpty()) {
+            return false;
+        }
+        
+        // IPv4内网地址段
+        return ip.startsWith("10.") || 
+               ip.startsWith("192.168.") || 
+               ip.startsWith("172.16.") || ip.startsWith("172.17.") || 
+               ip.startsWith("172.18.") || ip.startsWith("172.19.") || 
+               ip.startsWith("172.20.") || ip.startsWith("172.21.") || 
+               ip.startsWith("172.22.") || ip.startsWith("172.23.") || 
+               ip.startsWith("172.24.") || ip.startsWith("172.25.") || 
+               ip.startsWith("172.26.") || ip.startsWith("172.27.") || 
+               ip.startsWith("172.28.") || ip.startsWith("172.29.") || 
+               ip.startsWith("172.30.") || ip.startsWith("172.31.") || 
+               ip.equals("127.0.0.1") || 
+               ip.equals("localhost") ||
+               ip.equals("0:0:0:0:0:0:0:1") ||
+               ip.equals("::1");
+    }
+}
@@ -0,0 +1,244 @@
+package com.intellihub.gateway.util;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 开放API签名校验器（每个AppSecret一个实例，线程安全）
+ * <p>
+ * 签名算法与 SignatureUtil 一致：Base64(HMAC-SHA256(METHOD + path + timestamp + nonce, appSecret))
+ * 1. SecretKeySpec 在创建时生成一次，已初始化的 Mac 放入固定大小的无锁池中复用，不再逐请求 getInstance/init
+ * 2. 待签名数据直接写入线程私有的字节缓冲区（ASCII快速路径），摘要写入线程私有数组
+ * 3. 客户端签名按Base64解码到线程私有数组后用 {@link MessageDigest#isEqual} 比较，比较耗时与签名内容无关
+ * 稳定状态下校验过程不分配对象。
+ * </p>
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+public final class HmacSignatureVerifier {
+
+    private static final String HMAC_SHA256 = "HmacSHA256";
+
+    /**
+     * HMAC-SHA256 摘要长度（字节）
+     */
+    private static final int DIGEST_LENGTH = 32;
+
+    /**
+     * 32字节摘要的Base64长度（含1个填充字符）
+     */
+    private static final int SIGNATURE_LENGTH = 44;
+
+    /**
+     * Mac池大小，超过时多出的Mac直接丢弃
+     */
+    private static final int POOL_SIZE = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+
+    private static final int[] BASE64_DECODE = new int[128];
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    static {
+        Arrays.fill(BASE64_DECODE, -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+        for (int i = 0; i < alphabet.length(); i++) {
+            BASE64_DECODE[alphabet.charAt(i)] = i;
+        }
+    }
+
+    /**
+     * 未配置AppSecret时使用的校验器，任何签名都不通过
+     */
+    private static final HmacSignatureVerifier REJECT_ALL = new HmacSignatureVerifier(null);
+
+    /**
+     * 为null表示未配置AppSecret
+     */
+    private final SecretKeySpec keySpec;
+    private final AtomicReferenceArray<Mac> macPool = new AtomicReferenceArray<>(POOL_SIZE);
+
+    private HmacSignatureVerifier(SecretKeySpec keySpec) {
+        this.keySpec = keySpec;
+    }
+
+    /**
+     * 为AppSecret创建校验器
+     * <p>
+     * AppSecret为空时返回拒绝所有签名的校验器：空密钥的HMAC任何人都能计算，不能作为认证依据
+     * </p>
+     */
+    public static HmacSignatureVerifier forSecret(String appSecret) {
+        if (appSecret == null || appSecret.isEmpty()) {
+            return REJECT_ALL;
+        }
+        return new HmacSignatureVerifier(new SecretKeySpec(appSecret.getBytes(StandardCharsets.UTF_8), HMAC_SHA256));
+    }
+
+    /**
+     * 校验签名
+     *
+     * @param signature 客户端签名（Base64）
+     * @param method    请求方法
+     * @param path      请求路径
+     * @param timestamp 时间戳
+     * @param nonce     随机数
+     * @return 是否验证通过
+     */
+    public boolean verify(String signature, String method, String path, String timestamp, String nonce) {
+        if (keySpec == null) {
+            return false;
+        }
+        Scratch scratch = SCRATCH.get();
+        if (!decodeSignature(signature, scratch.provided)) {
+            return false;
+        }
+
+        scratch.length = 0;
+        appendUpperCase(scratch, method);
+        append(scratch, path);
+        append(scratch, timestamp);
+        append(scratch, nonce);
+
+        Mac mac = acquire();
+        try {
+            mac.update(scratch.data, 0, scratch.length);
+            mac.doFinal(scratch.expected, 0);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("签名计算失败", e);
+        } finally {
+            release(mac);
+        }
+        return MessageDigest.isEqual(scratch.expected, scratch.provided);
+    }
+
+    private Mac acquire() {
+        for (int i = 0; i < POOL_SIZE; i++) {
+            Mac mac = macPool.getAndSet(i, null);
+            if (mac != null) {
+                return mac;
+            }
+        }
+        try {
+            Mac mac = Mac.getInstance(HMAC_SHA256);
+            mac.init(keySpec);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("初始化HMAC失败", e);
+        }
+    }
+
+    private void release(Mac mac) {
+        // doFinal 已重置Mac状态，异常时也重置一次再放回
+        mac.reset();
+        for (int i = 0; i < POOL_SIZE; i++) {
+            if (macPool.compareAndSet(i, null, mac)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 解码Base64签名，只接受32字节摘要的标准编码（44个字符，末尾1个填充）
+     */
+    private static boolean decodeSignature(String signature, byte[] out) {
+        if (signature == null || signature.length() != SIGNATURE_LENGTH
+                || signature.charAt(SIGNATURE_LENGTH - 1) != '=') {
+            return false;
+        }
+        int outPos = 0;
+        int i = 0;
+        // 前40个字符为10个完整分组，共30字节
+        for (; i < SIGNATURE_LENGTH - 4; i += 4) {
+            int b0 = decodeChar(signature.charAt(i));
+            int b1 = decodeChar(signature.charAt(i + 1));
+            int b2 = decodeChar(signature.charAt(i + 2));
+            int b3 = decodeChar(signature.charAt(i + 3));
+            if ((b0 | b1 | b2 | b3) < 0) {
+                return false;
+            }
+            int bits = b0 << 18 | b1 << 12 | b2 << 6 | b3;
+            out[outPos++] = (byte) (bits >> 16);
+            out[outPos++] = (byte) (bits >> 8);
+            out[outPos++] = (byte) bits;
+        }
+        // 最后一组 xxx= 为2字节
+        int b0 = decodeChar(signature.charAt(i));
+        int b1 = decodeChar(signature.charAt(i + 1));
+        int b2 = decodeChar(signature.charAt(i + 2));
+        // 末位字符的低2位为填充位，必须为0（与规范编码一致）
+        if ((b0 | b1 | b2) < 0 || (b2 & 0x3) != 0) {
+            return false;
+        }
+        int bits = b0 << 18 | b1 << 12 | b2 << 6;
+        out[outPos++] = (byte) (bits >> 16);
+        out[outPos] = (byte) (bits >> 8);
+        return true;
+    }
+
+    private static int decodeChar(char c) {
+        return c < 128 ? BASE64_DECODE[c] : -1;
+    }
+
+    private static void appendUpperCase(Scratch scratch, String value) {
+        if (value == null) {
+            append(scratch, "null");
+            return;
+        }
+        scratch.ensureCapacity(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= 0x80) {
+                // 非ASCII方法名按原实现处理
+                scratch.length -= i;
+                appendBytes(scratch, value.toUpperCase().getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            scratch.data[scratch.length++] = (byte) (c >= 'a' && c <= 'z' ? c - 32 : c);
+        }
+    }
+
+    private static void append(Scratch scratch, String value) {
+        // 与字符串拼接保持一致：null 拼接为 "null"
+        String text = value != null ? value : "null";
+        scratch.ensureCapacity(text.length());
+        int start = scratch.length;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= 0x80) {
+                // 非ASCII字符（如未编码的中文路径）回退为UTF-8编码
+                scratch.length = start;
+                appendBytes(scratch, text.getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            scratch.data[scratch.length++] = (byte) c;
+        }
+    }
+
+    private static void appendBytes(Scratch scratch, byte[] bytes) {
+        scratch.ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, scratch.data, scratch.length, bytes.length);
+        scratch.length += bytes.length;
+    }
+
+    /**
+     * 线程私有的缓冲区
+     */
+    private static final class Scratch {
+        byte[] data = new byte[512];
+        int length;
+        final byte[] expected = new byte[DIGEST_LENGTH];
+        final byte[] provided = new byte[DIGEST_LENGTH];
+
+        void ensureCapacity(int additional) {
+            if (length + additional > data.length) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, length + additional));
+            }
+        }
+    }
+}
@@ -0,0 +1,446 @@
+package com.intellihub.gateway.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * 预编译的IP白名单匹配器（不可变、线程安全）
+ * <p>
+ * 白名单（逗号分隔）在加载时编译一次，请求时只做查找：
+ * 1. 精确IP：原始字符串放入哈希集合，命中即返回
+ * 2. IPv4/IPv6地址、CIDR、末尾通配（如 192.168.1.*）：转换为地址区间，排序合并后二分查找
+ * 3. 其他通配写法（如 192.*.1.1）：保持原有正则语义，编译一次后逐条匹配
+ * 除第3类外，匹配过程不分配对象。
+ * </p>
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+@Slf4j
+public final class IpWhitelistMatcher {
+
+    /**
+     * 未配置白名单：不限制
+     */
+    public static final IpWhitelistMatcher UNRESTRICTED = new IpWhitelistMatcher(true,
+            Collections.<String>emptySet(), new long[0], new long[0], new long[0], new long[0], new long[0], new long[0],
+            Collections.<Pattern>emptyList());
+
+    private static final long IPV4_MAX = 0xFFFFFFFFL;
+
+    /**
+     * IPv6解析用的线程私有暂存区，避免每次匹配分配数组
+     */
+    private static final ThreadLocal<Ipv6Scratch> SCRATCH = ThreadLocal.withInitial(Ipv6Scratch::new);
+
+    private final boolean unrestricted;
+    private final Set<String> exactEntries;
+    private final long[] v4Starts;
+    private final long[] v4Ends;
+    private final long[] v6StartHi;
+    private final long[] v6StartLo;
+    private final long[] v6EndHi;
+    private final long[] v6EndLo;
+    private final List<Pattern> patterns;
+
+    private IpWhitelistMatcher(boolean unrestricted, Set<String> exactEntries,
+                               long[] v4Starts, long[] v4Ends,
+                               long[] v6StartHi, long[] v6StartLo, long[] v6EndHi, long[] v6EndLo,
+                               List<Pattern> patterns) {
+        this.unrestricted = unrestricted;
+        this.exactEntries = exactEntries;
+        this.v4Starts = v4Starts;
+        this.v4Ends = v4Ends;
+        this.v6StartHi = v6StartHi;
+        this.v6StartLo = v6StartLo;
+        this.v6EndHi = v6EndHi;
+        this.v6EndLo = v6EndLo;
+        this.patterns = patterns;
+    }
+
+    /**
+     * 编译白名单
+     *
+     * @param ipWhitelist 逗号分隔的白名单，支持精确IP、CIDR（IPv4/IPv6）和 * 通配
+     * @return 匹配器，白名单为空时返回 {@link #UNRESTRICTED}
+     */
+    public static IpWhitelistMatcher compile(String ipWhitelist) {
+        if (ipWhitelist == null || ipWhitelist.trim().isEmpty()) {
+            return UNRESTRICTED;
+        }
+
+        Set<String> exact = new HashSet<>();
+        List<long[]> v4Ranges = new ArrayList<>();
+        List<long[]> v6Ranges = new ArrayList<>();
+        List<Pattern> patterns = new ArrayList<>();
+        Ipv6Scratch scratch = new Ipv6Scratch();
+
+        for (String raw : ipWhitelist.split(",")) {
+            String entry = raw.trim();
+            if (entry.isEmpty()) {
+                continue;
+            }
+            if (entry.indexOf('/') >= 0) {
+                if (!addCidr(entry, v4Ranges, v6Ranges, scratch)) {
+                    log.warn("CIDR格式错误: {}", entry);
+                }
+            } else if (entry.indexOf('*') >= 0) {
+                if (!addTrailingWildcard(entry, v4Ranges)) {
+                    patterns.add(Pattern.compile(entry.replace(".", "\\.").replace("*", ".*")));
+                }
+            } else {
+                exact.add(entry);
+                long v4 = parseIpv4(entry, 0, entry.length());
+                if (v4 >= 0) {
+                    v4Ranges.add(new long[]{v4, v4});
+                } else if (parseIpv6(entry, entry.length(), scratch)) {
+                    v6Ranges.add(new long[]{scratch.hi, scratch.lo, scratch.hi, scratch.lo});
+                }
+            }
+        }
+
+        long[][] v4 = mergeV4(v4Ranges);
+        long[][] v6 = mergeV6(v6Ranges);
+        return new IpWhitelistMatcher(false, exact, v4[0], v4[1], v6[0], v6[1], v6[2], v6[3], patterns);
+    }
+
+    /**
+     * 是否不限制访问（未配置白名单）
+     */
+    public boolean isUnrestricted() {
+        return unrestricted;
+    }
+
+    /**
+     * 判断客户端IP是否在白名单中
+     *
+     * @param ip 客户端IP
+     * @return 是否允许
+     */
+    public boolean matches(String ip) {
+        if (unrestricted) {
+            return true;
+        }
+        if (ip == null) {
+            return false;
+        }
+        if (exactEntries.contains(ip)) {
+            return true;
+        }
+
+        int end = ip.indexOf('%');
+        if (end < 0) {
+            end = ip.length();
+        }
+        if (ip.indexOf(':') < 0) {
+            long v4 = parseIpv4(ip, 0, end);
+            if (v4 >= 0 && containsV4(v4)) {
+                return true;
+            }
+        } else {
+            Ipv6Scratch scratch = SCRATCH.get();
+            if (parseIpv6(ip, end, scratch)) {
+                // IPv4映射地址（::ffff:a.b.c.d）按IPv4匹配
+                if (scratch.hi == 0 && (scratch.lo >>> 32) == 0xFFFFL && containsV4(scratch.lo & IPV4_MAX)) {
+                    return true;
+                }
+                if (containsV6(scratch.hi, scratch.lo)) {
+                    return true;
+                }
+            }
+        }
+
+        for (int i = 0; i < patterns.size(); i++) {
+            if (patterns.get(i).matcher(ip).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // ==================== 查找 ====================
+
+    private boolean containsV4(long ip) {
+        int low = 0;
+        int high = v4Starts.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (v4Starts[mid] > ip) {
+                high = mid - 1;
+            } else if (v4Ends[mid] < ip) {
+                low = mid + 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean containsV6(long hi, long lo) {
+        int low = 0;
+        int high = v6StartHi.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (compare128(v6StartHi[mid], v6StartLo[mid], hi, lo) > 0) {
+                high = mid - 1;
+            } else if (compare128(v6EndHi[mid], v6EndLo[mid], hi, lo) < 0) {
+                low = mid + 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int compare128(long aHi, long aLo, long bHi, long bLo) {
+        int result = Long.compareUnsigned(aHi, bHi);
+        return result != 0 ? result : Long.compareUnsigned(aLo, bLo);
+    }
+
+    // ==================== 编译 ====================
+
+    private static boolean addCidr(String entry, List<long[]> v4Ranges, List<long[]> v6Ranges, Ipv6Scratch scratch) {
+        int slash = entry.indexOf('/');
+        int prefix;
+        try {
+            prefix = Integer.parseInt(entry.substring(slash + 1).trim());
+        } catch (NumberFormatException e) {
+            return false;
+        }
+
+        long v4 = parseIpv4(entry, 0, slash);
+        if (v4 >= 0) {
+            if (prefix < 0 || prefix > 32) {
+                return false;
+            }
+            long mask = prefix == 0 ? 0L : (IPV4_MAX << (32 - prefix)) & IPV4_MAX;
+            long start = v4 & mask;
+            v4Ranges.add(new long[]{start, start | (~mask & IPV4_MAX)});
+            return true;
+        }
+
+        if (!parseIpv6(entry, slash, scratch) || prefix < 0 || prefix > 128) {
+            return false;
+        }
+        long maskHi = prefix >= 64 ? -1L : (prefix == 0 ? 0L : -1L << (64 - prefix));
+        long maskLo = prefix <= 64 ? 0L : (prefix == 128 ? -1L : -1L << (128 - prefix));
+        long startHi = scratch.hi & maskHi;
+        long startLo = scratch.lo & maskLo;
+        v6Ranges.add(new long[]{startHi, startLo, startHi | ~maskHi, startLo | ~maskLo});
+        return true;
+    }
+
+    /**
+     * 末尾通配（如 10.*、192.168.1.*、*）转换为IPv4区间，其他写法返回false
+     */
+    private static boolean addTrailingWildcard(String entry, List<long[]> v4Ranges) {
+        String[] parts = entry.split("\\.", -1);
+        if (parts.length > 4) {
+            return false;
+        }
+        long prefix = 0;
+        int fixed = 0;
+        while (fixed < parts.length && !"*".equals(parts[fixed])) {
+            int octet = parseOctet(parts[fixed], 0, parts[fixed].length());
+            if (octet < 0) {
+                return false;
+            }
+            prefix = (prefix << 8) | octet;
+            fixed++;
+        }
+        for (int i = fixed; i < parts.length; i++) {
+            if (!"*".equals(parts[i])) {
+                return false;
+            }
+        }
+        int freeBits = (4 - fixed) * 8;
+        long start = prefix << freeBits;
+        v4Ranges.add(new long[]{start, start | ((1L << freeBits) - 1)});
+        return true;
+    }
+
+    private static long[][] mergeV4(List<long[]> ranges) {
+        ranges.sort((a, b) -> Long.compare(a[0], b[0]));
+        List<long[]> merged = new ArrayList<>();
+        for (long[] range : ranges) {
+            long[] last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (last != null && range[0] <= last[1] + 1) {
+                last[1] = Math.max(last[1], range[1]);
+            } else {
+                merged.add(new long[]{range[0], range[1]});
+            }
+        }
+        long[] starts = new long[merged.size()];
+        long[] ends = new long[merged.size()];
+        for (int i = 0; i < merged.size(); i++) {
+            starts[i] = merged.get(i)[0];
+            ends[i] = merged.get(i)[1];
+        }
+        return new long[][]{starts, ends};
+    }
+
+    private static long[][] mergeV6(List<long[]> ranges) {
+        ranges.sort((a, b) -> compare128(a[0], a[1], b[0], b[1]));
+        List<long[]> merged = new ArrayList<>();
+        for (long[] range : ranges) {
+            long[] last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (last != null && compare128(range[0], range[1], last[2], last[3]) <= 0) {
+                if (compare128(range[2], range[3], last[2], last[3]) > 0) {
+                    last[2] = range[2];
+                    last[3] = range[3];
+                }
+            } else {
+                merged.add(new long[]{range[0], range[1], range[2], range[3]});
+            }
+        }
+        long[][] result = new long[4][merged.size()];
+        for (int i = 0; i < merged.size(); i++) {
+            for (int j = 0; j < 4; j++) {
+                result[j][i] = merged.get(i)[j];
+            }
+        }
+        return result;
+    }
+
+    // ==================== 解析（不分配对象） ====================
+
+    /**
+     * 解析点分十进制IPv4
+     *
+     * @return 无符号32位地址，格式错误返回-1
+     */
+    static long parseIpv4(String s, int from, int to) {
+        long result = 0;
+        int octets = 0;
+        int start = from;
+        for (int i = from; i <= to; i++) {
+            if (i == to || s.charAt(i) == '.') {
+                int octet = parseOctet(s, start, i);
+                if (octet < 0 || octets == 4) {
+                    return -1;
+                }
+                result = (result << 8) | octet;
+                octets++;
+                start = i + 1;
+            }
+        }
+        return octets == 4 ? result : -1;
+    }
+
+    private static int parseOctet(String s, int from, int to) {
+        int length = to - from;
+        if (length < 1 || length > 3) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value <= 255 ? value : -1;
+    }
+
+    /**
+     * 解析IPv6（支持 :: 压缩和末尾点分IPv4），结果写入暂存区
+     */
+    static boolean parseIpv6(String s, int end, Ipv6Scratch scratch) {
+        int[] groups = scratch.groups;
+        int compress = s.indexOf("::");
+        if (compress >= end) {
+            compress = -1;
+        }
+
+        if (compress < 0) {
+            if (parseGroups(s, 0, end, groups, 0) != 8) {
+                return false;
+            }
+        } else {
+            int second = s.indexOf("::", compress + 1);
+            if (second >= 0 && second < end) {
+                return false;
+            }
+            int left = compress == 0 ? 0 : parseGroups(s, 0, compress, groups, 0);
+            if (left < 0) {
+                return false;
+            }
+            int right = compress + 2 == end ? 0 : parseGroups(s, compress + 2, end, groups, left);
+            if (right < 0 || left + right > 7) {
+                return false;
+            }
+            // 右侧分组移到末尾，中间补0
+            for (int i = right - 1; i >= 0; i--) {
+                groups[8 - right + i] = groups[left + i];
+            }
+            for (int i = left; i < 8 - right; i++) {
+                groups[i] = 0;
+            }
+        }
+
+        scratch.hi = ((long) groups[0] << 48) | ((long) groups[1] << 32) | ((long) groups[2] << 16) | groups[3];
+        scratch.lo = ((long) groups[4] << 48) | ((long) groups[5] << 32) | ((long) groups[6] << 16) | groups[7];
+        return true;
+    }
+
+    /**
+     * 解析冒号分隔的十六进制分组，最后一组可以是点分IPv4（占两组）
+     *
+     * @return 解析出的分组数，格式错误返回-1
+     */
+    private static int parseGroups(String s, int from, int to, int[] groups, int offset) {
+        int count = 0;
+        int pos = from;
+        while (pos < to) {
+            int start = pos;
+            int value = 0;
+            while (pos < to && s.charAt(pos) != ':') {
+                char c = s.charAt(pos);
+                if (c == '.') {
+                    // 末尾的IPv4部分
+                    long v4 = parseIpv4(s, start, to);
+                    if (v4 < 0 || offset + count + 2 > 8) {
+                        return -1;
+                    }
+                    groups[offset + count] = (int) (v4 >>> 16);
+                    groups[offset + count + 1] = (int) (v4 & 0xFFFF);
+                    return count + 2;
+                }
+                int digit = Character.digit(c, 16);
+                if (digit < 0 || pos - start >= 4) {
+                    return -1;
+                }
+                value = (value << 4) | digit;
+                pos++;
+            }
+            if (pos == start || offset + count >= 8) {
+                return -1;
+            }
+            groups[offset + count++] = value;
+            if (pos < to) {
+                // 跳过 ':'，不允许以 ':' 结尾
+                pos++;
+                if (pos == to) {
+                    return -1;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * IPv6解析暂存区
+     */
+    static final class Ipv6Scratch {
+        final int[] groups = new int[8];
+        long hi;
+        long lo;
+    }
+}
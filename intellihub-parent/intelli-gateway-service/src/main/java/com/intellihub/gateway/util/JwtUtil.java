@@ -17,6 +17,7 @@ import java.util.List;
 /**
  * 网关JWT工具类
  * 用于本地验证JWT Token，避免每次请求都调用Auth服务
+ * 签名密钥和解析器在初始化时创建一次，解析器线程安全，所有请求共用
  *
  * @author intellihub
  * @since 1.0.0
@@ -28,6 +29,7 @@ public class JwtUtil {
 
     private final JwtConfig jwtConfig;
     private SecretKey secretKey;
+    private JwtParser parser;
 
     @PostConstruct
     public void init() {
@@ -37,6 +39,9 @@ public class JwtUtil {
             secret = secret + "0000000000000000000000000000000000000000".substring(0, 32 - secret.length());
         }
         this.secretKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(secretKey)
+                .build();
         log.info("JWT工具类初始化完成");
     }
 
@@ -47,30 +52,27 @@ public class JwtUtil {
      * @return 用户上下文信息
      * @throws JwtException 如果Token无效或已过期
      */
-    @SuppressWarnings("unchecked")
     public UserContext parseToken(String token) {
+        return toUserContext(parseAccessClaims(token));
+    }
+
+    /**
+     * 解析并验证访问Token，返回Claims
+     *
+     * @param token JWT Token（不含Bearer前缀）
+     * @return Token中的Claims
+     * @throws JwtException 如果Token无效、已过期或不是访问Token
+     */
+    public Claims parseAccessClaims(String token) {
         try {
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(secretKey)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+            Claims claims = parser.parseClaimsJws(token).getBody();
 
             // 检查Token类型
             String tokenType = claims.get("tokenType", String.class);
             if (!"access".equals(tokenType)) {
                 throw new JwtException("无效的Token类型: " + tokenType);
             }
-
-            // 构建用户上下文
-            return UserContext.builder()
-                    .userId(claims.get("userId", String.class))
-                    .username(claims.get("username", String.class))
-                    .tenantId(claims.get("tenantId", String.class))
-                    .roles((List<String>) claims.get("roles"))
-                    .valid(true)
-                    .expiresAt(claims.getExpiration() != null ? claims.getExpiration().toString() : null)
-                    .build();
+            return claims;
 
         } catch (ExpiredJwtException e) {
             log.warn("Token已过期: {}", e.getMessage());
@@ -81,6 +83,21 @@ public class JwtUtil {
         }
     }
 
+    /**
+     * 由Claims构建用户上下文
+     */
+    @SuppressWarnings("unchecked")
+    public UserContext toUserContext(Claims claims) {
+        return UserContext.builder()
+                .userId(claims.get("userId", String.class))
+                .username(claims.get("username", String.class))
+                .tenantId(claims.get("tenantId", String.class))
+                .roles((List<String>) claims.get("roles"))
+                .valid(true)
+                .expiresAt(claims.getExpiration() != null ? claims.getExpiration().toString() : null)
+                .build();
+    }
+
     /**
      * 验证Token是否有效
      *
@@ -104,12 +121,7 @@ public class JwtUtil {
      */
     public Date getExpiration(String token) {
         try {
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(secretKey)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-            return claims.getExpiration();
+            return parser.parseClaimsJws(token).getBody().getExpiration();
         } catch (Exception e) {
             return null;
         }
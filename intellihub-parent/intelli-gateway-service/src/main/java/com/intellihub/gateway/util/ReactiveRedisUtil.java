@@ -5,10 +5,12 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
+import java.util.List;
 
 /**
  * 响应式Redis工具类
@@ -204,6 +206,21 @@ public class ReactiveRedisUtil {
                 .onErrorReturn(-1L);
     }
 
+    // ==================== Lua脚本 ====================
+
+    /**
+     * 执行Lua脚本，返回脚本的第一个结果
+     * <p>
+     * 多个Key需位于同一节点（单机或同一hash slot）
+     * </p>
+     */
+    public <T> Mono<T> execute(RedisScript<T> script, List<String> keys, List<String> args) {
+        return redisTemplate.execute(script, keys, args)
+                .next()
+                .doOnError(e -> log.error("执行Lua脚本失败 - keys: {}", keys, e))
+                .onErrorResume(e -> Mono.empty());
+    }
+
     // ==================== 发布订阅 ====================
 
     /**
@@ -1,5 +1,8 @@
 package com.intellihub.gateway.vo;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.intellihub.gateway.util.HmacSignatureVerifier;
+import com.intellihub.gateway.util.IpWhitelistMatcher;
 import lombok.Data;
 
 import java.io.Serializable;
@@ -69,4 +72,53 @@ public class AppKeyInfo implements Serializable {
      * 配额重置时间（毫秒时间戳）
      */
     private Long quotaResetTime;
+
+    /**
+     * 编译后的IP白名单（不序列化，随本地缓存中的对象复用）
+     */
+    @JsonIgnore
+    private transient volatile IpWhitelistMatcher ipWhitelistMatcher;
+
+    /**
+     * 签名校验器（持有由AppSecret生成的密钥和可复用的Mac，不序列化）
+     */
+    @JsonIgnore
+    private transient volatile HmacSignatureVerifier signatureVerifier;
+
+    public void setAppSecret(String appSecret) {
+        this.appSecret = appSecret;
+        this.signatureVerifier = null;
+    }
+
+    /**
+     * 获取签名校验器，首次访问时创建
+     */
+    @JsonIgnore
+    public HmacSignatureVerifier getSignatureVerifier() {
+        HmacSignatureVerifier verifier = signatureVerifier;
+        if (verifier == null) {
+            verifier = HmacSignatureVerifier.forSecret(appSecret);
+            signatureVerifier = verifier;
+        }
+        return verifier;
+    }
+
+    public void setIpWhitelist(String ipWhitelist) {
+        this.ipWhitelist = ipWhitelist;
+        this.ipWhitelistMatcher = null;
+    }
+
+    /**
+     * 获取编译后的IP白名单，首次访问时编译
+     */
+    @JsonIgnore
+    public IpWhitelistMatcher getIpWhitelistMatcher() {
+        IpWhitelistMatcher matcher = ipWhitelistMatcher;
+        if (matcher == null) {
+            // 并发首次访问时可能重复编译，结果相同，无需加锁
+            matcher = IpWhitelistMatcher.compile(ipWhitelist);
+            ipWhitelistMatcher = matcher;
+        }
+        return matcher;
+    }
 }
@@ -0,0 +1,177 @@
+package com.intellihub.gateway.benchmark;
+
+import com.intellihub.gateway.config.BackendResilienceConfig;
+import com.intellihub.gateway.service.BackendResilienceRegistry;
+import com.intellihub.gateway.service.resilience.BackendCircuitBreaker;
+import com.intellihub.gateway.service.resilience.BackendRejectedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 后端熔断与自适应并发限制压测
+ * <p>
+ * 启动一个本地桩后端（按阶段注入延迟和错误），以固定速率经 {@link BackendResilienceRegistry} 调用，
+ * 每秒输出发送数、成功数、5xx数、熔断拒绝数、并发超限拒绝数、当前并发上限、进行中调用数和熔断状态。
+ * 阶段依次为：
+ * 1. healthy：延迟 base.latency.ms，无错误
+ * 2. slow：延迟 slow.latency.ms，所需并发超过初始上限，自适应上限应收缩并拒绝多余请求
+ * 3. failing：延迟恢复，error.rate 比例的请求返回500，熔断器应熔断
+ * 4. recovered：恢复正常，熔断器经半开探测后应关闭
+ * 结束时检查以上预期，不满足时以非0状态退出。
+ * </p>
+ * 运行方式（不依赖外部服务）：
+ * <pre>
+ * mvn -pl intelli-gateway-service test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.intellihub.gateway.benchmark.BackendResilienceLoadTest \
+ *     -Drps=500 -Dphase.seconds=8 -Dbase.latency.ms=20 -Dslow.latency.ms=400 -Derror.rate=0.6
+ * </pre>
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+public class BackendResilienceLoadTest {
+
+    private static final String BACKEND = "http:127.0.0.1:stub";
+
+    private static final String[] PHASES = {"healthy", "slow", "failing", "recovered"};
+
+    private static final AtomicLong injectedLatencyMs = new AtomicLong();
+    private static volatile double injectedErrorRate;
+
+    private static final LongAdder sent = new LongAdder();
+    private static final LongAdder succeeded = new LongAdder();
+    private static final LongAdder serverErrors = new LongAdder();
+    private static final LongAdder otherErrors = new LongAdder();
+    private static final LongAdder circuitRejected = new LongAdder();
+    private static final LongAdder limitRejected = new LongAdder();
+    private static final LongAdder limitRejectedTotal = new LongAdder();
+
+    public static void main(String[] args) throws Exception {
+        int rps = Integer.getInteger("rps", 500);
+        int phaseSeconds = Integer.getInteger("phase.seconds", 8);
+        long baseLatency = Long.getLong("base.latency.ms", 20);
+        long slowLatency = Long.getLong("slow.latency.ms", 400);
+        double errorRate = Double.parseDouble(System.getProperty("error.rate", "0.6"));
+
+        DisposableServer server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .handle((request, response) -> Mono.delay(Duration.ofMillis(injectedLatencyMs.get()))
+                        .then(ThreadLocalRandom.current().nextDouble() < injectedErrorRate
+                                ? response.status(HttpResponseStatus.INTERNAL_SERVER_ERROR).sendString(Mono.just("error")).then()
+                                : response.sendString(Mono.just("ok")).then()))
+                .bindNow();
+
+        ConnectionProvider provider = ConnectionProvider.builder("resilience-load-test")
+                .maxConnections(2000)
+                .pendingAcquireMaxCount(-1)
+                .build();
+        WebClient client = WebClient.builder()
+                .baseUrl("http://127.0.0.1:" + server.port())
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(provider)))
+                .build();
+
+        BackendResilienceConfig config = new BackendResilienceConfig();
+        config.getCircuitBreaker().setWindowSeconds(5);
+        config.getCircuitBreaker().setOpenDurationMs(2000);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        BackendResilienceRegistry registry = new BackendResilienceRegistry(config, meterRegistry);
+
+        System.out.printf("stub: 127.0.0.1:%d, rps: %d, phase: %ds, latency: %d/%dms, errorRate: %.2f%n",
+                server.port(), rps, phaseSeconds, baseLatency, slowLatency, errorRate);
+        System.out.printf("%-10s %4s %6s %6s %5s %6s %8s %8s %6s %8s %s%n", "phase", "sec", "sent", "ok", "5xx",
+                "error", "rejCB", "rejLimit", "limit", "inflight", "state");
+
+        int batches = 100;
+        int perBatch = Math.max(1, rps / batches);
+        Disposable load = Flux.interval(Duration.ofMillis(1000 / batches))
+                .onBackpressureDrop()
+                .flatMap(tick -> Flux.range(0, perBatch), Integer.MAX_VALUE)
+                .flatMap(i -> call(registry, client), Integer.MAX_VALUE)
+                .subscribe();
+
+        int healthyLimit = 0;
+        int slowLimit = 0;
+        long slowLimitRejected = 0;
+        boolean opened = false;
+        for (String phase : PHASES) {
+            injectedLatencyMs.set("slow".equals(phase) ? slowLatency : baseLatency);
+            injectedErrorRate = "failing".equals(phase) ? errorRate : 0;
+            long limitRejectedBefore = limitRejectedTotal.sum();
+            for (int second = 1; second <= phaseSeconds; second++) {
+                Thread.sleep(1000);
+                BackendCircuitBreaker.State state = registry.getCircuitState(BACKEND);
+                opened |= state == BackendCircuitBreaker.State.OPEN;
+                System.out.printf("%-10s %4d %6d %6d %5d %6d %8d %8d %6d %8.0f %s%n", phase, second,
+                        sent.sumThenReset(), succeeded.sumThenReset(), serverErrors.sumThenReset(),
+                        otherErrors.sumThenReset(), circuitRejected.sumThenReset(), limitRejected.sumThenReset(),
+                        registry.getConcurrencyLimit(BACKEND),
+                        meterRegistry.get("gateway.backend.concurrency.inflight").gauge().value(), state);
+            }
+            if ("healthy".equals(phase)) {
+                healthyLimit = registry.getConcurrencyLimit(BACKEND);
+            } else if ("slow".equals(phase)) {
+                slowLimit = registry.getConcurrencyLimit(BACKEND);
+                slowLimitRejected = limitRejectedTotal.sum() - limitRejectedBefore;
+            }
+        }
+        BackendCircuitBreaker.State finalState = registry.getCircuitState(BACKEND);
+        load.dispose();
+        server.disposeNow();
+        provider.disposeLater().block();
+
+        double trips = meterRegistry.get("gateway.backend.circuit.transitions").tag("state", "open").counter().count();
+        boolean passed = true;
+        passed &= check("slow phase shrinks the concurrency limit", slowLimit < healthyLimit,
+                "healthy=" + healthyLimit + ", slow=" + slowLimit);
+        passed &= check("slow phase sheds load with concurrency rejections", slowLimitRejected > 0,
+                "rejected=" + slowLimitRejected);
+        passed &= check("failing phase opens the circuit", opened && trips >= 1, "trips=" + trips);
+        passed &= check("recovered phase closes the circuit", finalState == BackendCircuitBreaker.State.CLOSED,
+                "state=" + finalState);
+        System.out.println(passed ? "PASSED" : "FAILED");
+        System.exit(passed ? 0 : 1);
+    }
+
+    private static Mono<Void> call(BackendResilienceRegistry registry, WebClient client) {
+        sent.increment();
+        Mono<Integer> request = client.get()
+                .uri("/stub")
+                .exchangeToMono(response -> response.releaseBody().thenReturn(response.rawStatusCode()));
+        return registry.protect(BACKEND, request, status -> status >= 500, e -> true)
+                .doOnNext(status -> (status >= 500 ? serverErrors : succeeded).increment())
+                .onErrorResume(BackendRejectedException.class, e -> {
+                    if (e.getReason() == BackendRejectedException.Reason.CIRCUIT_OPEN) {
+                        circuitRejected.increment();
+                    } else {
+                        limitRejected.increment();
+                        limitRejectedTotal.increment();
+                    }
+                    return Mono.empty();
+                })
+                .onErrorResume(e -> {
+                    otherErrors.increment();
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private static boolean check(String name, boolean condition, String detail) {
+        System.out.printf("[%s] %s (%s)%n", condition ? "OK" : "FAIL", name, detail);
+        return condition;
+    }
+}
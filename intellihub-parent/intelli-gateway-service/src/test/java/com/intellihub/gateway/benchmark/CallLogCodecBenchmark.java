@@ -0,0 +1,148 @@
+package com.intellihub.gateway.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.intellihub.kafka.calllog.CallLogCodec;
+import com.intellihub.kafka.calllog.CallLogRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 调用日志编解码基准测试
+ * <p>
+ * 对比原有实现（网关把字段写入JSON字符串，治理服务用ObjectMapper解析为Map再逐字段转换）
+ * 与 {@link CallLogCodec} 二进制格式的单条编码、解码耗时，以及兼容路径下解码旧版JSON的耗时。
+ * 每条记录的字节数在Setup阶段打印；failure场景带错误信息和较长的User-Agent。
+ * 运行时启用GC profiler，结果中的 gc.alloc.rate.norm 即每条记录分配的字节数。
+ * </p>
+ * 运行方式：
+ * <pre>
+ * mvn -pl intelli-gateway-service test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.intellihub.gateway.benchmark.CallLogCodecBenchmark
+ * </pre>
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CallLogCodecBenchmark {
+
+    @Param({"success", "failure"})
+    private String scenario;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private CallLogRecord record;
+    private byte[] jsonBytes;
+    private byte[] binaryBytes;
+
+    @Setup
+    public void setup() throws Exception {
+        boolean failure = "failure".equals(scenario);
+        record = new CallLogRecord("1001", "1874563219874563", "/open/v1/orders/{orderId}", "GET",
+                "2001", "ak_7f3c9a1e5b2d4c6f", "10.12.34.56",
+                failure ? 500 : 200, !failure, failure ? 1534 : 37,
+                failure ? "后端服务调用超时: Read timed out" : null,
+                failure ? "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0 Safari/537.36"
+                        : "okhttp/4.12.0",
+                System.currentTimeMillis());
+        jsonBytes = legacyEncode();
+        binaryBytes = CallLogCodec.encode(record);
+        System.out.printf("%n[%s] bytes/record: json=%d, binary=%d%n", scenario, jsonBytes.length, binaryBytes.length);
+    }
+
+    @Benchmark
+    public byte[] legacyJsonEncode() throws Exception {
+        return legacyEncode();
+    }
+
+    @Benchmark
+    public Object legacyJsonDecode() throws Exception {
+        @SuppressWarnings("unchecked")
+        Map<String, Object> data = objectMapper.readValue(jsonBytes, Map.class);
+        CallLogRecord decoded = new CallLogRecord();
+        decoded.setTenantId((String) data.get("tenantId"));
+        decoded.setApiId((String) data.get("apiId"));
+        decoded.setApiPath((String) data.get("apiPath"));
+        decoded.setApiMethod((String) data.get("apiMethod"));
+        decoded.setAppId((String) data.get("appId"));
+        decoded.setAppKey((String) data.get("appKey"));
+        decoded.setClientIp((String) data.get("clientIp"));
+        decoded.setStatusCode((Integer) data.get("statusCode"));
+        decoded.setSuccess((Boolean) data.get("success"));
+        decoded.setLatency((Integer) data.get("latency"));
+        decoded.setErrorMessage((String) data.get("errorMessage"));
+        decoded.setUserAgent((String) data.get("userAgent"));
+        decoded.setRequestTime(LocalDateTime.parse((String) data.get("requestTime"))
+                .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        return decoded;
+    }
+
+    @Benchmark
+    public byte[] binaryEncode() {
+        return CallLogCodec.encode(record);
+    }
+
+    @Benchmark
+    public CallLogRecord binaryDecode() {
+        return CallLogCodec.decode(binaryBytes);
+    }
+
+    @Benchmark
+    public CallLogRecord codecDecodeLegacyJson() {
+        return CallLogCodec.decode(jsonBytes);
+    }
+
+    private byte[] legacyEncode() throws Exception {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("tenantId", record.getTenantId());
+        data.put("apiId", record.getApiId());
+        data.put("apiPath", record.getApiPath());
+        data.put("apiMethod", record.getApiMethod());
+        data.put("appId", record.getAppId());
+        data.put("appKey", record.getAppKey());
+        data.put("clientIp", record.getClientIp());
+        data.put("statusCode", record.getStatusCode());
+        data.put("success", record.getSuccess());
+        data.put("latency", record.getLatency());
+        data.put("errorMessage", record.getErrorMessage());
+        data.put("userAgent", record.getUserAgent());
+        data.put("requestTime", LocalDateTime.ofInstant(Instant.ofEpochMilli(record.getRequestTime()),
+                ZoneId.systemDefault()).toString());
+        return objectMapper.writeValueAsString(data).getBytes(StandardCharsets.UTF_8);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(CallLogCodecBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,123 @@
+package com.intellihub.gateway.benchmark;
+
+import com.intellihub.gateway.config.GatewayMetricsConfig;
+import com.intellihub.gateway.service.metrics.GatewayMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 网关分阶段指标开销基准测试
+ * <p>
+ * 模拟一个开放API请求在网关内的指标记录：5个阶段计时（route_match/auth/rate_limit/cache/upstream）、
+ * 请求总耗时计时和访问日志采样判断，对比：
+ * 1. legacyAccessLog：原有实现每个请求新建两次 DateTimeFormatter 并格式化开始、结束时间
+ * 2. instrumented：启用 {@link GatewayMetrics}，计时器发布百分位直方图
+ * 3. disabled：gateway.metrics.enabled=false
+ * apiId 从1000个API中随机选取，其中一个为 trackedApiIds。
+ * 开销预算：20k rps 下占用不超过2%，即单核每个请求不超过约1µs（instrumented 减去 disabled）。
+ * 使用 SimpleMeterRegistry，直方图记录方式与 Prometheus 注册表相同。
+ * </p>
+ * 运行方式：
+ * <pre>
+ * mvn -pl intelli-gateway-service test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.intellihub.gateway.benchmark.GatewayMetricsBenchmark
+ * </pre>
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class GatewayMetricsBenchmark {
+
+    private static final int APIS = 1000;
+
+    private String[] apiIds;
+    private GatewayMetrics enabledMetrics;
+    private GatewayMetrics disabledMetrics;
+
+    @Setup
+    public void setup() {
+        apiIds = new String[APIS];
+        for (int i = 0; i < APIS; i++) {
+            apiIds[i] = String.valueOf(1874563219874000L + i);
+        }
+        enabledMetrics = new GatewayMetrics(config(true), new SimpleMeterRegistry());
+        disabledMetrics = new GatewayMetrics(config(false), new SimpleMeterRegistry());
+    }
+
+    private GatewayMetricsConfig config(boolean enabled) {
+        GatewayMetricsConfig config = new GatewayMetricsConfig();
+        config.setEnabled(enabled);
+        config.setTrackedApiIds(Arrays.asList(apiIds[0]));
+        return config;
+    }
+
+    @Benchmark
+    public void legacyAccessLog(Blackhole blackhole) {
+        blackhole.consume(LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS")));
+        blackhole.consume(LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS")));
+    }
+
+    @Benchmark
+    public boolean instrumented() {
+        return recordRequest(enabledMetrics);
+    }
+
+    @Benchmark
+    public boolean disabled() {
+        return recordRequest(disabledMetrics);
+    }
+
+    private boolean recordRequest(GatewayMetrics metrics) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String apiId = apiIds[random.nextInt(APIS)];
+        long start = System.nanoTime();
+        metrics.recordStage(GatewayMetrics.Stage.ROUTE_MATCH, apiId, GatewayMetrics.Outcome.PASS, start);
+        metrics.recordStage(GatewayMetrics.Stage.AUTH, apiId, GatewayMetrics.Outcome.PASS, start);
+        metrics.recordStage(GatewayMetrics.Stage.RATE_LIMIT, apiId, GatewayMetrics.Outcome.PASS, start);
+        GatewayMetrics.StageTimer cache = metrics.startStage(GatewayMetrics.Stage.CACHE, apiId);
+        cache.stop(GatewayMetrics.Outcome.MISS);
+        GatewayMetrics.StageTimer upstream = metrics.startStage(GatewayMetrics.Stage.UPSTREAM, apiId);
+        int status = random.nextInt(100) == 0 ? 500 : 200;
+        upstream.stop(GatewayMetrics.Outcome.ofStatus(status));
+        long duration = System.nanoTime() - start;
+        metrics.recordRequest(apiId, status, duration);
+        return metrics.shouldLogAccess(status, TimeUnit.NANOSECONDS.toMillis(duration));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(GatewayMetricsBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,161 @@
+package com.intellihub.gateway.benchmark;
+
+import com.intellihub.gateway.util.IpWhitelistMatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * IP白名单匹配基准测试
+ * <p>
+ * 对比原有逐请求解析白名单（split + 正则 + 逐段解析CIDR）与预编译匹配器，
+ * 白名单由精确IP、CIDR、通配符按 2:1:1 混合组成，分别测试命中最后一条和未命中两种情况。
+ * </p>
+ * 运行方式：
+ * <pre>
+ * mvn -pl intelli-gateway-service test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.intellihub.gateway.benchmark.IpWhitelistBenchmark
+ * </pre>
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IpWhitelistBenchmark {
+
+    @Param({"1", "50", "1000"})
+    private int entries;
+
+    private String whitelist;
+    private String hitIp;
+    private String missIp;
+    private IpWhitelistMatcher matcher;
+
+    @Setup
+    public void setup() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < entries; i++) {
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            int a = 10 + i / 250;
+            int b = i % 250;
+            switch (i % 4) {
+                case 0:
+                case 1:
+                    sb.append(a).append('.').append(b).append(".1.").append(i % 200 + 1);
+                    hitIp = a + "." + b + ".1." + (i % 200 + 1);
+                    break;
+                case 2:
+                    sb.append(a).append('.').append(b).append(".0.0/16");
+                    hitIp = a + "." + b + ".7.7";
+                    break;
+                default:
+                    sb.append(a).append('.').append(b).append(".3.*");
+                    hitIp = a + "." + b + ".3.100";
+                    break;
+            }
+        }
+        whitelist = sb.toString();
+        missIp = "203.0.113.9";
+        matcher = IpWhitelistMatcher.compile(whitelist);
+    }
+
+    @Benchmark
+    public boolean legacyHit() {
+        return LegacyIpWhitelist.check(whitelist, hitIp);
+    }
+
+    @Benchmark
+    public boolean legacyMiss() {
+        return LegacyIpWhitelist.check(whitelist, missIp);
+    }
+
+    @Benchmark
+    public boolean compiledHit() {
+        return matcher.matches(hitIp);
+    }
+
+    @Benchmark
+    public boolean compiledMiss() {
+        return matcher.matches(missIp);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(IpWhitelistBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+
+    /**
+     * 原有实现（AppKeyAuthenticationFilter 逐请求解析白名单）
+     */
+    static final class LegacyIpWhitelist {
+
+        static boolean check(String ipWhitelist, String clientIp) {
+            if (ipWhitelist == null || ipWhitelist.trim().isEmpty()) {
+                return true;
+            }
+            if (clientIp == null) {
+                return false;
+            }
+            for (String allowedIp : ipWhitelist.split(",")) {
+                allowedIp = allowedIp.trim();
+                if (clientIp.equals(allowedIp)) {
+                    return true;
+                }
+                if (allowedIp.contains("/") && matchCIDR(clientIp, allowedIp)) {
+                    return true;
+                }
+                if (allowedIp.contains("*") && matchWildcard(clientIp, allowedIp)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static boolean matchWildcard(String ip, String pattern) {
+            String regex = pattern.replace(".", "\\.").replace("*", ".*");
+            return ip.matches(regex);
+        }
+
+        private static boolean matchCIDR(String ip, String cidr) {
+            try {
+                String[] parts = cidr.split("/");
+                int prefixLength = Integer.parseInt(parts[1]);
+                long mask = -1L << (32 - prefixLength);
+                return (ipToLong(ip) & mask) == (ipToLong(parts[0]) & mask);
+            } catch (Exception e) {
+                return false;
+            }
+        }
+
+        private static long ipToLong(String ip) {
+            String[] octets = ip.split("\\.");
+            return (Long.parseLong(octets[0]) << 24)
+                    + (Long.parseLong(octets[1]) << 16)
+                    + (Long.parseLong(octets[2]) << 8)
+                    + Long.parseLong(octets[3]);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.intellihub.gateway.benchmark;
+
+import com.intellihub.gateway.config.JwtConfig;
+import com.intellihub.gateway.service.TokenRevocationService;
+import com.intellihub.gateway.service.TokenVerificationService;
+import com.intellihub.gateway.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 控制台JWT验证基准测试（每秒验证的Token数）
+ * <p>
+ * 1. legacyParse：原有实现，每个Token新建解析器后验签、解析Claims
+ * 2. sharedParser：复用解析器（{@link JwtUtil}），每次都验签和解析
+ * 3. cachedVerify：{@link TokenVerificationService}，查注销集合后命中已验证Token缓存
+ * Token从1000个活跃会话中随机选取，格式与认证服务签发的访问Token一致（HS256）。
+ * </p>
+ * 运行方式：
+ * <pre>
+ * mvn -pl intelli-gateway-service test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.intellihub.gateway.benchmark.JwtVerificationBenchmark
+ * </pre>
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class JwtVerificationBenchmark {
+
+    private static final int SESSIONS = 1000;
+
+    private SecretKey secretKey;
+    private String[] tokens;
+    private JwtUtil jwtUtil;
+    private TokenVerificationService verificationService;
+
+    @Setup
+    public void setup() {
+        JwtConfig config = new JwtConfig();
+        jwtUtil = new JwtUtil(config);
+        jwtUtil.init();
+        // 与 JwtUtil 相同的密钥补齐规则
+        String secret = config.getSecret();
+        if (secret.length() < 32) {
+            secret = secret + "0000000000000000000000000000000000000000".substring(0, 32 - secret.length());
+        }
+        secretKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+
+        tokens = new String[SESSIONS];
+        long expiresAt = System.currentTimeMillis() + TimeUnit.HOURS.toMillis(2);
+        for (int i = 0; i < SESSIONS; i++) {
+            Map<String, Object> claims = new HashMap<>();
+            claims.put("userId", String.valueOf(1000 + i));
+            claims.put("username", "user" + i);
+            claims.put("tenantId", "2001");
+            claims.put("roles", Arrays.asList("TENANT_ADMIN", "DEVELOPER"));
+            claims.put("tokenType", "access");
+            tokens[i] = Jwts.builder()
+                    .setClaims(claims)
+                    .setSubject(String.valueOf(1000 + i))
+                    .setIssuedAt(new Date())
+                    .setExpiration(new Date(expiresAt))
+                    .signWith(secretKey, SignatureAlgorithm.HS256)
+                    .compact();
+        }
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        // 请求路径上不访问Redis，基准测试不需要连接
+        TokenRevocationService revocationService = new TokenRevocationService(null, config, meterRegistry);
+        verificationService = new TokenVerificationService(jwtUtil, config, revocationService, meterRegistry);
+        for (String token : tokens) {
+            verificationService.verify(token);
+        }
+    }
+
+    private String nextToken() {
+        return tokens[ThreadLocalRandom.current().nextInt(SESSIONS)];
+    }
+
+    @Benchmark
+    public Object legacyParse() {
+        Claims claims = Jwts.parserBuilder()
+                .setSigningKey(secretKey)
+                .build()
+                .parseClaimsJws(nextToken())
+                .getBody();
+        return jwtUtil.toUserContext(claims);
+    }
+
+    @Benchmark
+    public Object sharedParser() {
+        return jwtUtil.parseToken(nextToken());
+    }
+
+    @Benchmark
+    public Object cachedVerify() {
+        return verificationService.verify(nextToken());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(JwtVerificationBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
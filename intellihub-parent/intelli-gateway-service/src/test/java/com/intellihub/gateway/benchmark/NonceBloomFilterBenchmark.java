@@ -0,0 +1,144 @@
+package com.intellihub.gateway.benchmark;
+
+import com.intellihub.gateway.config.AppKeyConfig;
+import com.intellihub.gateway.service.nonce.NonceBloomGuard;
+import com.intellihub.gateway.service.nonce.RotatingBloomFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Nonce本地布隆过滤器基准测试（每秒校验的Nonce数）
+ * <p>
+ * 1. offsets：只计算k个位偏移（FNV-1a + fmix64 双重哈希）
+ * 2. bloomProbe：{@link NonceBloomGuard#probe} 探测后 {@link NonceBloomGuard#record} 置位（共享过滤器确认后的完整本地路径）
+ * 3. exactSet：对照组，按 appKey:nonce 写入 ConcurrentHashMap（等价于在本地保存每个Nonce）
+ * Nonce为预先生成的随机UUID，每次取下一个，基本都是首次出现。
+ * 启动时打印过滤器参数、存活时间桶数与满载内存，以及 exactSet 每个Nonce的内存估算。
+ * </p>
+ * 运行方式：
+ * <pre>
+ * mvn -pl intelli-gateway-service test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.intellihub.gateway.benchmark.NonceBloomFilterBenchmark
+ * </pre>
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class NonceBloomFilterBenchmark {
+
+    private static final String APP_KEY = "ak_7f3c9e2b1d4a";
+    private static final int NONCES = 1 << 20;
+
+    private String[] nonces;
+    private final AtomicInteger cursor = new AtomicInteger();
+    private NonceBloomGuard guard;
+    private Map<String, Boolean> exactSet;
+    private long timestamp;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        nonces = new String[NONCES];
+        for (int i = 0; i < NONCES; i++) {
+            nonces[i] = UUID.randomUUID().toString();
+        }
+        AppKeyConfig config = new AppKeyConfig();
+        config.getNonceGuard().setMode(AppKeyConfig.NonceGuardMode.BLOOM);
+        guard = new NonceBloomGuard(config, new SimpleMeterRegistry());
+        timestamp = System.currentTimeMillis() / 1000;
+
+        AppKeyConfig.NonceGuard nonceGuard = config.getNonceGuard();
+        int liveBuckets = NonceBloomGuard.liveBuckets(config.getTimestampTolerance(), nonceGuard.getBucketSeconds());
+        System.out.printf("%nBloom: n=%d/bucket, p=%s, m=%d bits (%.1f bits/nonce), k=%d, live buckets=%d, "
+                        + "memory: %.1f MB/bucket, %.1f MB total%n",
+                nonceGuard.getExpectedInsertionsPerBucket(), nonceGuard.getFalsePositiveRate(),
+                guard.getBitsPerBucket(), (double) guard.getBitsPerBucket() / nonceGuard.getExpectedInsertionsPerBucket(),
+                guard.getHashCount(), liveBuckets, guard.getBitsPerBucket() / 8.0 / 1024 / 1024,
+                liveBuckets * guard.getBitsPerBucket() / 8.0 / 1024 / 1024);
+        printExactSetMemory();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetExactSet() {
+        exactSet = new ConcurrentHashMap<>(NONCES * 2);
+    }
+
+    private String nextNonce() {
+        return nonces[cursor.getAndIncrement() & (NONCES - 1)];
+    }
+
+    @Benchmark
+    public long[] offsets() {
+        return NonceBloomGuard.offsets(APP_KEY, nextNonce(), guard.getHashCount(), guard.getBitsPerBucket());
+    }
+
+    @Benchmark
+    public Object bloomProbe() {
+        NonceBloomGuard.Probe probe = guard.probe(APP_KEY, nextNonce(), timestamp);
+        guard.record(probe);
+        return probe;
+    }
+
+    @Benchmark
+    public Object exactSet() {
+        return exactSet.putIfAbsent(APP_KEY + ":" + nextNonce(), Boolean.TRUE);
+    }
+
+    /**
+     * 粗略估算本地保存每个Nonce的内存：写入10万个Key前后的堆占用差
+     */
+    private void printExactSetMemory() {
+        int samples = 100000;
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long before = runtime.totalMemory() - runtime.freeMemory();
+        Map<String, Boolean> map = new ConcurrentHashMap<>();
+        for (int i = 0; i < samples; i++) {
+            map.put(APP_KEY + ":" + nonces[i], Boolean.TRUE);
+        }
+        System.gc();
+        long after = runtime.totalMemory() - runtime.freeMemory();
+        System.out.printf("Exact set: ~%d bytes/nonce (%d entries)%n", (after - before) / samples, map.size());
+
+        // 与布隆过滤器本地位图的内存对照
+        RotatingBloomFilter filter = new RotatingBloomFilter(1, guard.getBitsPerBucket());
+        filter.testAndSet(0, new long[]{0});
+        System.out.printf("Bloom local filter: %d bytes/bucket regardless of load%n", filter.allocatedBytes());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(NonceBloomFilterBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
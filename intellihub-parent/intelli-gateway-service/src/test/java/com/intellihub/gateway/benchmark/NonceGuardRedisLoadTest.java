@@ -0,0 +1,279 @@
+package com.intellihub.gateway.benchmark;
+
+import com.intellihub.gateway.service.nonce.NonceBloomGuard;
+import io.lettuce.core.KeyScanCursor;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.ScanArgs;
+import io.lettuce.core.ScanCursor;
+import io.lettuce.core.ScriptOutputType;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.async.RedisAsyncCommands;
+import io.lettuce.core.api.sync.RedisCommands;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 防重放（Nonce）校验Redis压测
+ * <p>
+ * 以固定速率（默认10k rps）发起带随机Nonce的校验，对比两种实现的Redis侧开销：
+ * 1. SETNX：每个Nonce一个Key，SET NX EX（RESERVE_REQUEST_SCRIPT）
+ * 2. 布隆过滤器：按时间戳分桶的位图，一次BITFIELD置位k个偏移（RESERVE_REQUEST_BLOOM_SCRIPT）
+ * 输出实际完成的检查次数/秒、Redis处理的命令数/秒、p99延迟、测试结束时的Key数与内存，
+ * 以及按Nonce有效期推算的稳态内存：SETNX为 rps × TTL 个Key，布隆过滤器为存活时间桶数 × 每桶位图大小。
+ * 脚本内容与 AppKeyService 保持一致（配额上限传0，只比较Nonce部分），位偏移由 {@link NonceBloomGuard} 计算。
+ * </p>
+ * 运行方式（需要可访问的Redis，会写入 intellihub:loadtest:nonce:* 测试Key）：
+ * <pre>
+ * mvn -pl intelli-gateway-service test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.intellihub.gateway.benchmark.NonceGuardRedisLoadTest \
+ *     -Dredis.uri=redis://localhost:6379 -Drps=10000 -Dseconds=30 -Dtolerance=300 \
+ *     -Dbucket=60 -Dexpected=1000000 -Dfpp=0.000001
+ * </pre>
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+public class NonceGuardRedisLoadTest {
+
+    private static final String SETNX_SCRIPT =
+            "if not redis.call('SET', KEYS[1], '1', 'NX', 'EX', ARGV[1]) then\n" +
+            "    return -1\n" +
+            "end\n" +
+            "local limit = tonumber(ARGV[2])\n" +
+            "if limit <= 0 then\n" +
+            "    return 0\n" +
+            "end\n" +
+            "local used = tonumber(redis.call('GET', KEYS[2]) or '0')\n" +
+            "if used >= limit then\n" +
+            "    return -2\n" +
+            "end\n" +
+            "return redis.call('INCR', KEYS[2])";
+
+    private static final String BLOOM_SCRIPT =
+            "local ops = {}\n" +
+            "for i = 3, #ARGV do\n" +
+            "    ops[#ops + 1] = 'SET'\n" +
+            "    ops[#ops + 1] = 'u1'\n" +
+            "    ops[#ops + 1] = ARGV[i]\n" +
+            "    ops[#ops + 1] = 1\n" +
+            "end\n" +
+            "local previous = redis.call('BITFIELD', KEYS[1], unpack(ops))\n" +
+            "local seen = true\n" +
+            "for i = 1, #previous do\n" +
+            "    if previous[i] == 0 then\n" +
+            "        seen = false\n" +
+            "        break\n" +
+            "    end\n" +
+            "end\n" +
+            "if seen then\n" +
+            "    return -1\n" +
+            "end\n" +
+            "redis.call('EXPIREAT', KEYS[1], ARGV[1])\n" +
+            "local limit = tonumber(ARGV[2])\n" +
+            "if limit <= 0 then\n" +
+            "    return 0\n" +
+            "end\n" +
+            "local used = tonumber(redis.call('GET', KEYS[2]) or '0')\n" +
+            "if used >= limit then\n" +
+            "    return -2\n" +
+            "end\n" +
+            "return redis.call('INCR', KEYS[2])";
+
+    private static final String KEY_PREFIX = "intellihub:loadtest:nonce:";
+    private static final String APP_KEY = "ak_loadtest";
+
+    public static void main(String[] args) throws Exception {
+        String uri = System.getProperty("redis.uri", "redis://localhost:6379");
+        int rps = Integer.getInteger("rps", 10000);
+        int seconds = Integer.getInteger("seconds", 30);
+        int tolerance = Integer.getInteger("tolerance", 300);
+        int bucketSeconds = Integer.getInteger("bucket", 60);
+        long expected = Long.getLong("expected", 1000000L);
+        double fpp = Double.parseDouble(System.getProperty("fpp", "0.000001"));
+
+        long bits = NonceBloomGuard.optimalBits(expected, fpp);
+        int hashCount = NonceBloomGuard.optimalHashCount(expected, bits);
+        int liveBuckets = NonceBloomGuard.liveBuckets(tolerance, bucketSeconds);
+
+        RedisClient client = RedisClient.create(uri);
+        try (StatefulRedisConnection<String, String> connection = client.connect()) {
+            RedisCommands<String, String> sync = connection.sync();
+            RedisAsyncCommands<String, String> async = connection.async();
+            String setnxSha = sync.scriptLoad(SETNX_SCRIPT);
+            String bloomSha = sync.scriptLoad(BLOOM_SCRIPT);
+
+            System.out.printf("Redis: %s, rps: %d, seconds: %d, tolerance: %ds, bucket: %ds, expected: %d, fpp: %s%n",
+                    uri, rps, seconds, tolerance, bucketSeconds, expected, fpp);
+            System.out.printf("Bloom: %d bits/bucket (%.1f bits/nonce), k=%d, live buckets=%d%n",
+                    bits, (double) bits / expected, hashCount, liveBuckets);
+
+            String quotaKey = KEY_PREFIX + "quota";
+            cleanup(sync);
+            long memoryBefore = usedMemory(sync);
+            Result setnx = run(sync, rps, seconds, () -> async.<Long>evalsha(setnxSha, ScriptOutputType.INTEGER,
+                            new String[]{KEY_PREFIX + APP_KEY + ":" + UUID.randomUUID(), quotaKey},
+                            String.valueOf(tolerance), "0")
+                    .toCompletableFuture());
+            setnx.keys = countKeys(sync);
+            setnx.memoryBytes = usedMemory(sync) - memoryBefore;
+            setnx.steadyStateBytes = setnx.keys > 0
+                    ? (long) ((double) setnx.memoryBytes / setnx.keys * rps * tolerance) : 0L;
+            print("SETNX (EXACT)", setnx);
+
+            cleanup(sync);
+            Result bloom = run(sync, rps, seconds, () -> {
+                long timestamp = System.currentTimeMillis() / 1000;
+                long bucket = timestamp / bucketSeconds;
+                long[] offsets = NonceBloomGuard.offsets(APP_KEY, UUID.randomUUID().toString(), hashCount, bits);
+                String[] argv = new String[offsets.length + 2];
+                argv[0] = String.valueOf((bucket + 1) * bucketSeconds + tolerance + 1);
+                argv[1] = "0";
+                for (int i = 0; i < offsets.length; i++) {
+                    argv[i + 2] = String.valueOf(offsets[i]);
+                }
+                return async.<Long>evalsha(bloomSha, ScriptOutputType.INTEGER,
+                                new String[]{KEY_PREFIX + "bloom:" + bucket, quotaKey}, argv)
+                        .toCompletableFuture();
+            });
+            bloom.keys = countKeys(sync);
+            for (String key : sync.keys(KEY_PREFIX + "bloom:*")) {
+                Long bytes = sync.memoryUsage(key);
+                bloom.memoryBytes += bytes != null ? bytes : 0L;
+            }
+            bloom.steadyStateBytes = (long) liveBuckets * bits / 8;
+            print("Bloom bitmap (BLOOM)", bloom);
+
+            cleanup(sync);
+        } finally {
+            client.shutdown();
+        }
+    }
+
+    /**
+     * 以固定速率发起检查，每毫秒发起 rps/1000 次；返回 -1（判定为重复）的次数计入 rejected
+     */
+    private static Result run(RedisCommands<String, String> sync, int rps, int seconds,
+                              CheckCall call) throws InterruptedException {
+        long commandsBefore = totalCommands(sync);
+        AtomicLong completed = new AtomicLong();
+        AtomicLong rejected = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        List<Long> latencies = new ArrayList<>();
+        int perTick = Math.max(1, rps / 1000);
+
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        long start = System.nanoTime();
+        scheduler.scheduleAtFixedRate(() -> {
+            for (int i = 0; i < perTick; i++) {
+                long begin = System.nanoTime();
+                call.check().whenComplete((result, error) -> {
+                    if (error != null) {
+                        failed.incrementAndGet();
+                        return;
+                    }
+                    completed.incrementAndGet();
+                    if (result != null && result == -1L) {
+                        rejected.incrementAndGet();
+                    }
+                    synchronized (latencies) {
+                        latencies.add(System.nanoTime() - begin);
+                    }
+                });
+            }
+        }, 0, 1, TimeUnit.MILLISECONDS);
+
+        TimeUnit.SECONDS.sleep(seconds);
+        scheduler.shutdown();
+        scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        // 等待在途请求完成
+        TimeUnit.MILLISECONDS.sleep(500);
+        double elapsed = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        Result result = new Result();
+        result.checksPerSecond = completed.get() / elapsed;
+        result.rejected = rejected.get();
+        result.failed = failed.get();
+        result.redisCommandsPerSecond = (totalCommands(sync) - commandsBefore) / elapsed;
+        synchronized (latencies) {
+            latencies.sort(Long::compare);
+            if (!latencies.isEmpty()) {
+                result.p99Micros = latencies.get((int) (latencies.size() * 0.99)) / 1000.0;
+            }
+        }
+        return result;
+    }
+
+    private static long totalCommands(RedisCommands<String, String> sync) {
+        return infoValue(sync, "stats", "total_commands_processed:");
+    }
+
+    private static long usedMemory(RedisCommands<String, String> sync) {
+        return infoValue(sync, "memory", "used_memory:");
+    }
+
+    private static long infoValue(RedisCommands<String, String> sync, String section, String prefix) {
+        for (String line : sync.info(section).split("\r?\n")) {
+            if (line.startsWith(prefix)) {
+                return Long.parseLong(line.substring(prefix.length()).trim());
+            }
+        }
+        return 0L;
+    }
+
+    private static long countKeys(RedisCommands<String, String> sync) {
+        long count = 0;
+        ScanCursor cursor = ScanCursor.INITIAL;
+        ScanArgs scanArgs = ScanArgs.Builder.matches(KEY_PREFIX + "*").limit(10000);
+        do {
+            KeyScanCursor<String> page = sync.scan(cursor, scanArgs);
+            count += page.getKeys().size();
+            cursor = page;
+        } while (!cursor.isFinished());
+        return count;
+    }
+
+    /**
+     * SETNX压测会写入数十万个Key，按SCAN分批删除
+     */
+    private static void cleanup(RedisCommands<String, String> sync) {
+        ScanCursor cursor = ScanCursor.INITIAL;
+        ScanArgs scanArgs = ScanArgs.Builder.matches(KEY_PREFIX + "*").limit(10000);
+        do {
+            KeyScanCursor<String> page = sync.scan(cursor, scanArgs);
+            if (!page.getKeys().isEmpty()) {
+                sync.unlink(page.getKeys().toArray(new String[0]));
+            }
+            cursor = page;
+        } while (!cursor.isFinished());
+    }
+
+    private static void print(String name, Result result) {
+        System.out.printf("%-22s checks/s: %10.1f  redis cmds/s: %10.1f  p99: %8.1fus  keys: %8d  memory: %11d bytes"
+                        + "  steady state: %6.1f MB  rejected: %d  failed: %d%n",
+                name, result.checksPerSecond, result.redisCommandsPerSecond, result.p99Micros, result.keys,
+                result.memoryBytes, result.steadyStateBytes / 1024.0 / 1024.0, result.rejected, result.failed);
+    }
+
+    @FunctionalInterface
+    private interface CheckCall {
+        CompletableFuture<Long> check();
+    }
+
+    private static class Result {
+        double checksPerSecond;
+        double redisCommandsPerSecond;
+        double p99Micros;
+        long keys;
+        long memoryBytes;
+        long steadyStateBytes;
+        long rejected;
+        long failed;
+    }
+}
@@ -0,0 +1,304 @@
+package com.intellihub.gateway.benchmark;
+
+import com.intellihub.dubbo.ApiRouteDTO;
+import com.intellihub.gateway.filter.OpenApiRouteMatchFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.adapter.WebHttpHandlerBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * HTTP后端转发基准测试（真实的 OpenApiRouteFilter）
+ * <p>
+ * 在本机启动一个返回固定大小响应体的桩后端，并把 OpenApiRouteFilter 包装成代理：
+ * 请求到达时按 OpenApiRouteMatchFilter 的约定写入路由属性，再交给过滤器转发到桩后端。
+ * 分别对 1KB、1MB、50MB 响应体并发请求，输出 p50/p99 耗时与压测期间的堆内存峰值（超出基线部分），
+ * 同时把结果追加到 -Dresult 指定的文件（默认 target/proxy-streaming-benchmark.md）。
+ * 桩后端、代理与压测客户端运行在同一JVM中，每轮之间触发GC。
+ * </p>
+ * <p>
+ * 过滤器及其依赖按构造参数类型反射装配：配置类使用默认值，连接池、熔断、指标使用真实实现，
+ * 其余依赖（Redis、注册中心、Dubbo）传null，HTTP后端转发路径不会用到。
+ * 基准本身不引用只在某个版本中存在的类，可以原样放到流式转发改造前的提交中运行，得到改造前后的对比
+ * （改造前的过滤器用 WebClient 默认的 256KB 聚合上限，超过上限的响应返回502，结果中记为失败）。
+ * </p>
+ * 运行方式：
+ * <pre>
+ * # 当前版本
+ * mvn -pl intelli-gateway-service test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.intellihub.gateway.benchmark.ProxyStreamingBenchmark \
+ *     -Dlabel=streaming -Dconcurrency=16 -Drequests=200
+ * # 改造前：git worktree add 到流式转发之前的提交，复制本文件后以 -Dlabel=buffered 运行同一命令，
+ * #         -Dresult 指向同一个文件即可得到一张对比表
+ * </pre>
+ * 建议配合 -Xmx1g 运行，50MB 档聚合转发可能触发 OutOfMemoryError，结果中记为失败。
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+public class ProxyStreamingBenchmark {
+
+    private static final int[] BODY_SIZES = {1024, 1024 * 1024, 50 * 1024 * 1024};
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private static final String FILTER_CLASS = "com.intellihub.gateway.filter.OpenApiRouteFilter";
+
+    /**
+     * 使用真实实现的依赖（按简单类名匹配，某个版本中不存在时不影响装配）
+     */
+    private static final Set<String> REAL_DEPENDENCIES = new HashSet<>(Arrays.asList(
+            "BackendHttpClientRegistry", "BackendResilienceRegistry", "GatewayMetrics"));
+
+    private static final GatewayFilterChain END = exchange -> Mono.empty();
+
+    public static void main(String[] args) throws Exception {
+        int concurrency = Integer.getInteger("concurrency", 16);
+        int requests = Integer.getInteger("requests", 200);
+        String label = System.getProperty("label", "current");
+        Path resultFile = Paths.get(System.getProperty("result", "target/proxy-streaming-benchmark.md"));
+
+        DisposableServer backend = startBackend();
+        Map<Integer, ApiRouteDTO> routes = new HashMap<>();
+        for (int size : BODY_SIZES) {
+            routes.put(size, route(size, backend.port()));
+        }
+        DisposableServer proxy = startProxy(routes);
+
+        try {
+            System.out.printf("label: %s, concurrency: %d, requests per size: %d, max heap: %dMB%n",
+                    label, concurrency, requests, Runtime.getRuntime().maxMemory() / 1024 / 1024);
+            for (int size : BODY_SIZES) {
+                // 大响应体减少请求数，避免单轮耗时过长
+                int count = size >= 50 * 1024 * 1024 ? Math.max(concurrency, requests / 10) : requests;
+                Result result = run(proxy.port(), size, concurrency, count);
+                print(System.out, label, size, result);
+                append(resultFile, label, size, concurrency, result);
+            }
+            System.out.println("results appended to " + resultFile.toAbsolutePath());
+        } finally {
+            proxy.disposeNow();
+            backend.disposeNow();
+        }
+    }
+
+    /**
+     * 桩后端：/data/{size} 返回指定大小的响应体，分块写出
+     */
+    private static DisposableServer startBackend() {
+        byte[] chunk = new byte[CHUNK_SIZE];
+        for (int i = 0; i < chunk.length; i++) {
+            chunk[i] = (byte) ('a' + i % 26);
+        }
+        return HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .route(routes -> routes.get("/data/{size}", (request, response) -> {
+                    int size = Integer.parseInt(request.param("size"));
+                    int chunks = (size + CHUNK_SIZE - 1) / CHUNK_SIZE;
+                    Flux<ByteBuf> body = Flux.range(0, chunks).map(i -> {
+                        int length = Math.min(CHUNK_SIZE, size - i * CHUNK_SIZE);
+                        return Unpooled.wrappedBuffer(chunk, 0, length);
+                    });
+                    return response.header("Content-Type", "application/octet-stream")
+                            .header("Content-Length", String.valueOf(size))
+                            .send(body);
+                }))
+                .bindNow();
+    }
+
+    /**
+     * 代理：/data/{size} 交给 OpenApiRouteFilter 转发到对应大小的桩后端路由
+     */
+    private static DisposableServer startProxy(Map<Integer, ApiRouteDTO> routes) throws Exception {
+        Class<?> filterClass = Class.forName(FILTER_CLASS);
+        Object filter = create(filterClass, new SimpleMeterRegistry());
+        Method filterMethod = filterClass.getMethod("filter", ServerWebExchange.class, GatewayFilterChain.class);
+
+        HttpHandler handler = WebHttpHandlerBuilder.webHandler(exchange -> {
+            String path = exchange.getRequest().getPath().value();
+            ApiRouteDTO route = routes.get(Integer.parseInt(path.substring(path.lastIndexOf('/') + 1)));
+            exchange.getAttributes().put(OpenApiRouteMatchFilter.ATTR_IS_OPEN_API, true);
+            exchange.getAttributes().put(OpenApiRouteMatchFilter.ATTR_API_ROUTE, route);
+            exchange.getAttributes().put(OpenApiRouteMatchFilter.ATTR_API_ID, route.getApiId());
+            return invoke(filterMethod, filter, exchange);
+        }).build();
+
+        return HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .handle(new ReactorHttpHandlerAdapter(handler))
+                .bindNow();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Mono<Void> invoke(Method filterMethod, Object filter, ServerWebExchange exchange) {
+        try {
+            return (Mono<Void>) filterMethod.invoke(filter, exchange, END);
+        } catch (InvocationTargetException e) {
+            return Mono.error(e.getCause());
+        } catch (IllegalAccessException e) {
+            return Mono.error(e);
+        }
+    }
+
+    /**
+     * 按构造参数类型装配实例：配置类用默认值，过滤器和 {@link #REAL_DEPENDENCIES} 递归装配，其余传null
+     */
+    private static Object create(Class<?> type, MeterRegistry meterRegistry) throws Exception {
+        if (MeterRegistry.class.isAssignableFrom(type)) {
+            return meterRegistry;
+        }
+        if (!type.getName().equals(FILTER_CLASS) && !REAL_DEPENDENCIES.contains(type.getSimpleName())
+                && !type.isAnnotationPresent(ConfigurationProperties.class)) {
+            return null;
+        }
+        Constructor<?> constructor = null;
+        for (Constructor<?> candidate : type.getConstructors()) {
+            if (constructor == null || candidate.getParameterCount() > constructor.getParameterCount()) {
+                constructor = candidate;
+            }
+        }
+        if (constructor == null) {
+            throw new IllegalStateException("没有公共构造方法: " + type.getName());
+        }
+        Class<?>[] parameterTypes = constructor.getParameterTypes();
+        Object[] arguments = new Object[parameterTypes.length];
+        for (int i = 0; i < parameterTypes.length; i++) {
+            arguments[i] = create(parameterTypes[i], meterRegistry);
+        }
+        return constructor.newInstance(arguments);
+    }
+
+    private static ApiRouteDTO route(int size, int backendPort) {
+        ApiRouteDTO route = new ApiRouteDTO();
+        route.setApiId("proxy-benchmark-" + size);
+        route.setPath("/data/" + size);
+        route.setMethod("GET");
+        route.setBackendType("http");
+        route.setBackendProtocol("http");
+        route.setBackendHost("127.0.0.1:" + backendPort);
+        route.setBackendPath("/data/" + size);
+        route.setTimeout((int) TimeUnit.MINUTES.toMillis(2));
+        return route;
+    }
+
+    private static Result run(int port, int size, int concurrency, int count) throws InterruptedException {
+        System.gc();
+        TimeUnit.MILLISECONDS.sleep(200);
+
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long baseline = memory.getHeapMemoryUsage().getUsed();
+        AtomicLong peak = new AtomicLong(baseline);
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> peak.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max),
+                0, 5, TimeUnit.MILLISECONDS);
+
+        HttpClient client = HttpClient.create();
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        AtomicLong failed = new AtomicLong();
+        String uri = "http://127.0.0.1:" + port + "/data/" + size;
+
+        Flux.range(0, count)
+                .flatMap(i -> {
+                    long start = System.nanoTime();
+                    return client.get()
+                            .uri(uri)
+                            // 只统计字节数，收到即释放
+                            .response((response, body) -> body.map(ByteBuf::readableBytes)
+                                    .reduce(0L, (total, bytes) -> total + bytes)
+                                    .map(total -> response.status().code() == 200 && total == size))
+                            .next()
+                            .doOnNext(complete -> {
+                                if (complete) {
+                                    latencies.add(System.nanoTime() - start);
+                                } else {
+                                    failed.incrementAndGet();
+                                }
+                            })
+                            .onErrorResume(e -> {
+                                failed.incrementAndGet();
+                                return Mono.empty();
+                            });
+                }, concurrency)
+                .blockLast();
+
+        sampler.shutdownNow();
+        Result result = new Result();
+        result.peakHeapMb = (peak.get() - baseline) / 1024.0 / 1024.0;
+        result.failed = failed.get();
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        if (!sorted.isEmpty()) {
+            result.p50Millis = sorted.get(sorted.size() / 2) / 1_000_000.0;
+            result.p99Millis = sorted.get(Math.min(sorted.size() - 1, (int) (sorted.size() * 0.99))) / 1_000_000.0;
+        }
+        return result;
+    }
+
+    private static void print(PrintStream out, String label, int size, Result result) {
+        out.printf("%-10s body: %8dKB  p50: %9.2fms  p99: %9.2fms  heap peak (over baseline): %8.1fMB  failed: %d%n",
+                label, size / 1024, result.p50Millis, result.p99Millis, result.peakHeapMb, result.failed);
+    }
+
+    /**
+     * 追加一行 Markdown 表格，文件不存在时先写表头
+     */
+    private static void append(Path file, String label, int size, int concurrency, Result result) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        if (!Files.exists(file)) {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            sb.append("| label | body | concurrency | p50 (ms) | p99 (ms) | heap peak over baseline (MB) | failed |\n");
+            sb.append("|---|---|---|---|---|---|---|\n");
+        }
+        sb.append(String.format("| %s | %dKB | %d | %.2f | %.2f | %.1f | %d |%n",
+                label, size / 1024, concurrency, result.p50Millis, result.p99Millis, result.peakHeapMb, result.failed));
+        Files.write(file, sb.toString().getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private static class Result {
+        double p50Millis;
+        double p99Millis;
+        double peakHeapMb;
+        long failed;
+    }
+}
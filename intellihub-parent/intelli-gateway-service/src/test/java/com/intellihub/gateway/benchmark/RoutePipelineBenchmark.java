@@ -0,0 +1,331 @@
+package com.intellihub.gateway.benchmark;
+
+import com.intellihub.dubbo.ApiRouteDTO;
+import com.intellihub.gateway.service.route.RoutePipeline;
+import com.intellihub.gateway.service.route.RouteStage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 路由处理管道基准测试（单个开放API请求经过认证、路由限流、Body缓存、路由转发四个环节的调度开销）
+ * <p>
+ * 1. globalFilters：原有方式，四个全局过滤器逐个调用，每个过滤器读取exchange属性判断是否生效，
+ *    过滤器链每前进一步新建一个链对象（与 DefaultGatewayFilterChain 相同）
+ * 2. compiledPipeline：{@link RoutePipeline}，加载路由时筛掉不需要的阶段，请求时只调用剩余阶段
+ * 各阶段只保留原过滤器的生效判断，不含认证、限流等实际处理，结果只反映调度本身的调用次数与分配；
+ * 每轮结束时打印每个请求的阶段调用次数与实际生效次数，分配量见 GCProfiler 的 gc.alloc.rate.norm。
+ * profile：
+ * - minimal：免认证、HTTP后端、GET，未启用路由限流（gateway.rate-limit.enabled=false）
+ * - typical：签名认证、HTTP后端、GET，启用路由限流
+ * - dubboBody：签名认证、Dubbo后端读取请求体、POST，启用路由限流
+ * </p>
+ * 运行方式：
+ * <pre>
+ * mvn -pl intelli-gateway-service test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.intellihub.gateway.benchmark.RoutePipelineBenchmark
+ * </pre>
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class RoutePipelineBenchmark {
+
+    private static final String ATTR_API_ROUTE = "gateway.api.route";
+    private static final String ATTR_IS_OPEN_API = "gateway.api.isOpenApi";
+    private static final GatewayFilterChain END = exchange -> Mono.empty();
+
+    @Param({"minimal", "typical", "dubboBody"})
+    public String profile;
+
+    private ServerWebExchange exchange;
+    private List<GlobalFilter> globalFilters;
+    private RoutePipeline pipeline;
+    private final LongAdder invocations = new LongAdder();
+    private final LongAdder applied = new LongAdder();
+    private final LongAdder requests = new LongAdder();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        ApiRouteDTO route = new ApiRouteDTO();
+        route.setApiId("1874563219874001");
+        route.setPath("/open/v1/orders/{id}");
+        boolean rateLimitEnabled;
+        HttpMethod method;
+        switch (profile) {
+            case "minimal":
+                route.setAuthType("none");
+                route.setBackendType("http");
+                route.setMethod("GET");
+                rateLimitEnabled = false;
+                method = HttpMethod.GET;
+                break;
+            case "typical":
+                route.setAuthType("signature");
+                route.setBackendType("http");
+                route.setMethod("GET");
+                rateLimitEnabled = true;
+                method = HttpMethod.GET;
+                break;
+            default:
+                route.setAuthType("signature");
+                route.setBackendType("dubbo");
+                route.setMethod("POST");
+                rateLimitEnabled = true;
+                method = HttpMethod.POST;
+                break;
+        }
+        boolean readsBody = "dubbo".equals(route.getBackendType());
+
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put(ATTR_API_ROUTE, route);
+        attributes.put(ATTR_IS_OPEN_API, true);
+        exchange = exchange(attributes, method);
+
+        List<BenchmarkStage> stages = Arrays.asList(
+                new AuthStage(), new RouteRateLimitStage(rateLimitEnabled),
+                new CacheBodyStage(readsBody), new RouteForwardStage());
+        globalFilters = Collections.unmodifiableList(stages);
+        pipeline = RoutePipeline.compile(route, Collections.unmodifiableList(stages));
+    }
+
+    @Setup(Level.Iteration)
+    public void resetCounters() {
+        invocations.reset();
+        applied.reset();
+        requests.reset();
+    }
+
+    @TearDown(Level.Iteration)
+    public void printInvocations() {
+        long count = requests.sum();
+        if (count > 0) {
+            System.out.printf("  [%s] stage invocations/request: %.2f, effective: %.2f%n", profile,
+                    (double) invocations.sum() / count, (double) applied.sum() / count);
+        }
+    }
+
+    @Benchmark
+    public Object globalFilters() {
+        requests.increment();
+        return new FilterChain(globalFilters, 0).filter(exchange).block();
+    }
+
+    @Benchmark
+    public Object compiledPipeline() {
+        requests.increment();
+        return pipeline.execute(exchange, END).block();
+    }
+
+    /**
+     * 只实现读取属性、请求方法所需的方法
+     */
+    private static ServerWebExchange exchange(Map<String, Object> attributes, HttpMethod method) {
+        ServerHttpRequest request = (ServerHttpRequest) Proxy.newProxyInstance(
+                RoutePipelineBenchmark.class.getClassLoader(), new Class<?>[]{ServerHttpRequest.class},
+                (proxy, m, args) -> {
+                    if ("getMethod".equals(m.getName())) {
+                        return method;
+                    }
+                    if ("getMethodValue".equals(m.getName())) {
+                        return method.name();
+                    }
+                    throw new UnsupportedOperationException(m.getName());
+                });
+        return (ServerWebExchange) Proxy.newProxyInstance(
+                RoutePipelineBenchmark.class.getClassLoader(), new Class<?>[]{ServerWebExchange.class},
+                (proxy, m, args) -> {
+                    switch (m.getName()) {
+                        case "getAttributes":
+                            return attributes;
+                        case "getAttribute":
+                            return attributes.get((String) args[0]);
+                        case "getRequiredAttribute":
+                            return attributes.get((String) args[0]);
+                        case "getRequest":
+                            return request;
+                        default:
+                            throw new UnsupportedOperationException(m.getName());
+                    }
+                });
+    }
+
+    /**
+     * 与 DefaultGatewayFilterChain 相同：每前进一步新建一个链对象
+     */
+    private static final class FilterChain implements GatewayFilterChain {
+
+        private final List<GlobalFilter> filters;
+        private final int index;
+
+        private FilterChain(List<GlobalFilter> filters, int index) {
+            this.filters = filters;
+            this.index = index;
+        }
+
+        @Override
+        public Mono<Void> filter(ServerWebExchange exchange) {
+            if (index >= filters.size()) {
+                return Mono.empty();
+            }
+            return filters.get(index).filter(exchange, new FilterChain(filters, index + 1));
+        }
+    }
+
+    /**
+     * 阶段桩：既可作为全局过滤器（请求时判断是否生效），也可作为管道阶段（加载路由时判断）
+     */
+    private abstract class BenchmarkStage implements GlobalFilter, RouteStage {
+
+        private final int order;
+
+        BenchmarkStage(int order) {
+            this.order = order;
+        }
+
+        @Override
+        public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+            invocations.increment();
+            ApiRouteDTO route = exchange.getAttribute(ATTR_API_ROUTE);
+            if (appliesTo(exchange, route)) {
+                applied.increment();
+            }
+            return chain.filter(exchange);
+        }
+
+        /**
+         * 原全局过滤器的请求时判断
+         */
+        abstract boolean appliesTo(ServerWebExchange exchange, ApiRouteDTO route);
+
+        @Override
+        public int getOrder() {
+            return order;
+        }
+    }
+
+    private final class AuthStage extends BenchmarkStage {
+
+        AuthStage() {
+            super(1100);
+        }
+
+        @Override
+        public boolean isRequired(ApiRouteDTO route) {
+            return route == null || !"none".equalsIgnoreCase(route.getAuthType());
+        }
+
+        @Override
+        boolean appliesTo(ServerWebExchange exchange, ApiRouteDTO route) {
+            return isRequired(route);
+        }
+    }
+
+    private final class RouteRateLimitStage extends BenchmarkStage {
+
+        private final boolean enabled;
+
+        RouteRateLimitStage(boolean enabled) {
+            super(1150);
+            this.enabled = enabled;
+        }
+
+        @Override
+        public boolean isRequired(ApiRouteDTO route) {
+            return enabled && route != null;
+        }
+
+        @Override
+        boolean appliesTo(ServerWebExchange exchange, ApiRouteDTO route) {
+            return isRequired(route);
+        }
+    }
+
+    private final class CacheBodyStage extends BenchmarkStage {
+
+        private final boolean readsBody;
+
+        CacheBodyStage(boolean readsBody) {
+            super(1180);
+            this.readsBody = readsBody;
+        }
+
+        @Override
+        public boolean isRequired(ApiRouteDTO route) {
+            return route != null && "dubbo".equalsIgnoreCase(route.getBackendType()) && readsBody
+                    && !"GET".equalsIgnoreCase(route.getMethod());
+        }
+
+        @Override
+        boolean appliesTo(ServerWebExchange exchange, ApiRouteDTO route) {
+            HttpMethod method = exchange.getRequest().getMethod();
+            if (method != HttpMethod.POST && method != HttpMethod.PUT && method != HttpMethod.PATCH) {
+                return false;
+            }
+            return isRequired(route);
+        }
+    }
+
+    private final class RouteForwardStage extends BenchmarkStage {
+
+        RouteForwardStage() {
+            super(1200);
+        }
+
+        @Override
+        public boolean isRequired(ApiRouteDTO route) {
+            return true;
+        }
+
+        @Override
+        boolean appliesTo(ServerWebExchange exchange, ApiRouteDTO route) {
+            return Boolean.TRUE.equals(exchange.getAttribute(ATTR_IS_OPEN_API)) && route != null;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(RoutePipelineBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
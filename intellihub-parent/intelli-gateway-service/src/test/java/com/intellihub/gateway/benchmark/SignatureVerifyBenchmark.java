@@ -0,0 +1,114 @@
+package com.intellihub.gateway.benchmark;
+
+import com.intellihub.gateway.util.HmacSignatureVerifier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 开放API签名校验基准测试
+ * <p>
+ * 对比原有逐请求 Mac.getInstance/init + Base64编码 + String.equals 的实现与 {@link HmacSignatureVerifier}，
+ * 分别测试签名正确与签名错误两种情况，4线程并发以覆盖Mac池的竞争。
+ * 运行时启用GC profiler，结果中的 gc.alloc.rate.norm 即每次校验分配的字节数。
+ * </p>
+ * 运行方式：
+ * <pre>
+ * mvn -pl intelli-gateway-service test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.intellihub.gateway.benchmark.SignatureVerifyBenchmark
+ * </pre>
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SignatureVerifyBenchmark {
+
+    private static final String HMAC_SHA256 = "HmacSHA256";
+
+    private final String appSecret = "sk_3f9a1c0d7e5b4a2f8c6d1e0b9a7f5c3d";
+    private final String method = "GET";
+    private final String path = "/open/v1/orders/20240601000123/items";
+    private final String timestamp = "1717200000000";
+    private final String nonce = "8d3c1f2e-5b4a-4e6f-9a0b-1c2d3e4f5a6b";
+
+    private String validSignature;
+    private String invalidSignature;
+    private HmacSignatureVerifier verifier;
+
+    @Setup
+    public void setup() throws Exception {
+        validSignature = legacySign(method.toUpperCase() + path + timestamp + nonce, appSecret);
+        char[] chars = validSignature.toCharArray();
+        chars[10] = chars[10] == 'A' ? 'B' : 'A';
+        invalidSignature = new String(chars);
+        verifier = HmacSignatureVerifier.forSecret(appSecret);
+    }
+
+    @Benchmark
+    public boolean legacyValid() throws Exception {
+        return legacyVerify(validSignature);
+    }
+
+    @Benchmark
+    public boolean legacyInvalid() throws Exception {
+        return legacyVerify(invalidSignature);
+    }
+
+    @Benchmark
+    public boolean verifierValid() {
+        return verifier.verify(validSignature, method, path, timestamp, nonce);
+    }
+
+    @Benchmark
+    public boolean verifierInvalid() {
+        return verifier.verify(invalidSignature, method, path, timestamp, nonce);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(SignatureVerifyBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+
+    /**
+     * 原有实现（SignatureUtil.verifySignature，不含调试输出）
+     */
+    private boolean legacyVerify(String signature) throws Exception {
+        String signData = method.toUpperCase() + path + timestamp + nonce;
+        return legacySign(signData, appSecret).equals(signature);
+    }
+
+    private static String legacySign(String data, String secret) throws Exception {
+        Mac mac = Mac.getInstance(HMAC_SHA256);
+        mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_SHA256));
+        return Base64.getEncoder().encodeToString(mac.doFinal(data.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,232 @@
+package com.intellihub.gateway.benchmark;
+
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.ScriptOutputType;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.async.RedisAsyncCommands;
+import io.lettuce.core.api.sync.RedisCommands;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 滑动窗口限流Redis压测
+ * <p>
+ * 以固定速率（默认10k rps）对同一个热点Key分别执行两种滑动窗口实现，对比Redis侧开销：
+ * 1. ZSET：一次 EVALSHA 完成 ZREMRANGEBYSCORE + ZCARD 检查与 ZADD + EXPIRE 计数（SLIDING_WINDOW）
+ * 2. 计数器：一次 EVALSHA 完成检查与计数（SLIDING_WINDOW_COUNTER）
+ * 输出实际完成的检查次数/秒、Redis处理的命令数/秒、p50/p99 延迟以及限流Key占用的内存（MEMORY USAGE），
+ * 并把结果追加到 -Dresult 指定的文件（默认 target/sliding-window-redis-load-test.md）。
+ * 脚本内容与 RateLimitService（tryAcquire 使用的脚本）保持一致。
+ * </p>
+ * 运行方式（需要可访问的Redis，会写入 rate_limit:loadtest:* 测试Key）：
+ * <pre>
+ * mvn -pl intelli-gateway-service test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.intellihub.gateway.benchmark.SlidingWindowRedisLoadTest \
+ *     -Dredis.uri=redis://localhost:6379 -Drps=10000 -Dseconds=30 -Dlimit=1000000 -Dwindow=60
+ * </pre>
+ * limit 默认足够大，保证每次检查都放行，ZSET在窗口内保存全部请求。
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+public class SlidingWindowRedisLoadTest {
+
+    private static final String ZSET_SCRIPT =
+            "local limit = tonumber(ARGV[3])\n" +
+            "redis.call('ZREMRANGEBYSCORE', KEYS[1], 0, ARGV[1])\n" +
+            "local count = redis.call('ZCARD', KEYS[1])\n" +
+            "if count >= limit then\n" +
+            "    return -1\n" +
+            "end\n" +
+            "redis.call('ZADD', KEYS[1], ARGV[2], ARGV[4])\n" +
+            "redis.call('EXPIRE', KEYS[1], ARGV[5])\n" +
+            "return limit - count - 1";
+
+    private static final String COUNTER_SCRIPT =
+            "local limit = tonumber(ARGV[1])\n" +
+            "local weight = tonumber(ARGV[2])\n" +
+            "local previous = tonumber(redis.call('GET', KEYS[2]) or '0')\n" +
+            "local current = tonumber(redis.call('GET', KEYS[1]) or '0')\n" +
+            "if previous * weight + current >= limit then\n" +
+            "    return -1\n" +
+            "end\n" +
+            "current = redis.call('INCR', KEYS[1])\n" +
+            "if current == 1 then\n" +
+            "    redis.call('EXPIRE', KEYS[1], ARGV[3])\n" +
+            "end\n" +
+            "return math.max(0, math.floor(limit - previous * weight - current))";
+
+    private static final String KEY_PREFIX = "rate_limit:loadtest:";
+
+    public static void main(String[] args) throws Exception {
+        String uri = System.getProperty("redis.uri", "redis://localhost:6379");
+        int rps = Integer.getInteger("rps", 10000);
+        int seconds = Integer.getInteger("seconds", 30);
+        int limit = Integer.getInteger("limit", 1000000);
+        int window = Integer.getInteger("window", 60);
+        Path resultFile = Paths.get(System.getProperty("result", "target/sliding-window-redis-load-test.md"));
+
+        RedisClient client = RedisClient.create(uri);
+        try (StatefulRedisConnection<String, String> connection = client.connect()) {
+            RedisCommands<String, String> sync = connection.sync();
+            RedisAsyncCommands<String, String> async = connection.async();
+            String zsetSha = sync.scriptLoad(ZSET_SCRIPT);
+            String counterSha = sync.scriptLoad(COUNTER_SCRIPT);
+
+            System.out.printf("Redis: %s, rps: %d, seconds: %d, limit: %d, window: %ds%n", uri, rps, seconds, limit, window);
+
+            String zsetKey = KEY_PREFIX + "zset:sliding";
+            cleanup(sync);
+            Result zset = run(sync, rps, seconds, () -> {
+                long now = System.currentTimeMillis();
+                return async.<Long>evalsha(zsetSha, ScriptOutputType.INTEGER, new String[]{zsetKey},
+                                String.valueOf(now - window * 1000L), String.valueOf(now), String.valueOf(limit),
+                                now + ":" + System.nanoTime(), String.valueOf(window + 1))
+                        .toCompletableFuture().thenApply(remaining -> null);
+            });
+            zset.memoryBytes = memoryUsage(sync, zsetKey);
+            report(resultFile, "ZSET (SLIDING_WINDOW)", rps, seconds, zset);
+
+            String counterKey = KEY_PREFIX + "counter";
+            cleanup(sync);
+            Result counter = run(sync, rps, seconds, () -> {
+                long now = System.currentTimeMillis();
+                long windowMillis = window * 1000L;
+                long windowIndex = now / windowMillis;
+                double weight = 1.0 - (double) (now - windowIndex * windowMillis) / windowMillis;
+                return async.<Long>evalsha(counterSha, ScriptOutputType.INTEGER,
+                                new String[]{counterKey + ":swc:" + windowIndex, counterKey + ":swc:" + (windowIndex - 1)},
+                                String.valueOf(limit), String.valueOf(weight), String.valueOf(window * 2))
+                        .toCompletableFuture().thenApply(remaining -> null);
+            });
+            for (String key : sync.keys(counterKey + ":swc:*")) {
+                counter.memoryBytes += memoryUsage(sync, key);
+            }
+            report(resultFile, "Counter (SLIDING_WINDOW_COUNTER)", rps, seconds, counter);
+
+            cleanup(sync);
+        } finally {
+            client.shutdown();
+        }
+    }
+
+    /**
+     * 以固定速率发起检查，每毫秒发起 rps/1000 次
+     */
+    private static Result run(RedisCommands<String, String> sync, int rps, int seconds,
+                              CheckCall call) throws InterruptedException {
+        long commandsBefore = totalCommands(sync);
+        AtomicLong completed = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        List<Long> latencies = new ArrayList<>();
+        int perTick = Math.max(1, rps / 1000);
+
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        long start = System.nanoTime();
+        scheduler.scheduleAtFixedRate(() -> {
+            for (int i = 0; i < perTick; i++) {
+                long begin = System.nanoTime();
+                call.check().whenComplete((ignored, error) -> {
+                    if (error != null) {
+                        failed.incrementAndGet();
+                        return;
+                    }
+                    completed.incrementAndGet();
+                    synchronized (latencies) {
+                        latencies.add(System.nanoTime() - begin);
+                    }
+                });
+            }
+        }, 0, 1, TimeUnit.MILLISECONDS);
+
+        TimeUnit.SECONDS.sleep(seconds);
+        scheduler.shutdown();
+        scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        // 等待在途请求完成
+        TimeUnit.MILLISECONDS.sleep(500);
+        double elapsed = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        Result result = new Result();
+        result.checksPerSecond = completed.get() / elapsed;
+        result.failed = failed.get();
+        result.redisCommandsPerSecond = (totalCommands(sync) - commandsBefore) / elapsed;
+        synchronized (latencies) {
+            latencies.sort(Long::compare);
+            if (!latencies.isEmpty()) {
+                result.p50Micros = latencies.get(latencies.size() / 2) / 1000.0;
+                result.p99Micros = latencies.get((int) (latencies.size() * 0.99)) / 1000.0;
+            }
+        }
+        return result;
+    }
+
+    private static long totalCommands(RedisCommands<String, String> sync) {
+        for (String line : sync.info("stats").split("\r?\n")) {
+            if (line.startsWith("total_commands_processed:")) {
+                return Long.parseLong(line.substring(line.indexOf(':') + 1).trim());
+            }
+        }
+        return 0L;
+    }
+
+    private static long memoryUsage(RedisCommands<String, String> sync, String key) {
+        Long bytes = sync.memoryUsage(key);
+        return bytes != null ? bytes : 0L;
+    }
+
+    private static void cleanup(RedisCommands<String, String> sync) {
+        List<String> keys = sync.keys(KEY_PREFIX + "*");
+        if (!keys.isEmpty()) {
+            sync.del(keys.toArray(new String[0]));
+        }
+    }
+
+    /**
+     * 输出结果，并追加一行 Markdown 表格到结果文件（文件不存在时先写表头）
+     */
+    private static void report(Path file, String name, int rps, int seconds, Result result) throws IOException {
+        System.out.printf("%-34s checks/s: %10.1f  redis cmds/s: %10.1f  p50: %8.1fus  p99: %8.1fus  key memory: %10d bytes  failed: %d%n",
+                name, result.checksPerSecond, result.redisCommandsPerSecond, result.p50Micros, result.p99Micros,
+                result.memoryBytes, result.failed);
+
+        StringBuilder sb = new StringBuilder();
+        if (!Files.exists(file)) {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            sb.append("| algorithm | target rps | seconds | checks/s | redis cmds/s | p50 (us) | p99 (us) | key memory (bytes) | failed |\n");
+            sb.append("|---|---|---|---|---|---|---|---|---|\n");
+        }
+        sb.append(String.format("| %s | %d | %d | %.1f | %.1f | %.1f | %.1f | %d | %d |%n", name, rps, seconds,
+                result.checksPerSecond, result.redisCommandsPerSecond, result.p50Micros, result.p99Micros,
+                result.memoryBytes, result.failed));
+        Files.write(file, sb.toString().getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    @FunctionalInterface
+    private interface CheckCall {
+        CompletableFuture<?> check();
+    }
+
+    private static class Result {
+        double checksPerSecond;
+        double redisCommandsPerSecond;
+        double p50Micros;
+        double p99Micros;
+        long memoryBytes;
+        long failed;
+    }
+}
@@ -0,0 +1,121 @@
+package com.intellihub.gateway.service.resilience;
+
+import com.intellihub.gateway.config.BackendResilienceConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * AdaptiveConcurrencyLimiter 测试
+ * <p>
+ * 每个采样窗口占满当前上限并注入固定延迟，窗口结束后的一次采样触发上限调整
+ * </p>
+ *
+ * @author intellihub
+ */
+public class AdaptiveConcurrencyLimiterTest {
+
+    private static final long SAMPLE_WINDOW_MS = 5;
+    private static final int MIN_SAMPLES = 5;
+
+    private BackendResilienceConfig.Concurrency config;
+
+    @BeforeEach
+    public void setUp() {
+        config = new BackendResilienceConfig.Concurrency();
+        config.setInitialLimit(50);
+        config.setMinLimit(5);
+        config.setMaxLimit(200);
+        config.setSampleWindowMs(SAMPLE_WINDOW_MS);
+        config.setMinSamples(MIN_SAMPLES);
+        config.setLongWindow(10);
+    }
+
+    @Test
+    public void testRejectsAtLimit() {
+        config.setMinLimit(1);
+        config.setInitialLimit(3);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(config);
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        assertFalse(limiter.tryAcquire());
+        assertEquals(3, limiter.getInflight());
+
+        limiter.release();
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    public void testShrinksUnderLatencyAndGrowsBack() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(config);
+
+        runWindows(limiter, 10, 2);
+        int healthy = limiter.getLimit();
+        assertTrue(healthy >= 50, "延迟平稳时上限不应收缩: " + healthy);
+
+        runWindows(limiter, 10, 20);
+        int slow = limiter.getLimit();
+        assertTrue(slow < healthy, "延迟上升后上限应收缩: healthy=" + healthy + ", slow=" + slow);
+
+        runWindows(limiter, 20, 2);
+        int recovered = limiter.getLimit();
+        assertTrue(recovered > slow, "延迟恢复后上限应回升: slow=" + slow + ", recovered=" + recovered);
+    }
+
+    @Test
+    public void testBacksOffOnDrop() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(config);
+        int before = limiter.getLimit();
+
+        Thread.sleep(SAMPLE_WINDOW_MS + 1);
+        limiter.onSample(TimeUnit.MILLISECONDS.toNanos(2), true);
+
+        assertTrue(limiter.getLimit() <= (int) (before * config.getBackoffRatio()),
+                "失败时至少按 backoffRatio 收缩: before=" + before + ", after=" + limiter.getLimit());
+    }
+
+    @Test
+    public void testUnsaturatedWindowKeepsLimit() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(config);
+        int before = limiter.getLimit();
+
+        // 进行中的调用不足上限一半，延迟上升也不调整
+        for (int window = 0; window < 5; window++) {
+            for (int i = 0; i < MIN_SAMPLES; i++) {
+                limiter.onSample(TimeUnit.MILLISECONDS.toNanos(window == 0 ? 2 : 20), false);
+            }
+            Thread.sleep(SAMPLE_WINDOW_MS + 1);
+            limiter.onSample(TimeUnit.MILLISECONDS.toNanos(window == 0 ? 2 : 20), false);
+        }
+        assertEquals(before, limiter.getLimit());
+    }
+
+    /**
+     * 运行若干采样窗口：占满当前上限，记录 MIN_SAMPLES 个延迟样本，窗口到期后再记录一个样本触发调整
+     */
+    private static void runWindows(AdaptiveConcurrencyLimiter limiter, int windows, long rttMillis)
+            throws InterruptedException {
+        long rttNanos = TimeUnit.MILLISECONDS.toNanos(rttMillis);
+        for (int window = 0; window < windows; window++) {
+            int acquired = 0;
+            while (limiter.tryAcquire()) {
+                acquired++;
+            }
+            for (int i = 0; i < MIN_SAMPLES; i++) {
+                limiter.onSample(rttNanos, false);
+            }
+            Thread.sleep(SAMPLE_WINDOW_MS + 1);
+            limiter.onSample(rttNanos, false);
+            for (int i = 0; i < acquired; i++) {
+                limiter.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.intellihub.gateway.service.resilience;
+
+import com.intellihub.gateway.config.BackendResilienceConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * BackendCircuitBreaker 测试
+ *
+ * @author intellihub
+ */
+public class BackendCircuitBreakerTest {
+
+    private static final long OPEN_DURATION_MS = 100;
+
+    private final List<BackendCircuitBreaker.State> transitions = new ArrayList<>();
+    private BackendResilienceConfig.CircuitBreaker config;
+
+    @BeforeEach
+    public void setUp() {
+        config = new BackendResilienceConfig.CircuitBreaker();
+        config.setMinimumCalls(10);
+        config.setWindowSeconds(10);
+        config.setFailureRateThreshold(50);
+        config.setSlowCallRateThreshold(80);
+        config.setSlowCallDurationMs(100);
+        config.setOpenDurationMs(OPEN_DURATION_MS);
+        config.setHalfOpenPermittedCalls(3);
+    }
+
+    @Test
+    public void testOpensOnFailureRate() {
+        BackendCircuitBreaker breaker = newBreaker();
+        record(breaker, 6, false, 1);
+        record(breaker, 5, true, 1);
+        // 11次调用5次失败（45%）
+        assertEquals(BackendCircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(BackendCircuitBreaker.Permission.PERMITTED, breaker.tryAcquire());
+
+        // 12次调用6次失败（50%）
+        record(breaker, 1, true, 1);
+        assertEquals(BackendCircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(BackendCircuitBreaker.Permission.REJECTED, breaker.tryAcquire());
+        assertEquals(Arrays.asList(BackendCircuitBreaker.State.OPEN), transitions);
+    }
+
+    @Test
+    public void testStaysClosedBelowMinimumCalls() {
+        BackendCircuitBreaker breaker = newBreaker();
+        record(breaker, 9, true, 1);
+
+        assertEquals(BackendCircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(BackendCircuitBreaker.Permission.PERMITTED, breaker.tryAcquire());
+    }
+
+    @Test
+    public void testOpensOnSlowCallRate() {
+        BackendCircuitBreaker breaker = newBreaker();
+        record(breaker, 2, false, 1);
+        record(breaker, 8, false, 200);
+
+        assertEquals(BackendCircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    public void testHalfOpenProbesClose() throws InterruptedException {
+        BackendCircuitBreaker breaker = openBreaker();
+        Thread.sleep(OPEN_DURATION_MS + 20);
+
+        // 只放行 halfOpenPermittedCalls 个探测调用
+        for (int i = 0; i < 3; i++) {
+            assertEquals(BackendCircuitBreaker.Permission.PROBE, breaker.tryAcquire());
+        }
+        assertEquals(BackendCircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertEquals(BackendCircuitBreaker.Permission.REJECTED, breaker.tryAcquire());
+
+        for (int i = 0; i < 3; i++) {
+            breaker.onResult(BackendCircuitBreaker.Permission.PROBE, false, 1);
+        }
+        assertEquals(BackendCircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(BackendCircuitBreaker.Permission.PERMITTED, breaker.tryAcquire());
+        assertEquals(Arrays.asList(BackendCircuitBreaker.State.OPEN, BackendCircuitBreaker.State.HALF_OPEN,
+                BackendCircuitBreaker.State.CLOSED), transitions);
+
+        // 关闭后窗口已清空，少量失败不会立即重新熔断
+        record(breaker, 5, true, 1);
+        assertEquals(BackendCircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void testFailedProbesReopen() throws InterruptedException {
+        BackendCircuitBreaker breaker = openBreaker();
+        Thread.sleep(OPEN_DURATION_MS + 20);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(BackendCircuitBreaker.Permission.PROBE, breaker.tryAcquire());
+        }
+        breaker.onResult(BackendCircuitBreaker.Permission.PROBE, false, 1);
+        breaker.onResult(BackendCircuitBreaker.Permission.PROBE, true, 1);
+        breaker.onResult(BackendCircuitBreaker.Permission.PROBE, true, 1);
+
+        assertEquals(BackendCircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(BackendCircuitBreaker.Permission.REJECTED, breaker.tryAcquire());
+    }
+
+    @Test
+    public void testIgnoredProbeReturnsPermit() throws InterruptedException {
+        BackendCircuitBreaker breaker = openBreaker();
+        Thread.sleep(OPEN_DURATION_MS + 20);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(BackendCircuitBreaker.Permission.PROBE, breaker.tryAcquire());
+        }
+        assertEquals(BackendCircuitBreaker.Permission.REJECTED, breaker.tryAcquire());
+
+        breaker.onIgnored(BackendCircuitBreaker.Permission.PROBE);
+        assertEquals(BackendCircuitBreaker.Permission.PROBE, breaker.tryAcquire());
+    }
+
+    private BackendCircuitBreaker newBreaker() {
+        return new BackendCircuitBreaker(config, transitions::add);
+    }
+
+    private BackendCircuitBreaker openBreaker() {
+        BackendCircuitBreaker breaker = newBreaker();
+        record(breaker, 10, true, 1);
+        assertEquals(BackendCircuitBreaker.State.OPEN, breaker.getState());
+        return breaker;
+    }
+
+    private static void record(BackendCircuitBreaker breaker, int calls, boolean failed, long latencyMillis) {
+        for (int i = 0; i < calls; i++) {
+            breaker.onResult(BackendCircuitBreaker.Permission.PERMITTED, failed, latencyMillis);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.intellihub.gateway.util;
+
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * HmacSignatureVerifier 测试
+ *
+ * @author intellihub
+ */
+public class HmacSignatureVerifierTest {
+
+    private static final String SECRET = "test-app-secret";
+    private static final String PATH = "/open/user/1";
+    private static final String TIMESTAMP = "1700000000";
+    private static final String NONCE = "a1b2c3d4";
+
+    @Test
+    public void testValidSignature() throws Exception {
+        HmacSignatureVerifier verifier = HmacSignatureVerifier.forSecret(SECRET);
+        String signature = sign(SECRET.getBytes(StandardCharsets.UTF_8), "GET" + PATH + TIMESTAMP + NONCE);
+
+        assertTrue(verifier.verify(signature, "GET", PATH, TIMESTAMP, NONCE));
+        // 方法名按大写参与签名
+        assertTrue(verifier.verify(signature, "get", PATH, TIMESTAMP, NONCE));
+        // 重复校验（复用池中的Mac）结果一致
+        assertTrue(verifier.verify(signature, "GET", PATH, TIMESTAMP, NONCE));
+    }
+
+    @Test
+    public void testTamperedRequest() throws Exception {
+        HmacSignatureVerifier verifier = HmacSignatureVerifier.forSecret(SECRET);
+        String signature = sign(SECRET.getBytes(StandardCharsets.UTF_8), "GET" + PATH + TIMESTAMP + NONCE);
+
+        assertFalse(verifier.verify(signature, "POST", PATH, TIMESTAMP, NONCE));
+        assertFalse(verifier.verify(signature, "GET", "/open/user/2", TIMESTAMP, NONCE));
+        assertFalse(verifier.verify(signature, "GET", PATH, "1700000001", NONCE));
+        assertFalse(HmacSignatureVerifier.forSecret("other-secret").verify(signature, "GET", PATH, TIMESTAMP, NONCE));
+    }
+
+    @Test
+    public void testMalformedSignature() {
+        HmacSignatureVerifier verifier = HmacSignatureVerifier.forSecret(SECRET);
+
+        assertFalse(verifier.verify(null, "GET", PATH, TIMESTAMP, NONCE));
+        assertFalse(verifier.verify("", "GET", PATH, TIMESTAMP, NONCE));
+        assertFalse(verifier.verify("not-base64", "GET", PATH, TIMESTAMP, NONCE));
+        assertFalse(verifier.verify("!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!=", "GET", PATH, TIMESTAMP, NONCE));
+    }
+
+    /**
+     * 未配置AppSecret时，按空密钥（等价于单字节0密钥）计算的签名不能通过
+     */
+    @Test
+    public void testEmptySecretRejectsAll() throws Exception {
+        String emptyKeySignature = sign(new byte[1], "GET" + PATH + TIMESTAMP + NONCE);
+
+        assertFalse(HmacSignatureVerifier.forSecret(null).verify(emptyKeySignature, "GET", PATH, TIMESTAMP, NONCE));
+        assertFalse(HmacSignatureVerifier.forSecret("").verify(emptyKeySignature, "GET", PATH, TIMESTAMP, NONCE));
+    }
+
+    private static String sign(byte[] key, String data) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(key, "HmacSHA256"));
+        return Base64.getEncoder().encodeToString(mac.doFinal(data.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,39 @@
+package com.intellihub.governance.config;
+
+import com.intellihub.kafka.calllog.CallLogRecord;
+import com.intellihub.kafka.calllog.CallLogRecordDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+
+/**
+ * 调用日志Kafka消费配置
+ * <p>
+ * 调用日志消息使用二进制编码（兼容旧版JSON），单独提供监听容器工厂；
+ * 消费者工厂不注册为Bean，不影响Spring Boot默认的消费配置。
+ * 无法解析的消息由 {@link ErrorHandlingDeserializer} 转为null值交给监听方法跳过，不会阻塞分区。
+ * </p>
+ *
+ * @author intellihub
+ * @since 1.0.0
+ */
+@Configuration
+public class CallLogKafkaConfig {
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, CallLogRecord> callLogListenerContainerFactory(
+            KafkaProperties kafkaProperties) {
+        DefaultKafkaConsumerFactory<String, CallLogRecord> consumerFactory = new DefaultKafkaConsumerFactory<>(
+                kafkaProperties.buildConsumerProperties(),
+                new StringDeserializer(),
+                new ErrorHandlingDeserializer<>(new CallLogRecordDeserializer()));
+        ConcurrentKafkaListenerContainerFactory<String, CallLogRecord> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        return factory;
+    }
+}